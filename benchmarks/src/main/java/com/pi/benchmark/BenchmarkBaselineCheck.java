@@ -0,0 +1,127 @@
+package com.pi.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class compares a JMH result file with a stored baseline, both in the CSV format of <tt>-rf csv</tt>,
+ * and exits with status 1 if any benchmark regressed by more than the threshold.
+ * 
+ * <p>A benchmark is identified by its name and its parameters. A higher score is better for the throughput
+ * mode (<tt>thrpt</tt>), a lower score is better for the other modes. The secondary results of profilers,
+ * e.g. <tt>·gc.alloc.rate</tt>, are not compared. Benchmarks missing from the baseline are reported but do not fail
+ * 
+ * <p>Usage: <tt>BenchmarkBaselineCheck &lt;result.csv&gt; &lt;baseline.csv&gt; &lt;threshold percent&gt;</tt>
+ * 
+ * @author Truong Nguyen
+ * */
+public class BenchmarkBaselineCheck {
+
+	/**
+	 * Reads a JMH CSV file and returns the primary scores by benchmark key, as {score, isThroughput}
+	 * 
+	 * @param file the path of the CSV file
+	 * @return the scores by benchmark key
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read
+	 * */
+	static Map< String, double[] > readScores( String file ) throws IOException {
+		Map< String, double[] > scores = new LinkedHashMap<>();
+		List< String > lines = Files.readAllLines( Paths.get( file ), StandardCharsets.UTF_8 );
+		List< String > header = parseLine( lines.get( 0 ) );
+
+		int benchmarkIndex = header.indexOf( "Benchmark" );
+		int modeIndex = header.indexOf( "Mode" );
+		int scoreIndex = header.indexOf( "Score" );
+
+		for ( String line : lines.subList( 1, lines.size() ) ) {
+			List< String > fields = parseLine( line );
+			String benchmark = fields.get( benchmarkIndex );
+
+			if ( benchmark.contains( ":" ) ) {
+				continue;
+			}
+
+			StringBuilder key = new StringBuilder( benchmark );
+			for ( int i = 0; i < header.size(); i++ ) {
+				if ( header.get( i ).startsWith( "Param: " ) ) {
+					key.append( ' ' ).append( header.get( i ).substring( 7 ) ).append( '=' ).append( fields.get( i ) );
+				}
+			}
+			scores.put( key.toString(), new double[] { Double.parseDouble( fields.get( scoreIndex ) ),
+					"thrpt".equals( fields.get( modeIndex ) ) ? 1 : 0 } );
+		}
+		return scores;
+	}
+
+	/**
+	 * Splits a CSV line into its fields, removing the quotes
+	 * 
+	 * @param line the CSV line
+	 * @return the fields
+	 * */
+	static List< String > parseLine( String line ) {
+		List< String > fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean isQuoted = false;
+
+		for ( char c : line.toCharArray() ) {
+			if ( c == '"' ) {
+				isQuoted = !isQuoted;
+			} else if ( c == ',' && !isQuoted ) {
+				fields.add( field.toString() );
+				field.setLength( 0 );
+			} else {
+				field.append( c );
+			}
+		}
+		fields.add( field.toString() );
+		return fields;
+	}
+
+	/**
+	 * Entry point of the check
+	 * 
+	 * @param args the result file, the baseline file and the threshold in percent
+	 * */
+	public static void main( String[] args ) throws IOException {
+		if ( args.length != 3 ) {
+			System.err.println( "Usage: BenchmarkBaselineCheck <result.csv> <baseline.csv> <threshold percent>" );
+			System.exit( 2 );
+		}
+
+		Map< String, double[] > results = readScores( args[ 0 ] );
+		Map< String, double[] > baseline = readScores( args[ 1 ] );
+		double threshold = Double.parseDouble( args[ 2 ] ) / 100;
+		int noOfRegression = 0;
+
+		for ( Map.Entry< String, double[] > result : results.entrySet() ) {
+			double[] baselineScore = baseline.get( result.getKey() );
+			if ( baselineScore == null ) {
+				System.out.println( "NEW        " + result.getKey() );
+				continue;
+			}
+
+			double score = result.getValue()[ 0 ];
+			boolean isThroughput = result.getValue()[ 1 ] == 1;
+			double change = ( score - baselineScore[ 0 ] ) / baselineScore[ 0 ];
+			boolean isRegression = isThroughput ? ( change < -threshold ) : ( change > threshold );
+
+			System.out.println( String.format( "%-10s %s: %.4g -> %.4g (%+.1f%%)", isRegression ? "REGRESSED" : "OK",
+					result.getKey(), baselineScore[ 0 ], score, change * 100 ) );
+			if ( isRegression ) {
+				noOfRegression++;
+			}
+		}
+
+		if ( noOfRegression > 0 ) {
+			System.err.println( noOfRegression + " benchmark(s) regressed by more than " + args[ 2 ] + "%" );
+			System.exit( 1 );
+		}
+	}
+}
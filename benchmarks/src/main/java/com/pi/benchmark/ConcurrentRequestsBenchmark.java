@@ -0,0 +1,226 @@
+package com.pi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.pi.calculator.PICalculator;
+import com.pi.calculator.PICalculatorService;
+import com.pi.calculator.PICalculatorService.PICalculation;
+import com.pi.calculator.PIExecutors;
+import com.pi.formula.PIFormulaType;
+import com.pi.load.PILatencyHistogram;
+import com.pi.model.PIData;
+
+/**
+ * This benchmark compares the two ways of running many small calculations at the same time:
+ * <p>1. <tt>dedicatedPools</tt>, every request creates a {@link PICalculator} with its own fixed thread pool
+ * <p>2. <tt>sharedPools</tt>, every request is submitted to {@link PICalculatorService}, sharing one compute pool
+ * 
+ * <p>One operation is a burst of <tt>concurrency</tt> requests of <tt>n</tt> terms, all started at once. The
+ * secondary result <tt>requests</tt> is the throughput in requests per second. The latency of every request, from
+ * its submission to its completion, is recorded in a {@link PILatencyHistogram}; its p50, p99 and max are printed
+ * at the end of each trial
+ * 
+ * @author Truong Nguyen
+ * */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+public class ConcurrentRequestsBenchmark {
+
+	/**
+	 * Stores the number of requests started at once
+	 * */
+	@Param( { "10", "1000", "10000" } )
+	public int concurrency;
+
+	/**
+	 * Stores the terminal point of each request
+	 * */
+	@Param( { "100000" } )
+	public long n;
+
+	/**
+	 * Stores the pool which plays the callers of the dedicated calculators
+	 * */
+	private ExecutorService callerPool;
+
+	/**
+	 * Stores the orchestration pool of the shared calculations, which records the latency of each of them
+	 * */
+	private ExecutorService orchestrationPool;
+
+	/**
+	 * Stores the service of the shared pools
+	 * */
+	private PICalculatorService service;
+
+	/**
+	 * Stores the latencies in nanoseconds of the requests of the trial
+	 * */
+	private PILatencyHistogram latencies;
+
+	/**
+	 * The counters reported next to the score, per second
+	 * */
+	@State( Scope.Thread )
+	@AuxCounters( AuxCounters.Type.OPERATIONS )
+	public static class RequestCounters {
+
+		/**
+		 * Stores the number of completed requests
+		 * */
+		public long requests;
+
+		/**
+		 * Resets the counter before each iteration
+		 * */
+		@Setup( Level.Iteration )
+		public void reset() {
+			requests = 0;
+		}
+	}
+
+	/**
+	 * Creates the pools
+	 * */
+	@Setup( Level.Trial )
+	public void setUp() {
+		latencies = new PILatencyHistogram();
+		callerPool = Executors.newCachedThreadPool();
+		orchestrationPool = new LatencyRecordingPool();
+		service = new PICalculatorService( orchestrationPool, PIExecutors.sharedComputePool(),
+				Runtime.getRuntime().availableProcessors() );
+	}
+
+	/**
+	 * Prints the latencies of the trial and releases the pools
+	 * */
+	@TearDown( Level.Trial )
+	public void tearDown() {
+		System.out.printf( "%nrequests %d, latency p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", latencies.getCount(),
+				latencies.getValueAtPercentile( 50 ) / 1e6, latencies.getValueAtPercentile( 99 ) / 1e6,
+				latencies.getMax() / 1e6 );
+		callerPool.shutdownNow();
+		orchestrationPool.shutdownNow();
+	}
+
+	/**
+	 * Runs a burst of requests, each with its own thread pool
+	 * 
+	 * @param counters the counters of the requests
+	 * @return double the sum of the results, returned so that the calculation is not eliminated
+	 * */
+	@Benchmark
+	public double dedicatedPools( RequestCounters counters ) throws Exception {
+		List< Future< PIData > > futures = new ArrayList<>( concurrency );
+		double sum = 0;
+
+		for ( int i = 0; i < concurrency; i++ ) {
+			final long submitTime = System.nanoTime();
+
+			futures.add( callerPool.submit( new Callable< PIData >() {
+				@Override
+				public PIData call() throws Exception {
+					PIData piData = new PICalculator( PIFormulaType.LEIBNIZ ).calculatePI( n );
+					latencies.record( System.nanoTime() - submitTime );
+					return piData;
+				}
+			}));
+		}
+		for ( Future< PIData > future : futures ) {
+			sum += future.get().getPi();
+		}
+		counters.requests += concurrency;
+		return sum;
+	}
+
+	/**
+	 * Runs a burst of requests on the shared pools
+	 * 
+	 * @param counters the counters of the requests
+	 * @return double the sum of the results, returned so that the calculation is not eliminated
+	 * */
+	@Benchmark
+	public double sharedPools( RequestCounters counters ) throws Exception {
+		List< PICalculation > calculations = new ArrayList<>( concurrency );
+		double sum = 0;
+
+		for ( int i = 0; i < concurrency; i++ ) {
+			calculations.add( service.submit( PIFormulaType.LEIBNIZ, n ) );
+		}
+		for ( PICalculation calculation : calculations ) {
+			sum += calculation.get().getPi();
+		}
+		counters.requests += concurrency;
+		return sum;
+	}
+
+	/**
+	 * An orchestration pool like {@link PIExecutors#orchestrationPool()}, which records the latency of each
+	 * calculation from the submission of its task to the end of its execution
+	 * */
+	private class LatencyRecordingPool extends ThreadPoolExecutor {
+
+		/**
+		 * Constructor
+		 * */
+		private LatencyRecordingPool() {
+			super( 0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue< Runnable >() );
+		}
+
+		@Override
+		protected < T > FutureTask< T > newTaskFor( Callable< T > callable ) {
+			return new TimedTask< T >( callable );
+		}
+
+		@Override
+		protected void afterExecute( Runnable runnable, Throwable throwable ) {
+			if ( runnable instanceof TimedTask ) {
+				latencies.record( System.nanoTime() - ( ( TimedTask< ? > ) runnable ).submitTime );
+			}
+		}
+	}
+
+	/**
+	 * A task which remembers when it was submitted
+	 * */
+	private static class TimedTask< T > extends FutureTask< T > {
+
+		/**
+		 * Stores the time in nanoseconds at which the task is submitted
+		 * */
+		private final long submitTime = System.nanoTime();
+
+		/**
+		 * Constructor
+		 * 
+		 * @param callable the task
+		 * */
+		private TimedTask( Callable< T > callable ) {
+			super( callable );
+		}
+	}
+}
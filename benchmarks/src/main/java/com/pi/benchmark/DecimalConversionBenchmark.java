@@ -0,0 +1,103 @@
+package com.pi.benchmark;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pi.digits.PIDecimalConverter;
+
+/**
+ * This benchmark compares <tt>BigInteger.toString()</tt> with {@link PIDecimalConverter} on a value of
+ * <tt>digits</tt> decimal digits. The converter writes to a channel which discards the bytes, so only the conversion
+ * is measured. 1e8 digits take minutes with <tt>toString()</tt>, pass <tt>-p digits=100000000</tt> to include it
+ * 
+ * @author Truong Nguyen
+ * */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 1 )
+@Measurement( iterations = 3 )
+@Fork( 1 )
+public class DecimalConversionBenchmark {
+
+	/**
+	 * Stores the number of decimal digits of the value
+	 * */
+	@Param( { "1000000", "10000000" } )
+	public int digits;
+
+	/**
+	 * Stores the converted value
+	 * */
+	private BigInteger value;
+
+	/**
+	 * Stores the converter, which keeps its powers of 10 between the conversions as <tt>BigInteger</tt> does
+	 * */
+	private final PIDecimalConverter converter = new PIDecimalConverter();
+
+	/**
+	 * Creates a random value of the given number of digits
+	 * */
+	@Setup
+	public void setUp() {
+		value = new BigInteger( ( int ) ( digits / Math.log10( 2 ) ), new Random( 1 ) );
+	}
+
+	/**
+	 * Converts the value with <tt>BigInteger.toString()</tt>
+	 * 
+	 * @return int the length of the text, returned so that the conversion is not eliminated
+	 * */
+	@Benchmark
+	public int toStringConversion() {
+		return value.toString().length();
+	}
+
+	/**
+	 * Converts the value with {@link PIDecimalConverter} on all the processors
+	 * 
+	 * @return long the number of digits, returned so that the conversion is not eliminated
+	 * */
+	@Benchmark
+	public long parallelConversion() throws Exception {
+		return converter.write( value, new DiscardingChannel() );
+	}
+
+	/**
+	 * This inner class is a channel which discards the written bytes
+	 * */
+	private static class DiscardingChannel implements WritableByteChannel {
+
+		@Override
+		public int write( ByteBuffer src ) {
+			int noOfByte = src.remaining();
+			src.position( src.limit() );
+			return noOfByte;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
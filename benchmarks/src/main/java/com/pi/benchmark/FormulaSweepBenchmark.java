@@ -0,0 +1,70 @@
+package com.pi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.pi.calculator.PICalculator;
+import com.pi.calculator.PIFormulaSweep;
+import com.pi.calculator.PISweepTable;
+import com.pi.formula.PIFormulaType;
+import com.pi.formula.PILeibnizPairedFormulaProvider;
+
+/**
+ * This benchmark compares a convergence report computed by one {@link PIFormulaSweep} with the same report computed
+ * by separate {@link PICalculator} runs: the Leibniz, paired and interval series at n / 100, n / 10 and n
+ * 
+ * @author Truong Nguyen
+ * */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Fork( 1 )
+public class FormulaSweepBenchmark {
+
+	/**
+	 * Stores the largest terminal point of the report
+	 * */
+	@Param( { "1000000", "100000000" } )
+	public long n;
+
+	/**
+	 * Stores the range of each formula thread
+	 * */
+	private static final int RANGE = 100000;
+
+	/**
+	 * Calculates the report with one sweep
+	 * 
+	 * @return PISweepTable the report, returned so that the calculation is not eliminated
+	 * */
+	@Benchmark
+	public PISweepTable sweep() throws Exception {
+		return new PIFormulaSweep( Runtime.getRuntime().availableProcessors(), RANGE ).sweep( n / 100, n / 10, n );
+	}
+
+	/**
+	 * Calculates the report with one calculator per series and terminal point
+	 * 
+	 * @param blackhole consumes the results so that the calculations are not eliminated
+	 * */
+	@Benchmark
+	public void separateRuns( Blackhole blackhole ) throws Exception {
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		for ( long target : new long[] { n / 100, n / 10, n } ) {
+			blackhole.consume( new PICalculator( PIFormulaType.LEIBNIZ, threads, RANGE ).calculatePI( target ) );
+			blackhole.consume( new PICalculator( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT, threads,
+					RANGE ).calculatePI( target ) );
+			blackhole.consume( new PICalculator( PIFormulaType.LEIBNIZ_INTERVAL, threads, RANGE ).calculatePI( target ) );
+		}
+	}
+}
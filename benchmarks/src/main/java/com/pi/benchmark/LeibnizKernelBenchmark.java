@@ -0,0 +1,49 @@
+package com.pi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.pi.formula.PILeibnizFormula;
+
+/**
+ * This benchmark measures the {@link PILeibnizFormula} kernel on its own, without any thread pool.
+ * The score is the number of ranges calculated per second; multiply by <tt>range</tt> to get the terms per second
+ * 
+ * @author Truong Nguyen
+ * */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+public class LeibnizKernelBenchmark {
+
+	/**
+	 * Stores the number of terms of a range
+	 * */
+	@Param( { "1000", "100000", "10000000" } )
+	public long range;
+
+	/**
+	 * Stores the start point of the range. A large start point exercises the long denominators
+	 * */
+	@Param( { "0", "1000000000" } )
+	public long startPoint;
+
+	/**
+	 * Calculates one range
+	 * 
+	 * @return Double the partial PI, returned so that the calculation is not eliminated
+	 * */
+	@Benchmark
+	public Double calculate() throws Exception {
+		return new PILeibnizFormula( startPoint, startPoint + range - 1 ).call();
+	}
+}
@@ -0,0 +1,61 @@
+package com.pi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.pi.calculator.PICalculator;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This benchmark measures {@link PICalculator#calculatePI(long)} end to end, including the creation and the
+ * shutdown of the thread pool, across n, the range of each {@link com.pi.formula.PIFormula} thread and the pool size.
+ * 
+ * <p>A pool size of 0 stands for the number of available processors. Run with <tt>-prof gc</tt> to get the
+ * allocation rate per operation
+ * 
+ * @author Truong Nguyen
+ * */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Fork( 1 )
+public class PICalculatorBenchmark {
+
+	/**
+	 * Stores the terminal point of the calculation
+	 * */
+	@Param( { "1000000", "100000000" } )
+	public long n;
+
+	/**
+	 * Stores the range of each formula thread
+	 * */
+	@Param( { "10000", "100000", "1000000" } )
+	public int range;
+
+	/**
+	 * Stores the number of threads of the pool, 0 for the available processors
+	 * */
+	@Param( { "1", "0" } )
+	public int noOfThread;
+
+	/**
+	 * Calculates the PI with a new calculator
+	 * 
+	 * @return PIData the result, returned so that the calculation is not eliminated
+	 * */
+	@Benchmark
+	public PIData calculatePI() throws Exception {
+		int threads = ( noOfThread == 0 ) ? Runtime.getRuntime().availableProcessors() : noOfThread;
+		return new PICalculator( PIFormulaType.LEIBNIZ, threads, range ).calculatePI( n );
+	}
+}
@@ -0,0 +1,314 @@
+package com.pi.calculator;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.pi.formula.PIFormulaType;
+import com.pi.precision.PIChudnovskyCalculator;
+
+/**
+ * A PICalculationPlan is the choice of a {@link PICalculationPlanner} for a request: the engine, the formula and its
+ * kernel variant, the number of threads, the range and the terminal point, with the runtime, error and memory the
+ * cost models predict for them. The plan also keeps the other candidates the planner considered, so that
+ * {@link #explain()} tells why this one was chosen
+ *
+ * @author Truong Nguyen
+ * */
+public class PICalculationPlan {
+
+	/**
+	 * The engines of a plan
+	 * */
+	public enum Engine {
+
+		/**
+		 * A {@link PICalculator} summing the chunks of a double precision formula
+		 * */
+		CALCULATOR,
+
+		/**
+		 * A {@link PIChudnovskyCalculator} computing exact digits, n is the number of digits
+		 * */
+		CHUDNOVSKY
+	}
+
+	/**
+	 * Stores the engine
+	 * */
+	private final Engine engine;
+
+	/**
+	 * Stores the formula type, null for the {@link Engine#CHUDNOVSKY} engine
+	 * */
+	private final PIFormulaType formulaType;
+
+	/**
+	 * Stores the kernel variant of the formula
+	 * */
+	private final String variant;
+
+	/**
+	 * Stores the number of threads
+	 * */
+	private final int noOfThread;
+
+	/**
+	 * Stores the range of each formula thread
+	 * */
+	private final int range;
+
+	/**
+	 * Stores the number of ranges each task of the thread pool calculates
+	 * */
+	private final int noOfRangePerTask;
+
+	/**
+	 * Stores the terminal point, or the number of digits of the {@link Engine#CHUDNOVSKY} engine
+	 * */
+	private final long n;
+
+	/**
+	 * Stores the predicted runtime in seconds
+	 * */
+	private final double predictedSeconds;
+
+	/**
+	 * Stores the predicted absolute error of the PI
+	 * */
+	private final double predictedError;
+
+	/**
+	 * Stores the predicted memory in bytes
+	 * */
+	private final long predictedMemory;
+
+	/**
+	 * Stores the time budget in milliseconds of the request
+	 * */
+	private final long timeBudget;
+
+	/**
+	 * Stores the memory budget in bytes of the request
+	 * */
+	private final long memoryBudget;
+
+	/**
+	 * Stores the candidates considered by the planner, including this plan
+	 * */
+	private List< PICalculationPlan > candidates = Collections.emptyList();
+
+	/**
+	 * Constructor
+	 *
+	 * @param engine the engine
+	 * @param formulaType the formula type, null for the {@link Engine#CHUDNOVSKY} engine
+	 * @param variant the kernel variant of the formula
+	 * @param noOfThread the number of threads
+	 * @param range the range of each formula thread
+	 * @param noOfRangePerTask the number of ranges each task of the thread pool calculates
+	 * @param n the terminal point, or the number of digits of the {@link Engine#CHUDNOVSKY} engine
+	 * @param predictedSeconds the predicted runtime in seconds
+	 * @param predictedError the predicted absolute error of the PI
+	 * @param predictedMemory the predicted memory in bytes
+	 * @param timeBudget the time budget in milliseconds of the request
+	 * @param memoryBudget the memory budget in bytes of the request
+	 * */
+	PICalculationPlan( Engine engine, PIFormulaType formulaType, String variant, int noOfThread, int range,
+			int noOfRangePerTask, long n, double predictedSeconds, double predictedError, long predictedMemory, long timeBudget, long memoryBudget ) {
+		this.engine = engine;
+		this.formulaType = formulaType;
+		this.variant = variant;
+		this.noOfThread = noOfThread;
+		this.range = range;
+		this.noOfRangePerTask = noOfRangePerTask;
+		this.n = n;
+		this.predictedSeconds = predictedSeconds;
+		this.predictedError = predictedError;
+		this.predictedMemory = predictedMemory;
+		this.timeBudget = timeBudget;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Returns a new calculator which executes the plan with {@link #getN()} as the terminal point
+	 *
+	 * @return PICalculatorInterface the calculator
+	 * */
+	public PICalculatorInterface newCalculator() {
+		if ( engine == Engine.CHUDNOVSKY ) {
+			return new PIChudnovskyCalculator( memoryBudget, Paths.get( System.getProperty( "java.io.tmpdir" ) ) );
+		}
+		return new PICalculator( formulaType, variant, noOfThread, range, noOfRangePerTask );
+	}
+
+	/**
+	 * Describes the plan, its predictions and the candidates the planner considered, one per line
+	 *
+	 * @return the explanation
+	 * */
+	public String explain() {
+		StringBuilder text = new StringBuilder();
+
+		text.append( "Plan: " ).append( this.describe() ).append( '\n' );
+		text.append( String.format( "Predicted: %.6f seconds, error %.3e, memory %d bytes%n", predictedSeconds,
+				predictedError, predictedMemory ) );
+		text.append( "Budgets: " ).append( timeBudget ).append( " ms, " ).append( memoryBudget ).append( " bytes, " )
+				.append( this.isWithinTimeBudget() ? "the time budget is met" : "no candidate meets the time budget" )
+				.append( '\n' );
+		text.append( "Candidates:\n" );
+		for ( PICalculationPlan candidate : candidates ) {
+			text.append( ( candidate == this ) ? "  * " : "    " ).append( candidate.describe() );
+			text.append( String.format( ": %.6f s, error %.3e, %d bytes", candidate.predictedSeconds,
+					candidate.predictedError, candidate.predictedMemory ) );
+			if ( !candidate.isWithinMemoryBudget() ) {
+				text.append( ", over the memory budget" );
+			} else if ( !candidate.isWithinTimeBudget() ) {
+				text.append( ", over the time budget" );
+			}
+			text.append( '\n' );
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Describes the engine, formula and settings of the plan on one line
+	 *
+	 * @return the description
+	 * */
+	private String describe() {
+		if ( engine == Engine.CHUDNOVSKY ) {
+			return "CHUDNOVSKY with 1 thread, " + n + " digits";
+		}
+		return formulaType + "/" + variant + " with " + noOfThread + ( ( noOfThread == 1 ) ? " thread" : " threads" )
+				+ ", range " + range + ( ( noOfRangePerTask == 1 ) ? "" : " x " + noOfRangePerTask + " per task" )
+				+ ", n " + n;
+	}
+
+	/**
+	 * Sets the candidates considered by the planner
+	 *
+	 * @param candidates the candidates, including this plan
+	 * */
+	void setCandidates( List< PICalculationPlan > candidates ) {
+		this.candidates = Collections.unmodifiableList( new ArrayList<>( candidates ) );
+	}
+
+	/**
+	 * Returns true if the predicted runtime is within the time budget
+	 *
+	 * @return true if the time budget is met; false otherwise
+	 * */
+	public boolean isWithinTimeBudget() {
+		return predictedSeconds * 1000 <= timeBudget;
+	}
+
+	/**
+	 * Returns true if the predicted memory is within the memory budget
+	 *
+	 * @return true if the memory budget is met; false otherwise
+	 * */
+	public boolean isWithinMemoryBudget() {
+		return predictedMemory <= memoryBudget;
+	}
+
+	/**
+	 * Gets the engine of the plan
+	 *
+	 * @return the engine
+	 * */
+	public Engine getEngine() {
+		return engine;
+	}
+
+	/**
+	 * Gets the formula type of the plan
+	 *
+	 * @return the formula type, null for the {@link Engine#CHUDNOVSKY} engine
+	 * */
+	public PIFormulaType getFormulaType() {
+		return formulaType;
+	}
+
+	/**
+	 * Gets the kernel variant of the formula
+	 *
+	 * @return the name of the variant
+	 * */
+	public String getVariant() {
+		return variant;
+	}
+
+	/**
+	 * Gets the number of threads of the plan
+	 *
+	 * @return the number of threads
+	 * */
+	public int getNoOfThread() {
+		return noOfThread;
+	}
+
+	/**
+	 * Gets the range of each formula thread
+	 *
+	 * @return the range
+	 * */
+	public int getRange() {
+		return range;
+	}
+
+	/**
+	 * Gets the number of ranges each task of the thread pool calculates
+	 *
+	 * @return the number of ranges per task
+	 * */
+	public int getNoOfRangePerTask() {
+		return noOfRangePerTask;
+	}
+
+	/**
+	 * Gets the terminal point of the plan
+	 *
+	 * @return the terminal point, or the number of digits of the {@link Engine#CHUDNOVSKY} engine
+	 * */
+	public long getN() {
+		return n;
+	}
+
+	/**
+	 * Gets the predicted runtime of the plan
+	 *
+	 * @return the runtime in seconds
+	 * */
+	public double getPredictedSeconds() {
+		return predictedSeconds;
+	}
+
+	/**
+	 * Gets the predicted absolute error of the PI
+	 *
+	 * @return the absolute error
+	 * */
+	public double getPredictedError() {
+		return predictedError;
+	}
+
+	/**
+	 * Gets the predicted memory of the plan
+	 *
+	 * @return the memory in bytes
+	 * */
+	public long getPredictedMemory() {
+		return predictedMemory;
+	}
+
+	/**
+	 * Gets the candidates considered by the planner, including this plan
+	 *
+	 * @return the candidates
+	 * */
+	public List< PICalculationPlan > getCandidates() {
+		return candidates;
+	}
+}
@@ -0,0 +1,312 @@
+package com.pi.calculator;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaProvider;
+import com.pi.formula.PIFormulaType;
+import com.pi.precision.PIChudnovskyEngine;
+import com.pi.precision.PIOutOfCoreArithmetic;
+
+/**
+ * This class plans a calculation: from a requested precision, or a formula and n, and from a time budget and a memory
+ * budget, it chooses the engine, the formula, its kernel variant and the number of threads, and predicts the runtime.
+ *
+ * <p>The candidates are every {@link PIFormulaProvider} discovered by {@link PIFormulaFactory}, with every thread
+ * count of {@link PICalculatorTuner#candidateThreadCounts()}, and, for a precision, the {@link PIChudnovskyEngine}.
+ * Their cost models are calibrated on this machine the first time they are needed:
+ * <ul>
+ * <li>a formula runs a chunk of {@link #calibrationTerms} terms on the current thread, and its throughput is assumed
+ * to scale with the threads up to the number of processors. If the {@link PICalculatorProfile} has the formula type
+ * and variant, its throughput and ranges per task, measured on the thread pool, are used instead. Its memory is
+ * {@link PICalculator#estimatePeakMemory(PIFormulaType, long, int, int, int)}</li>
+ * <li>the Chudnovsky engine computes {@link #CALIBRATION_DIGITS} digits, and its runtime is assumed to grow with the
+ * power {@link #DIGITS_EXPONENT} of the digits, the cost of the <tt>BigInteger</tt> multiplications of the binary
+ * splitting. Its memory is {@link PIChudnovskyEngine#estimatePeakMemory(long, long)} with the memory budget as its
+ * spill budget</li>
+ * </ul>
+ *
+ * <p>The candidates over the memory budget are discarded. Among those within the time budget, the plan is the one
+ * with the fewest CPU seconds, so the threads which do not help to meet the budget are left to the other requests;
+ * if none is within the time budget, the plan is the fastest one
+ *
+ * @author Truong Nguyen
+ * */
+public class PICalculationPlanner {
+
+	/**
+	 * The default number of terms of the calibration of a formula
+	 * */
+	public static final long DEFAULT_CALIBRATION_TERMS = 2000000;
+
+	/**
+	 * The number of digits of the calibration of the Chudnovsky engine
+	 * */
+	private static final int CALIBRATION_DIGITS = 20000;
+
+	/**
+	 * The number of runs of a calibration, the best one is kept
+	 * */
+	private static final int NO_OF_TRIAL = 3;
+
+	/**
+	 * The power with which the runtime of the Chudnovsky engine grows with the digits
+	 * */
+	private static final double DIGITS_EXPONENT = 1.6;
+
+	/**
+	 * The memory budget of the calibration of the Chudnovsky engine, which keeps its intermediates resident
+	 * */
+	private static final long CALIBRATION_MEMORY = 1L << 30;
+
+	/**
+	 * The time in seconds to start a thread of the pool
+	 * */
+	private static final double THREAD_START_SECONDS = 50e-6;
+
+	/**
+	 * Stores the profile of this machine, null if the machine is not tuned
+	 * */
+	private final PICalculatorProfile profile;
+
+	/**
+	 * Stores the number of terms of the calibration of a formula
+	 * */
+	private final long calibrationTerms;
+
+	/**
+	 * Stores the calibrated throughput of a thread of each provider, in terms per second
+	 * */
+	private final Map< PIFormulaProvider, Double > termsPerSecond = new HashMap<>();
+
+	/**
+	 * Stores the calibrated runtime in seconds of {@link #CALIBRATION_DIGITS} digits, 0 if not calibrated
+	 * */
+	private double digitsSeconds = 0;
+
+	/**
+	 * Constructor, the formulas are calibrated with the default number of terms
+	 *
+	 * @param profile the profile of this machine, null if the machine is not tuned
+	 * */
+	public PICalculationPlanner( PICalculatorProfile profile ) {
+		this( profile, DEFAULT_CALIBRATION_TERMS );
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param profile the profile of this machine, null if the machine is not tuned
+	 * @param calibrationTerms the number of terms of the calibration of a formula
+	 * */
+	public PICalculationPlanner( PICalculatorProfile profile, long calibrationTerms ) {
+		if ( calibrationTerms <= 0 ) {
+			throw new IllegalArgumentException( "Invalid value received, calibrationTerms should be larger than 0" );
+		}
+		this.profile = profile;
+		this.calibrationTerms = calibrationTerms;
+	}
+
+	/**
+	 * Plans a calculation of a formula with a terminal point. The kernel variant and the number of threads are chosen
+	 *
+	 * @param formulaType the formula type
+	 * @param n the terminal point
+	 * @param timeBudget the time budget in milliseconds
+	 * @param memoryBudget the memory budget in bytes
+	 * @return PICalculationPlan the plan
+	 * @throws Exception the <tt>Exception</tt> may be thrown if a calibration fails, or if no candidate is within the
+	 *         memory budget
+	 * */
+	public PICalculationPlan plan( PIFormulaType formulaType, long n, long timeBudget, long memoryBudget )
+			throws Exception {
+		if ( n < 0 ) {
+			throw new IllegalArgumentException( "Invalid value received, n value should be equal or larger than 0" );
+		}
+		List< PICalculationPlan > candidates = new ArrayList<>();
+
+		for ( PIFormulaProvider provider : PIFormulaFactory.getProviders() ) {
+			if ( provider.getFormulaType() == formulaType ) {
+				this.addCandidates( provider, n, timeBudget, memoryBudget, candidates );
+			}
+		}
+		return choose( candidates );
+	}
+
+	/**
+	 * Plans a calculation of PI within an absolute error. The engine, the formula, its kernel variant, the terminal
+	 * point and the number of threads are chosen
+	 *
+	 * @param error the absolute error
+	 * @param timeBudget the time budget in milliseconds
+	 * @param memoryBudget the memory budget in bytes
+	 * @return PICalculationPlan the plan
+	 * @throws Exception the <tt>Exception</tt> may be thrown if a calibration fails, or if no candidate is within the
+	 *         memory budget
+	 * */
+	public PICalculationPlan plan( double error, long timeBudget, long memoryBudget ) throws Exception {
+		if ( !( error > 0 ) ) {
+			throw new IllegalArgumentException( "Invalid value received, error should be larger than 0" );
+		}
+		List< PICalculationPlan > candidates = new ArrayList<>();
+
+		for ( PIFormulaProvider provider : PIFormulaFactory.getProviders() ) {
+			long n = provider.getN( error );
+
+			if ( n >= 0 ) {
+				this.addCandidates( provider, n, timeBudget, memoryBudget, candidates );
+			}
+		}
+
+		long noOfDigit = Math.max( ( long ) Math.ceil( -Math.log10( error ) ), 0 ) + 1;
+		if ( noOfDigit <= PIChudnovskyEngine.MAX_DIGITS ) {
+			double seconds = this.getDigitsSeconds() * Math.pow( ( double ) noOfDigit / CALIBRATION_DIGITS, DIGITS_EXPONENT );
+			candidates.add( new PICalculationPlan( PICalculationPlan.Engine.CHUDNOVSKY, null, null, 1, 1, 1, noOfDigit,
+					seconds, Math.pow( 10, 1 - noOfDigit ), PIChudnovskyEngine.estimatePeakMemory( noOfDigit, memoryBudget ),
+					timeBudget, memoryBudget ) );
+		}
+		return choose( candidates );
+	}
+
+	/**
+	 * Adds the candidates of a provider with every candidate thread count
+	 *
+	 * @param provider the provider
+	 * @param n the terminal point
+	 * @param timeBudget the time budget in milliseconds
+	 * @param memoryBudget the memory budget in bytes
+	 * @param candidates the candidates to which they are added
+	 * @throws Exception the <tt>Exception</tt> may be thrown if the calibration fails
+	 * */
+	private void addCandidates( PIFormulaProvider provider, long n, long timeBudget, long memoryBudget,
+			List< PICalculationPlan > candidates ) throws Exception {
+		int noOfProcessor = Runtime.getRuntime().availableProcessors();
+		double threadTermsPerSecond = this.getTermsPerSecond( provider );
+		int noOfRangePerTask = this.isProfiled( provider ) ? profile.getNoOfRangePerTask( provider.getFormulaType(), provider.getVariant() ) : 1;
+
+		for ( int noOfThread : PICalculatorTuner.candidateThreadCounts() ) {
+			double seconds = ( n + 1.0 ) / ( threadTermsPerSecond * Math.min( noOfThread, noOfProcessor ) )
+					+ noOfThread * THREAD_START_SECONDS;
+
+			candidates.add( new PICalculationPlan( PICalculationPlan.Engine.CALCULATOR, provider.getFormulaType(),
+					provider.getVariant(), noOfThread, PICalculator.DEFAULT_RANGE, noOfRangePerTask, n, seconds, provider.getError( n ),
+					PICalculator.estimatePeakMemory( provider.getFormulaType(), n, noOfThread, PICalculator.DEFAULT_RANGE,
+							noOfRangePerTask ), timeBudget, memoryBudget ) );
+		}
+	}
+
+	/**
+	 * Chooses the plan among the candidates
+	 *
+	 * @param candidates the candidates
+	 * @return PICalculationPlan the plan
+	 * @throws Exception the <tt>Exception</tt> may be thrown if no candidate is within the memory budget
+	 * */
+	private static PICalculationPlan choose( List< PICalculationPlan > candidates ) throws Exception {
+		PICalculationPlan fastest = null;
+		PICalculationPlan cheapest = null;
+
+		for ( PICalculationPlan candidate : candidates ) {
+			if ( !candidate.isWithinMemoryBudget() ) {
+				continue;
+			}
+			if ( fastest == null || candidate.getPredictedSeconds() < fastest.getPredictedSeconds() ) {
+				fastest = candidate;
+			}
+			if ( candidate.isWithinTimeBudget() && ( cheapest == null || getCpuSeconds( candidate ) < getCpuSeconds( cheapest ) ) ) {
+				cheapest = candidate;
+			}
+		}
+		if ( fastest == null ) {
+			throw new Exception( "No engine can calculate the request within the memory budget" );
+		}
+
+		PICalculationPlan plan = ( cheapest == null ) ? fastest : cheapest;
+		plan.setCandidates( candidates );
+		return plan;
+	}
+
+	/**
+	 * Returns the CPU seconds of a candidate, the runtime times the threads which run in parallel
+	 *
+	 * @param candidate the candidate
+	 * @return the CPU seconds
+	 * */
+	private static double getCpuSeconds( PICalculationPlan candidate ) {
+		return candidate.getPredictedSeconds()
+				* Math.min( candidate.getNoOfThread(), Runtime.getRuntime().availableProcessors() );
+	}
+
+	/**
+	 * Returns true if the throughput of a provider is taken from the profile: the profile has the settings of its
+	 * formula type and variant
+	 *
+	 * @param provider the provider
+	 * @return true if the provider is profiled; false otherwise
+	 * */
+	private boolean isProfiled( PIFormulaProvider provider ) {
+		return profile != null && profile.contains( provider.getFormulaType(), provider.getVariant() )
+				&& profile.getTermsPerSecond( provider.getFormulaType(), provider.getVariant() ) > 0;
+	}
+
+	/**
+	 * Gets the throughput of a thread of a provider, calibrating it if it is not known yet
+	 *
+	 * @param provider the provider
+	 * @return the number of terms per second
+	 * @throws Exception the <tt>Exception</tt> may be thrown if the calibration fails
+	 * */
+	private synchronized double getTermsPerSecond( PIFormulaProvider provider ) throws Exception {
+		Double known = termsPerSecond.get( provider );
+
+		if ( known != null ) {
+			return known;
+		}
+		double measured = 0;
+		if ( this.isProfiled( provider ) ) {
+			PIFormulaType formulaType = provider.getFormulaType();
+			int noOfParallelThread = Math.min( profile.getNoOfThread( formulaType, provider.getVariant() ),
+					Runtime.getRuntime().availableProcessors() );
+
+			measured = profile.getTermsPerSecond( formulaType, provider.getVariant() ) / Math.max( noOfParallelThread, 1 );
+		} else {
+			for ( int i = 0; i < NO_OF_TRIAL; i++ ) {
+				long startTime = System.nanoTime();
+				provider.newFormula( 0, calibrationTerms - 1 ).call();
+				long timeTaken = Math.max( System.nanoTime() - startTime, 1 );
+
+				measured = Math.max( measured, calibrationTerms * 1e9 / timeTaken );
+			}
+		}
+		termsPerSecond.put( provider, measured );
+		return measured;
+	}
+
+	/**
+	 * Gets the runtime of {@link #CALIBRATION_DIGITS} digits of the Chudnovsky engine, calibrating it if it is not
+	 * known yet
+	 *
+	 * @return the runtime in seconds
+	 * @throws Exception the <tt>Exception</tt> may be thrown if the calibration fails
+	 * */
+	private synchronized double getDigitsSeconds() throws Exception {
+		if ( digitsSeconds > 0 ) {
+			return digitsSeconds;
+		}
+		double measured = Double.MAX_VALUE;
+		for ( int i = 0; i < NO_OF_TRIAL; i++ ) {
+			PIOutOfCoreArithmetic arithmetic = new PIOutOfCoreArithmetic( CALIBRATION_MEMORY,
+					Paths.get( System.getProperty( "java.io.tmpdir" ) ) );
+			long startTime = System.nanoTime();
+			new PIChudnovskyEngine( arithmetic ).calculate( CALIBRATION_DIGITS );
+
+			measured = Math.min( measured, Math.max( System.nanoTime() - startTime, 1 ) / 1e9 );
+		}
+		digitsSeconds = measured;
+		return digitsSeconds;
+	}
+}
@@ -1,14 +1,21 @@
 package com.pi.calculator;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import com.pi.formula.PIFormulaFactory;
 import com.pi.formula.PIFormula;
+import com.pi.formula.PIIntervalFormula;
 import com.pi.formula.PIFormulaType;
+import com.pi.metrics.PICalculationEvent;
+import com.pi.metrics.PICalculatorMetrics;
 import com.pi.model.PIData;
 
 /**
@@ -18,10 +25,22 @@ import com.pi.model.PIData;
  * 
  * <p> To cancel the on-going calculation, an {@link #isCancel} variable is used as one of the exit conditions
  * in {@link #executeCalculation(long)} method. When the {@link #cancelCalculation()} is invoked, <tt>isCancel</tt> is set
- * to true. So that the <tt>excuteCalculation</tt> can exit the loop calculation
+ * to true. So that the <tt>excuteCalculation</tt> can exit the loop calculation. A cancel which is invoked before the
+ * calculation starts is not lost, the calculation then returns without computing any range
  * 
  * <p> To execute the calculation, this class creates formula objects which are used to calculate the PI, based on the {@link PIFormulaType}
  * 
+ * <p> The results of the {@link PIFormula} threads are summed by a {@link PIChunkSum} in the order of their ranges,
+ * not in the order they complete, so the same n and range give a bit-identical PI whatever the number of threads.
+ * The bounds of the {@link PIIntervalFormula} threads are summed the same way, rounding downwards and upwards
+ * 
+ * <p> A task of the thread pool may calculate several consecutive ranges one after the other, which is what
+ * {@link PICalculatorTuner} tunes. Each range is still summed as its own chunk, so the number of ranges per task,
+ * like the number of threads, does not change the PI
+ * 
+ * <p> By default, each instance owns a thread pool which is shut down once the calculation is completed. An instance may
+ * instead be created with a shared thread pool, see {@link PICalculatorService}; in that case the pool is left running
+ * 
  * @author Truong Nguyen
  * */
 
@@ -30,7 +49,34 @@ public class PICalculator implements PICalculatorInterface {
 	/**
 	 * Stores the default range in which each {@link PIFormula} thread shall work
 	 * */
-	private static final int DEFAULT_RANGE = 100000;
+	static final int DEFAULT_RANGE = 100000;
+
+	/**
+	 * The memory in bytes of a thread of the pool, the default stack size of a 64-bit JVM
+	 * */
+	public static final long THREAD_MEMORY = 1L << 20;
+
+	/**
+	 * The memory in bytes of a range handed out to the thread pool: its formula and its share of the task and of the
+	 * future of the task
+	 * */
+	static final long RANGE_MEMORY = 128;
+
+	/**
+	 * The memory in bytes of a result held by a {@link PIChunkSum} until the ranges before it are summed: the entry of
+	 * the map and the boxed index and result
+	 * */
+	static final long HELD_RESULT_MEMORY = 64;
+
+	/**
+	 * Stores the range in which each {@link PIFormula} thread shall work
+	 * */
+	private final int range;
+
+	/**
+	 * Stores the number of consecutive ranges each task of the thread pool calculates
+	 * */
+	private final int noOfRangePerTask;
 
 
 	/**
@@ -38,6 +84,12 @@ public class PICalculator implements PICalculatorInterface {
 	 * */
 	private ExecutorService executor = null;
 
+	/**
+	 * An boolean value indicates if the {@link #executor} is shared with other calculations.
+	 * A shared executor is not shut down when the calculation is completed
+	 * */
+	private final boolean isSharedExecutor;
+
 	/**
 	 * A number representing a number of threads are working simultaneously 
 	 * */
@@ -48,16 +100,42 @@ public class PICalculator implements PICalculatorInterface {
 	 * */
 	private PIData piData = null;
 
+	/**
+	 * Stores the sum of the results of the {@link PIFormula} threads of the on-going calculation
+	 * */
+	private PIChunkSum chunkSum = null;
+
+	/**
+	 * Stores the sum of the lower bounds of the {@link PIIntervalFormula} threads of the on-going calculation
+	 * */
+	private PIChunkSum lowerSum = null;
+
+	/**
+	 * Stores the sum of the upper bounds of the {@link PIIntervalFormula} threads of the on-going calculation
+	 * */
+	private PIChunkSum upperSum = null;
+
 	/**
 	 * An boolean value indicates if the calculation is canceled
 	 * */
 	private volatile boolean isCancel = false;
 
+	/**
+	 * Stores the end point of the last range handed out to the thread pool, -1 if the calculation does not start.
+	 * It is used to report the progress of an on-going calculation
+	 * */
+	private volatile long currentN = -1;
+
 	/**
 	 * A PIFormulaType used to determine which PIFormula will be created to calculate the PI  
 	 * */
 	private PIFormulaType formulaType = null;
 
+	/**
+	 * The name of the kernel variant of the {@link #formulaType}, null for the default one
+	 * */
+	private String formulaVariant = null;
+
 	/**
 	 * A builder helps to create instance of PIFormula
 	 * */
@@ -67,10 +145,82 @@ public class PICalculator implements PICalculatorInterface {
 	 * Constructor
 	 * */
 	public PICalculator( PIFormulaType formula ) {
+		this( formula, Runtime.getRuntime().availableProcessors(), DEFAULT_RANGE );
+	}
+
+	/**
+	 * Constructor with the number of threads and the range of each {@link PIFormula} thread
+	 * 
+	 * @param formula the formula used to calculate the PI
+	 * @param noOfThread the number of threads of the thread pool
+	 * @param range the range in which each {@link PIFormula} thread shall work
+	 * */
+	public PICalculator( PIFormulaType formula, int noOfThread, int range ) {
+		this( formula, null, noOfThread, range );
+	}
+
+	/**
+	 * Constructor with a kernel variant of the formula, the number of threads and the range of each {@link PIFormula} thread
+	 * 
+	 * @param formula the formula used to calculate the PI
+	 * @param formulaVariant the name of the kernel variant of the formula, null for the default one
+	 * @param noOfThread the number of threads of the thread pool
+	 * @param range the range in which each {@link PIFormula} thread shall work
+	 * */
+	public PICalculator( PIFormulaType formula, String formulaVariant, int noOfThread, int range ) {
+		this( formula, formulaVariant, noOfThread, range, 1 );
+	}
+
+	/**
+	 * Constructor with a kernel variant of the formula, the number of threads, the range of each {@link PIFormula}
+	 * thread and the number of ranges each task of the thread pool calculates
+	 * 
+	 * @param formula the formula used to calculate the PI
+	 * @param formulaVariant the name of the kernel variant of the formula, null for the default one
+	 * @param noOfThread the number of threads of the thread pool
+	 * @param range the range in which each {@link PIFormula} thread shall work
+	 * @param noOfRangePerTask the number of consecutive ranges each task calculates
+	 * */
+	public PICalculator( PIFormulaType formula, String formulaVariant, int noOfThread, int range, int noOfRangePerTask ) {
+		if ( noOfThread <= 0 || range <= 0 || noOfRangePerTask <= 0 ) {
+			throw new IllegalArgumentException(
+					"Invalid value received, noOfThread, range and noOfRangePerTask should be larger than 0" );
+		}
+		if ( formulaVariant != null && PIFormulaFactory.getProvider( formula, formulaVariant ) == null ) {
+			throw new IllegalArgumentException( "Invalid value received, " + formula + " has no variant " + formulaVariant );
+		}
 		this.formulaType = formula;
-		this.noOfThread = Runtime.getRuntime().availableProcessors();
+		this.formulaVariant = formulaVariant;
+		this.noOfThread = noOfThread;
+		this.range = range;
+		this.noOfRangePerTask = noOfRangePerTask;
 
 		this.executor = Executors.newFixedThreadPool( noOfThread );
+		this.isSharedExecutor = false;
+		this.builder = new PICalculatorBuilder();
+	}
+
+	/**
+	 * Constructor with a thread pool which is shared with other calculations
+	 * 
+	 * @param formula the formula used to calculate the PI
+	 * @param sharedExecutor the thread pool on which the {@link PIFormula} tasks are executed. It is not shut down by this class
+	 * @param noOfThread the maximum number of {@link PIFormula} tasks this calculation may have in the pool at the same time
+	 * */
+	public PICalculator( PIFormulaType formula, ExecutorService sharedExecutor, int noOfThread ) {
+		if ( noOfThread <= 0 ) {
+			throw new IllegalArgumentException( "Invalid value received, noOfThread should be larger than 0" );
+		}
+		if ( sharedExecutor == null ) {
+			throw new IllegalArgumentException( "Invalid value received, the shared thread pool is null" );
+		}
+		this.formulaType = formula;
+		this.noOfThread = noOfThread;
+		this.range = DEFAULT_RANGE;
+		this.noOfRangePerTask = 1;
+
+		this.executor = sharedExecutor;
+		this.isSharedExecutor = true;
 		this.builder = new PICalculatorBuilder();
 	}
 
@@ -84,91 +234,117 @@ public class PICalculator implements PICalculatorInterface {
 	 *                <tt>Exception</tt> may be thrown if any error is occurred during the calculation
 	 * */
 	private void executeCalculation( long n ) throws Exception {
-		List< Future< Double > > piFutureList = new LinkedList<>();
-		Double pi = 0.0;
+		CompletionService< double[] > piCompletionService = new ExecutorCompletionService<>( executor );
+		Map< Future< double[] >, PIFormula[] > chunkFormulas = new HashMap<>();
+		int noOfPending = 0;
 		long startPoint = 0;
 		long endPoint = -1; // set to -1 to allow the loop runs at least one time if n = 0
 
+		chunkSum = new PIChunkSum();
+		lowerSum = new PIChunkSum( RoundingMode.FLOOR );
+		upperSum = new PIChunkSum( RoundingMode.CEILING );
+
 		// loop until the endPoint has not reached n yet and the calculation is not canceled
-		while ( !this.isCancel && endPoint < n ) {
-			endPoint = startPoint + DEFAULT_RANGE;
+		while ( endPoint < n ) {
+			PIFormula[] taskFormulas = new PIFormula[ ( int ) Math.min( noOfRangePerTask,
+					( n - startPoint ) / ( range + 1L ) + 1 ) ];
 
-			// sets endPoint equal to n if it is large than n
-			if (endPoint > n) {
-				endPoint = n;
+			/*
+			 * publishes the end point of the task before the cancellation is checked, so that a cancel which then
+			 * reads a current n below n is sure to be seen here. If it is seen, the task is not handed out
+			 */
+			currentN = Math.min( startPoint + taskFormulas.length * ( range + 1L ) - 1, n );
+			if ( this.isCancel ) {
+				currentN = endPoint;
+				break;
+			}
+
+			for ( int i = 0; i < taskFormulas.length; i++ ) {
+				endPoint = startPoint + range;
+
+				// sets endPoint equal to n if it is large than n
+				if (endPoint > n) {
+					endPoint = n;
+				}
+				taskFormulas[ i ] = builder.newFormulaInstance( startPoint, endPoint );
+				startPoint = endPoint + 1;
 			}
 
 			/*
-			 * submits the tasks to thread pool. A queue is used to store
-			 * all submitted threads
+			 * submits the tasks to thread pool. The completion service queues
+			 * the threads once they are done
 			 */
-			piFutureList.add( executor.submit( builder.newFormulaInstance(
-					startPoint, endPoint ) ) );
-			startPoint = endPoint + 1;
+			chunkFormulas.put( piCompletionService.submit( new PIChunkTask( taskFormulas ) ), taskFormulas );
+			noOfPending++;
 			
 			// allows new threads will be added to the pool if it  is not full
-			if ( piFutureList.size() >= noOfThread ) {
+			if ( noOfPending >= noOfThread ) {
 				/* 
-				 * when the pool is full, checks and gets the result if any thread is done.
+				 * when the pool is full, waits and gets the result of any thread is done.
 				 * so that new thread can be added. this is a blocking method
 				 */	
-				pi = pi + this.getResultAny( piFutureList );
+				this.addResultAny( piCompletionService, chunkFormulas );
+				noOfPending--;
 			}
 
 		}
 
-		pi = pi + this.getResultAll( piFutureList );
-		piData = new PIData( pi, endPoint );
+		this.addResultAll( piCompletionService, chunkFormulas, noOfPending );
+
+		if ( lowerSum.getNoOfChunk() > 0 && lowerSum.getNoOfChunk() == chunkSum.getNoOfChunk() ) {
+			piData = builder.newPIData( chunkSum.getSum(), lowerSum.getSum(), upperSum.getSum(), endPoint );
+		} else {
+			piData = builder.newPIData( chunkSum.getSum(), endPoint );
+		}
 	}
 
 	/**
-	 * Gets result of a thread, which is done. This is a blocking method.
+	 * Gets result of a thread, which is done, and adds the result of each of its ranges to the sum at the index of the
+	 * range. This is a blocking method.
 	 * It will wait until any thread is done. It is invoked by {@link #executeCalculation(long)}}
 	 * when the thread pool is full
 	 * 
-	 * @param piFutureList the future list of threads submitted to the thread pool
-	 * @return Double the result of a thread which is done
-	 * @throws Exception the <tt>exception</tt> may be throw from {@link Future#get()}
+	 * <p>The waiting thread is parked instead of polling the futures, so that the orchestration of many
+	 * concurrent calculations does not take CPU time away from the {@link PIFormula} threads
+	 * 
+	 * @param piCompletionService the completion service to which the threads are submitted
+	 * @param chunkFormulas the formula of each submitted thread
+	 * @throws Exception the <tt>exception</tt> may be throw from {@link java.util.concurrent.Future#get()}
 	 * 
 	 * */
-	private Double getResultAny( List< Future< Double > > piFutureList )
-			throws Exception {
-		int size = piFutureList.size();
-		Future< Double > future;
-		Double pi = 0.0;
-		int index = 0;
+	private void addResultAny( CompletionService< double[] > piCompletionService,
+			Map< Future< double[] >, PIFormula[] > chunkFormulas ) throws Exception {
+		Future< double[] > future = piCompletionService.take();
+		PIFormula[] taskFormulas = chunkFormulas.remove( future );
+		double[] results = future.get();
 
-		// loop until any thread is done
-		for ( ; ; ) {
-			future = piFutureList.get( index );
+		for ( int i = 0; i < taskFormulas.length; i++ ) {
+			PIFormula piFormula = taskFormulas[ i ];
+			long chunkIndex = piFormula.getStartPoint() / ( range + 1L );
 
-			if ( future.isDone() ) {
-				pi = future.get();
-				piFutureList.remove( index );
-				break;
+			chunkSum.add( chunkIndex, results[ i ] );
+			if ( piFormula instanceof PIIntervalFormula ) {
+				lowerSum.add( chunkIndex, ( ( PIIntervalFormula ) piFormula ).getLowerBound() );
+				upperSum.add( chunkIndex, ( ( PIIntervalFormula ) piFormula ).getUpperBound() );
 			}
-			index++;
-			index = index % size;
 		}
-		return pi;
 	}
 
 	/**
-	 * Gets results of all threads from piFutureList. The result of each thread is retrieved by calling {@link Future#get()}
+	 * Gets results of all pending threads from piCompletionService and adds them to the sum. The result of each thread
+	 * is retrieved by calling {@link java.util.concurrent.Future#get()}
 	 * 
-	 * @param piFutureList the future list of threads submitted to the thread pool
-	 * @return Double the sum of all thread's result
-	 * @throws Exception the <tt>exception</tt> may be thrown from {@link Future#get()}
+	 * @param piCompletionService the completion service to which the threads are submitted
+	 * @param chunkFormulas the formula of each submitted thread
+	 * @param noOfPending the number of threads whose results are not retrieved yet
+	 * @throws Exception the <tt>exception</tt> may be thrown from {@link java.util.concurrent.Future#get()}
 	 * 
 	 * */
-	private Double getResultAll( List< Future< Double > > piFutureList)
-			throws Exception {
-		Double pi = 0.0;
-		
-		for ( Future< Double > piFuture : piFutureList ) {
-			pi = pi + piFuture.get();
+	private void addResultAll( CompletionService< double[] > piCompletionService,
+			Map< Future< double[] >, PIFormula[] > chunkFormulas, int noOfPending ) throws Exception {
+		for ( int i = 0; i < noOfPending; i++ ) {
+			this.addResultAny( piCompletionService, chunkFormulas );
 		}
-		return pi;
 	}
 
 	/**
@@ -182,23 +358,68 @@ public class PICalculator implements PICalculatorInterface {
 	 * */
 	@Override
 	public PIData calculatePI( long n ) throws Exception {
-		if ( n < 0 ) {
-			throw new Exception(
-					"Invalid value received, n value should be equal or larger than 0");
-		}
-		
-		// sets to false when the calculation is starting 
-		this.isCancel = false;
-		
-		// executes the Pi calculation by creating sub-threads
-		this.executeCalculation( n );
-		
-		// shutdowns the thread pool after the calculation is completed
-		executor.shutdown();
+		try {
+			if ( n < 0 ) {
+				throw new Exception(
+						"Invalid value received, n value should be equal or larger than 0");
+			}
+			
+			PICalculationEvent event = new PICalculationEvent();
+			if ( PICalculatorMetrics.ENABLED || event.isEnabled() ) {
+				this.executeInstrumentedCalculation( n, event );
+			} else {
+				// executes the Pi calculation by creating sub-threads
+				this.executeCalculation( n );
+			}
+		} finally {
+			/*
+			 * a cancel which comes before the calculation starts is kept so that the calculation stops at once,
+			 * it is cleared only when the calculation is completed, cancelled or failed
+			 */
+			this.isCancel = false;
+
+			// shutdowns the thread pool once the calculation is completed or failed, unless it is shared
+			if ( !isSharedExecutor ) {
+				executor.shutdown();
+			}
+		}
 
 		return piData;
 	}
 
+	/**
+	 * Executes the calculation like {@link #executeCalculation(long)}, and records it in {@link PICalculatorMetrics}
+	 * if the metrics are enabled and as a {@link PICalculationEvent} if the event is enabled in a JFR recording. It is
+	 * used only if either is enabled
+	 * 
+	 * @param n the terminal point in formula used to calculate the PI
+	 * @param event the event of the calculation
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during the calculation
+	 * */
+	private void executeInstrumentedCalculation( long n, PICalculationEvent event ) throws Exception {
+		if ( PICalculatorMetrics.ENABLED ) {
+			PICalculatorMetrics.getInstance().onCalculationStarted();
+		}
+		event.begin();
+
+		try {
+			this.executeCalculation( n );
+		} finally {
+			if ( PICalculatorMetrics.ENABLED ) {
+				PICalculatorMetrics.getInstance().onCalculationEnded();
+			}
+			event.end();
+
+			if ( event.shouldCommit() ) {
+				event.formula = String.valueOf( formulaType );
+				event.n = n;
+				event.computedN = ( piData == null ) ? -1 : piData.getN();
+				event.cancelled = this.isCancel;
+				event.commit();
+			}
+		}
+	}
+
 	/**
 	 * Cancels the remaining calculation. 
 	 * <p>This method updates the cancel state to true. So that the {@link #calculatePI(long)} can stop
@@ -210,6 +431,44 @@ public class PICalculator implements PICalculatorInterface {
 		this.isCancel = true;
 	}
 
+	/**
+	 * Gets the end point of the last range handed out to the thread pool. While the calculation is on-going,
+	 * this value divided by n is the progress of the calculation.
+	 * 
+	 * <p>The end point of a task is published before the task checks the cancellation. So if this value is below n
+	 * when it is read after {@link #cancelCalculation()}, the last range is not handed out and the cancellation is
+	 * sure to take effect
+	 * 
+	 * @return the end point of the last range handed out, -1 if the calculation does not start
+	 * */
+	public long getCurrentN() {
+		return currentN;
+	}
+
+	/**
+	 * Estimates the peak memory of a calculation with its own thread pool. The pool starts a thread per task up to
+	 * the number of threads, each taking {@link #THREAD_MEMORY}, so a small n starts fewer threads. The heap holds
+	 * the ranges of the pending tasks and, assuming the ranges take about the same time, at most as many results
+	 * held by each sum, of which an interval formula has three instead of one
+	 * 
+	 * @param formulaType the formula used to calculate the PI
+	 * @param n the terminal point of the calculation
+	 * @param noOfThread the number of threads of the pool
+	 * @param range the range in which each {@link PIFormula} thread shall work
+	 * @param noOfRangePerTask the number of consecutive ranges each task calculates
+	 * @return the estimated number of bytes
+	 * */
+	public static long estimatePeakMemory( PIFormulaType formulaType, long n, int noOfThread, int range,
+			int noOfRangePerTask ) {
+		long noOfRange = n / ( range + 1L ) + 1;
+		long noOfTask = ( noOfRange - 1 ) / noOfRangePerTask + 1;
+		long noOfStartedThread = Math.min( noOfThread, noOfTask );
+		long noOfPendingRange = Math.min( noOfStartedThread * noOfRangePerTask, noOfRange );
+		int noOfSum = ( new PIFormulaFactory().getPIFormula( formulaType, 0, 0 ) instanceof PIIntervalFormula ) ? 3 : 1;
+
+		return noOfStartedThread * THREAD_MEMORY + noOfPendingRange * ( RANGE_MEMORY + noOfSum * HELD_RESULT_MEMORY );
+	}
+
 	/**
 	 * Gets the PI data which were already computed
 	 * 
@@ -219,26 +478,81 @@ public class PICalculator implements PICalculatorInterface {
 		return piData;
 	}
 
+	/**
+	 * A task of the thread pool, which calculates consecutive ranges one after the other and returns their results
+	 * */
+	private static class PIChunkTask implements Callable< double[] > {
+
+		/**
+		 * Stores the formulas of the ranges, in the order of the ranges
+		 * */
+		private final PIFormula[] formulas;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param formulas the formulas of the ranges
+		 * */
+		private PIChunkTask( PIFormula[] formulas ) {
+			this.formulas = formulas;
+		}
+
+		@Override
+		public double[] call() throws Exception {
+			double[] results = new double[ formulas.length ];
+
+			for ( int i = 0; i < formulas.length; i++ ) {
+				results[ i ] = formulas[ i ].call();
+			}
+			return results;
+		}
+	}
+
 	/**
 	 * This is a helper class of {@link PICalculator}. It is used to increase the flexibility 
 	 * while creating or getting objects. 
-	 * <p>Currently, there is only one method {@link #newFormulaInstance(long, long)} helping
-	 * create new formula instance. New methods may be added in the future.
+	 * <p>Currently, there are three methods: {@link #newFormulaInstance(long, long)} helping
+	 * create new formula instance, and {@link #newPIData(double, long)} and {@link #newPIData(double, double, double, long)}
+	 * helping turn the sum of the formula results, and of their bounds, into the PIData. New methods may be added in the future.
 	 * This builder class is also meant for unit testing. we can use this class to mock different objects
 	 * */
 	private class PICalculatorBuilder {
 
 		/**
-		 * Returns a new instance of {@link PIFormula} based on {@link PICalculator#formulaType}
+		 * Returns a new instance of {@link PIFormula} based on {@link PICalculator#formulaType} and its variant
 		 * 
 		 *  @param startPoint the start point at which the calculation shall begins
 		 *  @param endPoint the end point at which the calculation shall ends
 		 *  @return PIFormula an instance of {@link PIFormula}
 		 * */
 		private PIFormula newFormulaInstance( long startPoint, long endPoint ) {
-			return new PIFormulaFactory().getPIFormula( formulaType, startPoint,
+			return new PIFormulaFactory().getPIFormula( formulaType, formulaVariant, startPoint,
 					endPoint );
 		}
+
+		/**
+		 * Returns the {@link PIData} of the calculation based on {@link PICalculator#formulaType} and its variant
+		 * 
+		 *  @param sum the sum of the results of the formula instances
+		 *  @param n the end point of the calculation
+		 *  @return PIData the PI calculation result
+		 * */
+		private PIData newPIData( double sum, long n ) {
+			return new PIFormulaFactory().newPIData( formulaType, formulaVariant, sum, n );
+		}
+
+		/**
+		 * Returns the {@link PIData} of the calculation with the bounds of the sum, based on {@link PICalculator#formulaType} and its variant
+		 * 
+		 *  @param sum the sum of the results of the formula instances
+		 *  @param lowerSum the lower bound of the exact sum
+		 *  @param upperSum the upper bound of the exact sum
+		 *  @param n the end point of the calculation
+		 *  @return PIData the PI calculation result
+		 * */
+		private PIData newPIData( double sum, double lowerSum, double upperSum, long n ) {
+			return new PIFormulaFactory().newPIData( formulaType, formulaVariant, sum, lowerSum, upperSum, n );
+		}
 	}
 
 }
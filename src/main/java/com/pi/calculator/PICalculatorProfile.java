@@ -0,0 +1,313 @@
+package com.pi.calculator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaProvider;
+import com.pi.formula.PIFormulaType;
+
+/**
+ * A PICalculatorProfile stores, for each {@link PIFormulaType} and kernel variant, the number of threads and the
+ * number of ranges per task which gave the best throughput on this machine. It is produced by {@link PICalculatorTuner}
+ * and persisted as a small properties file, so that later runs start tuned without calibrating again. The range itself
+ * is not tuned, it decides the chunks of the sum, so a tuned calculator of a variant gives the same PI as an untuned one
+ * on any machine.
+ * 
+ * <p>The profile also stores, for each formula type, the variant with the best throughput, and
+ * {@link #newCalculator(PIFormulaType)} uses it. A different variant sums the same series with a different kernel, so
+ * its PI may differ from the one of the default variant in the last bits, within the error of the formula
+ * 
+ * <p>The profile also stores the number of available processors it was calibrated with. A profile loaded on a machine,
+ * or in a container, with a different number of processors is considered stale and ignored, and so is a profile
+ * whose values cannot be parsed
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorProfile {
+
+	/**
+	 * The key of the number of processors the profile was calibrated with
+	 * */
+	private static final String PROCESSORS_KEY = "processors";
+
+	/**
+	 * The suffix of the key of the number of threads of a formula
+	 * */
+	private static final String THREADS_SUFFIX = ".threads";
+
+	/**
+	 * The suffix of the key of the number of ranges per task of a formula
+	 * */
+	private static final String RANGES_PER_TASK_SUFFIX = ".rangesPerTask";
+
+	/**
+	 * The suffix of the key of the measured throughput of a formula
+	 * */
+	private static final String TERMS_PER_SECOND_SUFFIX = ".termsPerSecond";
+
+	/**
+	 * The suffix of the key of the variant of a formula type with the best throughput
+	 * */
+	private static final String VARIANT_SUFFIX = ".variant";
+
+	/**
+	 * Stores the entries of the profile
+	 * */
+	private final Properties properties = new Properties();
+
+	/**
+	 * Constructor, creates an empty profile for this machine
+	 * */
+	public PICalculatorProfile() {
+		properties.setProperty( PROCESSORS_KEY, String.valueOf( Runtime.getRuntime().availableProcessors() ) );
+	}
+
+	/**
+	 * Returns the default path of the profile, in the home directory of the user
+	 * 
+	 * @return Path the default profile path
+	 * */
+	public static Path defaultPath() {
+		return Paths.get( System.getProperty( "user.home" ), ".pi-calculator", "profile.properties" );
+	}
+
+	/**
+	 * Loads the profile from the given file
+	 * 
+	 * @param path the path of the profile
+	 * @return PICalculatorProfile the loaded profile. Null will be returned if the file does not exist,
+	 *         cannot be read, is corrupt or was calibrated with a different number of processors
+	 * */
+	public static PICalculatorProfile load( Path path ) {
+		PICalculatorProfile profile = new PICalculatorProfile();
+
+		if ( !Files.isRegularFile( path ) ) {
+			return null;
+		}
+		try ( InputStream in = Files.newInputStream( path ) ) {
+			Properties loaded = new Properties();
+			loaded.load( in );
+
+			if ( !profile.properties.getProperty( PROCESSORS_KEY ).equals( loaded.getProperty( PROCESSORS_KEY ) ) ) {
+				return null;
+			}
+			for ( String key : loaded.stringPropertyNames() ) {
+				if ( key.endsWith( VARIANT_SUFFIX ) ) {
+					PIFormulaType formulaType = PIFormulaType.getPIFormulaType(
+							key.substring( 0, key.length() - VARIANT_SUFFIX.length() ) );
+					if ( formulaType == null || PIFormulaFactory.getProvider( formulaType, loaded.getProperty( key ) ) == null ) {
+						throw new IllegalArgumentException( "Unknown variant " + key + " = " + loaded.getProperty( key ) );
+					}
+				} else if ( key.endsWith( TERMS_PER_SECOND_SUFFIX ) ) {
+					Double.parseDouble( loaded.getProperty( key ) );
+				} else {
+					Integer.parseInt( loaded.getProperty( key ) );
+				}
+			}
+			profile.properties.putAll( loaded );
+			return profile;
+
+		} catch ( IOException | IllegalArgumentException e ) {
+			// a corrupt profile is ignored like a missing one
+			return null;
+		}
+	}
+
+	/**
+	 * Saves the profile to the given file, creating its directory if needed
+	 * 
+	 * @param path the path of the profile
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be written
+	 * */
+	public void save( Path path ) throws IOException {
+		if ( path.getParent() != null ) {
+			Files.createDirectories( path.getParent() );
+		}
+		try ( OutputStream out = Files.newOutputStream( path ) ) {
+			properties.store( out, "pi-calculator machine profile" );
+		}
+	}
+
+	/**
+	 * Stores the best settings of the default variant of a formula
+	 * 
+	 * @param formulaType the formula type
+	 * @param noOfThread the number of threads
+	 * @param noOfRangePerTask the number of ranges each task of the thread pool calculates
+	 * @param termsPerSecond the throughput measured with these settings
+	 * */
+	public void put( PIFormulaType formulaType, int noOfThread, int noOfRangePerTask, double termsPerSecond ) {
+		this.put( formulaType, null, noOfThread, noOfRangePerTask, termsPerSecond );
+	}
+
+	/**
+	 * Stores the best settings of a kernel variant of a formula
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant, null for the default one
+	 * @param noOfThread the number of threads
+	 * @param noOfRangePerTask the number of ranges each task of the thread pool calculates
+	 * @param termsPerSecond the throughput measured with these settings
+	 * */
+	public void put( PIFormulaType formulaType, String variant, int noOfThread, int noOfRangePerTask,
+			double termsPerSecond ) {
+		String key = getKey( formulaType, variant );
+
+		properties.setProperty( key + THREADS_SUFFIX, String.valueOf( noOfThread ) );
+		properties.setProperty( key + RANGES_PER_TASK_SUFFIX, String.valueOf( noOfRangePerTask ) );
+		properties.setProperty( key + TERMS_PER_SECOND_SUFFIX, String.valueOf( termsPerSecond ) );
+	}
+
+	/**
+	 * Stores the variant of a formula type with the best throughput, which {@link #newCalculator(PIFormulaType)} uses
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant
+	 * */
+	public void putVariant( PIFormulaType formulaType, String variant ) {
+		properties.setProperty( formulaType + VARIANT_SUFFIX, variant );
+	}
+
+	/**
+	 * Gets the variant of a formula type with the best throughput
+	 * 
+	 * @param formulaType the formula type
+	 * @return the name of the variant, {@link PIFormulaProvider#DEFAULT_VARIANT} if no variant is chosen
+	 * */
+	public String getVariant( PIFormulaType formulaType ) {
+		return properties.getProperty( formulaType + VARIANT_SUFFIX, PIFormulaProvider.DEFAULT_VARIANT );
+	}
+
+	/**
+	 * Returns true if the profile has the settings of the default variant of the formula
+	 * 
+	 * @param formulaType the formula type
+	 * @return true if the formula is calibrated; false otherwise
+	 * */
+	public boolean contains( PIFormulaType formulaType ) {
+		return this.contains( formulaType, null );
+	}
+
+	/**
+	 * Returns true if the profile has the settings of a kernel variant of the formula
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant, null for the default one
+	 * @return true if the variant is calibrated; false otherwise
+	 * */
+	public boolean contains( PIFormulaType formulaType, String variant ) {
+		return this.getNoOfThread( formulaType, variant ) > 0 && this.getNoOfRangePerTask( formulaType, variant ) > 0;
+	}
+
+	/**
+	 * Gets the number of threads of the default variant of the formula
+	 * 
+	 * @param formulaType the formula type
+	 * @return the number of threads, -1 if the formula is not calibrated
+	 * */
+	public int getNoOfThread( PIFormulaType formulaType ) {
+		return this.getNoOfThread( formulaType, null );
+	}
+
+	/**
+	 * Gets the number of threads of a kernel variant of the formula
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant, null for the default one
+	 * @return the number of threads, -1 if the variant is not calibrated
+	 * */
+	public int getNoOfThread( PIFormulaType formulaType, String variant ) {
+		return Integer.parseInt( properties.getProperty( getKey( formulaType, variant ) + THREADS_SUFFIX, "-1" ) );
+	}
+
+	/**
+	 * Gets the number of ranges each task of the thread pool calculates, for the default variant of the formula
+	 * 
+	 * @param formulaType the formula type
+	 * @return the number of ranges per task, -1 if the formula is not calibrated
+	 * */
+	public int getNoOfRangePerTask( PIFormulaType formulaType ) {
+		return this.getNoOfRangePerTask( formulaType, null );
+	}
+
+	/**
+	 * Gets the number of ranges each task of the thread pool calculates, for a kernel variant of the formula
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant, null for the default one
+	 * @return the number of ranges per task, -1 if the variant is not calibrated
+	 * */
+	public int getNoOfRangePerTask( PIFormulaType formulaType, String variant ) {
+		return Integer.parseInt( properties.getProperty( getKey( formulaType, variant ) + RANGES_PER_TASK_SUFFIX, "-1" ) );
+	}
+
+	/**
+	 * Gets the throughput measured with the settings of the default variant of the formula
+	 * 
+	 * @param formulaType the formula type
+	 * @return the number of terms per second, 0 if the formula is not calibrated
+	 * */
+	public double getTermsPerSecond( PIFormulaType formulaType ) {
+		return this.getTermsPerSecond( formulaType, null );
+	}
+
+	/**
+	 * Gets the throughput measured with the settings of a kernel variant of the formula
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant, null for the default one
+	 * @return the number of terms per second, 0 if the variant is not calibrated
+	 * */
+	public double getTermsPerSecond( PIFormulaType formulaType, String variant ) {
+		return Double.parseDouble( properties.getProperty( getKey( formulaType, variant ) + TERMS_PER_SECOND_SUFFIX, "0" ) );
+	}
+
+	/**
+	 * Returns a new calculator of the variant of the formula with the best throughput, see {@link #getVariant(PIFormulaType)},
+	 * with its settings, or with the default settings if the variant is not calibrated
+	 * 
+	 * @param formulaType the formula type
+	 * @return PICalculator the calculator
+	 * */
+	public PICalculator newCalculator( PIFormulaType formulaType ) {
+		return this.newCalculator( formulaType, this.getVariant( formulaType ) );
+	}
+
+	/**
+	 * Returns a new calculator of a kernel variant of the formula with its settings, or with the default settings
+	 * if the variant is not calibrated
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant, null for the default one
+	 * @return PICalculator the calculator
+	 * */
+	public PICalculator newCalculator( PIFormulaType formulaType, String variant ) {
+		if ( !this.contains( formulaType, variant ) ) {
+			return new PICalculator( formulaType, variant, Runtime.getRuntime().availableProcessors(),
+					PICalculator.DEFAULT_RANGE );
+		}
+		return new PICalculator( formulaType, variant, this.getNoOfThread( formulaType, variant ),
+				PICalculator.DEFAULT_RANGE, this.getNoOfRangePerTask( formulaType, variant ) );
+	}
+
+	/**
+	 * Returns the prefix of the keys of a kernel variant of a formula. The default variant is keyed by its formula
+	 * type alone, the other variants by <tt>TYPE/variant</tt>
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant, null for the default one
+	 * @return the prefix of the keys
+	 * */
+	private static String getKey( PIFormulaType formulaType, String variant ) {
+		if ( variant == null || PIFormulaProvider.DEFAULT_VARIANT.equals( variant ) ) {
+			return formulaType.toString();
+		}
+		return formulaType + "/" + variant;
+	}
+}
@@ -0,0 +1,142 @@
+package com.pi.calculator;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This class is used to run many small calculations at the same time.
+ * 
+ * <p>Each calculation submitted by {@link #submit(PIFormulaType, long)} is orchestrated on its own thread
+ * of {@link PIExecutors#orchestrationPool()}, while its {@link com.pi.formula.PIFormula} tasks are evaluated by the
+ * compute pool which is shared by all calculations. So that the number of CPU-bound threads stays bounded
+ * by the number of processors regardless of how many calculations are on-going
+ * 
+ * <p>The returned {@link PICalculation} keeps the semantics of {@link PICalculator}; it can be cancelled and
+ * the PI computed up to the cancellation point is returned
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorService {
+
+	/**
+	 * Stores the pool on which the orchestration of each calculation runs
+	 * */
+	private final ExecutorService orchestrationPool;
+
+	/**
+	 * Stores the pool on which the formula tasks of all calculations run
+	 * */
+	private final ExecutorService computePool;
+
+	/**
+	 * Stores the maximum number of formula tasks which a calculation may have in the compute pool
+	 * */
+	private final int noOfThread;
+
+	/**
+	 * Constructor, uses the shared pools of {@link PIExecutors}
+	 * */
+	public PICalculatorService() {
+		this( PIExecutors.orchestrationPool(), PIExecutors.sharedComputePool(), Runtime
+				.getRuntime().availableProcessors() );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param orchestrationPool the pool on which the orchestration of each calculation runs
+	 * @param computePool the pool on which the formula tasks of all calculations run
+	 * @param noOfThread the maximum number of formula tasks which a calculation may have in the compute pool
+	 * */
+	public PICalculatorService( ExecutorService orchestrationPool, ExecutorService computePool, int noOfThread ) {
+		this.orchestrationPool = orchestrationPool;
+		this.computePool = computePool;
+		this.noOfThread = noOfThread;
+	}
+
+	/**
+	 * Submits a new calculation and returns immediately
+	 * 
+	 * @param formulaType the formula used to calculate the PI
+	 * @param n the terminal point used in a PI formula
+	 * @return PICalculation the handle of the on-going calculation
+	 * */
+	public PICalculation submit( PIFormulaType formulaType, final long n ) {
+		final PICalculator piCal = new PICalculator( formulaType, computePool, noOfThread );
+
+		Future< PIData > future = orchestrationPool.submit( new Callable< PIData >() {
+			@Override
+			public PIData call() throws Exception {
+				return piCal.calculatePI( n );
+			}
+		});
+		return new PICalculation( piCal, future );
+	}
+
+	/**
+	 * This class is a handle of a calculation submitted to {@link PICalculatorService}
+	 * */
+	public static class PICalculation {
+
+		/**
+		 * Stores the calculator which runs the calculation
+		 * */
+		private final PICalculatorInterface piCal;
+
+		/**
+		 * Stores the future of the orchestration task
+		 * */
+		private final Future< PIData > future;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param piCal the calculator which runs the calculation
+		 * @param future the future of the orchestration task
+		 * */
+		private PICalculation( PICalculatorInterface piCal, Future< PIData > future ) {
+			this.piCal = piCal;
+			this.future = future;
+		}
+
+		/**
+		 * Waits until the calculation is completed or cancelled and returns its result
+		 * 
+		 * @return PIData The PI calculation result
+		 * @throws Exception the <tt>exception</tt> may be thrown from {@link Future#get()}
+		 * */
+		public PIData get() throws Exception {
+			return future.get();
+		}
+
+		/**
+		 * Returns true if the calculation is completed or cancelled
+		 * 
+		 * @return true if the calculation is done; false otherwise
+		 * */
+		public boolean isDone() {
+			return future.isDone();
+		}
+
+		/**
+		 * Cancels the remaining calculation. {@link #get()} returns the PI computed before the cancellation. A calculation
+		 * which is cancelled before its orchestration starts returns without computing any range
+		 * */
+		public void cancel() {
+			piCal.cancelCalculation();
+		}
+
+		/**
+		 * Returns the calculator which runs the calculation
+		 * 
+		 * @return PICalculatorInterface the calculator
+		 * */
+		public PICalculatorInterface getCalculator() {
+			return piCal;
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.pi.calculator;
+
+import java.util.TreeSet;
+
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaProvider;
+import com.pi.formula.PIFormulaType;
+
+/**
+ * This class calibrates the number of threads and the number of ranges per task of {@link PICalculator} for each
+ * {@link PIFormulaType} and each of its kernel variants, as the variants do not cost the same per term, and chooses the
+ * variant of each formula type with the best throughput.
+ * 
+ * <p>{@link Runtime#availableProcessors()} and one range per task are not always the best settings: a container
+ * with a CPU quota may run fewer threads in parallel than it reports, the hyper-threads of an SMT host share
+ * the execution units of their core, and larger tasks save scheduling overhead. So the tuner runs short trials of
+ * every combination of the candidate thread counts and numbers of ranges per task and keeps the one with the best
+ * throughput. The range stays the default one, it decides how the chunks are summed and so the bits of the PI. Each combination is run
+ * {@link #NO_OF_TRIAL} times and its best run is kept, which filters out the noise of the first, not yet
+ * JIT-compiled runs
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorTuner {
+
+	/**
+	 * Stores the default n value of a trial
+	 * */
+	public static final long DEFAULT_TRIAL_N = 20000000;
+
+	/**
+	 * Stores the number of trials of each combination
+	 * */
+	private static final int NO_OF_TRIAL = 3;
+
+	/**
+	 * Stores the candidate numbers of ranges per task
+	 * */
+	private static final int[] CANDIDATE_RANGES_PER_TASK = { 1, 4, 16 };
+
+	/**
+	 * Stores the n value of a trial
+	 * */
+	private final long trialN;
+
+	/**
+	 * Constructor with the default n value of a trial
+	 * */
+	public PICalculatorTuner() {
+		this( DEFAULT_TRIAL_N );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param trialN the n value of a trial
+	 * */
+	public PICalculatorTuner( long trialN ) {
+		this.trialN = trialN;
+	}
+
+	/**
+	 * Calibrates every variant of every formula and returns the profile, in which the variant of each formula type
+	 * with the best throughput is chosen
+	 * 
+	 * @return PICalculatorProfile the profile of this machine
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during a trial
+	 * */
+	public PICalculatorProfile calibrate() throws Exception {
+		PICalculatorProfile profile = new PICalculatorProfile();
+
+		for ( PIFormulaProvider provider : PIFormulaFactory.getProviders() ) {
+			PIFormulaType formulaType = provider.getFormulaType();
+
+			this.calibrate( formulaType, provider.getVariant(), profile );
+			if ( profile.getTermsPerSecond( formulaType, provider.getVariant() )
+					> profile.getTermsPerSecond( formulaType, profile.getVariant( formulaType ) ) ) {
+				profile.putVariant( formulaType, provider.getVariant() );
+			}
+		}
+		return profile;
+	}
+
+	/**
+	 * Calibrates the default variant of a formula and stores its best settings into the profile
+	 * 
+	 * @param formulaType the formula type
+	 * @param profile the profile in which the settings are stored
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during a trial
+	 * */
+	public void calibrate( PIFormulaType formulaType, PICalculatorProfile profile ) throws Exception {
+		this.calibrate( formulaType, null, profile );
+	}
+
+	/**
+	 * Calibrates a kernel variant of a formula and stores its best settings into the profile
+	 * 
+	 * @param formulaType the formula type
+	 * @param variant the name of the variant, null for the default one
+	 * @param profile the profile in which the settings are stored
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during a trial
+	 * */
+	public void calibrate( PIFormulaType formulaType, String variant, PICalculatorProfile profile ) throws Exception {
+		double bestTermsPerSecond = -1;
+		int bestNoOfThread = 0;
+		int bestNoOfRangePerTask = 0;
+
+		for ( int noOfThread : candidateThreadCounts() ) {
+			for ( int noOfRangePerTask : CANDIDATE_RANGES_PER_TASK ) {
+				double termsPerSecond = 0;
+
+				for ( int i = 0; i < NO_OF_TRIAL; i++ ) {
+					long startTime = System.nanoTime();
+					new PICalculator( formulaType, variant, noOfThread, PICalculator.DEFAULT_RANGE, noOfRangePerTask )
+							.calculatePI( trialN );
+					long timeTaken = Math.max( System.nanoTime() - startTime, 1 );
+
+					termsPerSecond = Math.max( termsPerSecond, ( trialN + 1 ) * 1e9 / timeTaken );
+				}
+
+				if ( termsPerSecond > bestTermsPerSecond ) {
+					bestTermsPerSecond = termsPerSecond;
+					bestNoOfThread = noOfThread;
+					bestNoOfRangePerTask = noOfRangePerTask;
+				}
+			}
+		}
+		profile.put( formulaType, variant, bestNoOfThread, bestNoOfRangePerTask, bestTermsPerSecond );
+	}
+
+	/**
+	 * Returns the candidate thread counts: the powers of two below the number of available processors,
+	 * the number of available processors and its half, which is the number of cores on an SMT host
+	 * 
+	 * @return the candidate thread counts, in ascending order
+	 * */
+	static TreeSet< Integer > candidateThreadCounts() {
+		int noOfProcessor = Runtime.getRuntime().availableProcessors();
+		TreeSet< Integer > threadCounts = new TreeSet<>();
+
+		for ( int noOfThread = 1; noOfThread < noOfProcessor; noOfThread *= 2 ) {
+			threadCounts.add( noOfThread );
+		}
+		threadCounts.add( Math.max( noOfProcessor / 2, 1 ) );
+		threadCounts.add( noOfProcessor );
+		return threadCounts;
+	}
+}
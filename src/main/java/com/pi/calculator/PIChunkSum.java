@@ -0,0 +1,153 @@
+package com.pi.calculator;
+
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class sums the results of the chunks of a calculation in a fixed pairwise tree, indexed by the chunk and not
+ * by the order in which the chunks complete. The same chunks therefore give a bit-identical sum whatever the number
+ * of threads and the completion order, and the rounding error grows with the logarithm of the number of chunks
+ * instead of linearly.
+ *
+ * <p>A result which completes before its predecessors is held until they complete. The tree is a binary counter:
+ * slot l holds the sum of a complete subtree of 2^l chunks, and adding a chunk merges the full slots like a carry,
+ * so adding costs O(1) amortized and the memory is O(log n) besides the held results
+ *
+ * <p>The additions are rounded to the nearest by default. A sum may instead round every addition downwards or upwards,
+ * to sum the lower or the upper bounds of intervals so that the result still bounds the exact sum
+ *
+ * <p>This class is not thread-safe, it is used by the thread collecting the results or under a lock
+ *
+ * @author Truong Nguyen
+ * */
+public class PIChunkSum {
+
+	/**
+	 * Stores the results which complete before their predecessors, by the index of their chunk
+	 * */
+	private final Map< Long, Double > heldResults = new HashMap<>();
+
+	/**
+	 * Stores the sums of the complete subtrees, slot l is used if the bit l of {@link #noOfChunk} is set
+	 * */
+	private final double[] subtreeSums = new double[ Long.SIZE ];
+
+	/**
+	 * Stores the number of chunks added to the tree, which are the chunks [0, noOfChunk)
+	 * */
+	private long noOfChunk = 0;
+
+	/**
+	 * Stores the rounding of the additions: {@link RoundingMode#HALF_EVEN}, {@link RoundingMode#FLOOR} or
+	 * {@link RoundingMode#CEILING}
+	 * */
+	private final RoundingMode roundingMode;
+
+	/**
+	 * Constructor, rounds the additions to the nearest
+	 * */
+	public PIChunkSum() {
+		this( RoundingMode.HALF_EVEN );
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param roundingMode the rounding of the additions: {@link RoundingMode#HALF_EVEN} to the nearest,
+	 * {@link RoundingMode#FLOOR} downwards or {@link RoundingMode#CEILING} upwards
+	 * */
+	public PIChunkSum( RoundingMode roundingMode ) {
+		if ( roundingMode != RoundingMode.HALF_EVEN && roundingMode != RoundingMode.FLOOR
+				&& roundingMode != RoundingMode.CEILING ) {
+			throw new IllegalArgumentException( "Unsupported rounding mode " + roundingMode );
+		}
+		this.roundingMode = roundingMode;
+	}
+
+	/**
+	 * Adds the result of a chunk
+	 *
+	 * @param index the index of the chunk, from 0
+	 * @param result the result of the chunk
+	 * */
+	public void add( long index, double result ) {
+		if ( index < noOfChunk || heldResults.containsKey( index ) ) {
+			throw new IllegalArgumentException( "The chunk " + index + " is already added" );
+		}
+		if ( index != noOfChunk ) {
+			heldResults.put( index, result );
+			return;
+		}
+
+		this.addToTree( result );
+		Double heldResult;
+		while ( ( heldResult = heldResults.remove( noOfChunk ) ) != null ) {
+			this.addToTree( heldResult );
+		}
+	}
+
+	/**
+	 * Gets the sum of the chunks [0, {@link #getNoOfChunk()}). The held results after a missing chunk are not included
+	 *
+	 * @return the sum
+	 * */
+	public double getSum() {
+		double sum = 0.0;
+		boolean isFirst = true;
+
+		// the lower slots hold the later chunks, they are added to the earlier ones from the right
+		for ( int level = 0; level < Long.SIZE; level++ ) {
+			if ( ( noOfChunk & ( 1L << level ) ) != 0 ) {
+				sum = isFirst ? subtreeSums[ level ] : this.add( subtreeSums[ level ], sum );
+				isFirst = false;
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Gets the number of chunks which are summed, the chunks after a missing one are not counted
+	 *
+	 * @return the number of chunks
+	 * */
+	public long getNoOfChunk() {
+		return noOfChunk;
+	}
+
+	/**
+	 * Adds two values with the rounding of this sum. The directed roundings move the nearest sum one ulp outwards,
+	 * which bounds the exact sum whichever way it was rounded
+	 *
+	 * @param left the left value
+	 * @param right the right value
+	 * @return the rounded sum
+	 * */
+	private double add( double left, double right ) {
+		double sum = left + right;
+
+		if ( roundingMode == RoundingMode.FLOOR ) {
+			return Math.nextDown( sum );
+		} else if ( roundingMode == RoundingMode.CEILING ) {
+			return Math.nextUp( sum );
+		}
+		return sum;
+	}
+
+	/**
+	 * Adds the result of the chunk {@link #noOfChunk} to the tree, merging the complete subtrees
+	 *
+	 * @param result the result of the chunk
+	 * */
+	private void addToTree( double result ) {
+		double sum = result;
+		int level = 0;
+
+		while ( ( noOfChunk & ( 1L << level ) ) != 0 ) {
+			sum = this.add( subtreeSums[ level ], sum );
+			level++;
+		}
+		subtreeSums[ level ] = sum;
+		noOfChunk++;
+	}
+}
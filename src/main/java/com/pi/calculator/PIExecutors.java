@@ -0,0 +1,91 @@
+package com.pi.calculator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This utility class holds the thread pools which are shared by many {@link PICalculator} instances.
+ * 
+ * <p>When a lot of small calculations are running at the same time, creating a new fixed thread pool
+ * for every {@link PICalculator} is expensive and over-subscribes the CPU. Instead, the CPU-bound
+ * {@link com.pi.formula.PIFormula} tasks of all calculations may be submitted to one shared compute pool
+ * which is bounded by the number of processors, while the orchestration of each calculation runs on
+ * its own cheap thread from the orchestration pool
+ * 
+ * @author Truong Nguyen
+ * */
+public final class PIExecutors {
+
+	/**
+	 * Stores the compute pool which is shared by all calculations. It is created lazily
+	 * */
+	private static volatile ExecutorService sharedComputePool = null;
+
+	/**
+	 * Stores the pool which runs the orchestration of each calculation. It is created lazily
+	 * */
+	private static volatile ExecutorService orchestrationPool = null;
+
+	/**
+	 * Constructor, The modifier is private because this is an utility class
+	 * */
+	private PIExecutors() {
+	}
+
+	/**
+	 * Returns the compute pool which is shared by all calculations. The pool has as many threads
+	 * as the available processors, its threads are daemon threads so that the pool never blocks the JVM exit
+	 * 
+	 * @return ExecutorService the shared compute pool
+	 * */
+	public static ExecutorService sharedComputePool() {
+		if ( sharedComputePool == null ) {
+			synchronized ( PIExecutors.class ) {
+				if ( sharedComputePool == null ) {
+					sharedComputePool = Executors.newFixedThreadPool( Runtime.getRuntime()
+							.availableProcessors(), newDaemonThreadFactory( "pi-compute-" ) );
+				}
+			}
+		}
+		return sharedComputePool;
+	}
+
+	/**
+	 * Returns the pool which runs the orchestration of calculations. The orchestration threads
+	 * spend most of their time waiting for the compute pool, so the pool grows on demand and
+	 * idle threads are reclaimed
+	 * 
+	 * @return ExecutorService the orchestration pool
+	 * */
+	public static ExecutorService orchestrationPool() {
+		if ( orchestrationPool == null ) {
+			synchronized ( PIExecutors.class ) {
+				if ( orchestrationPool == null ) {
+					orchestrationPool = Executors.newCachedThreadPool( newDaemonThreadFactory( "pi-orchestration-" ) );
+				}
+			}
+		}
+		return orchestrationPool;
+	}
+
+	/**
+	 * Returns a thread factory which creates daemon threads with the given name prefix
+	 * 
+	 * @param prefix the prefix of the thread names
+	 * @return ThreadFactory the thread factory
+	 * */
+	static ThreadFactory newDaemonThreadFactory( final String prefix ) {
+		return new ThreadFactory() {
+			private final AtomicInteger counter = new AtomicInteger();
+
+			@Override
+			public Thread newThread( Runnable runnable ) {
+				Thread thread = new Thread( runnable, prefix + counter.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			}
+		};
+	}
+}
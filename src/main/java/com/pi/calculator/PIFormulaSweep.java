@@ -0,0 +1,262 @@
+package com.pi.calculator;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaProvider;
+import com.pi.formula.PIFormulaType;
+import com.pi.formula.PILeibnizPairedFormulaProvider;
+import com.pi.formula.PILeibnizSweepFormula;
+import com.pi.model.PIData;
+
+/**
+ * This class calculates the term-wise Leibniz series at several terminal points in one pass, for the reports which
+ * compare their convergence. Instead of one {@link PICalculator} run per series and per terminal point, the range
+ * [0, largest terminal point] is traversed once by {@link PILeibnizSweepFormula} threads, each of which computes all
+ * the series of its range in one fused loop. The series are <tt>LEIBNIZ/default</tt>, <tt>LEIBNIZ/paired</tt> and
+ * <tt>LEIBNIZ_INTERVAL/default</tt>; the Monte Carlo formula is not term-wise and is not swept.
+ *
+ * <p>The ranges are split at the terminal points, and the results of each series are summed by its own
+ * {@link PIChunkSum} in the order of the ranges. When the range ending at a terminal point is summed, the sums are
+ * turned into the {@link PIData} of each series by its {@link PIFormulaProvider}, the same as {@link PICalculator}
+ * does. A terminal point t whose t + 1 is a multiple of range + 1 is not split, so its PIData are bit-identical to
+ * those of separate {@link PICalculator} runs with the same range; otherwise they agree within the rounding error
+ *
+ * <p>Like {@link PICalculator}, each instance owns a thread pool which is shut down once the sweep is completed
+ *
+ * @author Truong Nguyen
+ * */
+public class PIFormulaSweep {
+
+	/**
+	 * Stores the range in which each {@link PILeibnizSweepFormula} thread shall work
+	 * */
+	private final int range;
+
+	/**
+	 * A number representing a number of threads are working simultaneously
+	 * */
+	private final int noOfThread;
+
+	/**
+	 * Stores a reference to the thread pool service which is used to control thread's operations
+	 * */
+	private final ExecutorService executor;
+
+	/**
+	 * Stores the providers of the series, in the order of the columns of the table
+	 * */
+	private final PIFormulaProvider[] providers;
+
+	/**
+	 * An boolean value indicates if the sweep is canceled
+	 * */
+	private volatile boolean isCancel = false;
+
+	/**
+	 * Stores the sum of the Leibniz results of the on-going sweep
+	 * */
+	private PIChunkSum leibnizSum = null;
+
+	/**
+	 * Stores the sum of the paired results of the on-going sweep
+	 * */
+	private PIChunkSum pairedSum = null;
+
+	/**
+	 * Stores the sum of the lower bounds of the on-going sweep
+	 * */
+	private PIChunkSum lowerSum = null;
+
+	/**
+	 * Stores the sum of the upper bounds of the on-going sweep
+	 * */
+	private PIChunkSum upperSum = null;
+
+	/**
+	 * Stores the formulas which are calculated but not summed yet, by their start points
+	 * */
+	private Map< Long, PILeibnizSweepFormula > completedFormulas = null;
+
+	/**
+	 * Stores the start point of the next range to sum
+	 * */
+	private long nextStartPoint = 0;
+
+	/**
+	 * Stores the PIData of the terminal points which are summed, by terminal point and series
+	 * */
+	private PIData[][] data = null;
+
+	/**
+	 * Stores the number of terminal points which are summed
+	 * */
+	private int noOfSummedTarget = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param noOfThread the number of threads of the thread pool
+	 * @param range the range in which each {@link PILeibnizSweepFormula} thread shall work
+	 * */
+	public PIFormulaSweep( int noOfThread, int range ) {
+		if ( noOfThread <= 0 || range <= 0 ) {
+			throw new IllegalArgumentException( "Invalid value received, noOfThread and range should be larger than 0" );
+		}
+		this.noOfThread = noOfThread;
+		this.range = range;
+		this.providers = new PIFormulaProvider[] {
+				PIFormulaFactory.getProvider( PIFormulaType.LEIBNIZ, PIFormulaProvider.DEFAULT_VARIANT ),
+				PIFormulaFactory.getProvider( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT ),
+				PIFormulaFactory.getProvider( PIFormulaType.LEIBNIZ_INTERVAL, PIFormulaProvider.DEFAULT_VARIANT ) };
+
+		this.executor = Executors.newFixedThreadPool( noOfThread );
+	}
+
+	/**
+	 * Calculates the series at each terminal point, traversing the terms once
+	 *
+	 * @param targets the terminal points, in any order
+	 * @return PISweepTable the PIData of each terminal point and series. If the sweep is canceled, only the terminal
+	 *         points reached before are included
+	 * @throws Exception the <tt>Exception</tt> may be thrown if a terminal point is invalid or any error is occurred
+	 *         during the calculation
+	 * */
+	public PISweepTable sweep( long... targets ) throws Exception {
+		try {
+			if ( targets.length == 0 ) {
+				throw new Exception( "Invalid value received, at least one terminal point is required" );
+			}
+			long[] sortedTargets = Arrays.stream( targets ).sorted().distinct().toArray();
+			if ( sortedTargets[ 0 ] < 0 ) {
+				throw new Exception( "Invalid value received, n value should be equal or larger than 0" );
+			}
+
+			this.isCancel = false;
+			this.executeSweep( sortedTargets );
+
+			String[] series = new String[ providers.length ];
+			for ( int i = 0; i < providers.length; i++ ) {
+				series[ i ] = PISweepTable.getSeriesName( providers[ i ].getFormulaType(), providers[ i ].getVariant() );
+			}
+			return new PISweepTable( List.of( series ), Arrays.copyOf( sortedTargets, noOfSummedTarget ),
+					Arrays.copyOf( data, noOfSummedTarget ) );
+		} finally {
+			// shutdowns the thread pool once the sweep is completed or failed
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Executes the sweep by creating {@link PILeibnizSweepFormula} threads, the same as
+	 * {@link PICalculator#calculatePI(long)} but splitting the ranges at the terminal points
+	 *
+	 * @param targets the terminal points, in ascending order without duplicates
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during the calculation
+	 * */
+	private void executeSweep( long[] targets ) throws Exception {
+		CompletionService< Double > piCompletionService = new ExecutorCompletionService<>( executor );
+		Map< Future< Double >, PILeibnizSweepFormula > chunkFormulas = new HashMap<>();
+		int noOfPending = 0;
+		int targetIndex = 0;
+		long startPoint = 0;
+		long endPoint;
+
+		leibnizSum = new PIChunkSum();
+		pairedSum = new PIChunkSum();
+		lowerSum = new PIChunkSum( RoundingMode.FLOOR );
+		upperSum = new PIChunkSum( RoundingMode.CEILING );
+		completedFormulas = new HashMap<>();
+		nextStartPoint = 0;
+		data = new PIData[ targets.length ][];
+		noOfSummedTarget = 0;
+
+		// loop until the last terminal point is handed out or the sweep is canceled
+		while ( !this.isCancel && targetIndex < targets.length ) {
+			endPoint = Math.min( startPoint + range, targets[ targetIndex ] );
+			if ( endPoint == targets[ targetIndex ] ) {
+				targetIndex++;
+			}
+
+			PILeibnizSweepFormula piFormula = new PILeibnizSweepFormula( startPoint, endPoint );
+			chunkFormulas.put( piCompletionService.submit( piFormula ), piFormula );
+			noOfPending++;
+			startPoint = endPoint + 1;
+
+			// when the pool is full, waits for any thread to be done before adding a new one
+			if ( noOfPending >= noOfThread ) {
+				this.addResultAny( piCompletionService, chunkFormulas, targets );
+				noOfPending--;
+			}
+		}
+
+		for ( int i = 0; i < noOfPending; i++ ) {
+			this.addResultAny( piCompletionService, chunkFormulas, targets );
+		}
+	}
+
+	/**
+	 * Gets result of a thread, which is done, and sums the completed ranges which follow the summed ones. Whenever the
+	 * summed ranges reach the next terminal point, the PIData of the series at that point are stored. This is a
+	 * blocking method
+	 *
+	 * @param piCompletionService the completion service to which the threads are submitted
+	 * @param chunkFormulas the formula of each submitted thread
+	 * @param targets the terminal points, in ascending order without duplicates
+	 * @throws Exception the <tt>exception</tt> may be throw from {@link java.util.concurrent.Future#get()}
+	 * */
+	private void addResultAny( CompletionService< Double > piCompletionService,
+			Map< Future< Double >, PILeibnizSweepFormula > chunkFormulas, long[] targets ) throws Exception {
+		Future< Double > future = piCompletionService.take();
+		PILeibnizSweepFormula piFormula = chunkFormulas.remove( future );
+		future.get();
+		completedFormulas.put( piFormula.getStartPoint(), piFormula );
+
+		// the ranges are summed in order, so that the sums can be read exactly at the terminal points
+		while ( ( piFormula = completedFormulas.remove( nextStartPoint ) ) != null ) {
+			long chunkIndex = leibnizSum.getNoOfChunk();
+
+			leibnizSum.add( chunkIndex, piFormula.getSum() );
+			pairedSum.add( chunkIndex, piFormula.getPairedSum() );
+			lowerSum.add( chunkIndex, piFormula.getLowerBound() );
+			upperSum.add( chunkIndex, piFormula.getUpperBound() );
+			nextStartPoint = piFormula.getEndPoint() + 1;
+
+			if ( piFormula.getEndPoint() == targets[ noOfSummedTarget ] ) {
+				this.addPIData( targets[ noOfSummedTarget ] );
+			}
+		}
+	}
+
+	/**
+	 * Stores the PIData of each series at a terminal point, from the current sums
+	 *
+	 * @param n the terminal point, which is the end point of the last summed range
+	 * */
+	private void addPIData( long n ) {
+		double leibniz = leibnizSum.getSum();
+
+		data[ noOfSummedTarget ] = new PIData[] {
+				providers[ 0 ].newPIData( leibniz, n ),
+				providers[ 1 ].newPIData( pairedSum.getSum(), n ),
+				providers[ 2 ].newPIData( leibniz, lowerSum.getSum(), upperSum.getSum(), n ) };
+		noOfSummedTarget++;
+	}
+
+	/**
+	 * Cancels the remaining sweep. The terminal points which are already handed out to the thread pool are still
+	 * calculated, the later ones are left out of the table
+	 * */
+	public void cancelSweep() {
+		this.isCancel = true;
+	}
+}
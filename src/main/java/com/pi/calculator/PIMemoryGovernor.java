@@ -0,0 +1,561 @@
+package com.pi.calculator;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+import com.pi.precision.PIChudnovskyCalculator;
+import com.pi.precision.PIChudnovskyEngine;
+
+/**
+ * This class is the admission control of concurrent calculations under a global memory budget.
+ *
+ * <p>The calculators created by {@link #newCalculator(PIFormulaType, int, int)} and
+ * {@link #newDigitsCalculator(Path)} are governed: before a calculation starts, its peak memory is estimated from its
+ * engine and n, and reserved from the budget; it is given back when the calculation ends. A calculation which does
+ * not fit waits in a first-in first-out queue, so that a large calculation is not starved by smaller ones, and is
+ * rejected by a <tt>RejectedExecutionException</tt> if the queue is full, if it waits longer than the maximum wait or
+ * if it would never fit. If downgrades are allowed, a calculation which does not fit is instead run on the leaner engine
+ * of its kind when that one fits: a {@link PICalculator} with a single thread, or a {@link PIChudnovskyCalculator}
+ * which spills its intermediates to files. A calculation which is cancelled while it waits, or after it is admitted but
+ * before it starts, throws a <tt>CancellationException</tt> and gives its memory back without running.
+ *
+ * <p>Each calculation, run or not admitted, leaves a {@link PIJobReport} with its estimated and its measured peak memory.
+ * The peak is measured by the calculators which implement {@link PIMemoryMeasurable}. A {@link PICalculator} does
+ * not: its memory is mostly the stacks its threads reserve, which the heap does not show, so its accuracy is
+ * reported as N/A
+ *
+ * @author Truong Nguyen
+ * */
+public class PIMemoryGovernor {
+
+	/**
+	 * The maximum number of reports kept, the oldest ones are dropped
+	 * */
+	private static final int MAX_REPORTS = 1000;
+
+	/**
+	 * The number of digits per byte of the spill budget of a downgraded digits calculation
+	 * */
+	private static final long LEAN_DIGITS_PER_SPILL_BYTE = 8;
+
+	/**
+	 * The lowest spill budget of a downgraded digits calculation
+	 * */
+	private static final long MIN_SPILL_BUDGET = 1L << 10;
+
+	/**
+	 * Stores the global memory budget in bytes
+	 * */
+	private final long budget;
+
+	/**
+	 * Stores the maximum number of calculations waiting in the queue
+	 * */
+	private final int maxQueueLength;
+
+	/**
+	 * Stores the maximum time in milliseconds a calculation waits in the queue
+	 * */
+	private final long maxWait;
+
+	/**
+	 * An boolean value indicates if a calculation which does not fit may run on a leaner engine
+	 * */
+	private final boolean isDowngradeAllowed;
+
+	/**
+	 * Stores the memory in bytes which is not reserved
+	 * */
+	private long available;
+
+	/**
+	 * Stores the tickets of the waiting calculations, in their order of arrival
+	 * */
+	private final Deque< Object > queue = new ArrayDeque<>();
+
+	/**
+	 * Stores the reports of the last calculations
+	 * */
+	private final Deque< PIJobReport > reports = new ArrayDeque<>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param budget the global memory budget in bytes
+	 * @param maxQueueLength the maximum number of calculations waiting in the queue, 0 to reject the calculations
+	 *        which do not fit at once
+	 * @param maxWait the maximum time in milliseconds a calculation waits in the queue
+	 * @param isDowngradeAllowed true if a calculation which does not fit may run on a leaner engine
+	 * */
+	public PIMemoryGovernor( long budget, int maxQueueLength, long maxWait, boolean isDowngradeAllowed ) {
+		if ( budget <= 0 || maxQueueLength < 0 || maxWait < 0 ) {
+			throw new IllegalArgumentException( "Invalid budget = " + budget + ", maxQueueLength = " + maxQueueLength
+					+ " or maxWait = " + maxWait );
+		}
+		this.budget = budget;
+		this.maxQueueLength = maxQueueLength;
+		this.maxWait = maxWait;
+		this.isDowngradeAllowed = isDowngradeAllowed;
+		this.available = budget;
+	}
+
+	/**
+	 * Returns a governed calculator of a double precision formula. Its memory is estimated by
+	 * {@link PICalculator#estimatePeakMemory(PIFormulaType, long, int, int, int)}, and its leaner engine has a single
+	 * thread
+	 *
+	 * @param formulaType the formula used to calculate the PI
+	 * @param noOfThread the number of threads
+	 * @param range the range in which each formula thread shall work
+	 * @return PICalculatorInterface the governed calculator
+	 * */
+	public PICalculatorInterface newCalculator( final PIFormulaType formulaType, final int noOfThread, final int range ) {
+		return new PIGovernedCalculator( String.valueOf( formulaType ) ) {
+
+			@Override
+			protected long estimate( long n, boolean isLean ) {
+				return PICalculator.estimatePeakMemory( formulaType, n, isLean ? 1 : noOfThread, range, 1 );
+			}
+
+			@Override
+			protected PICalculatorInterface newDelegate( long n, boolean isLean ) {
+				return new PICalculator( formulaType, isLean ? 1 : noOfThread, range );
+			}
+		};
+	}
+
+	/**
+	 * Returns a governed calculator of exact digits, whose n is the number of digits. Its memory is estimated by
+	 * {@link PIChudnovskyEngine#estimatePeakMemory(long, long)}. It keeps its intermediates resident, and its leaner
+	 * engine spills them with a budget of a byte per {@link #LEAN_DIGITS_PER_SPILL_BYTE} digits
+	 *
+	 * @param directory the directory of the spilled intermediates
+	 * @return PICalculatorInterface the governed calculator
+	 * */
+	public PICalculatorInterface newDigitsCalculator( final Path directory ) {
+		return new PIGovernedCalculator( "CHUDNOVSKY" ) {
+
+			@Override
+			protected long estimate( long n, boolean isLean ) {
+				return PIChudnovskyEngine.estimatePeakMemory( n, getSpillBudget( n, isLean ) );
+			}
+
+			@Override
+			protected PICalculatorInterface newDelegate( long n, boolean isLean ) {
+				return new PIChudnovskyCalculator( getSpillBudget( n, isLean ), directory );
+			}
+		};
+	}
+
+	/**
+	 * Returns the spill budget of a digits calculation
+	 *
+	 * @param noOfDigit the number of digits
+	 * @param isLean true for the leaner engine
+	 * @return the spill budget in bytes
+	 * */
+	private static long getSpillBudget( long noOfDigit, boolean isLean ) {
+		return isLean ? Math.max( noOfDigit / LEAN_DIGITS_PER_SPILL_BYTE, MIN_SPILL_BUDGET ) : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Reserves the memory of a calculation, waiting in the queue if it does not fit
+	 *
+	 * @param estimate the estimated memory of the engine
+	 * @param leanEstimate the estimated memory of the leaner engine, -1 if the calculation may not be downgraded
+	 * @param calculator the calculation, whose cancellation stops the wait
+	 * @return the reserved memory, which is the lean estimate if the calculation is downgraded
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the wait is interrupted
+	 * */
+	private synchronized long reserve( long estimate, long leanEstimate, PIGovernedCalculator calculator )
+			throws InterruptedException {
+		if ( Math.min( estimate, ( leanEstimate < 0 ) ? estimate : leanEstimate ) > budget ) {
+			throw new RejectedExecutionException( "The calculation needs " + estimate + " bytes, more than the budget of "
+					+ budget + " bytes" );
+		}
+		if ( queue.isEmpty() ) {
+			long reserved = this.tryReserve( estimate, leanEstimate );
+			if ( reserved >= 0 ) {
+				return reserved;
+			}
+		}
+		if ( queue.size() >= maxQueueLength ) {
+			throw new RejectedExecutionException( "The calculation needs " + estimate + " bytes, " + available
+					+ " bytes are available and the queue is full" );
+		}
+
+		Object ticket = new Object();
+		long deadline = System.nanoTime() + maxWait * 1000000;
+		queue.addLast( ticket );
+		try {
+			while ( true ) {
+				if ( queue.peekFirst() == ticket ) {
+					long reserved = this.tryReserve( estimate, leanEstimate );
+					if ( reserved >= 0 ) {
+						return reserved;
+					}
+				}
+				if ( calculator.isCancel ) {
+					throw new CancellationException( "The calculation is cancelled before it is admitted" );
+				}
+				long remaining = deadline - System.nanoTime();
+				if ( remaining <= 0 ) {
+					throw new RejectedExecutionException( "The calculation needs " + estimate + " bytes, it waited "
+							+ maxWait + " ms and " + available + " bytes are available" );
+				}
+				this.wait( Math.max( remaining / 1000000, 1 ) );
+			}
+		} finally {
+			queue.remove( ticket );
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Reserves the memory of the engine if it is available, otherwise the memory of the leaner engine
+	 *
+	 * @param estimate the estimated memory of the engine
+	 * @param leanEstimate the estimated memory of the leaner engine, -1 if the calculation may not be downgraded
+	 * @return the reserved memory, -1 if neither is available
+	 * */
+	private long tryReserve( long estimate, long leanEstimate ) {
+		long reserved = -1;
+
+		if ( estimate <= available ) {
+			reserved = estimate;
+		} else if ( leanEstimate >= 0 && leanEstimate <= available ) {
+			reserved = leanEstimate;
+		}
+		if ( reserved >= 0 ) {
+			available -= reserved;
+		}
+		return reserved;
+	}
+
+	/**
+	 * Gives back the memory of a calculation
+	 *
+	 * @param reserved the reserved memory
+	 * */
+	private synchronized void release( long reserved ) {
+		available += reserved;
+		this.notifyAll();
+	}
+
+	/**
+	 * Adds the report of a calculation, dropping the oldest one if there are too many
+	 *
+	 * @param report the report
+	 * */
+	private synchronized void addReport( PIJobReport report ) {
+		if ( reports.size() >= MAX_REPORTS ) {
+			reports.removeFirst();
+		}
+		reports.addLast( report );
+	}
+
+	/**
+	 * Gets the global memory budget
+	 *
+	 * @return the budget in bytes
+	 * */
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Gets the memory which is not reserved
+	 *
+	 * @return the memory in bytes
+	 * */
+	public synchronized long getAvailable() {
+		return available;
+	}
+
+	/**
+	 * Gets the number of calculations waiting in the queue
+	 *
+	 * @return the number of waiting calculations
+	 * */
+	public synchronized int getNoOfQueued() {
+		return queue.size();
+	}
+
+	/**
+	 * Gets the reports of the last calculations, in the order they ended
+	 *
+	 * @return the reports
+	 * */
+	public synchronized List< PIJobReport > getReports() {
+		return new ArrayList<>( reports );
+	}
+
+	/**
+	 * This inner class is a calculator whose calculations are admitted by the governor. A subclass tells the estimated
+	 * memory of its engines and creates them
+	 * */
+	private abstract class PIGovernedCalculator implements PICalculatorInterface {
+
+		/**
+		 * Stores the name of the engine, used in the reports
+		 * */
+		private final String engineName;
+
+		/**
+		 * Stores the calculator of the on-going calculation, null if the calculation does not start
+		 * */
+		private volatile PICalculatorInterface delegate = null;
+
+		/**
+		 * An boolean value indicates if the calculation is canceled
+		 * */
+		private volatile boolean isCancel = false;
+
+		/**
+		 * Constructor
+		 *
+		 * @param engineName the name of the engine, used in the reports
+		 * */
+		PIGovernedCalculator( String engineName ) {
+			this.engineName = engineName;
+		}
+
+		/**
+		 * Estimates the peak memory of a calculation
+		 *
+		 * @param n the terminal point of the calculation
+		 * @param isLean true for the leaner engine
+		 * @return the memory in bytes
+		 * */
+		protected abstract long estimate( long n, boolean isLean );
+
+		/**
+		 * Returns a new calculator of the engine
+		 *
+		 * @param n the terminal point of the calculation
+		 * @param isLean true for the leaner engine
+		 * @return PICalculatorInterface the calculator
+		 * */
+		protected abstract PICalculatorInterface newDelegate( long n, boolean isLean );
+
+		/**
+		 * Reserves the memory of the calculation, runs it and gives the memory back
+		 *
+		 * @param n the terminal point used in a PI formula
+		 * @return PIData The PI calculation result
+		 * @throws Exception the <tt>Exception</tt> may be thrown if the calculation is rejected, cancelled before it
+		 *         starts or fails
+		 * */
+		@Override
+		public PIData calculatePI( long n ) throws Exception {
+			long estimate = this.estimate( n, false );
+			long leanEstimate = isDowngradeAllowed ? Math.min( this.estimate( n, true ), estimate ) : -1;
+			long startTime = System.nanoTime();
+			long reserved;
+
+			try {
+				reserved = reserve( estimate, leanEstimate, this );
+			} catch ( Exception e ) {
+				// the calculation is rejected, or cancelled or interrupted while it waits
+				addReport( new PIJobReport( engineName, n, estimate, -1, false, true,
+						( System.nanoTime() - startTime ) / 1000000 ) );
+				throw e;
+			}
+
+			boolean isLean = ( reserved != estimate );
+			long waitTime = ( System.nanoTime() - startTime ) / 1000000;
+			if ( isCancel ) {
+				// the calculation is cancelled before it starts, its memory is given back without running it
+				release( reserved );
+				addReport( new PIJobReport( engineName, n, estimate, -1, false, true, waitTime ) );
+				throw new CancellationException( "The calculation is cancelled before it starts" );
+			}
+			try {
+				delegate = this.newDelegate( n, isLean );
+				if ( isCancel ) {
+					delegate.cancelCalculation();
+				}
+				return delegate.calculatePI( n );
+			} finally {
+				release( reserved );
+				long peakMemory = ( delegate instanceof PIMemoryMeasurable )
+						? ( ( PIMemoryMeasurable ) delegate ).getPeakMemory() : -1;
+				addReport( new PIJobReport( engineName, n, reserved, peakMemory, isLean, false, waitTime ) );
+			}
+		}
+
+		/**
+		 * Cancels the calculation, or its wait in the queue
+		 * */
+		@Override
+		public void cancelCalculation() {
+			isCancel = true;
+			PICalculatorInterface piCal = delegate;
+
+			if ( piCal != null ) {
+				piCal.cancelCalculation();
+			}
+			synchronized ( PIMemoryGovernor.this ) {
+				PIMemoryGovernor.this.notifyAll();
+			}
+		}
+
+		@Override
+		public PIData getPIData() {
+			PICalculatorInterface piCal = delegate;
+
+			return ( piCal == null ) ? null : piCal.getPIData();
+		}
+	}
+
+	/**
+	 * This class is the report of a calculation governed by {@link PIMemoryGovernor}
+	 * */
+	public static class PIJobReport {
+
+		/**
+		 * Stores the name of the engine
+		 * */
+		private final String engineName;
+
+		/**
+		 * Stores the terminal point of the calculation
+		 * */
+		private final long n;
+
+		/**
+		 * Stores the estimated, and reserved, peak memory
+		 * */
+		private final long estimate;
+
+		/**
+		 * Stores the measured peak memory, -1 if it is not measured
+		 * */
+		private final long peakMemory;
+
+		/**
+		 * An boolean value indicates if the calculation ran on the leaner engine
+		 * */
+		private final boolean isDowngraded;
+
+		/**
+		 * An boolean value indicates if the calculation was rejected, or cancelled or interrupted before it was admitted
+		 * */
+		private final boolean isRejected;
+
+		/**
+		 * Stores the time in milliseconds the calculation waited for its memory
+		 * */
+		private final long waitTime;
+
+		/**
+		 * Constructor
+		 *
+		 * @param engineName the name of the engine
+		 * @param n the terminal point of the calculation
+		 * @param estimate the estimated peak memory
+		 * @param peakMemory the measured peak memory, -1 if it is not measured
+		 * @param isDowngraded true if the calculation ran on the leaner engine
+		 * @param isRejected true if the calculation was not admitted
+		 * @param waitTime the time in milliseconds the calculation waited for its memory
+		 * */
+		private PIJobReport( String engineName, long n, long estimate, long peakMemory, boolean isDowngraded,
+				boolean isRejected, long waitTime ) {
+			this.engineName = engineName;
+			this.n = n;
+			this.estimate = estimate;
+			this.peakMemory = peakMemory;
+			this.isDowngraded = isDowngraded;
+			this.isRejected = isRejected;
+			this.waitTime = waitTime;
+		}
+
+		/**
+		 * Gets the ratio of the measured peak memory to the estimate; above 1 the estimate was too low
+		 *
+		 * @return the ratio, NaN if the peak is not measured
+		 * */
+		public double getAccuracy() {
+			return ( peakMemory < 0 || estimate <= 0 ) ? Double.NaN : ( double ) peakMemory / estimate;
+		}
+
+		/**
+		 * Gets the name of the engine
+		 *
+		 * @return the name of the engine
+		 * */
+		public String getEngineName() {
+			return engineName;
+		}
+
+		/**
+		 * Gets the terminal point of the calculation
+		 *
+		 * @return the n value
+		 * */
+		public long getN() {
+			return n;
+		}
+
+		/**
+		 * Gets the estimated peak memory, which was reserved if the calculation ran
+		 *
+		 * @return the memory in bytes
+		 * */
+		public long getEstimate() {
+			return estimate;
+		}
+
+		/**
+		 * Gets the measured peak memory
+		 *
+		 * @return the memory in bytes, -1 if it is not measured
+		 * */
+		public long getPeakMemory() {
+			return peakMemory;
+		}
+
+		/**
+		 * Returns true if the calculation ran on the leaner engine
+		 *
+		 * @return true if the calculation was downgraded; false otherwise
+		 * */
+		public boolean isDowngraded() {
+			return isDowngraded;
+		}
+
+		/**
+		 * Returns true if the calculation was rejected, or cancelled or interrupted before it was admitted
+		 *
+		 * @return true if the calculation was not admitted; false otherwise
+		 * */
+		public boolean isRejected() {
+			return isRejected;
+		}
+
+		/**
+		 * Gets the time the calculation waited for its memory
+		 *
+		 * @return the time in milliseconds
+		 * */
+		public long getWaitTime() {
+			return waitTime;
+		}
+
+		@Override
+		public String toString() {
+			String accuracy = Double.isNaN( this.getAccuracy() ) ? "N/A" : String.format( "%.3f", this.getAccuracy() );
+
+			return engineName + " n = " + n + ( isRejected ? " rejected" : isDowngraded ? " downgraded" : "" )
+					+ ", estimate = " + estimate + " bytes, peak = " + ( ( peakMemory < 0 ) ? "N/A" : peakMemory + " bytes" )
+					+ ", accuracy = " + accuracy + ", waited " + waitTime + " ms";
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.pi.calculator;
+
+/**
+ * This interface is implemented by the calculators which measure their peak memory, so that
+ * {@link PIMemoryGovernor} can compare it with the memory it reserved for them
+ * 
+ * @author Truong Nguyen
+ * */
+public interface PIMemoryMeasurable {
+
+	/**
+	 * Gets the highest memory the last calculation took
+	 * 
+	 * @return the memory in bytes
+	 * */
+	public long getPeakMemory();
+}
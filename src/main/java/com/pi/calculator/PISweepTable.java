@@ -0,0 +1,123 @@
+package com.pi.calculator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.pi.formula.PIFormulaProvider;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * A PISweepTable is the result of a {@link PIFormulaSweep}: one row per terminal point and one column per series,
+ * each cell holding the {@link PIData} the series gives at that terminal point. A series is named by its formula type
+ * and kernel variant, for example <tt>LEIBNIZ/paired</tt>
+ *
+ * @author Truong Nguyen
+ * */
+public class PISweepTable {
+
+	/**
+	 * Stores the names of the series, in the order of the columns
+	 * */
+	private final List< String > series;
+
+	/**
+	 * Stores the terminal points, in the order of the rows
+	 * */
+	private final long[] targets;
+
+	/**
+	 * Stores the PIData of each terminal point and series
+	 * */
+	private final PIData[][] data;
+
+	/**
+	 * Constructor
+	 *
+	 * @param series the names of the series, in the order of the columns
+	 * @param targets the terminal points, in the order of the rows
+	 * @param data the PIData of each terminal point and series
+	 * */
+	PISweepTable( List< String > series, long[] targets, PIData[][] data ) {
+		this.series = Collections.unmodifiableList( new ArrayList<>( series ) );
+		this.targets = targets.clone();
+		this.data = data;
+	}
+
+	/**
+	 * Returns the name of a series
+	 *
+	 * @param formulaType the formula type of the series
+	 * @param variant the kernel variant of the series, null for the default one
+	 * @return the name of the series
+	 * */
+	static String getSeriesName( PIFormulaType formulaType, String variant ) {
+		return formulaType + "/" + ( ( variant == null ) ? PIFormulaProvider.DEFAULT_VARIANT : variant );
+	}
+
+	/**
+	 * Gets the PIData of a series at a terminal point
+	 *
+	 * @param formulaType the formula type of the series
+	 * @param variant the kernel variant of the series, null for the default one
+	 * @param n the terminal point
+	 * @return PIData the PI calculation result, null if the table has no such series or terminal point
+	 * */
+	public PIData getPIData( PIFormulaType formulaType, String variant, long n ) {
+		int column = series.indexOf( getSeriesName( formulaType, variant ) );
+		int row = Arrays.binarySearch( targets, n );
+
+		if ( column < 0 || row < 0 ) {
+			return null;
+		}
+		return data[ row ][ column ];
+	}
+
+	/**
+	 * Gets the names of the series, in the order of the columns
+	 *
+	 * @return the names of the series
+	 * */
+	public List< String > getSeries() {
+		return series;
+	}
+
+	/**
+	 * Gets the terminal points, in the order of the rows. The terminal points which were not reached before the sweep
+	 * was canceled are not included
+	 *
+	 * @return the terminal points, in ascending order
+	 * */
+	public long[] getTargets() {
+		return targets.clone();
+	}
+
+	/**
+	 * Formats the table, one line per terminal point. A series with bounds is shown as its PI and its interval
+	 *
+	 * @return the table
+	 * */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder( "n" );
+
+		for ( String name : series ) {
+			text.append( '\t' ).append( name );
+		}
+		text.append( '\n' );
+		for ( int row = 0; row < targets.length; row++ ) {
+			text.append( targets[ row ] );
+			for ( PIData piData : data[ row ] ) {
+				text.append( '\t' ).append( piData.getPi() );
+				if ( piData.hasBounds() ) {
+					text.append( " [" ).append( piData.getLowerBound() ).append( ", " )
+							.append( piData.getUpperBound() ).append( ']' );
+				}
+			}
+			text.append( '\n' );
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,656 @@
+package com.pi.cluster;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.pi.calculator.PICalculatorInterface;
+import com.pi.calculator.PIChunkSum;
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+import com.pi.precision.PIChudnovskyCalculator;
+import com.pi.precision.PIChudnovskyEngine;
+import com.pi.precision.PIOutOfCoreArithmetic;
+
+/**
+ * This class distributes a calculation over {@link PIWorker} processes connected over plain TCP sockets.
+ * 
+ * <p>The range [0, n] is split into ranges of {@link #range} terms, the same way as {@link com.pi.calculator.PICalculator}
+ * splits it into {@link com.pi.formula.PIFormula} threads. Each range is leased to one worker. A lease which is not
+ * answered before {@link #leaseTimeout} milliseconds, or whose worker disconnects, is put back and leased again to
+ * another worker. A late result of an expired lease is ignored
+ * 
+ * <p>The partial results are combined in the order of the ranges, so the result does not depend on which worker
+ * finished first. The results of a formula are doubles, which are summed with the bounds of the
+ * {@link com.pi.formula.PIIntervalFormula} ranges in a {@link PIChunkSum} indexed by the ranges, so the PI is
+ * bit-identical to the one of a {@link com.pi.calculator.PICalculator} with the same range. A coordinator created without a formula type distributes the
+ * binary splitting of {@link PIChudnovskyEngine} instead: n is the number of digits, a range is a range of terms of
+ * the series, and its result is the P/Q/T triple, which are merged into P/Q/T(0, N) before the final step.
+ * When the calculation is cancelled, no new range is leased and the PI of the longest completed prefix of ranges is
+ * returned, like {@link com.pi.calculator.PICalculator#cancelCalculation()}
+ * 
+ * <p>The lease deadlines are measured with {@link System#nanoTime()}, so a jump of the wall clock neither expires
+ * nor pins the leases
+ * 
+ * <p>Protocol, one line per message: a worker sends <tt>READY</tt> or <tt>RESULT &lt;leaseId&gt; &lt;value&gt;</tt>,
+ * <tt>RESULT &lt;leaseId&gt; &lt;value&gt; &lt;lowerBound&gt; &lt;upperBound&gt;</tt> for an interval formula, or
+ * <tt>RESULT &lt;leaseId&gt; &lt;P&gt; &lt;Q&gt; &lt;T&gt;</tt> for the binary splitting, the integers in Base64 of their
+ * two's-complement bytes. The coordinator answers
+ * <tt>LEASE &lt;leaseId&gt; &lt;type&gt; &lt;startPoint&gt; &lt;endPoint&gt;</tt>, where the type is
+ * {@link #BINARY_SPLITTING} for the binary splitting, or <tt>WAIT &lt;millis&gt;</tt> when there is no range to lease
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICoordinator implements PICalculatorInterface {
+
+	/**
+	 * Stores the default range of a lease
+	 * */
+	public static final int DEFAULT_RANGE = 10000000;
+
+	/**
+	 * Stores the default range of a lease of the binary splitting, in terms of the series
+	 * */
+	public static final int DEFAULT_TERM_RANGE = 10000;
+
+	/**
+	 * The type of the leases of the binary splitting of {@link PIChudnovskyEngine}
+	 * */
+	static final String BINARY_SPLITTING = "CHUDNOVSKY";
+
+	/**
+	 * Stores the default time in milliseconds after which a lease is given to another worker
+	 * */
+	public static final long DEFAULT_LEASE_TIMEOUT = 60000;
+
+	/**
+	 * Stores the time in milliseconds a worker waits when there is no range to lease
+	 * */
+	static final long WAIT_TIME = 100;
+
+	/**
+	 * Stores the formula used to calculate the PI, null for the binary splitting
+	 * */
+	private final PIFormulaType formulaType;
+
+	/**
+	 * Stores the range of a lease
+	 * */
+	private final long range;
+
+	/**
+	 * Stores the time in milliseconds after which a lease is given to another worker
+	 * */
+	private final long leaseTimeout;
+
+	/**
+	 * Stores the server socket accepting the workers
+	 * */
+	private final ServerSocket serverSocket;
+
+	/**
+	 * Stores the connections of the workers
+	 * */
+	private final Set< WorkerConnection > workers = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * The lock guarding the state of the calculation below
+	 * */
+	private final Object lock = new Object();
+
+	/**
+	 * Stores the terminal point of the on-going calculation, or its number of digits for the binary splitting,
+	 * -1 if there is none
+	 * */
+	private long n = -1;
+
+	/**
+	 * Stores the end point of the last range, n or the last term of the series for the binary splitting
+	 * */
+	private long lastPoint = -1;
+
+	/**
+	 * Stores the start point of the next range which is never leased yet
+	 * */
+	private long nextStartPoint = 0;
+
+	/**
+	 * Stores the ranges which were leased but have to be leased again, as {startPoint, endPoint}
+	 * */
+	private final Deque< long[] > pendingRanges = new ArrayDeque<>();
+
+	/**
+	 * Stores the outstanding leases by their ids
+	 * */
+	private final Map< Long, Lease > leases = new HashMap<>();
+
+	/**
+	 * Stores the results of the completed ranges by their start points
+	 * */
+	private final TreeMap< Long, RangeResult > completedRanges = new TreeMap<>();
+
+	/**
+	 * Generates the ids of leases
+	 * */
+	private long leaseIdGenerator = 0;
+
+	/**
+	 * An boolean value indicates if the calculation is canceled
+	 * */
+	private volatile boolean isCancel = false;
+
+	/**
+	 * Stores the computed PIData
+	 * */
+	private volatile PIData piData = null;
+
+	/**
+	 * Stores the digits computed by the binary splitting, null for a formula
+	 * */
+	private volatile BigInteger digits = null;
+
+	/**
+	 * Constructor with the default range and lease timeout
+	 * 
+	 * @param formulaType the formula used to calculate the PI
+	 * @param port the port on which the workers connect, 0 to pick a free port
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the port cannot be bound
+	 * */
+	public PICoordinator( PIFormulaType formulaType, int port ) throws IOException {
+		this( formulaType, port, DEFAULT_RANGE, DEFAULT_LEASE_TIMEOUT );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param formulaType the formula used to calculate the PI, null for the binary splitting of
+	 *        {@link PIChudnovskyEngine}
+	 * @param port the port on which the workers connect, 0 to pick a free port
+	 * @param range the range of a lease, in terms of the series for the binary splitting
+	 * @param leaseTimeout the time in milliseconds after which a lease is given to another worker
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the port cannot be bound
+	 * */
+	public PICoordinator( PIFormulaType formulaType, int port, long range, long leaseTimeout ) throws IOException {
+		this.formulaType = formulaType;
+		this.range = range;
+		this.leaseTimeout = leaseTimeout;
+		this.serverSocket = new ServerSocket( port );
+
+		Thread acceptThread = new Thread( new AcceptRunnable(), "pi-coordinator-accept" );
+		acceptThread.setDaemon( true );
+		acceptThread.start();
+	}
+
+	/**
+	 * Gets the port on which the workers connect
+	 * 
+	 * @return the port
+	 * */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Closes the server socket. The connected workers are disconnected
+	 * 
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the socket cannot be closed
+	 * */
+	public void close() throws IOException {
+		serverSocket.close();
+		for ( WorkerConnection worker : workers ) {
+			worker.socket.close();
+		}
+	}
+
+	/**
+	 * Calculates and returns an approximation of PI with n as a terminal point. The ranges are calculated by the workers;
+	 * this method waits until all ranges are completed
+	 * 
+	 * @param n the terminal point used in a PI formula, or the number of digits for the binary splitting
+	 * @return PIData The PI calculation result
+	 * @throws Exception
+	 *                The
+	 *                <tt>Exception</tt> may be thrown if any error is occurred during the calculation
+	 * */
+	@Override
+	public PIData calculatePI( long n ) throws Exception {
+		if ( formulaType == null && ( n <= 0 || n > PIChudnovskyEngine.MAX_DIGITS ) ) {
+			throw new Exception( "Invalid value received, n value should be between 1 and " + PIChudnovskyEngine.MAX_DIGITS );
+		}
+		if ( n < 0 ) {
+			throw new Exception(
+					"Invalid value received, n value should be equal or larger than 0");
+		}
+
+		synchronized ( lock ) {
+			if ( this.n >= 0 ) {
+				throw new Exception( "A calculation is already on-going" );
+			}
+			this.isCancel = false;
+			this.n = n;
+			this.lastPoint = ( formulaType == null ) ? PIChudnovskyEngine.getNoOfTerm( ( int ) n ) - 1 : n;
+			this.nextStartPoint = 0;
+			this.pendingRanges.clear();
+			this.leases.clear();
+			this.completedRanges.clear();
+
+			try {
+				while ( !this.isCompleted() ) {
+					lock.wait( Math.min( leaseTimeout, WAIT_TIME ) );
+					this.expireLeases();
+				}
+				piData = ( formulaType == null ) ? this.mergeCompletedPrefix() : this.sumCompletedPrefix();
+			} finally {
+				this.n = -1;
+				this.leases.clear();
+			}
+		}
+		return piData;
+	}
+
+	/**
+	 * Cancels the remaining calculation. No new range is leased; {@link #calculatePI(long)} returns once the
+	 * outstanding leases are answered or expired
+	 * */
+	@Override
+	public void cancelCalculation() {
+		this.isCancel = true;
+		synchronized ( lock ) {
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Gets the PI data which were already computed
+	 * 
+	 * @return the PIData were already computed. Null will be returned if the calculation does not complete
+	 * */
+	@Override
+	public PIData getPIData() {
+		return piData;
+	}
+
+	/**
+	 * Returns true if there is nothing left to lease and no lease is outstanding.
+	 * The caller must hold {@link #lock}
+	 * 
+	 * @return true if the calculation is completed; false otherwise
+	 * */
+	private boolean isCompleted() {
+		return leases.isEmpty() && ( isCancel || ( pendingRanges.isEmpty() && nextStartPoint > lastPoint ) );
+	}
+
+	/**
+	 * Gets the digits computed by the last binary splitting, 314159... with n digits, or fewer if it was cancelled
+	 * 
+	 * @return the digits, null for a formula or if the calculation does not complete
+	 * */
+	public BigInteger getDigits() {
+		return digits;
+	}
+
+	/**
+	 * Returns the results of the ranges which are completed without a gap from 0, in the order of the ranges.
+	 * The caller must hold {@link #lock}
+	 * 
+	 * @return the results of the completed prefix
+	 * */
+	private List< RangeResult > getCompletedPrefix() {
+		List< RangeResult > prefix = new ArrayList<>();
+		long endPoint = -1;
+
+		for ( Map.Entry< Long, RangeResult > completedRange : completedRanges.entrySet() ) {
+			if ( completedRange.getKey() != endPoint + 1 ) {
+				break;
+			}
+			endPoint = completedRange.getValue().endPoint;
+			prefix.add( completedRange.getValue() );
+		}
+		return prefix;
+	}
+
+	/**
+	 * Sums the results of the ranges which are completed without a gap from 0 in a {@link PIChunkSum} indexed by the
+	 * ranges, like {@link com.pi.calculator.PICalculator} does, so that the PI is bit-identical to the one of a
+	 * calculator with the same range. The bounds are summed too if every range has them. The caller must hold
+	 * {@link #lock}
+	 * 
+	 * @return PIData the PI of the completed prefix
+	 * */
+	private PIData sumCompletedPrefix() {
+		PIChunkSum chunkSum = new PIChunkSum();
+		PIChunkSum lowerSum = new PIChunkSum( RoundingMode.FLOOR );
+		PIChunkSum upperSum = new PIChunkSum( RoundingMode.CEILING );
+		boolean hasBounds = true;
+		long endPoint = -1;
+
+		for ( RangeResult result : this.getCompletedPrefix() ) {
+			// the prefix has no gap, so the range starts after the previous one
+			long startPoint = endPoint + 1;
+			long chunkIndex = startPoint / ( range + 1 );
+
+			endPoint = result.endPoint;
+			chunkSum.add( chunkIndex, result.values[ 0 ] );
+			hasBounds = hasBounds && result.values.length == 3;
+			if ( hasBounds ) {
+				lowerSum.add( chunkIndex, result.values[ 1 ] );
+				upperSum.add( chunkIndex, result.values[ 2 ] );
+			}
+		}
+		if ( hasBounds && endPoint >= 0 ) {
+			return new PIFormulaFactory().newPIData( formulaType, chunkSum.getSum(), lowerSum.getSum(),
+					upperSum.getSum(), endPoint );
+		}
+		return new PIFormulaFactory().newPIData( formulaType, chunkSum.getSum(), endPoint );
+	}
+
+	/**
+	 * Merges the P/Q/T of the ranges of the binary splitting which are completed without a gap from 0, and computes
+	 * the digits they give, at most n. The triples are merged pairwise, so that the large products are balanced.
+	 * The caller must hold {@link #lock}
+	 * 
+	 * @return PIData the PI of the completed prefix, with the number of digits as n
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the final step cannot be computed
+	 * */
+	private PIData mergeCompletedPrefix() throws IOException {
+		List< BigInteger[] > triples = new ArrayList<>();
+		long noOfTerm = 0;
+
+		for ( RangeResult result : this.getCompletedPrefix() ) {
+			triples.add( result.pqt );
+			noOfTerm = result.endPoint + 1;
+		}
+		long noOfDigit = Math.min( n, PIChudnovskyEngine.getNoOfDigit( noOfTerm ) );
+		if ( noOfDigit == 0 ) {
+			digits = BigInteger.ZERO;
+			return new PIData( 0.0, 0 );
+		}
+
+		while ( triples.size() > 1 ) {
+			List< BigInteger[] > merged = new ArrayList<>();
+			for ( int i = 0; i + 1 < triples.size(); i += 2 ) {
+				merged.add( PIChudnovskyEngine.merge( triples.get( i ), triples.get( i + 1 ) ) );
+			}
+			if ( triples.size() % 2 != 0 ) {
+				merged.add( triples.get( triples.size() - 1 ) );
+			}
+			triples = merged;
+		}
+
+		// the merged integers are in the heap already, so the arithmetic of the last step never spills
+		PIChudnovskyEngine engine = new PIChudnovskyEngine( new PIOutOfCoreArithmetic( Long.MAX_VALUE,
+				Paths.get( System.getProperty( "java.io.tmpdir" ) ) ) );
+		digits = engine.calculate( ( int ) noOfDigit, triples.get( 0 )[ 1 ], triples.get( 0 )[ 2 ] );
+		return PIChudnovskyCalculator.toPIData( digits, noOfDigit );
+	}
+
+	/**
+	 * Puts the expired leases back so that they are leased again. The caller must hold {@link #lock}
+	 * */
+	private void expireLeases() {
+		long now = System.nanoTime();
+		Iterator< Lease > iterator = leases.values().iterator();
+
+		while ( iterator.hasNext() ) {
+			Lease lease = iterator.next();
+			if ( lease.deadline - now < 0 ) {
+				iterator.remove();
+				pendingRanges.addFirst( new long[] { lease.startPoint, lease.endPoint } );
+			}
+		}
+	}
+
+	/**
+	 * Returns the next message for a worker which is ready for a new range
+	 * 
+	 * @param worker the connection of the worker
+	 * @return String a LEASE or a WAIT message
+	 * */
+	private String nextLease( WorkerConnection worker ) {
+		synchronized ( lock ) {
+			if ( n < 0 || isCancel ) {
+				return "WAIT " + WAIT_TIME;
+			}
+			this.expireLeases();
+
+			long[] nextRange = pendingRanges.pollFirst();
+			if ( nextRange == null && nextStartPoint <= lastPoint ) {
+				nextRange = new long[] { nextStartPoint, Math.min( nextStartPoint + range, lastPoint ) };
+				nextStartPoint = nextRange[ 1 ] + 1;
+			}
+			if ( nextRange == null ) {
+				return "WAIT " + WAIT_TIME;
+			}
+
+			Lease lease = new Lease( ++leaseIdGenerator, nextRange[ 0 ], nextRange[ 1 ], worker,
+					System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( leaseTimeout ) );
+			leases.put( lease.id, lease );
+			return "LEASE " + lease.id + " " + ( ( formulaType == null ) ? BINARY_SPLITTING : formulaType.toString() )
+					+ " " + lease.startPoint + " " + lease.endPoint;
+		}
+	}
+
+	/**
+	 * Records the result of a lease. The result is ignored if the lease is expired
+	 * 
+	 * @param leaseId the id of the lease
+	 * @param fields the fields of the result: the partial PI of the range and optionally its bounds, or the P, Q
+	 *        and T of the binary splitting
+	 * @throws IllegalArgumentException the <tt>IllegalArgumentException</tt> is thrown if the result is malformed
+	 * */
+	private void completeLease( long leaseId, String[] fields ) {
+		RangeResult result = new RangeResult();
+
+		if ( formulaType == null ) {
+			if ( fields.length != 3 ) {
+				throw new IllegalArgumentException( "A P/Q/T triple is expected" );
+			}
+			result.pqt = new BigInteger[ 3 ];
+			for ( int i = 0; i < 3; i++ ) {
+				result.pqt[ i ] = new BigInteger( Base64.getDecoder().decode( fields[ i ] ) );
+			}
+		} else {
+			if ( fields.length != 1 && fields.length != 3 ) {
+				throw new IllegalArgumentException( "A value and optionally its bounds are expected" );
+			}
+			result.values = new double[ fields.length ];
+			for ( int i = 0; i < fields.length; i++ ) {
+				result.values[ i ] = Double.parseDouble( fields[ i ] );
+			}
+		}
+
+		synchronized ( lock ) {
+			Lease lease = leases.remove( leaseId );
+			if ( lease != null ) {
+				result.endPoint = lease.endPoint;
+				completedRanges.put( lease.startPoint, result );
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Puts the leases of a disconnected worker back so that they are leased again
+	 * 
+	 * @param worker the connection of the worker
+	 * */
+	private void releaseLeases( WorkerConnection worker ) {
+		synchronized ( lock ) {
+			Iterator< Lease > iterator = leases.values().iterator();
+
+			while ( iterator.hasNext() ) {
+				Lease lease = iterator.next();
+				if ( lease.worker == worker ) {
+					iterator.remove();
+					pendingRanges.addFirst( new long[] { lease.startPoint, lease.endPoint } );
+				}
+			}
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * This class is a range leased to a worker
+	 * */
+	private static class Lease {
+
+		/**
+		 * Stores the id of the lease
+		 * */
+		private final long id;
+
+		/**
+		 * Stores the start point of the range
+		 * */
+		private final long startPoint;
+
+		/**
+		 * Stores the end point of the range
+		 * */
+		private final long endPoint;
+
+		/**
+		 * Stores the connection of the worker holding the lease
+		 * */
+		private final WorkerConnection worker;
+
+		/**
+		 * Stores the {@link System#nanoTime()} after which the lease is expired
+		 * */
+		private final long deadline;
+
+		/**
+		 * Constructor
+		 * */
+		private Lease( long id, long startPoint, long endPoint, WorkerConnection worker, long deadline ) {
+			this.id = id;
+			this.startPoint = startPoint;
+			this.endPoint = endPoint;
+			this.worker = worker;
+			this.deadline = deadline;
+		}
+	}
+
+	/**
+	 * This class is the result of a completed range
+	 * */
+	private static class RangeResult {
+
+		/**
+		 * Stores the end point of the range
+		 * */
+		private long endPoint;
+
+		/**
+		 * Stores the partial PI of a formula range, followed by its lower and upper bounds if it has them
+		 * */
+		private double[] values;
+
+		/**
+		 * Stores the P, Q and T of a range of the binary splitting
+		 * */
+		private BigInteger[] pqt;
+	}
+
+	/**
+	 * This inner class serves the messages of one worker connection
+	 * */
+	private class WorkerConnection implements Runnable {
+
+		/**
+		 * Stores the socket of the worker
+		 * */
+		private final Socket socket;
+
+		/**
+		 * Constructor
+		 * */
+		private WorkerConnection( Socket socket ) {
+			this.socket = socket;
+		}
+
+		/**
+		 * Invoked when the thread is starting
+		 * */
+		@Override
+		public void run() {
+			try {
+				BufferedReader in = new BufferedReader( new InputStreamReader( socket.getInputStream(),
+						StandardCharsets.UTF_8 ) );
+				Writer out = new OutputStreamWriter( socket.getOutputStream(), StandardCharsets.UTF_8 );
+				String line;
+
+				while ( ( line = in.readLine() ) != null ) {
+					String[] message = line.trim().split( " " );
+
+					if ( "RESULT".equals( message[ 0 ] ) && message.length >= 3 ) {
+						completeLease( Long.parseLong( message[ 1 ] ), Arrays.copyOfRange( message, 2, message.length ) );
+					} else if ( !"READY".equals( message[ 0 ] ) ) {
+						break;
+					}
+					out.write( nextLease( this ) + "\n" );
+					out.flush();
+				}
+			} catch ( IOException | IllegalArgumentException e ) {
+				// the worker is considered dead, a malformed result included
+			} finally {
+				workers.remove( this );
+				releaseLeases( this );
+				try {
+					socket.close();
+				} catch ( IOException e ) {
+					// nothing left to release
+				}
+			}
+		}
+	}
+
+	/**
+	 * This inner class accepts the workers until the coordinator is closed
+	 * */
+	private class AcceptRunnable implements Runnable {
+
+		/**
+		 * Invoked when the thread is starting
+		 * */
+		@Override
+		public void run() {
+			try {
+				for ( ; ; ) {
+					Socket socket = serverSocket.accept();
+					WorkerConnection worker = new WorkerConnection( socket );
+					workers.add( worker );
+
+					Thread workerThread = new Thread( worker, "pi-coordinator-"
+							+ socket.getRemoteSocketAddress() );
+					workerThread.setDaemon( true );
+					workerThread.start();
+				}
+			} catch ( IOException e ) {
+				// the server socket is closed by close()
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.pi.cluster;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.pi.formula.PIFormula;
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaType;
+import com.pi.formula.PIIntervalFormula;
+import com.pi.precision.PIChudnovskyEngine;
+
+/**
+ * This class is a worker of {@link PICoordinator}. It connects to the coordinator, calculates the leased ranges
+ * with {@link PIFormula}, or with the binary splitting of {@link PIChudnovskyEngine}, and sends back the partial results
+ * until the coordinator closes the connection. The result of a {@link PIIntervalFormula} carries its bounds.
+ * 
+ * <p>A worker calculates one range at a time; to use several processors, several workers are run, see
+ * {@link #runWorkers(String, int, int)}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIWorker implements Runnable {
+
+	/**
+	 * Stores the host of the coordinator
+	 * */
+	private final String host;
+
+	/**
+	 * Stores the port of the coordinator
+	 * */
+	private final int port;
+
+	/**
+	 * Stores the socket connected to the coordinator, null until the worker is running
+	 * */
+	private volatile Socket socket = null;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param host the host of the coordinator
+	 * @param port the port of the coordinator
+	 * */
+	public PIWorker( String host, int port ) {
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * Runs the given number of workers and waits until the coordinator closes their connections
+	 * 
+	 * @param host the host of the coordinator
+	 * @param port the port of the coordinator
+	 * @param noOfWorker the number of workers
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the waiting thread is interrupted
+	 * */
+	public static void runWorkers( String host, int port, int noOfWorker ) throws InterruptedException {
+		Thread[] workers = new Thread[ noOfWorker ];
+
+		for ( int i = 0; i < noOfWorker; i++ ) {
+			workers[ i ] = new Thread( new PIWorker( host, port ), "pi-worker-" + ( i + 1 ) );
+			workers[ i ].start();
+		}
+		for ( Thread worker : workers ) {
+			worker.join();
+		}
+	}
+
+	/**
+	 * Disconnects the worker from the coordinator. The outstanding lease is given to another worker
+	 * */
+	public void stop() {
+		Socket currentSocket = socket;
+		if ( currentSocket != null ) {
+			try {
+				currentSocket.close();
+			} catch ( IOException e ) {
+				// nothing left to release
+			}
+		}
+	}
+
+	/**
+	 * Invoked when the thread is starting. Calculates the leased ranges until the connection is closed
+	 * */
+	@Override
+	public void run() {
+		PIFormulaFactory formulaFactory = new PIFormulaFactory();
+
+		try {
+			socket = new Socket( host, port );
+			BufferedReader in = new BufferedReader( new InputStreamReader( socket.getInputStream(),
+					StandardCharsets.UTF_8 ) );
+			Writer out = new OutputStreamWriter( socket.getOutputStream(), StandardCharsets.UTF_8 );
+			String reply = "READY";
+			String line;
+
+			for ( ; ; ) {
+				out.write( reply + "\n" );
+				out.flush();
+
+				if ( ( line = in.readLine() ) == null ) {
+					break;
+				}
+				String[] message = line.trim().split( " " );
+
+				if ( "LEASE".equals( message[ 0 ] ) && message.length == 5
+						&& PICoordinator.BINARY_SPLITTING.equals( message[ 2 ] ) ) {
+					BigInteger[] pqt = PIChudnovskyEngine.splitResident( Long.parseLong( message[ 3 ] ),
+							Long.parseLong( message[ 4 ] ) + 1 );
+					reply = "RESULT " + message[ 1 ] + " " + encode( pqt[ 0 ] ) + " " + encode( pqt[ 1 ] ) + " "
+							+ encode( pqt[ 2 ] );
+				} else if ( "LEASE".equals( message[ 0 ] ) && message.length == 5 ) {
+					PIFormula piFormula = formulaFactory.getPIFormula( PIFormulaType.getPIFormulaType( message[ 2 ] ),
+							Long.parseLong( message[ 3 ] ), Long.parseLong( message[ 4 ] ) );
+					reply = "RESULT " + message[ 1 ] + " " + piFormula.call();
+					if ( piFormula instanceof PIIntervalFormula ) {
+						reply = reply + " " + ( ( PIIntervalFormula ) piFormula ).getLowerBound() + " "
+								+ ( ( PIIntervalFormula ) piFormula ).getUpperBound();
+					}
+				} else {
+					Thread.sleep( ( message.length == 2 ) ? Long.parseLong( message[ 1 ] ) : PICoordinator.WAIT_TIME );
+					reply = "READY";
+				}
+			}
+		} catch ( IOException e ) {
+			// the coordinator closed the connection
+		} catch ( Exception e ) {
+			System.err.println( "Error while calculating a range; Reason " + e.getMessage() );
+		} finally {
+			this.stop();
+		}
+	}
+
+	/**
+	 * Encodes an integer for the protocol, Base64 of its two's-complement bytes
+	 * 
+	 * @param value the integer
+	 * @return the encoded integer
+	 * */
+	private static String encode( BigInteger value ) {
+		return Base64.getEncoder().encodeToString( value.toByteArray() );
+	}
+}
@@ -0,0 +1,229 @@
+package com.pi.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.io.OutputStreamWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.pi.calculator.PICalculator;
+import com.pi.calculator.PICalculatorService;
+import com.pi.calculator.PICalculatorService.PICalculation;
+import com.pi.calculator.PIExecutors;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This class keeps a warmed calculator resident and serves calculations to {@link PIDaemonCalculator}
+ * clients over a Unix domain socket.
+ * 
+ * <p>Before accepting clients, the daemon runs a few calculations of every {@link PIFormulaType} so that the formula
+ * kernels are JIT-compiled. A client invocation then pays neither the JVM startup nor the interpreter time.
+ * Each connection is served by its own thread of {@link PIExecutors#orchestrationPool()} and the calculations
+ * share the compute pool, see {@link PICalculatorService}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorDaemon {
+
+	/**
+	 * Stores the n value used to warm up the formula kernels
+	 * */
+	private static final long WARM_UP_N = 20000000;
+
+	/**
+	 * Stores the number of warm up calculations per formula
+	 * */
+	private static final int WARM_UP_ROUNDS = 3;
+
+	/**
+	 * Stores the path of the socket
+	 * */
+	private final Path socketPath;
+
+	/**
+	 * Stores the service running the calculations
+	 * */
+	private final PICalculatorService service = new PICalculatorService();
+
+	/**
+	 * Stores the server channel, null until the daemon is started
+	 * */
+	private volatile ServerSocketChannel serverChannel = null;
+
+	/**
+	 * Constructor with the default socket path
+	 * */
+	public PICalculatorDaemon() {
+		this( PIDaemonProtocol.defaultSocketPath() );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param socketPath the path of the socket
+	 * */
+	public PICalculatorDaemon( Path socketPath ) {
+		this.socketPath = socketPath;
+	}
+
+	/**
+	 * Runs calculations of every formula so that the formula kernels are JIT-compiled
+	 * 
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during the calculation
+	 * */
+	public void warmUp() throws Exception {
+		for ( PIFormulaType formulaType : PIFormulaType.values() ) {
+			for ( int i = 0; i < WARM_UP_ROUNDS; i++ ) {
+				new PICalculator( formulaType, PIExecutors.sharedComputePool(), Runtime.getRuntime()
+						.availableProcessors() ).calculatePI( WARM_UP_N );
+			}
+		}
+	}
+
+	/**
+	 * Binds the socket and serves the clients on a background thread. A stale socket file left by a daemon
+	 * which is no longer running is replaced
+	 * 
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the socket cannot be bound, e.g. another daemon is running
+	 * */
+	public void start() throws IOException {
+		PIDaemonCalculator runningDaemon = PIDaemonCalculator.connect( socketPath );
+		if ( runningDaemon != null ) {
+			runningDaemon.close();
+			throw new IOException( "A daemon is already listening on " + socketPath );
+		}
+		Files.deleteIfExists( socketPath );
+
+		serverChannel = ServerSocketChannel.open( StandardProtocolFamily.UNIX );
+		serverChannel.bind( UnixDomainSocketAddress.of( socketPath ) );
+
+		Thread acceptThread = new Thread( new AcceptRunnable(), "pi-daemon-accept" );
+		acceptThread.start();
+	}
+
+	/**
+	 * Stops accepting clients and removes the socket file
+	 * */
+	public void stop() {
+		try {
+			if ( serverChannel != null ) {
+				serverChannel.close();
+			}
+			Files.deleteIfExists( socketPath );
+		} catch ( IOException e ) {
+			System.err.println( "Error while stopping the daemon; Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Gets the path of the socket
+	 * 
+	 * @return the socket path
+	 * */
+	public Path getSocketPath() {
+		return socketPath;
+	}
+
+	/**
+	 * Serves one client. The request line is read, the calculation is submitted and a watcher thread
+	 * cancels it if the client sends <tt>CANCEL</tt> or goes away
+	 * 
+	 * @param channel the channel of the client
+	 * */
+	private void serve( final SocketChannel channel ) {
+		try {
+			final BufferedReader in = new BufferedReader( new InputStreamReader( PIDaemonProtocol.newInputStream( channel ), StandardCharsets.UTF_8 ) );
+			Writer out = new OutputStreamWriter( PIDaemonProtocol.newOutputStream( channel ), StandardCharsets.UTF_8 );
+
+			String requestLine = in.readLine();
+			if ( requestLine == null ) {
+				// the client went away without a request
+				return;
+			}
+
+			String[] request = requestLine.trim().split( "\\s+" );
+			PIFormulaType formulaType = ( request.length == 3 && PIDaemonProtocol.CALCULATE.equals( request[ 0 ] ) )
+					? PIFormulaType.getPIFormulaType( request[ 1 ] ) : null;
+			long n = -1;
+			try {
+				n = ( formulaType == null ) ? -1 : Long.parseLong( request[ 2 ] );
+			} catch ( NumberFormatException e ) {
+				n = -1;
+			}
+
+			if ( n < 0 ) {
+				out.write( PIDaemonProtocol.ERROR + " Invalid request\n" );
+			} else {
+				final PICalculation calculation = service.submit( formulaType, n );
+
+				PIExecutors.orchestrationPool().execute( new Runnable() {
+					@Override
+					public void run() {
+						try {
+							String line;
+							while ( ( line = in.readLine() ) != null && !PIDaemonProtocol.CANCEL.equals( line.trim() ) ) {
+								// ignores unknown lines
+							}
+						} catch ( IOException e ) {
+							// the channel is closed
+						}
+						calculation.cancel();
+					}
+				});
+
+				try {
+					PIData piData = calculation.get();
+					out.write( PIDaemonProtocol.OK + " " + piData.getPi() + " " + piData.getN() + " "
+							+ piData.getLowerBound() + " " + piData.getUpperBound() + "\n" );
+				} catch ( Exception e ) {
+					out.write( PIDaemonProtocol.ERROR + " " + e.getMessage() + "\n" );
+				}
+			}
+			out.flush();
+
+		} catch ( IOException e ) {
+			System.err.println( "Error while serving a client; Reason " + e.getMessage() );
+		} finally {
+			try {
+				channel.close();
+			} catch ( IOException e ) {
+				// nothing left to release
+			}
+		}
+	}
+
+	/**
+	 * This inner class accepts the clients until the daemon is stopped
+	 * */
+	private class AcceptRunnable implements Runnable {
+
+		/**
+		 * Invoked when the thread is starting
+		 * */
+		@Override
+		public void run() {
+			try {
+				for ( ; ; ) {
+					final SocketChannel channel = serverChannel.accept();
+
+					PIExecutors.orchestrationPool().execute( new Runnable() {
+						@Override
+						public void run() {
+							serve( channel );
+						}
+					});
+				}
+			} catch ( IOException e ) {
+				// the server channel is closed by stop()
+			}
+		}
+	}
+}
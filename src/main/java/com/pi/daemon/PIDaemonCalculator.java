@@ -0,0 +1,192 @@
+package com.pi.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.pi.calculator.PICalculatorInterface;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This class is a thin client of {@link PICalculatorDaemon}. It implements {@link PICalculatorInterface} by forwarding
+ * the calculation to the daemon over a Unix domain socket, so it can be used wherever a {@link com.pi.calculator.PICalculator}
+ * is used.
+ * 
+ * <p>{@link #connect(Path)} returns null when no daemon is running, so that the caller can fall back
+ * to calculating in-process
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIDaemonCalculator implements PICalculatorInterface, AutoCloseable {
+
+	/**
+	 * Stores the formula used to calculate the PI
+	 * */
+	private PIFormulaType formulaType = PIFormulaType.LEIBNIZ;
+
+	/**
+	 * Stores the channel connected to the daemon
+	 * */
+	private final SocketChannel channel;
+
+	/**
+	 * Stores the writer of the channel, guarded by its own lock
+	 * */
+	private final Writer out;
+
+	/**
+	 * Stores the computed PIData
+	 * */
+	private volatile PIData piData = null;
+
+	/**
+	 * Constructor, The modifier is private because the instances are created by {@link #connect(Path)}
+	 * 
+	 * @param channel the channel connected to the daemon
+	 * */
+	private PIDaemonCalculator( SocketChannel channel ) {
+		this.channel = channel;
+		this.out = new OutputStreamWriter( PIDaemonProtocol.newOutputStream( channel ), StandardCharsets.UTF_8 );
+	}
+
+	/**
+	 * Connects to the daemon listening on the default socket path
+	 * 
+	 * @return PIDaemonCalculator the connected calculator. Null will be returned if no daemon is running
+	 * */
+	public static PIDaemonCalculator connect() {
+		return connect( PIDaemonProtocol.defaultSocketPath() );
+	}
+
+	/**
+	 * Connects to the daemon listening on the given socket path
+	 * 
+	 * @param socketPath the path of the socket
+	 * @return PIDaemonCalculator the connected calculator. Null will be returned if no daemon is running
+	 * */
+	public static PIDaemonCalculator connect( Path socketPath ) {
+		if ( !Files.exists( socketPath ) ) {
+			return null;
+		}
+		SocketChannel channel = null;
+		try {
+			channel = SocketChannel.open( StandardProtocolFamily.UNIX );
+			channel.connect( UnixDomainSocketAddress.of( socketPath ) );
+			return new PIDaemonCalculator( channel );
+		} catch ( IOException e ) {
+			if ( channel != null ) {
+				try {
+					channel.close();
+				} catch ( IOException ex ) {
+					// nothing left to release
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Sets the formula used to calculate the PI
+	 * 
+	 * @param formulaType the formula type
+	 * @return PIDaemonCalculator this calculator
+	 * */
+	public PIDaemonCalculator setFormulaType( PIFormulaType formulaType ) {
+		this.formulaType = formulaType;
+		return this;
+	}
+
+	/**
+	 * Calculates and returns an approximation of PI with n as a terminal point. The calculation runs in the daemon.
+	 * A calculator serves only one calculation, the connection is closed once the result is received
+	 * 
+	 * @param n the terminal point used in a PI formula
+	 * @return PIData The PI calculation result
+	 * @throws Exception
+	 *                The
+	 *                <tt>Exception</tt> may be thrown if any error is occurred during the calculation
+	 * */
+	@Override
+	public PIData calculatePI( long n ) throws Exception {
+		if ( n < 0 ) {
+			throw new Exception(
+					"Invalid value received, n value should be equal or larger than 0");
+		}
+
+		try {
+			this.send( PIDaemonProtocol.CALCULATE + " " + formulaType + " " + n );
+
+			BufferedReader in = new BufferedReader( new InputStreamReader( PIDaemonProtocol.newInputStream( channel ), StandardCharsets.UTF_8 ) );
+			String line = in.readLine();
+			if ( line == null ) {
+				throw new Exception( "The daemon closed the connection" );
+			}
+
+			String[] response = line.split( " " );
+			if ( !PIDaemonProtocol.OK.equals( response[ 0 ] ) || response.length != 5 ) {
+				throw new Exception( "The daemon failed to calculate Pi: " + line );
+			}
+			piData = new PIData( Double.parseDouble( response[ 1 ] ), Long.parseLong( response[ 2 ] ),
+					Double.parseDouble( response[ 3 ] ), Double.parseDouble( response[ 4 ] ) );
+			return piData;
+
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Cancels the remaining calculation in the daemon.
+	 * <p>{@link #calculatePI(long)} then returns the PI computed before the cancellation
+	 * */
+	@Override
+	public void cancelCalculation() {
+		try {
+			this.send( PIDaemonProtocol.CANCEL );
+		} catch ( IOException e ) {
+			// the connection is already closed, so the calculation is over
+		}
+	}
+
+	/**
+	 * Gets the PI data which were already computed
+	 * 
+	 * @return the PIData were already computed. Null will be returned if the calculation does not complete
+	 * */
+	@Override
+	public PIData getPIData() {
+		return piData;
+	}
+
+	/**
+	 * Closes the connection to the daemon. An on-going calculation in the daemon is cancelled
+	 * 
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the connection cannot be closed
+	 * */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Sends a line to the daemon
+	 * 
+	 * @param line the line to send
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the connection is closed
+	 * */
+	private void send( String line ) throws IOException {
+		synchronized ( out ) {
+			out.write( line + "\n" );
+			out.flush();
+		}
+	}
+}
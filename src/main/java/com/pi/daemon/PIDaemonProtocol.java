@@ -0,0 +1,104 @@
+package com.pi.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * This class holds the constants of the line based protocol spoken between {@link PICalculatorDaemon}
+ * and {@link PIDaemonCalculator} over a Unix domain socket.
+ * 
+ * <p>The client sends <tt>CALCULATE &lt;type&gt; &lt;n&gt;</tt> and may later send <tt>CANCEL</tt>. The daemon answers
+ * with one line, either <tt>OK &lt;pi&gt; &lt;n&gt; &lt;lowerBound&gt; &lt;upperBound&gt;</tt> or <tt>ERROR &lt;message&gt;</tt>
+ * 
+ * @author Truong Nguyen
+ * */
+final class PIDaemonProtocol {
+
+	/**
+	 * The command requesting a calculation
+	 * */
+	static final String CALCULATE = "CALCULATE";
+
+	/**
+	 * The command cancelling the on-going calculation
+	 * */
+	static final String CANCEL = "CANCEL";
+
+	/**
+	 * The prefix of a successful response
+	 * */
+	static final String OK = "OK";
+
+	/**
+	 * The prefix of a failed response
+	 * */
+	static final String ERROR = "ERROR";
+
+	/**
+	 * Constructor, The modifier is private because this is an utility class
+	 * */
+	private PIDaemonProtocol() {
+	}
+
+	/**
+	 * Returns the default path of the socket, which is in the temporary directory and unique per user
+	 * 
+	 * @return Path the default socket path
+	 * */
+	static Path defaultSocketPath() {
+		return Paths.get( System.getProperty( "java.io.tmpdir" ), "pi-calculator-"
+				+ System.getProperty( "user.name" ).replace( File.separatorChar, '_' ) + ".sock" );
+	}
+
+	/**
+	 * Returns an input stream reading from the channel. Unlike {@link java.nio.channels.Channels#newInputStream},
+	 * the stream does not hold the blocking lock of the channel while reading, so that another thread can write
+	 * a <tt>CANCEL</tt> or a response while a read is pending
+	 * 
+	 * @param channel the channel in blocking mode
+	 * @return InputStream the input stream
+	 * */
+	static InputStream newInputStream( final SocketChannel channel ) {
+		return new InputStream() {
+			@Override
+			public int read() throws IOException {
+				byte[] b = new byte[ 1 ];
+				return ( this.read( b, 0, 1 ) < 0 ) ? -1 : ( b[ 0 ] & 0xff );
+			}
+
+			@Override
+			public int read( byte[] b, int off, int len ) throws IOException {
+				return ( len == 0 ) ? 0 : channel.read( ByteBuffer.wrap( b, off, len ) );
+			}
+		};
+	}
+
+	/**
+	 * Returns an output stream writing to the channel, see {@link #newInputStream(SocketChannel)}
+	 * 
+	 * @param channel the channel in blocking mode
+	 * @return OutputStream the output stream
+	 * */
+	static OutputStream newOutputStream( final SocketChannel channel ) {
+		return new OutputStream() {
+			@Override
+			public void write( int b ) throws IOException {
+				this.write( new byte[] { ( byte ) b }, 0, 1 );
+			}
+
+			@Override
+			public void write( byte[] b, int off, int len ) throws IOException {
+				ByteBuffer buffer = ByteBuffer.wrap( b, off, len );
+				while ( buffer.hasRemaining() ) {
+					channel.write( buffer );
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,124 @@
+package com.pi.digits;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class is an array of longs stored in a region of a file, memory-mapped lazily in segments so that the
+ * array may be larger than 2 GB. It is used by {@link PIDigitIndex} for both building (read-write) and
+ * querying (read-only) the index
+ * 
+ * @author Truong Nguyen
+ * */
+class MappedLongArray {
+
+	/**
+	 * The number of longs of a mapped segment
+	 * */
+	private static final int SEGMENT_LENGTH = 1 << 23;
+
+	/**
+	 * Stores the channel of the file
+	 * */
+	private final FileChannel fileChannel;
+
+	/**
+	 * Stores the map mode of the segments
+	 * */
+	private final FileChannel.MapMode mapMode;
+
+	/**
+	 * Stores the position in the file of the first long
+	 * */
+	private final long offset;
+
+	/**
+	 * Stores the number of longs
+	 * */
+	private final long length;
+
+	/**
+	 * Stores the mapped segments, null for the segments which are not mapped yet
+	 * */
+	private final AtomicReferenceArray< MappedByteBuffer > segments;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param fileChannel the channel of the file
+	 * @param mapMode the map mode of the segments
+	 * @param offset the position in the file of the first long
+	 * @param length the number of longs
+	 * */
+	MappedLongArray( FileChannel fileChannel, FileChannel.MapMode mapMode, long offset, long length ) {
+		this.fileChannel = fileChannel;
+		this.mapMode = mapMode;
+		this.offset = offset;
+		this.length = length;
+		this.segments = new AtomicReferenceArray<>( ( int ) ( ( length + SEGMENT_LENGTH - 1 ) / SEGMENT_LENGTH ) );
+	}
+
+	/**
+	 * Gets the long at the given index
+	 * 
+	 * @param index the index
+	 * @return the long value
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	long get( long index ) throws IOException {
+		return this.getSegment( index ).getLong( ( int ) ( index % SEGMENT_LENGTH ) * 8 );
+	}
+
+	/**
+	 * Sets the long at the given index
+	 * 
+	 * @param index the index
+	 * @param value the long value
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	void put( long index, long value ) throws IOException {
+		this.getSegment( index ).putLong( ( int ) ( index % SEGMENT_LENGTH ) * 8, value );
+	}
+
+	/**
+	 * Writes the mapped segments to the file
+	 * */
+	void force() {
+		for ( int i = 0; i < segments.length(); i++ ) {
+			MappedByteBuffer segment = segments.get( i );
+			if ( segment != null ) {
+				segment.force();
+			}
+		}
+	}
+
+	/**
+	 * Returns the segment holding the given index, mapping it if needed
+	 * 
+	 * @param index the index
+	 * @return MappedByteBuffer the segment
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	private MappedByteBuffer getSegment( long index ) throws IOException {
+		if ( index < 0 || index >= length ) {
+			throw new IndexOutOfBoundsException( "Invalid index " + index + ", the array has " + length + " longs" );
+		}
+		int segmentIndex = ( int ) ( index / SEGMENT_LENGTH );
+		MappedByteBuffer segment = segments.get( segmentIndex );
+
+		if ( segment == null ) {
+			synchronized ( segments ) {
+				segment = segments.get( segmentIndex );
+				if ( segment == null ) {
+					long start = ( long ) segmentIndex * SEGMENT_LENGTH;
+					long size = Math.min( SEGMENT_LENGTH, length - start ) * 8;
+					segment = fileChannel.map( mapMode, offset + start * 8, size );
+					segments.set( segmentIndex, segment );
+				}
+			}
+		}
+		return segment;
+	}
+}
@@ -0,0 +1,315 @@
+package com.pi.digits;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class converts a huge non-negative <tt>BigInteger</tt>, such as the fixed-point digits of Pi computed by an
+ * arbitrary-precision engine, into decimal text streamed to a {@link WritableByteChannel}, for example a
+ * {@link PIDigitStoreWriter}.
+ *
+ * <p>The value is split recursively by the powers 10^(blockDigits * 2^i), which are computed by squaring and kept by the instance, into
+ * blocks of exactly {@link #blockDigits} digits. The subtrees are split in parallel on a fork/join pool; the
+ * divisions are subquadratic since <tt>BigInteger</tt> divides large values with Burnikel-Ziegler. The blocks are
+ * then converted to text in parallel, a window at a time, and each window is written in order, so the whole text is
+ * never held in memory and no <tt>String</tt> of the full value is ever built
+ *
+ * @author Truong Nguyen
+ * */
+public class PIDecimalConverter {
+
+	/**
+	 * The default number of digits of a block
+	 * */
+	public static final int DEFAULT_BLOCK_DIGITS = 1 << 12;
+
+	/**
+	 * The number of blocks converted by each thread in a window
+	 * */
+	private static final int BLOCKS_PER_THREAD = 8;
+
+	/**
+	 * The ASCII code of the digit 0
+	 * */
+	private static final byte ZERO = '0';
+
+	/**
+	 * Stores the number of threads
+	 * */
+	private final int noOfThread;
+
+	/**
+	 * Stores the number of digits of a block
+	 * */
+	private final int blockDigits;
+
+	/**
+	 * Stores the powers 10^(blockDigits * 2^i) computed so far
+	 * */
+	private final List< BigInteger > powers = new ArrayList<>();
+
+	/**
+	 * Constructor, uses all the processors and the default block size
+	 * */
+	public PIDecimalConverter() {
+		this( Runtime.getRuntime().availableProcessors(), DEFAULT_BLOCK_DIGITS );
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param noOfThread the number of threads
+	 * @param blockDigits the number of digits of a block, which is converted by <tt>BigInteger.toString()</tt>
+	 * */
+	public PIDecimalConverter( int noOfThread, int blockDigits ) {
+		if ( noOfThread <= 0 || blockDigits <= 0 ) {
+			throw new IllegalArgumentException( "Invalid number of threads = " + noOfThread + " or block digits = "
+					+ blockDigits );
+		}
+		this.noOfThread = noOfThread;
+		this.blockDigits = blockDigits;
+	}
+
+	/**
+	 * Writes the decimal digits of a value, without leading zeros
+	 *
+	 * @param value the non-negative value
+	 * @param channel the channel the ASCII digits are written to, it is not closed
+	 * @return the number of digits written
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the digits cannot be written
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the conversion is interrupted
+	 * */
+	public long write( BigInteger value, WritableByteChannel channel ) throws IOException, InterruptedException {
+		return this.write( value, 1, channel );
+	}
+
+	/**
+	 * Writes the decimal digits of a value, padded with leading zeros to a minimum number of digits. The fractional
+	 * digits of a fixed-point value, which may start with zeros, are written this way
+	 *
+	 * @param value the non-negative value
+	 * @param minDigits the minimum number of digits
+	 * @param channel the channel the ASCII digits are written to, it is not closed
+	 * @return the number of digits written
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the digits cannot be written
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the conversion is interrupted
+	 * */
+	public long write( BigInteger value, long minDigits, WritableByteChannel channel )
+			throws IOException, InterruptedException {
+		if ( value.signum() < 0 ) {
+			throw new IllegalArgumentException( "The value is negative" );
+		}
+
+		// the level is the smallest one whose 2^level blocks hold an upper bound of the number of digits, so the
+		// powers 10^(blockDigits * 2^i) are squared up to i = level - 1 only, the largest power is never computed
+		long maxDigits = ( long ) ( value.bitLength() * Math.log10( 2 ) ) + 1;
+		int level = 0;
+		while ( ( long ) blockDigits << level < maxDigits ) {
+			level++;
+		}
+		List< BigInteger > powers = this.getPowers( level );
+
+		ForkJoinPool pool = new ForkJoinPool( noOfThread );
+		try {
+			BigInteger[] blocks = new BigInteger[ 1 << level ];
+			pool.invoke( new BlockSplitter( value, level, 0, blocks, powers ) );
+
+			// skips the leading zero blocks, the first written block is not padded
+			int first = 0;
+			while ( first < blocks.length - 1 && blocks[ first ].signum() == 0 ) {
+				first++;
+			}
+			String firstText = blocks[ first ].toString();
+			long noOfDigit = firstText.length() + ( long ) ( blocks.length - 1 - first ) * blockDigits;
+
+			byte[] zeros = new byte[ blockDigits ];
+			Arrays.fill( zeros, ZERO );
+			for ( long padding = minDigits - noOfDigit; padding > 0; padding -= zeros.length ) {
+				writeFully( channel, ByteBuffer.wrap( zeros, 0, ( int ) Math.min( padding, zeros.length ) ) );
+			}
+			writeFully( channel, ByteBuffer.wrap( firstText.getBytes( StandardCharsets.US_ASCII ) ) );
+
+			int windowSize = noOfThread * BLOCKS_PER_THREAD;
+			for ( int from = first + 1; from < blocks.length; from += windowSize ) {
+				int to = Math.min( blocks.length, from + windowSize );
+				this.writeWindow( pool, blocks, from, to, channel );
+			}
+			return Math.max( noOfDigit, minDigits );
+
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gets the powers 10^(blockDigits * 2^i) for i from 0 to level - 1, squaring the missing ones. The powers are
+	 * kept for the later conversions, as <tt>BigInteger.toString()</tt> caches its own
+	 *
+	 * @param level the level of the converted value
+	 * @return the powers
+	 * */
+	private synchronized List< BigInteger > getPowers( int level ) {
+		if ( powers.isEmpty() ) {
+			powers.add( BigInteger.TEN.pow( blockDigits ) );
+		}
+		while ( powers.size() < level ) {
+			BigInteger power = powers.get( powers.size() - 1 );
+			powers.add( power.multiply( power ) );
+		}
+		return new ArrayList<>( powers );
+	}
+
+	/**
+	 * Converts the blocks [from, to) in parallel and writes them in order, each one padded to blockDigits digits.
+	 * The converted blocks are released
+	 *
+	 * @param pool the fork/join pool
+	 * @param blocks the blocks
+	 * @param from the index of the first block
+	 * @param to the index after the last block
+	 * @param channel the channel the digits are written to
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the digits cannot be written
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the conversion is interrupted
+	 * */
+	private void writeWindow( ForkJoinPool pool, final BigInteger[] blocks, int from, int to,
+			WritableByteChannel channel ) throws IOException, InterruptedException {
+		final byte[] text = new byte[ ( to - from ) * blockDigits ];
+		List< Future< ? > > futures = new ArrayList<>();
+
+		for ( int i = from; i < to; i++ ) {
+			final int index = i;
+			final int offset = ( i - from ) * blockDigits;
+			futures.add( pool.submit( new Runnable() {
+				@Override
+				public void run() {
+					byte[] digits = blocks[ index ].toString().getBytes( StandardCharsets.US_ASCII );
+					int padding = blockDigits - digits.length;
+					Arrays.fill( text, offset, offset + padding, ZERO );
+					System.arraycopy( digits, 0, text, offset + padding, digits.length );
+					blocks[ index ] = null;
+				}
+			} ) );
+		}
+		try {
+			for ( Future< ? > future : futures ) {
+				future.get();
+			}
+		} catch ( ExecutionException e ) {
+			throw new IOException( "Cannot convert the digits", e.getCause() );
+		}
+		writeFully( channel, ByteBuffer.wrap( text ) );
+	}
+
+	/**
+	 * Writes all the bytes of a buffer to a channel
+	 *
+	 * @param channel the channel
+	 * @param buffer the buffer
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the bytes cannot be written
+	 * */
+	private static void writeFully( WritableByteChannel channel, ByteBuffer buffer ) throws IOException {
+		while ( buffer.hasRemaining() ) {
+			channel.write( buffer );
+		}
+	}
+
+	/**
+	 * This inner class splits a value lower than 10^(blockDigits * 2^level) into 2^level blocks of blockDigits
+	 * digits, forking the high and the low halves
+	 * */
+	private static class BlockSplitter extends RecursiveAction {
+
+		/**
+		 * The serial version
+		 * */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The level from which the halves are split by the current thread, the divisions below are too small to fork
+		 * */
+		private static final int FORK_LEVEL = 2;
+
+		/**
+		 * Stores the value to split
+		 * */
+		private final BigInteger value;
+
+		/**
+		 * Stores the level of the value
+		 * */
+		private final int level;
+
+		/**
+		 * Stores the index of the first block of the value
+		 * */
+		private final int index;
+
+		/**
+		 * Stores the blocks of the whole value
+		 * */
+		private final BigInteger[] blocks;
+
+		/**
+		 * Stores the powers 10^(blockDigits * 2^i)
+		 * */
+		private final List< BigInteger > powers;
+
+		/**
+		 * Constructor
+		 *
+		 * @param value the value to split
+		 * @param level the level of the value
+		 * @param index the index of the first block of the value
+		 * @param blocks the blocks of the whole value
+		 * @param powers the powers 10^(blockDigits * 2^i)
+		 * */
+		BlockSplitter( BigInteger value, int level, int index, BigInteger[] blocks, List< BigInteger > powers ) {
+			this.value = value;
+			this.level = level;
+			this.index = index;
+			this.blocks = blocks;
+			this.powers = powers;
+		}
+
+		@Override
+		protected void compute() {
+			if ( level < FORK_LEVEL ) {
+				split( value, level, index );
+			} else {
+				BigInteger[] halves = value.divideAndRemainder( powers.get( level - 1 ) );
+				int half = 1 << ( level - 1 );
+				invokeAll( new BlockSplitter( halves[ 0 ], level - 1, index, blocks, powers ),
+						new BlockSplitter( halves[ 1 ], level - 1, index + half, blocks, powers ) );
+			}
+		}
+
+		/**
+		 * Splits a value in the current thread
+		 *
+		 * @param value the value to split
+		 * @param level the level of the value
+		 * @param index the index of the first block of the value
+		 * */
+		private void split( BigInteger value, int level, int index ) {
+			if ( level == 0 ) {
+				blocks[ index ] = value;
+			} else if ( value.signum() == 0 ) {
+				Arrays.fill( blocks, index, index + ( 1 << level ), BigInteger.ZERO );
+			} else {
+				BigInteger[] halves = value.divideAndRemainder( powers.get( level - 1 ) );
+				split( halves[ 0 ], level - 1, index );
+				split( halves[ 1 ], level - 1, index + ( 1 << ( level - 1 ) ) );
+			}
+		}
+	}
+}
@@ -0,0 +1,563 @@
+package com.pi.digits;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class is a substring search index over the digits of a {@link PIDigitStore}.
+ *
+ * <p>It is a k-gram positional index: for every string of k digits, the sorted positions at which it occurs in the
+ * store. The index file has a header, the offsets of the 10^k grams and the positions of all grams, and it is
+ * memory-mapped when queried, so opening an index of billions of digits costs nothing until it is searched.
+ *
+ * <p>A pattern of at least k digits is searched through the rarest of its k-grams, and every candidate is verified
+ * against the store. A pattern shorter than k digits is the union of the 10^(k - length) grams it prefixes, plus the
+ * last k - 1 positions of the store which do not start a full gram.
+ *
+ * <p>The index is built by {@link #build(PIDigitStore, Path, int, int)}, which counts then places the grams of equal
+ * slices of the store in parallel. The positions are indexes of the stored digits, from 0
+ *
+ * @author Truong Nguyen
+ * */
+public class PIDigitIndex implements AutoCloseable {
+
+	/**
+	 * The magic number at the start of an index file, "PIDX" in ASCII
+	 * */
+	static final int MAGIC = 0x50494458;
+
+	/**
+	 * The version of the index file format
+	 * */
+	static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes: magic, version, k, reserved and the number of digits
+	 * */
+	static final int HEADER_SIZE = 24;
+
+	/**
+	 * The default length of the grams
+	 * */
+	public static final int DEFAULT_K = 6;
+
+	/**
+	 * The maximum length of the grams, the offsets of longer grams would not fit comfortably in memory
+	 * */
+	public static final int MAX_K = 7;
+
+	/**
+	 * The number of digits read from the store at once while building
+	 * */
+	private static final int BLOCK_SIZE = 1 << 20;
+
+	/**
+	 * Stores the channel of the index file
+	 * */
+	private final FileChannel fileChannel;
+
+	/**
+	 * Stores the indexed digit store
+	 * */
+	private final PIDigitStore store;
+
+	/**
+	 * Stores the length of the grams
+	 * */
+	private final int k;
+
+	/**
+	 * Stores the number of grams, 10^k
+	 * */
+	private final int noOfGram;
+
+	/**
+	 * Stores the offsets of the grams into {@link #positions}, noOfGram + 1 longs
+	 * */
+	private final MappedLongArray offsets;
+
+	/**
+	 * Stores the sorted positions of each gram
+	 * */
+	private final MappedLongArray positions;
+
+	/**
+	 * Constructor, opens an index file built for the given store
+	 *
+	 * @param path the path of the index file
+	 * @param store the indexed digit store
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read, is not an index or
+	 * does not match the store
+	 * */
+	public PIDigitIndex( Path path, PIDigitStore store ) throws IOException {
+		this( FileChannel.open( path, StandardOpenOption.READ ), FileChannel.MapMode.READ_ONLY, path, store );
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param fileChannel the channel of the index file
+	 * @param mapMode the map mode of the offsets and the positions
+	 * @param path the path of the index file
+	 * @param store the indexed digit store
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file is not an index or does not match the store
+	 * */
+	private PIDigitIndex( FileChannel fileChannel, FileChannel.MapMode mapMode, Path path, PIDigitStore store )
+			throws IOException {
+		ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+		while ( header.hasRemaining() && fileChannel.read( header, header.position() ) > 0 ) {
+			// reads until the header is complete or the file ends
+		}
+		header.flip();
+
+		if ( header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION ) {
+			fileChannel.close();
+			throw new IOException( "The file is not a digit index: " + path );
+		}
+		int k = header.getInt();
+		header.getInt();
+		long noOfDigit = header.getLong();
+
+		if ( k < 1 || k > MAX_K || noOfDigit != store.getNoOfDigit() ) {
+			fileChannel.close();
+			throw new IOException( "The digit index " + path + " does not match the digit store" );
+		}
+		this.fileChannel = fileChannel;
+		this.store = store;
+		this.k = k;
+		this.noOfGram = pow10( k );
+		this.offsets = new MappedLongArray( fileChannel, mapMode, HEADER_SIZE, noOfGram + 1L );
+		this.positions = new MappedLongArray( fileChannel, mapMode, HEADER_SIZE + ( noOfGram + 1L ) * 8,
+				getNoOfPosition( noOfDigit, k ) );
+	}
+
+	/**
+	 * Builds the index of a digit store and opens it
+	 *
+	 * @param store the digit store
+	 * @param path the path of the index file, replaced if it exists
+	 * @param k the length of the grams, from 1 to {@link #MAX_K}
+	 * @param noOfThread the number of threads building the index
+	 * @return PIDigitIndex the opened index
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the index cannot be written
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the building is interrupted
+	 * */
+	public static PIDigitIndex build( PIDigitStore store, Path path, int k, int noOfThread )
+			throws IOException, InterruptedException {
+		if ( k < 1 || k > MAX_K || noOfThread <= 0 ) {
+			throw new IllegalArgumentException( "Invalid k = " + k + " or number of threads = " + noOfThread );
+		}
+		long noOfDigit = store.getNoOfDigit();
+		long noOfPosition = getNoOfPosition( noOfDigit, k );
+		int noOfGram = pow10( k );
+
+		FileChannel fileChannel = FileChannel.open( path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE );
+		ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+		header.putInt( MAGIC ).putInt( VERSION ).putInt( k ).putInt( 0 ).putLong( noOfDigit ).flip();
+		while ( header.hasRemaining() ) {
+			fileChannel.write( header, header.position() );
+		}
+		PIDigitIndex index = new PIDigitIndex( fileChannel, FileChannel.MapMode.READ_WRITE, path, store );
+
+		// splits the positions into one slice per thread, so that each slice fills a sorted run of every gram
+		int noOfSlice = ( int ) Math.max( 1, Math.min( noOfThread, noOfPosition ) );
+		ExecutorService executor = Executors.newFixedThreadPool( noOfSlice );
+		try {
+			List< Future< long[] > > counts = new ArrayList<>();
+			for ( int i = 0; i < noOfSlice; i++ ) {
+				counts.add( executor.submit( index.new GramCounter( noOfPosition * i / noOfSlice,
+						noOfPosition * ( i + 1 ) / noOfSlice ) ) );
+			}
+
+			// turns the counts into the offsets of the grams and the first position of every slice in each gram
+			List< long[] > cursors = new ArrayList<>();
+			for ( Future< long[] > count : counts ) {
+				cursors.add( count.get() );
+			}
+			long offset = 0;
+			for ( int gram = 0; gram < noOfGram; gram++ ) {
+				index.offsets.put( gram, offset );
+				for ( long[] cursor : cursors ) {
+					long count = cursor[ gram ];
+					cursor[ gram ] = offset;
+					offset += count;
+				}
+			}
+			index.offsets.put( noOfGram, offset );
+
+			List< Future< long[] > > placements = new ArrayList<>();
+			for ( int i = 0; i < noOfSlice; i++ ) {
+				placements.add( executor.submit( index.new GramPlacer( noOfPosition * i / noOfSlice,
+						noOfPosition * ( i + 1 ) / noOfSlice, cursors.get( i ) ) ) );
+			}
+			for ( Future< long[] > placement : placements ) {
+				placement.get();
+			}
+		} catch ( ExecutionException e ) {
+			index.close();
+			throw new IOException( "Cannot build the digit index " + path, e.getCause() );
+		} finally {
+			executor.shutdownNow();
+		}
+
+		index.offsets.force();
+		index.positions.force();
+		index.close();
+
+		return new PIDigitIndex( path, store );
+	}
+
+	/**
+	 * Gets the length of the grams
+	 *
+	 * @return the length of the grams
+	 * */
+	public int getK() {
+		return k;
+	}
+
+	/**
+	 * Finds the first position of a pattern
+	 *
+	 * @param pattern the digits to search
+	 * @return the first position of the pattern, -1 if it does not occur
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be mapped
+	 * */
+	public long findFirst( String pattern ) throws IOException {
+		byte[] digits = toDigits( pattern );
+
+		if ( digits.length >= k ) {
+			long[] found = this.findLong( digits, true );
+			return ( found.length == 0 ) ? -1 : found[ 0 ];
+		}
+
+		// the first position of each prefixed gram is the smallest one of the gram
+		long first = -1;
+		int fromGram = this.getGramRange( digits );
+		for ( int gram = fromGram; gram < fromGram + pow10( k - digits.length ); gram++ ) {
+			long offset = offsets.get( gram );
+			if ( offset < offsets.get( gram + 1 ) ) {
+				long position = positions.get( offset );
+				first = ( first < 0 ) ? position : Math.min( first, position );
+			}
+		}
+		if ( first < 0 ) {
+			long[] tail = this.findInTail( digits );
+			first = ( tail.length == 0 ) ? -1 : tail[ 0 ];
+		}
+		return first;
+	}
+
+	/**
+	 * Finds all the positions of a pattern
+	 *
+	 * @param pattern the digits to search
+	 * @return the sorted positions of the pattern, empty if it does not occur
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be mapped
+	 * */
+	public long[] findAll( String pattern ) throws IOException {
+		byte[] digits = toDigits( pattern );
+
+		if ( digits.length >= k ) {
+			return this.findLong( digits, false );
+		}
+
+		int fromGram = this.getGramRange( digits );
+		int toGram = fromGram + pow10( k - digits.length );
+		long[] tail = this.findInTail( digits );
+		long from = offsets.get( fromGram );
+		long[] found = new long[ ( int ) ( offsets.get( toGram ) - from ) + tail.length ];
+
+		for ( int i = 0; i < found.length - tail.length; i++ ) {
+			found[ i ] = positions.get( from + i );
+		}
+		System.arraycopy( tail, 0, found, found.length - tail.length, tail.length );
+		Arrays.sort( found );
+
+		return found;
+	}
+
+	/**
+	 * Closes the index file. The digit store is not closed
+	 *
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be closed
+	 * */
+	@Override
+	public void close() throws IOException {
+		fileChannel.close();
+	}
+
+	/**
+	 * Finds the positions of a pattern of at least k digits, through the candidates of its rarest gram
+	 *
+	 * @param digits the digits of the pattern
+	 * @param firstOnly true to stop at the first position
+	 * @return the sorted positions
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be mapped
+	 * */
+	private long[] findLong( byte[] digits, boolean firstOnly ) throws IOException {
+		int rarestShift = 0;
+		int rarestGram = 0;
+		long rarestCount = Long.MAX_VALUE;
+
+		for ( int shift = 0; shift + k <= digits.length; shift++ ) {
+			int gram = toGram( digits, shift, k );
+			long count = offsets.get( gram + 1 ) - offsets.get( gram );
+			if ( count < rarestCount ) {
+				rarestShift = shift;
+				rarestGram = gram;
+				rarestCount = count;
+			}
+		}
+
+		long[] found = new long[ ( int ) Math.min( rarestCount, firstOnly ? 1 : rarestCount ) ];
+		int noOfFound = 0;
+		long noOfDigit = store.getNoOfDigit();
+
+		for ( long i = offsets.get( rarestGram ); i < offsets.get( rarestGram + 1 ) && noOfFound < found.length; i++ ) {
+			long start = positions.get( i ) - rarestShift;
+			if ( start >= 0 && start + digits.length <= noOfDigit
+					&& Arrays.equals( digits, store.getDigits( start, digits.length ) ) ) {
+				found[ noOfFound++ ] = start;
+			}
+		}
+		return Arrays.copyOf( found, noOfFound );
+	}
+
+	/**
+	 * Finds the positions of a pattern shorter than k digits among the last positions, which do not start a full gram
+	 *
+	 * @param digits the digits of the pattern
+	 * @return the sorted positions
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the store cannot be mapped
+	 * */
+	private long[] findInTail( byte[] digits ) throws IOException {
+		long noOfDigit = store.getNoOfDigit();
+		long from = getNoOfPosition( noOfDigit, k );
+		long[] found = new long[ ( int ) Math.max( 0, noOfDigit - digits.length + 1 - from ) ];
+		int noOfFound = 0;
+
+		for ( long start = from; start + digits.length <= noOfDigit; start++ ) {
+			if ( Arrays.equals( digits, store.getDigits( start, digits.length ) ) ) {
+				found[ noOfFound++ ] = start;
+			}
+		}
+		return Arrays.copyOf( found, noOfFound );
+	}
+
+	/**
+	 * Gets the first gram prefixed by a pattern shorter than k digits
+	 *
+	 * @param digits the digits of the pattern
+	 * @return the first gram, the following 10^(k - length) grams are prefixed by the pattern too
+	 * */
+	private int getGramRange( byte[] digits ) {
+		return toGram( digits, 0, digits.length ) * pow10( k - digits.length );
+	}
+
+	/**
+	 * Converts a pattern to its digits
+	 *
+	 * @param pattern the pattern
+	 * @return the digits, from 0 to 9
+	 * */
+	private static byte[] toDigits( String pattern ) {
+		if ( pattern == null || pattern.isEmpty() ) {
+			throw new IllegalArgumentException( "The pattern is empty" );
+		}
+		byte[] digits = new byte[ pattern.length() ];
+
+		for ( int i = 0; i < digits.length; i++ ) {
+			char c = pattern.charAt( i );
+			if ( c < '0' || c > '9' ) {
+				throw new IllegalArgumentException( "The pattern is not only digits: " + pattern );
+			}
+			digits[ i ] = ( byte ) ( c - '0' );
+		}
+		return digits;
+	}
+
+	/**
+	 * Converts the digits [from, from + length) to a gram
+	 *
+	 * @param digits the digits
+	 * @param from the index of the first digit
+	 * @param length the number of digits
+	 * @return the gram
+	 * */
+	private static int toGram( byte[] digits, int from, int length ) {
+		int gram = 0;
+
+		for ( int i = from; i < from + length; i++ ) {
+			gram = gram * 10 + digits[ i ];
+		}
+		return gram;
+	}
+
+	/**
+	 * Gets the number of positions which start a full gram
+	 *
+	 * @param noOfDigit the number of digits
+	 * @param k the length of the grams
+	 * @return the number of positions
+	 * */
+	private static long getNoOfPosition( long noOfDigit, int k ) {
+		return Math.max( 0, noOfDigit - k + 1 );
+	}
+
+	/**
+	 * Computes 10 to the given power
+	 *
+	 * @param exponent the exponent
+	 * @return 10^exponent
+	 * */
+	private static int pow10( int exponent ) {
+		int value = 1;
+
+		for ( int i = 0; i < exponent; i++ ) {
+			value *= 10;
+		}
+		return value;
+	}
+
+	/**
+	 * This inner class visits the grams starting in a slice of positions, block by block
+	 * */
+	private abstract class GramVisitor implements Callable< long[] > {
+
+		/**
+		 * Stores the first position of the slice
+		 * */
+		private final long from;
+
+		/**
+		 * Stores the position after the last one of the slice
+		 * */
+		private final long to;
+
+		/**
+		 * Constructor
+		 *
+		 * @param from the first position of the slice
+		 * @param to the position after the last one of the slice
+		 * */
+		GramVisitor( long from, long to ) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Visits the grams of the slice in the order of their positions
+		 *
+		 * @return the result of the visitor
+		 * */
+		@Override
+		public long[] call() throws Exception {
+			int modulus = noOfGram;
+
+			for ( long blockStart = from; blockStart < to; blockStart += BLOCK_SIZE ) {
+				int noOfStart = ( int ) Math.min( BLOCK_SIZE, to - blockStart );
+				byte[] digits = store.getDigits( blockStart, noOfStart + k - 1 );
+				int gram = toGram( digits, 0, k - 1 );
+
+				for ( int i = 0; i < noOfStart; i++ ) {
+					gram = ( gram * 10 + digits[ i + k - 1 ] ) % modulus;
+					this.visit( gram, blockStart + i );
+				}
+			}
+			return this.getResult();
+		}
+
+		/**
+		 * Visits a gram
+		 *
+		 * @param gram the gram
+		 * @param position the position of the gram
+		 * @throws IOException the <tt>IOException</tt> may be thrown if the index cannot be mapped
+		 * */
+		abstract void visit( int gram, long position ) throws IOException;
+
+		/**
+		 * Gets the result of the visitor
+		 *
+		 * @return the result
+		 * */
+		abstract long[] getResult();
+	}
+
+	/**
+	 * This inner class counts the grams of a slice
+	 * */
+	private class GramCounter extends GramVisitor {
+
+		/**
+		 * Stores the count of every gram
+		 * */
+		private final long[] counts = new long[ noOfGram ];
+
+		/**
+		 * Constructor
+		 *
+		 * @param from the first position of the slice
+		 * @param to the position after the last one of the slice
+		 * */
+		GramCounter( long from, long to ) {
+			super( from, to );
+		}
+
+		@Override
+		void visit( int gram, long position ) {
+			counts[ gram ]++;
+		}
+
+		@Override
+		long[] getResult() {
+			return counts;
+		}
+	}
+
+	/**
+	 * This inner class places the positions of a slice into the runs of the slice in every gram
+	 * */
+	private class GramPlacer extends GramVisitor {
+
+		/**
+		 * Stores the next index into the positions of every gram
+		 * */
+		private final long[] cursors;
+
+		/**
+		 * Constructor
+		 *
+		 * @param from the first position of the slice
+		 * @param to the position after the last one of the slice
+		 * @param cursors the first index into the positions of every gram
+		 * */
+		GramPlacer( long from, long to, long[] cursors ) {
+			super( from, to );
+			this.cursors = cursors;
+		}
+
+		@Override
+		void visit( int gram, long position ) throws IOException {
+			positions.put( cursors[ gram ]++, position );
+		}
+
+		@Override
+		long[] getResult() {
+			return cursors;
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.pi.digits;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class reads the digits of a digit store file written by {@link PIDigitStoreWriter}.
+ * 
+ * <p>The file is memory-mapped in segments of {@link #segmentSize} bytes. A segment is mapped the first time one of its
+ * digits is read, and the operating system loads only the pages which are touched; so reading a window of digits
+ * from a file of billions of digits costs a few page faults the first time and a memory copy afterwards
+ * 
+ * <p>An instance may be shared by several threads once opened
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIDigitStore implements AutoCloseable {
+
+	/**
+	 * The default size of a mapped segment in bytes
+	 * */
+	private static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+
+	/**
+	 * Stores the channel of the file
+	 * */
+	private final FileChannel fileChannel;
+
+	/**
+	 * Stores the number of digits of the store
+	 * */
+	private final long noOfDigit;
+
+	/**
+	 * Stores the size of a mapped segment in bytes
+	 * */
+	private final int segmentSize;
+
+	/**
+	 * Stores the mapped segments, null for the segments which are not mapped yet
+	 * */
+	private final AtomicReferenceArray< MappedByteBuffer > segments;
+
+	/**
+	 * Constructor, opens the store with the default segment size
+	 * 
+	 * @param path the path of the digit store file
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read or is not a digit store
+	 * */
+	public PIDigitStore( Path path ) throws IOException {
+		this( path, DEFAULT_SEGMENT_SIZE );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param path the path of the digit store file
+	 * @param segmentSize the size of a mapped segment in bytes
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read or is not a digit store
+	 * */
+	PIDigitStore( Path path, int segmentSize ) throws IOException {
+		this.fileChannel = FileChannel.open( path, StandardOpenOption.READ );
+		this.segmentSize = segmentSize;
+
+		ByteBuffer header = ByteBuffer.allocate( PIDigitStoreWriter.HEADER_SIZE );
+		while ( header.hasRemaining() && fileChannel.read( header, header.position() ) > 0 ) {
+			// reads until the header is complete or the file ends
+		}
+		header.flip();
+
+		if ( header.remaining() < PIDigitStoreWriter.HEADER_SIZE || header.getInt() != PIDigitStoreWriter.MAGIC
+				|| header.getInt() != PIDigitStoreWriter.VERSION ) {
+			fileChannel.close();
+			throw new IOException( "The file is not a digit store: " + path );
+		}
+		this.noOfDigit = header.getLong();
+
+		long dataSize = ( noOfDigit + 1 ) / 2;
+		this.segments = new AtomicReferenceArray<>( ( int ) ( ( dataSize + segmentSize - 1 ) / segmentSize ) );
+	}
+
+	/**
+	 * Gets the number of digits of the store
+	 * 
+	 * @return the number of digits
+	 * */
+	public long getNoOfDigit() {
+		return noOfDigit;
+	}
+
+	/**
+	 * Gets the digit at the given index
+	 * 
+	 * @param index the index of the digit, from 0
+	 * @return the digit, from 0 to 9
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	public int getDigit( long index ) throws IOException {
+		this.checkRange( index, 1 );
+		int packed = this.getPackedByte( index / 2 );
+
+		return ( ( index & 1 ) == 0 ) ? ( packed >>> 4 ) : ( packed & 0x0f );
+	}
+
+	/**
+	 * Gets the digits [index, index + count) as values from 0 to 9
+	 * 
+	 * @param index the index of the first digit, from 0
+	 * @param count the number of digits
+	 * @return the digits
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	public byte[] getDigits( long index, int count ) throws IOException {
+		this.checkRange( index, count );
+		byte[] digits = new byte[ count ];
+		int i = 0;
+
+		// the first digit is in a low nibble if the index is odd
+		if ( ( index & 1 ) == 1 && count > 0 ) {
+			digits[ i++ ] = ( byte ) ( this.getPackedByte( index / 2 ) & 0x0f );
+		}
+		for ( long position = ( index + i ) / 2; i + 1 < count; position++ ) {
+			int packed = this.getPackedByte( position );
+			digits[ i++ ] = ( byte ) ( packed >>> 4 );
+			digits[ i++ ] = ( byte ) ( packed & 0x0f );
+		}
+		if ( i < count ) {
+			digits[ i ] = ( byte ) ( this.getPackedByte( ( index + i ) / 2 ) >>> 4 );
+		}
+		return digits;
+	}
+
+	/**
+	 * Gets the digits [index, index + count) as a string
+	 * 
+	 * @param index the index of the first digit, from 0
+	 * @param count the number of digits
+	 * @return the digits
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	public String getDigitString( long index, int count ) throws IOException {
+		byte[] digits = this.getDigits( index, count );
+
+		for ( int i = 0; i < digits.length; i++ ) {
+			digits[ i ] += '0';
+		}
+		return new String( digits, StandardCharsets.US_ASCII );
+	}
+
+	/**
+	 * Closes the file. The mapped segments are released by the garbage collector
+	 * 
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be closed
+	 * */
+	@Override
+	public void close() throws IOException {
+		fileChannel.close();
+	}
+
+	/**
+	 * Checks the range of digits is inside the store
+	 * 
+	 * @param index the index of the first digit
+	 * @param count the number of digits
+	 * */
+	private void checkRange( long index, int count ) {
+		if ( index < 0 || count < 0 || index + count > noOfDigit ) {
+			throw new IndexOutOfBoundsException( "Invalid range [" + index + ", " + ( index + count )
+					+ "), the store has " + noOfDigit + " digits" );
+		}
+	}
+
+	/**
+	 * Gets the byte holding two packed digits, mapping its segment if needed
+	 * 
+	 * @param position the position of the byte after the header
+	 * @return the packed byte, from 0 to 255
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	private int getPackedByte( long position ) throws IOException {
+		int segmentIndex = ( int ) ( position / segmentSize );
+		MappedByteBuffer segment = segments.get( segmentIndex );
+
+		if ( segment == null ) {
+			synchronized ( segments ) {
+				segment = segments.get( segmentIndex );
+				if ( segment == null ) {
+					long start = ( long ) segmentIndex * segmentSize;
+					long size = Math.min( segmentSize, ( noOfDigit + 1 ) / 2 - start );
+					segment = fileChannel.map( FileChannel.MapMode.READ_ONLY, PIDigitStoreWriter.HEADER_SIZE + start, size );
+					segments.set( segmentIndex, segment );
+				}
+			}
+		}
+		return segment.get( ( int ) ( position - ( long ) segmentIndex * segmentSize ) ) & 0xff;
+	}
+}
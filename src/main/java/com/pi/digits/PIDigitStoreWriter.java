@@ -0,0 +1,186 @@
+package com.pi.digits;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes decimal digits into a digit store file, which is read by {@link PIDigitStore}.
+ * 
+ * <p>It is a {@link WritableByteChannel} of ASCII digits, so any producer of decimal text can stream into it without
+ * building a <tt>String</tt>. The digits are packed two per byte, 4 bits each, into a large direct buffer which is
+ * written to the file through a {@link FileChannel} whenever it is full. The number of digits is written into the
+ * header by {@link #close()}
+ * 
+ * <p>File layout: the header of {@link #HEADER_SIZE} bytes holds the magic <tt>PIDG</tt>, the version and the number
+ * of digits; then digit i is stored in byte <tt>HEADER_SIZE + i / 2</tt>, in the high nibble if i is even and
+ * in the low nibble if i is odd
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIDigitStoreWriter implements WritableByteChannel {
+
+	/**
+	 * The magic number at the start of a digit store file, "PIDG"
+	 * */
+	static final int MAGIC = 0x50494447;
+
+	/**
+	 * The version of the file layout
+	 * */
+	static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes
+	 * */
+	static final int HEADER_SIZE = 16;
+
+	/**
+	 * The default size of the write buffer in bytes
+	 * */
+	private static final int DEFAULT_BUFFER_SIZE = 8 << 20;
+
+	/**
+	 * Stores the channel of the file
+	 * */
+	private final FileChannel fileChannel;
+
+	/**
+	 * Stores the packed digits which are not written to the file yet
+	 * */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Stores the number of digits written so far
+	 * */
+	private long noOfDigit = 0;
+
+	/**
+	 * Stores the even digit waiting for its odd neighbour, shifted to the high nibble
+	 * */
+	private int pendingNibble = 0;
+
+	/**
+	 * Constructor, creates or truncates the file
+	 * 
+	 * @param path the path of the digit store file
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be opened
+	 * */
+	public PIDigitStoreWriter( Path path ) throws IOException {
+		this.fileChannel = FileChannel.open( path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING );
+		this.buffer = ByteBuffer.allocateDirect( DEFAULT_BUFFER_SIZE );
+
+		// the number of digits is not known yet, the header is completed by close()
+		fileChannel.position( HEADER_SIZE );
+	}
+
+	/**
+	 * Writes the ASCII digits of the source buffer
+	 * 
+	 * @param src the buffer of ASCII digits '0' to '9'
+	 * @return the number of bytes consumed, which is all remaining bytes
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be written
+	 * @throws IllegalArgumentException if a byte is not an ASCII digit
+	 * */
+	@Override
+	public int write( ByteBuffer src ) throws IOException {
+		if ( !fileChannel.isOpen() ) {
+			throw new ClosedChannelException();
+		}
+		int length = src.remaining();
+
+		while ( src.hasRemaining() ) {
+			int digit = src.get() - '0';
+			if ( digit < 0 || digit > 9 ) {
+				throw new IllegalArgumentException( "Invalid value received, only the ASCII digits can be stored" );
+			}
+
+			if ( ( noOfDigit & 1 ) == 0 ) {
+				pendingNibble = digit << 4;
+			} else {
+				if ( !buffer.hasRemaining() ) {
+					this.flushBuffer();
+				}
+				buffer.put( ( byte ) ( pendingNibble | digit ) );
+			}
+			noOfDigit++;
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the digits of a character sequence
+	 * 
+	 * @param digits the decimal digits
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be written
+	 * */
+	public void write( CharSequence digits ) throws IOException {
+		byte[] bytes = new byte[ digits.length() ];
+
+		for ( int i = 0; i < bytes.length; i++ ) {
+			bytes[ i ] = ( byte ) digits.charAt( i );
+		}
+		this.write( ByteBuffer.wrap( bytes ) );
+	}
+
+	/**
+	 * Gets the number of digits written so far
+	 * 
+	 * @return the number of digits
+	 * */
+	public long getNoOfDigit() {
+		return noOfDigit;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return fileChannel.isOpen();
+	}
+
+	/**
+	 * Writes the remaining digits and the header, and closes the file
+	 * 
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be written
+	 * */
+	@Override
+	public void close() throws IOException {
+		if ( !fileChannel.isOpen() ) {
+			return;
+		}
+		try {
+			if ( ( noOfDigit & 1 ) == 1 ) {
+				if ( !buffer.hasRemaining() ) {
+					this.flushBuffer();
+				}
+				buffer.put( ( byte ) pendingNibble );
+			}
+			this.flushBuffer();
+
+			ByteBuffer header = ByteBuffer.allocate( HEADER_SIZE );
+			header.putInt( MAGIC ).putInt( VERSION ).putLong( noOfDigit ).flip();
+			while ( header.hasRemaining() ) {
+				fileChannel.write( header, header.position() );
+			}
+		} finally {
+			fileChannel.close();
+		}
+	}
+
+	/**
+	 * Writes the buffer to the file
+	 * 
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be written
+	 * */
+	private void flushBuffer() throws IOException {
+		buffer.flip();
+		while ( buffer.hasRemaining() ) {
+			fileChannel.write( buffer );
+		}
+		buffer.clear();
+	}
+}
@@ -2,6 +2,9 @@ package com.pi.formula;
 
 import java.util.concurrent.Callable;
 
+import com.pi.metrics.PICalculatorMetrics;
+import com.pi.metrics.PIChunkEvent;
+
 /**
  * An abstract class is used to produce an approximation of PI. It defines common properties used to
  * calculate the PI. It implements Callable< Double > interface for thread support
@@ -9,6 +12,10 @@ import java.util.concurrent.Callable;
  * <p> An abstract {@link #calculate()} is declared. This is used to calculate the PI from
  * {@link #startPoint} to {@link #endPoint}. The formula is used in this method depending on type of subclass
  * 
+ * <p> When {@link PICalculatorMetrics#ENABLED} is true, {@link #call()} records the chunk in the metrics. When the
+ * {@link PIChunkEvent} is enabled in a JFR recording, it is emitted whether the metrics are enabled or not. Otherwise
+ * the formula neither reads the clock nor creates an event, and {@link #call()} only invokes {@link #calculate()}
+ * 
  * @author Truong Nguyen
  * */
 public abstract class PIFormula implements Callable< Double > {
@@ -23,6 +30,17 @@ public abstract class PIFormula implements Callable< Double > {
 	 * */
 	protected final long endPoint;
 
+	/**
+	 * Stores the time in nanoseconds at which the formula is created, used to measure its queue wait time.
+	 * It is taken only if the metrics or the {@link PIChunkEvent} are enabled
+	 * */
+	private final long createTime;
+
+	/**
+	 * An boolean value indicates if the {@link #createTime} is taken
+	 * */
+	private final boolean isCreateTimeTaken;
+
 	/**
 	 * Constructor
 	 * 
@@ -34,6 +52,30 @@ public abstract class PIFormula implements Callable< Double > {
 	public PIFormula( long startPoint, long endPoint ) {
 		this.startPoint = startPoint;
 		this.endPoint = endPoint;
+		this.isCreateTimeTaken = PICalculatorMetrics.ENABLED || PIChunkEvent.isTypeEnabled();
+		this.createTime = isCreateTimeTaken ? System.nanoTime() : 0;
+
+		if ( PICalculatorMetrics.ENABLED ) {
+			PICalculatorMetrics.getInstance().onChunkSubmitted();
+		}
+	}
+
+	/**
+	 * Gets the start value of the range at which the calculation begins
+	 * 
+	 * @return the start point
+	 * */
+	public long getStartPoint() {
+		return startPoint;
+	}
+
+	/**
+	 * Gets the end value of the range at which the calculation ends
+	 * 
+	 * @return the end point
+	 * */
+	public long getEndPoint() {
+		return endPoint;
 	}
 
 	/**
@@ -50,7 +92,32 @@ public abstract class PIFormula implements Callable< Double > {
 	 * */
 	@Override
 	public final Double call() throws Exception {
-		return this.calculate();
+		if ( !PICalculatorMetrics.ENABLED && !PIChunkEvent.isTypeEnabled() ) {
+			return this.calculate();
+		}
+
+		PIChunkEvent event = new PIChunkEvent();
+		long beginTime = System.nanoTime();
+		event.begin();
+
+		double pi = this.calculate();
+
+		event.end();
+		if ( PICalculatorMetrics.ENABLED ) {
+			long latency = System.nanoTime() - beginTime;
+			PICalculatorMetrics.getInstance().onChunkCompleted( endPoint - startPoint + 1, beginTime - createTime,
+					latency );
+		}
+
+		if ( event.shouldCommit() ) {
+			event.formula = this.getClass().getSimpleName();
+			event.startPoint = startPoint;
+			event.endPoint = endPoint;
+			// a recording which starts after the formula is created has no queue wait to report
+			event.queueWait = isCreateTimeTaken ? beginTime - createTime : 0;
+			event.commit();
+		}
+		return pi;
 	}
 
 }
\ No newline at end of file
@@ -1,13 +1,30 @@
 package com.pi.formula;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import com.pi.model.PIData;
+
 /**
  * This factory class helps create a specific instance of {@link PIFormula}
  * based on PICalculatorType parameter
  * 
+ * <p>The formulas are not hard-coded: they are created by the {@link PIFormulaProvider}s discovered by
+ * {@link ServiceLoader} when the class is loaded. Each formula type may have several kernel variants; the methods
+ * without a variant use the {@link PIFormulaProvider#DEFAULT_VARIANT}, or the first registered variant of the type
+ * if it has no default one
+ * 
  * @author Truong Nguyen
  * */
 public class PIFormulaFactory {
 
+	/**
+	 * Stores the discovered providers, in the order of their registration
+	 * */
+	private static final List< PIFormulaProvider > PROVIDERS = loadProviders();
+
 	/**
 	 * Returns an instance of
 	 * {@link PIFormula} which is corresponding with {@link PIFormulaType}
@@ -19,12 +36,138 @@ public class PIFormulaFactory {
 	 *  
 	 * */
 	public PIFormula getPIFormula( PIFormulaType formulaType, long startPoint, long endPoint ) {
-		PIFormula piFormula = null;
+		return this.getPIFormula( formulaType, null, startPoint, endPoint );
+	}
+
+	/**
+	 * Returns an instance of {@link PIFormula} of a kernel variant of {@link PIFormulaType}
+	 * 
+	 * @param formulaType an enum represents a type of formula
+	 * @param variant the name of the variant, null for the default one
+	 * @param startPoint a value at which {@link PIFormula} begins the calculation
+	 * @param endPoint a value at which {@link PIFormula} ends the calculation
+	 * @return PIFormula an instance of {@link PIFormula}. Null will be returned if no provider has the type and variant
+	 * */
+	public PIFormula getPIFormula( PIFormulaType formulaType, String variant, long startPoint, long endPoint ) {
+		PIFormulaProvider provider = getProvider( formulaType, variant );
+
+		return ( provider == null ) ? null : provider.newFormula( startPoint, endPoint );
+	}
+
+	/**
+	 * Returns the {@link PIData} of a calculation from the sum of the results of its {@link PIFormula}s.
+	 * For most formulas the sum is the PI itself. For {@link PIFormulaType#MONTE_CARLO} the sum is the number of hits
+	 * among the n + 1 points; the estimate is returned with its 95% confidence interval
+	 * 
+	 * @param formulaType an enum represents a type of formula
+	 * @param sum the sum of the results of the {@link PIFormula}s from 0 to n
+	 * @param n the terminal point of the calculation
+	 * @return PIData the PI calculation result
+	 * */
+	public PIData newPIData( PIFormulaType formulaType, double sum, long n ) {
+		return newPIData( formulaType, null, sum, n );
+	}
+
+	/**
+	 * Returns the {@link PIData} of a calculation from the sum of the results of the {@link PIFormula}s of a kernel
+	 * variant, the same as {@link #newPIData(PIFormulaType, double, long)} but by the provider of that variant
+	 * 
+	 * @param formulaType an enum represents a type of formula
+	 * @param variant the name of the variant, null for the default one
+	 * @param sum the sum of the results of the {@link PIFormula}s from 0 to n
+	 * @param n the terminal point of the calculation
+	 * @return PIData the PI calculation result
+	 * */
+	public PIData newPIData( PIFormulaType formulaType, String variant, double sum, long n ) {
+		PIFormulaProvider provider = getProvider( formulaType, variant );
+
+		return ( provider == null ) ? new PIData( sum, n ) : provider.newPIData( sum, n );
+	}
+
+	/**
+	 * Returns the {@link PIData} of a calculation from the sum of the results of its {@link PIIntervalFormula}s and
+	 * the bounds of that sum. For {@link PIFormulaType#LEIBNIZ_INTERVAL} the bounds are widened by the truncation
+	 * error of the series: the terms alternate and decrease, so PI lies between the sum up to n and the sum up to
+	 * n + 1, and the returned interval provably contains PI. For other formulas the bounds are returned as they are
+	 * 
+	 * @param formulaType an enum represents a type of formula
+	 * @param sum the sum of the results of the {@link PIFormula}s from 0 to n
+	 * @param lowerSum the lower bound of the exact sum, rounded downwards
+	 * @param upperSum the upper bound of the exact sum, rounded upwards
+	 * @param n the terminal point of the calculation
+	 * @return PIData the PI calculation result
+	 * */
+	public PIData newPIData( PIFormulaType formulaType, double sum, double lowerSum, double upperSum, long n ) {
+		return newPIData( formulaType, null, sum, lowerSum, upperSum, n );
+	}
+
+	/**
+	 * Returns the {@link PIData} of a calculation from the sum of the results of the {@link PIIntervalFormula}s of a
+	 * kernel variant and the bounds of that sum, the same as
+	 * {@link #newPIData(PIFormulaType, double, double, double, long)} but by the provider of that variant
+	 * 
+	 * @param formulaType an enum represents a type of formula
+	 * @param variant the name of the variant, null for the default one
+	 * @param sum the sum of the results of the {@link PIFormula}s from 0 to n
+	 * @param lowerSum the lower bound of the exact sum, rounded downwards
+	 * @param upperSum the upper bound of the exact sum, rounded upwards
+	 * @param n the terminal point of the calculation
+	 * @return PIData the PI calculation result
+	 * */
+	public PIData newPIData( PIFormulaType formulaType, String variant, double sum, double lowerSum, double upperSum,
+			long n ) {
+		PIFormulaProvider provider = getProvider( formulaType, variant );
+
+		return ( provider == null ) ? new PIData( sum, n, lowerSum, upperSum )
+				: provider.newPIData( sum, lowerSum, upperSum, n );
+	}
+
+	/**
+	 * Returns the provider of a kernel variant of a formula type
+	 * 
+	 * @param formulaType an enum represents a type of formula
+	 * @param variant the name of the variant, null for the default one
+	 * @return PIFormulaProvider the provider. Null will be returned if no provider has the type and variant
+	 * */
+	public static PIFormulaProvider getProvider( PIFormulaType formulaType, String variant ) {
+		PIFormulaProvider firstProvider = null;
+
+		for ( PIFormulaProvider provider : PROVIDERS ) {
+			if ( provider.getFormulaType() != formulaType ) {
+				continue;
+			}
+			if ( provider.getVariant().equals( ( variant == null ) ? PIFormulaProvider.DEFAULT_VARIANT : variant ) ) {
+				return provider;
+			}
+			if ( firstProvider == null ) {
+				firstProvider = provider;
+			}
+		}
+		return ( variant == null ) ? firstProvider : null;
+	}
+
+	/**
+	 * Returns all the discovered providers
+	 * 
+	 * @return the providers, in the order of their registration
+	 * */
+	public static List< PIFormulaProvider > getProviders() {
+		return PROVIDERS;
+	}
+
+	/**
+	 * Discovers the providers registered on the class path of this class
+	 * 
+	 * @return the providers
+	 * */
+	private static List< PIFormulaProvider > loadProviders() {
+		List< PIFormulaProvider > providers = new ArrayList<>();
 
-		if ( PIFormulaType.LEIBNIZ == formulaType ) {
-			piFormula = new PILeibnizFormula( startPoint, endPoint );
+		for ( PIFormulaProvider provider : ServiceLoader.load( PIFormulaProvider.class,
+				PIFormulaFactory.class.getClassLoader() ) ) {
+			providers.add( provider );
 		}
-		return piFormula;
+		return Collections.unmodifiableList( providers );
 	}
 
 }
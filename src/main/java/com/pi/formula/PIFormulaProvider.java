@@ -0,0 +1,86 @@
+package com.pi.formula;
+
+import com.pi.model.PIData;
+
+/**
+ * The service provider interface of the formulas. A provider creates the {@link PIFormula}s of one kernel variant of a
+ * {@link PIFormulaType}, turns the sum of their results into the {@link PIData}, and tells how many terms its formula
+ * needs for an error, which is the error model used by the planner.
+ *
+ * <p>The providers are discovered by {@link java.util.ServiceLoader} from the
+ * <tt>META-INF/services/com.pi.formula.PIFormulaProvider</tt> files of the class path, so a new kernel variant is
+ * added by registering its provider there, without editing {@link PIFormulaFactory}. A type may have several
+ * variants; the one named {@link #DEFAULT_VARIANT} is used when no variant is asked for. A provider must have a
+ * public constructor without arguments
+ *
+ * @author Truong Nguyen
+ * */
+public interface PIFormulaProvider {
+
+	/**
+	 * The name of the variant used when no variant is asked for
+	 * */
+	public static final String DEFAULT_VARIANT = "default";
+
+	/**
+	 * Gets the formula type of the provider
+	 *
+	 * @return PIFormulaType the formula type
+	 * */
+	public PIFormulaType getFormulaType();
+
+	/**
+	 * Gets the name of the kernel variant of the provider, unique among the variants of its formula type
+	 *
+	 * @return the name of the variant
+	 * */
+	public String getVariant();
+
+	/**
+	 * Returns a new formula which calculates the range [startPoint, endPoint]
+	 *
+	 * @param startPoint a value at which {@link PIFormula} begins the calculation
+	 * @param endPoint a value at which {@link PIFormula} ends the calculation
+	 * @return PIFormula the formula
+	 * */
+	public PIFormula newFormula( long startPoint, long endPoint );
+
+	/**
+	 * Returns the {@link PIData} of a calculation from the sum of the results of its formulas
+	 *
+	 * @param sum the sum of the results of the formulas from 0 to n
+	 * @param n the terminal point of the calculation
+	 * @return PIData the PI calculation result
+	 * */
+	public PIData newPIData( double sum, long n );
+
+	/**
+	 * Returns the {@link PIData} of a calculation from the sum of the results of its {@link PIIntervalFormula}s and
+	 * the bounds of that sum. By default the bounds are returned as they are
+	 *
+	 * @param sum the sum of the results of the formulas from 0 to n
+	 * @param lowerSum the lower bound of the exact sum, rounded downwards
+	 * @param upperSum the upper bound of the exact sum, rounded upwards
+	 * @param n the terminal point of the calculation
+	 * @return PIData the PI calculation result
+	 * */
+	public default PIData newPIData( double sum, double lowerSum, double upperSum, long n ) {
+		return new PIData( sum, n, lowerSum, upperSum );
+	}
+
+	/**
+	 * Returns the expected absolute error of the PI calculated with n as the terminal point
+	 *
+	 * @param n the terminal point of the calculation
+	 * @return the expected absolute error
+	 * */
+	public double getError( long n );
+
+	/**
+	 * Returns the smallest terminal point whose expected absolute error is at most the given error
+	 *
+	 * @param error the absolute error
+	 * @return the terminal point, -1 if the formula cannot reach the error in double precision
+	 * */
+	public long getN( double error );
+}
@@ -2,13 +2,16 @@ package com.pi.formula;
 
 /**
  * To increase the flexibility, This enum class is defined to represent formulas 
- * which are used to calculate an approximation of PI. Currently, there is only one formula {@link #LEIBNIZ}} defined.
+ * which are used to calculate an approximation of PI. Currently, there are three formulas: {@link #LEIBNIZ},
+ * {@link #LEIBNIZ_INTERVAL}, which also returns an interval guaranteed to contain PI, and {@link #MONTE_CARLO}.
  * But more formulas may be added in the future
  * 
  * @author Truong Nguyen
  * */
 public enum PIFormulaType {
-	LEIBNIZ;
+	LEIBNIZ,
+	LEIBNIZ_INTERVAL,
+	MONTE_CARLO;
 
 	/**
 	 * Returns an {@link PIFormulaType} enum is corresponding with formula string
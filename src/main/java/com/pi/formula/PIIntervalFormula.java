@@ -0,0 +1,25 @@
+package com.pi.formula;
+
+/**
+ * This interface is implemented by the formulas which also enclose their exact result in an interval. The bounds are
+ * available once {@link PIFormula#call()} returns; the result of <tt>call()</tt> itself stays an approximation inside
+ * the interval, so the formula can be summed like any other by the engines which ignore the bounds
+ * 
+ * @author Truong Nguyen
+ * */
+public interface PIIntervalFormula {
+
+	/**
+	 * Gets the lower bound of the exact result of the range
+	 * 
+	 * @return the lower bound, NaN if the formula is not calculated yet
+	 * */
+	double getLowerBound();
+
+	/**
+	 * Gets the upper bound of the exact result of the range
+	 * 
+	 * @return the upper bound, NaN if the formula is not calculated yet
+	 * */
+	double getUpperBound();
+}
@@ -0,0 +1,53 @@
+package com.pi.formula;
+
+import com.pi.model.PIData;
+
+/**
+ * The provider of the default variant of {@link PIFormulaType#LEIBNIZ}, which is {@link PILeibnizFormula}.
+ *
+ * <p>The series alternates and its terms decrease, so the error of the sum up to n is below the next term,
+ * 4 / (2n + 3)
+ *
+ * @author Truong Nguyen
+ * */
+public class PILeibnizFormulaProvider implements PIFormulaProvider {
+
+	/**
+	 * The lowest error reached in double precision. Below it, the rounding errors of the sum of the 2 / error terms
+	 * are of the same order as the error itself
+	 * */
+	static final double MIN_ERROR = 1e-11;
+
+	@Override
+	public PIFormulaType getFormulaType() {
+		return PIFormulaType.LEIBNIZ;
+	}
+
+	@Override
+	public String getVariant() {
+		return DEFAULT_VARIANT;
+	}
+
+	@Override
+	public PIFormula newFormula( long startPoint, long endPoint ) {
+		return new PILeibnizFormula( startPoint, endPoint );
+	}
+
+	@Override
+	public PIData newPIData( double sum, long n ) {
+		return new PIData( sum, n );
+	}
+
+	@Override
+	public double getError( long n ) {
+		return Math.max( 4.0 / ( 2.0 * n + 3.0 ), MIN_ERROR );
+	}
+
+	@Override
+	public long getN( double error ) {
+		if ( !( error >= MIN_ERROR ) ) {
+			return -1;
+		}
+		return Math.max( ( long ) Math.ceil( ( 4.0 / error - 3.0 ) / 2.0 ), 0 );
+	}
+}
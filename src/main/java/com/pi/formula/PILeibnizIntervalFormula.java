@@ -0,0 +1,87 @@
+package com.pi.formula;
+
+/**
+ * A class is used to produce an approximation of PI using Leibniz formula, together with an interval which provably
+ * contains the exact sum of the terms of the range.
+ * 
+ * <p>The terms are summed in a plain loop, the same as {@link PILeibnizFormula}, so the kernel runs at primitive
+ * speed. The rounding error is bounded once per range instead of per term: the terms decrease in magnitude and
+ * alternate in sign, so every partial sum and every term lies within the magnitude of the first term t0. Each of the
+ * at most three rounded operations of a term (the conversion of the denominator, the division and the addition) is
+ * then off by at most half an ulp of 2|t0|, and the error of the range is at most 2 * noOfTerm * ulp(2|t0|).
+ * The bounds are rounded outwards with {@link Math#nextDown(double)} and {@link Math#nextUp(double)}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PILeibnizIntervalFormula extends PIFormula implements PIIntervalFormula {
+
+	/**
+	 * Stores the lower bound of the exact sum of the range
+	 * */
+	private double lowerBound = Double.NaN;
+
+	/**
+	 * Stores the upper bound of the exact sum of the range
+	 * */
+	private double upperBound = Double.NaN;
+
+	/**
+	 * Constructor
+	 * */
+	public PILeibnizIntervalFormula( long startPoint, long endPoint ) {
+		super( startPoint, endPoint );
+	}
+
+	/**
+	 * Calculates the Pi value from startpoint to endpoint using Leibniz formula, and the interval of its exact value
+	 * 
+	 * <p>Leibniz Formula: PI = 4 - 4/3 + 4/5 - 4/7...go on
+	 * */
+	protected double calculate() {
+		double pi = 0;
+		int sign;
+		long denominator;
+		
+		sign = ( startPoint % 2 == 0 )? 1 : -1 ;
+		
+		for ( long n = startPoint; n <= endPoint; n++ ) {
+			denominator = ( ( 2 * n ) + 1 ) * sign;
+			pi = pi +  4.0 / denominator;
+
+			sign = -sign;
+		}
+
+		if ( endPoint >= startPoint ) {
+			double firstTerm = 4.0 / ( ( 2 * startPoint ) + 1 );
+			double error = Math.nextUp( 2.0 * ( endPoint - startPoint + 1 ) * Math.ulp( 2.0 * firstTerm ) );
+
+			lowerBound = Math.nextDown( pi - error );
+			upperBound = Math.nextUp( pi + error );
+		} else {
+			lowerBound = 0.0;
+			upperBound = 0.0;
+		}
+		return pi;
+	}
+
+	/**
+	 * Gets the lower bound of the exact sum of the range
+	 * 
+	 * @return the lower bound, NaN if the formula is not calculated yet
+	 * */
+	@Override
+	public double getLowerBound() {
+		return lowerBound;
+	}
+
+	/**
+	 * Gets the upper bound of the exact sum of the range
+	 * 
+	 * @return the upper bound, NaN if the formula is not calculated yet
+	 * */
+	@Override
+	public double getUpperBound() {
+		return upperBound;
+	}
+
+}
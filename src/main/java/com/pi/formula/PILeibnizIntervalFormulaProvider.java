@@ -0,0 +1,41 @@
+package com.pi.formula;
+
+import com.pi.model.PIData;
+
+/**
+ * The provider of {@link PIFormulaType#LEIBNIZ_INTERVAL}, which is {@link PILeibnizIntervalFormula}. It sums the same
+ * series as {@link PIFormulaType#LEIBNIZ}, so it has the same error model
+ *
+ * @author Truong Nguyen
+ * */
+public class PILeibnizIntervalFormulaProvider extends PILeibnizFormulaProvider {
+
+	@Override
+	public PIFormulaType getFormulaType() {
+		return PIFormulaType.LEIBNIZ_INTERVAL;
+	}
+
+	@Override
+	public PIFormula newFormula( long startPoint, long endPoint ) {
+		return new PILeibnizIntervalFormula( startPoint, endPoint );
+	}
+
+	/**
+	 * Returns the {@link PIData} with the bounds widened by the truncation error of the series: the terms alternate
+	 * and decrease, so PI lies between the sum up to n and the sum up to n + 1, and the returned interval provably
+	 * contains PI
+	 * */
+	@Override
+	public PIData newPIData( double sum, double lowerSum, double upperSum, long n ) {
+		if ( n < 0 ) {
+			return new PIData( sum, n, lowerSum, upperSum );
+		}
+		double truncationError = Math.nextUp( 4.0 / ( 2.0 * n + 3.0 ) );
+
+		// the last term is positive if n is even, then the sum is above PI, otherwise below
+		if ( n % 2 == 0 ) {
+			return new PIData( sum, n, Math.nextDown( lowerSum - truncationError ), upperSum );
+		}
+		return new PIData( sum, n, lowerSum, Math.nextUp( upperSum + truncationError ) );
+	}
+}
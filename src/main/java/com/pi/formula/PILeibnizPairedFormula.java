@@ -0,0 +1,49 @@
+package com.pi.formula;
+
+/**
+ * A class is used to produce an approximation of PI using Leibniz formula, summing its terms by pairs.
+ * 
+ * <p>The terms 2k and 2k + 1 are merged into 4 / (4k + 1) - 4 / (4k + 3) = 8 / ((4k + 1)(4k + 3)), so there is one
+ * division per two terms instead of one per term, and the positive pairs do not cancel each other. The result is
+ * not bit-identical to {@link PILeibnizFormula}, which adds the terms one by one
+ * 
+ * @author Truong Nguyen
+ * */
+public class PILeibnizPairedFormula extends PIFormula {
+
+	/**
+	 * Constructor
+	 * */
+	public PILeibnizPairedFormula( long startPoint, long endPoint ) {
+		super( startPoint, endPoint );
+	}
+
+	/**
+	 * Calculates the Pi value from startpoint to endpoint using Leibniz formula, two terms at a time
+	 * 
+	 * <p>Leibniz Formula: PI = (4 - 4/3) + (4/5 - 4/7)...go on
+	 * */
+	protected double calculate() {
+		double pi = 0;
+		double denominator;
+		long n = startPoint;
+
+		// an odd first term has no pair in the range
+		if ( n % 2 != 0 && n <= endPoint ) {
+			pi = pi - 4.0 / ( 2.0 * n + 1.0 );
+			n++;
+		}
+
+		for ( ; n < endPoint; n += 2 ) {
+			denominator = 2.0 * n + 1.0;
+			pi = pi + 8.0 / ( denominator * ( denominator + 2.0 ) );
+		}
+
+		// an even last term has no pair in the range
+		if ( n == endPoint ) {
+			pi = pi + 4.0 / ( 2.0 * n + 1.0 );
+		}
+		return pi;
+	}
+
+}
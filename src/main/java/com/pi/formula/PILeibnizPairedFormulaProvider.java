@@ -0,0 +1,25 @@
+package com.pi.formula;
+
+/**
+ * The provider of the <tt>paired</tt> variant of {@link PIFormulaType#LEIBNIZ}, which is
+ * {@link PILeibnizPairedFormula}. It sums the same series as the default variant, so it has the same error model
+ *
+ * @author Truong Nguyen
+ * */
+public class PILeibnizPairedFormulaProvider extends PILeibnizFormulaProvider {
+
+	/**
+	 * The name of the variant
+	 * */
+	public static final String VARIANT = "paired";
+
+	@Override
+	public String getVariant() {
+		return VARIANT;
+	}
+
+	@Override
+	public PIFormula newFormula( long startPoint, long endPoint ) {
+		return new PILeibnizPairedFormula( startPoint, endPoint );
+	}
+}
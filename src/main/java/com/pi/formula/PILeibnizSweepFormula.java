@@ -0,0 +1,129 @@
+package com.pi.formula;
+
+/**
+ * A class is used to calculate the term-wise Leibniz series of a range in one fused loop: the sum of
+ * {@link PILeibnizFormula}, the sum of {@link PILeibnizPairedFormula} and the interval of
+ * {@link PILeibnizIntervalFormula}. The loop walks the terms in pairs and computes the denominators 2n + 1 and
+ * 2n + 3 once for all the series, so the range is traversed once instead of once per series.
+ *
+ * <p>Each series keeps its own accumulator and the arithmetic of its own formula, so the results are bit-identical
+ * to those of the separate formulas as long as the denominators are exact doubles, below 2^53. {@link #call()}
+ * returns the Leibniz sum; the other results are available once it returns
+ *
+ * @author Truong Nguyen
+ * */
+public class PILeibnizSweepFormula extends PIFormula implements PIIntervalFormula {
+
+	/**
+	 * Stores the Leibniz sum of the range
+	 * */
+	private double sum = Double.NaN;
+
+	/**
+	 * Stores the sum of the range computed with the paired kernel
+	 * */
+	private double pairedSum = Double.NaN;
+
+	/**
+	 * Stores the lower bound of the exact sum of the range
+	 * */
+	private double lowerBound = Double.NaN;
+
+	/**
+	 * Stores the upper bound of the exact sum of the range
+	 * */
+	private double upperBound = Double.NaN;
+
+	/**
+	 * Constructor
+	 * */
+	public PILeibnizSweepFormula( long startPoint, long endPoint ) {
+		super( startPoint, endPoint );
+	}
+
+	/**
+	 * Calculates the Leibniz sum, the paired sum and the interval of the range in one loop
+	 *
+	 * <p>Leibniz Formula: PI = 4 - 4/3 + 4/5 - 4/7...go on
+	 * */
+	protected double calculate() {
+		double pi = 0;
+		double paired = 0;
+		double denominator;
+		double term;
+		long n = startPoint;
+
+		// an odd first term has no pair in the range, both series start with it
+		if ( n % 2 != 0 && n <= endPoint ) {
+			term = 4.0 / ( 2.0 * n + 1.0 );
+			pi = pi - term;
+			paired = paired - term;
+			n++;
+		}
+
+		for ( ; n < endPoint; n += 2 ) {
+			denominator = 2.0 * n + 1.0;
+			pi = pi + 4.0 / denominator;
+			pi = pi - 4.0 / ( denominator + 2.0 );
+			paired = paired + 8.0 / ( denominator * ( denominator + 2.0 ) );
+		}
+
+		// an even last term has no pair in the range, both series end with it
+		if ( n == endPoint ) {
+			term = 4.0 / ( 2.0 * n + 1.0 );
+			pi = pi + term;
+			paired = paired + term;
+		}
+
+		if ( endPoint >= startPoint ) {
+			double firstTerm = 4.0 / ( ( 2 * startPoint ) + 1 );
+			double error = Math.nextUp( 2.0 * ( endPoint - startPoint + 1 ) * Math.ulp( 2.0 * firstTerm ) );
+			lowerBound = Math.nextDown( pi - error );
+			upperBound = Math.nextUp( pi + error );
+		} else {
+			lowerBound = 0.0;
+			upperBound = 0.0;
+		}
+		sum = pi;
+		pairedSum = paired;
+		return pi;
+	}
+
+	/**
+	 * Gets the Leibniz sum of the range, the result of {@link #call()}
+	 *
+	 * @return the Leibniz sum, NaN if the formula is not calculated yet
+	 * */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * Gets the sum of the range computed with the paired kernel
+	 *
+	 * @return the paired sum, NaN if the formula is not calculated yet
+	 * */
+	public double getPairedSum() {
+		return pairedSum;
+	}
+
+	/**
+	 * Gets the lower bound of the exact sum of the range
+	 *
+	 * @return the lower bound, NaN if the formula is not calculated yet
+	 * */
+	@Override
+	public double getLowerBound() {
+		return lowerBound;
+	}
+
+	/**
+	 * Gets the upper bound of the exact sum of the range
+	 *
+	 * @return the upper bound, NaN if the formula is not calculated yet
+	 * */
+	@Override
+	public double getUpperBound() {
+		return upperBound;
+	}
+}
@@ -0,0 +1,124 @@
+package com.pi.formula;
+
+import java.util.SplittableRandom;
+
+/**
+ * A class is used to estimate PI with the Monte Carlo method. Each point n of the range is a random point
+ * in the unit square; {@link #calculate()} returns the number of points which fall inside the quarter circle.
+ * The hits of all ranges are turned into the estimate and its confidence interval by
+ * {@link PIFormulaFactory#newPIData(PIFormulaType, double, long)}
+ * 
+ * <p>The points are generated in blocks of {@link #BLOCK_SIZE} consecutive points. Every block has its own
+ * {@link SplittableRandom} stream, seeded from the seed and the index of the block only. So the estimate for a given
+ * seed and n is the same whatever the range of each thread, the number of threads or the order in which they finish
+ * 
+ * <p>The stream of a block is computed inline rather than with a {@link SplittableRandom} instance: its state only
+ * advances by a constant gamma per value, so a range which starts inside a block jumps to its first point in O(1)
+ * instead of generating and discarding the points of the previous range. Each point is thus generated once, whatever
+ * the ranges, and the values are the same as those of <tt>new SplittableRandom( blockSeed ).nextDouble()</tt>
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIMonteCarloFormula extends PIFormula {
+
+	/**
+	 * Stores the seed used when none is given; it may be overridden by the <tt>pi.montecarlo.seed</tt> system property
+	 * */
+	public static final long DEFAULT_SEED = Long.getLong( "pi.montecarlo.seed", 0x5DEECE66DL );
+
+	/**
+	 * Stores the number of points generated from one random stream
+	 * */
+	static final int BLOCK_SIZE = 4096;
+
+	/**
+	 * Stores the odd constant used to spread the block indexes over the seeds, the golden ratio gamma of SplittableRandom.
+	 * It is also the increment of the state of a SplittableRandom created from a seed
+	 * */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Stores the weight of the lowest of the 53 bits of a random double, 2^-53
+	 * */
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	/**
+	 * Stores the seed of the random streams
+	 * */
+	private final long seed;
+
+	/**
+	 * Constructor with the default seed
+	 * */
+	public PIMonteCarloFormula( long startPoint, long endPoint ) {
+		this( startPoint, endPoint, DEFAULT_SEED );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param startPoint the first point of the range
+	 * @param endPoint the last point of the range
+	 * @param seed the seed of the random streams
+	 * */
+	public PIMonteCarloFormula( long startPoint, long endPoint, long seed ) {
+		super( startPoint, endPoint );
+		this.seed = seed;
+	}
+
+	/**
+	 * Counts the points from startpoint to endpoint which fall inside the quarter circle
+	 * 
+	 * <p>Monte Carlo: PI = 4 * hits / points
+	 * */
+	protected double calculate() {
+		long hits = 0;
+		double x, y;
+
+		for ( long block = startPoint / BLOCK_SIZE; block <= endPoint / BLOCK_SIZE; block++ ) {
+			long blockStart = block * BLOCK_SIZE;
+			long first = Math.max( startPoint, blockStart );
+			long last = Math.min( endPoint, blockStart + BLOCK_SIZE - 1 );
+
+			// jumps over the points of the block which belong to the previous range, two values per point
+			long state = mix64( seed + block * GOLDEN_GAMMA ) + 2 * ( first - blockStart ) * GOLDEN_GAMMA;
+
+			for ( long n = first; n <= last; n++ ) {
+				state += GOLDEN_GAMMA;
+				x = ( mixValue( state ) >>> 11 ) * DOUBLE_UNIT;
+				state += GOLDEN_GAMMA;
+				y = ( mixValue( state ) >>> 11 ) * DOUBLE_UNIT;
+				if ( x * x + y * y < 1.0 ) {
+					hits++;
+				}
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Turns a state of the stream into its random value, the mixing function of SplittableRandom (Stafford's variant 13)
+	 * 
+	 * @param z the state
+	 * @return the random value
+	 * */
+	private static long mixValue( long z ) {
+		z = ( z ^ ( z >>> 30 ) ) * 0xbf58476d1ce4e5b9L;
+		z = ( z ^ ( z >>> 27 ) ) * 0x94d049bb133111ebL;
+		return z ^ ( z >>> 31 );
+	}
+
+	/**
+	 * Scrambles the seed of a block (the MurmurHash3 finalizer). Without it, the streams of consecutive blocks
+	 * would be the same sequence shifted by one value, since SplittableRandom also advances by the golden gamma
+	 * 
+	 * @param z the value to scramble
+	 * @return the scrambled value
+	 * */
+	private static long mix64( long z ) {
+		z = ( z ^ ( z >>> 33 ) ) * 0xff51afd7ed558ccdL;
+		z = ( z ^ ( z >>> 33 ) ) * 0xc4ceb9fe1a85ec53L;
+		return z ^ ( z >>> 33 );
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.pi.formula;
+
+import com.pi.model.PIData;
+
+/**
+ * The provider of {@link PIFormulaType#MONTE_CARLO}, which is {@link PIMonteCarloFormula}.
+ *
+ * <p>The sum of the formulas is the number of hits among the n + 1 points. The bounds of the estimate are the 95%
+ * Wilson score interval of the ratio of hits, times 4, which unlike the normal approximation keeps its coverage for
+ * few points and never collapses to a zero width. The expected error is the half width of the interval for many
+ * points, 1.96 * 4 * sqrt(p (1 - p) / (n + 1)) with p = PI / 4
+ *
+ * @author Truong Nguyen
+ * */
+public class PIMonteCarloFormulaProvider implements PIFormulaProvider {
+
+	/**
+	 * The z-score of the 95% confidence interval
+	 * */
+	private static final double Z = 1.96;
+
+	/**
+	 * The z-score of the 95% confidence interval, times 4 since the estimate is 4 times the ratio of hits
+	 * */
+	private static final double SCALED_Z = Z * 4.0;
+
+	/**
+	 * The variance p (1 - p) of a point, with p = PI / 4 the probability of a hit
+	 * */
+	private static final double VARIANCE = Math.PI / 4.0 * ( 1.0 - Math.PI / 4.0 );
+
+	@Override
+	public PIFormulaType getFormulaType() {
+		return PIFormulaType.MONTE_CARLO;
+	}
+
+	@Override
+	public String getVariant() {
+		return DEFAULT_VARIANT;
+	}
+
+	@Override
+	public PIFormula newFormula( long startPoint, long endPoint ) {
+		return new PIMonteCarloFormula( startPoint, endPoint );
+	}
+
+	/**
+	 * Returns the estimate with its 95% Wilson score interval
+	 * */
+	@Override
+	public PIData newPIData( double sum, long n ) {
+		if ( n < 0 ) {
+			return new PIData( sum, n );
+		}
+		double noOfPoint = n + 1;
+		double ratio = sum / noOfPoint;
+		double zSquare = Z * Z / noOfPoint;
+		double center = ( ratio + zSquare / 2.0 ) / ( 1.0 + zSquare );
+		double halfWidth = Z * Math.sqrt( ratio * ( 1.0 - ratio ) / noOfPoint + zSquare / ( 4.0 * noOfPoint ) )
+				/ ( 1.0 + zSquare );
+
+		return new PIData( 4.0 * ratio, n, 4.0 * ( center - halfWidth ), 4.0 * ( center + halfWidth ) );
+	}
+
+	@Override
+	public double getError( long n ) {
+		return SCALED_Z * Math.sqrt( VARIANCE / ( n + 1.0 ) );
+	}
+
+	@Override
+	public long getN( double error ) {
+		double noOfPoint = Math.ceil( SCALED_Z * SCALED_Z * VARIANCE / ( error * error ) );
+
+		if ( !( noOfPoint < Long.MAX_VALUE / 2 ) ) {
+			return -1;
+		}
+		return Math.max( ( long ) noOfPoint - 1, 0 );
+	}
+}
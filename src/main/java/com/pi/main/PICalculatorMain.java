@@ -2,6 +2,10 @@ package com.pi.main;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 import org.apache.commons.cli.BasicParser;
 import org.apache.commons.cli.CommandLine;
@@ -10,10 +14,27 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
+import com.pi.calculator.PICalculationPlan;
+import com.pi.calculator.PICalculationPlanner;
 import com.pi.calculator.PICalculator;
 import com.pi.calculator.PICalculatorInterface;
+import com.pi.calculator.PICalculatorProfile;
+import com.pi.calculator.PICalculatorTuner;
+import com.pi.cluster.PICoordinator;
+import com.pi.cluster.PIWorker;
+import com.pi.daemon.PICalculatorDaemon;
+import com.pi.daemon.PIDaemonCalculator;
+import com.pi.digits.PIDecimalConverter;
+import com.pi.digits.PIDigitIndex;
+import com.pi.digits.PIDigitStore;
+import com.pi.digits.PIDigitStoreWriter;
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaProvider;
 import com.pi.formula.PIFormulaType;
 import com.pi.model.PIData;
+import com.pi.precision.PIChudnovskyEngine;
+import com.pi.precision.PIOutOfCoreArithmetic;
+import com.pi.server.PICalculatorServer;
 
 /**
  * This is the main class of the application. Following are its main functions
@@ -22,7 +43,19 @@ import com.pi.model.PIData;
  * <p>2. Parse the parameters to the proper types used by the application
  * <p>3. Create an instance of PICalculator class in order to calculate the Pi value
  * <p>4. Listen to the ENTER key to stop the on-going calculation
- * <p>5. Output the Pi value along with the elapsed time duration
+ * <p>5. Output the Pi value along with the elapsed time duration, and optionally store its digits into a digit store file
+ * <p>6. Alternatively, start the HTTP calculation service if the <tt>server</tt> option is passed
+ * <p>7. Alternatively, start the warm calculation daemon if the <tt>daemon</tt> option is passed. When a daemon
+ * is running, the calculation is forwarded to it instead of being calculated in this process
+ * <p>8. Alternatively, calibrate the calculator for this machine if the <tt>tune</tt> option is passed. The saved
+ * profile is used by the later calculations in this process
+ * <p>9. Alternatively, distribute the calculation over worker processes if the <tt>coordinator</tt> option is passed,
+ * or run as such a worker if the <tt>worker</tt> option is passed
+ * <p>10. Alternatively, search a string of digits in a digit store file if the <tt>search</tt> option is passed. The
+ * index of the store is built beside it the first time
+ * <p>11. Alternatively, compute the exact digits of Pi with the Chudnovsky series if the <tt>digits</tt> option is
+ * passed, and store them into the digit store file. The intermediates over the <tt>memory</tt> budget are spilled
+ * to files beside it
  * 
  * @author Truong Nguyen
  * */
@@ -39,6 +72,106 @@ public class PICalculatorMain {
 	 * */
 	private static final String N_STR = "n";
 
+	/**
+	 * An constant string, which is used by cmdLineOptions to start the HTTP server
+	 * */
+	private static final String SERVER_STR = "server";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the port of the HTTP server
+	 * */
+	private static final String PORT_STR = "port";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to start the calculation daemon
+	 * */
+	private static final String DAEMON_STR = "daemon";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the socket path of the calculation daemon
+	 * */
+	private static final String SOCKET_STR = "socket";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to distribute the calculation over workers
+	 * */
+	private static final String COORDINATOR_STR = "coordinator";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the address of the coordinator
+	 * */
+	private static final String WORKER_STR = "worker";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to calibrate the calculator
+	 * */
+	private static final String TUNE_STR = "tune";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the path of the digit store file
+	 * */
+	private static final String OUT_STR = "out";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the digits to search
+	 * */
+	private static final String SEARCH_STR = "search";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the path of the searched digit store file
+	 * */
+	private static final String STORE_STR = "store";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the number of exact digits to compute
+	 * */
+	private static final String DIGITS_STR = "digits";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the memory budget of the exact digits
+	 * */
+	private static final String MEMORY_STR = "memory";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the absolute error of a planned calculation
+	 * */
+	private static final String PRECISION_STR = "precision";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse the time budget of a planned calculation
+	 * */
+	private static final String TIME_STR = "time";
+
+	/**
+	 * An constant string, which is used by cmdLineOptions to parse if the plan is printed instead of executed
+	 * */
+	private static final String EXPLAIN_STR = "explain";
+
+	/**
+	 * The default time budget in milliseconds of a planned calculation
+	 * */
+	private static final long DEFAULT_TIME = 60000;
+
+	/**
+	 * The default memory budget in bytes of the exact digits
+	 * */
+	private static final long DEFAULT_MEMORY = 256L << 20;
+
+	/**
+	 * The extension appended to the path of a digit store file to name its index file
+	 * */
+	private static final String INDEX_EXTENSION = ".idx";
+
+	/**
+	 * The maximum number of positions printed by a search
+	 * */
+	private static final int MAX_PRINTED_POSITION = 10;
+
+	/**
+	 * The default port of the HTTP server
+	 * */
+	private static final int DEFAULT_PORT = 8080;
+
 	/**
 	 * The singleton instance of PICalculatorMain class
 	 * */
@@ -54,6 +187,52 @@ public class PICalculatorMain {
 	 * */
 	private long n;
 
+	/**
+	 * Stores the port of the HTTP server parsed from cmdLineOptions
+	 * */
+	private int port;
+
+	/**
+	 * Stores the socket path of the calculation daemon parsed from cmdLineOptions, null for the default path
+	 * */
+	private Path socketPath = null;
+
+	/**
+	 * Stores the host of the coordinator parsed from cmdLineOptions
+	 * */
+	private String coordinatorHost = null;
+
+	/**
+	 * Stores the path of the digit store file parsed from cmdLineOptions, null if the digits are not stored
+	 * */
+	private Path outPath = null;
+
+	/**
+	 * Stores the path of the searched digit store file parsed from cmdLineOptions
+	 * */
+	private Path storePath = null;
+
+	/**
+	 * Stores the number of exact digits parsed from cmdLineOptions
+	 * */
+	private int noOfDigit;
+
+	/**
+	 * Stores the memory budget in bytes of the exact digits parsed from cmdLineOptions
+	 * */
+	private long memory;
+
+	/**
+	 * Stores the absolute error of a planned calculation parsed from cmdLineOptions, 0 if the calculation is not planned
+	 * by precision
+	 * */
+	private double precision;
+
+	/**
+	 * Stores the time budget in milliseconds of a planned calculation parsed from cmdLineOptions
+	 * */
+	private long time;
+
 	/**
 	 * An command line options used to parse the command line arguments
 	 * */
@@ -77,18 +256,100 @@ public class PICalculatorMain {
 		// sets default values for formulaType and n
 		formulaType = PIFormulaType.LEIBNIZ;
 		n = 100000000;
+		port = DEFAULT_PORT;
+		memory = DEFAULT_MEMORY;
+		time = DEFAULT_TIME;
 
 		cmdLineOptions = new Options();
 		cmdLineOptions
 				.addOption(
 						TYPE_STR,
 						true,
-						"The formula is used to calculate an approximation of Pi. Default value is leibniz" );
+						"The formula is used to calculate an approximation of Pi: leibniz, leibniz_interval or monte_carlo. Default value is leibniz" );
 		cmdLineOptions
 				.addOption(
 						N_STR,
 						true,
 						"The terminal point indicates when the program shall stop and return the Pi. Default value is 100,000,000" );
+		cmdLineOptions
+				.addOption(
+						SERVER_STR,
+						false,
+						"Starts the HTTP calculation service instead of calculating Pi once" );
+		cmdLineOptions
+				.addOption(
+						PORT_STR,
+						true,
+						"The port on which the HTTP calculation service listens. Default value is " + DEFAULT_PORT );
+		cmdLineOptions
+				.addOption(
+						DAEMON_STR,
+						false,
+						"Starts the warm calculation daemon which serves the later invocations" );
+		cmdLineOptions
+				.addOption(
+						SOCKET_STR,
+						true,
+						"The Unix domain socket of the calculation daemon. Default value is in the temporary directory" );
+		cmdLineOptions
+				.addOption(
+						COORDINATOR_STR,
+						false,
+						"Distributes the calculation over the workers which connect to the port, "
+								+ "the binary splitting of the exact digits with the digits option" );
+		cmdLineOptions
+				.addOption(
+						WORKER_STR,
+						true,
+						"Runs as a worker of the coordinator at the given host:port" );
+		cmdLineOptions
+				.addOption(
+						OUT_STR,
+						true,
+						"The digit store file into which the exact digits of Pi are written, "
+								+ "with the digits or the precision option" );
+		cmdLineOptions
+				.addOption(
+						SEARCH_STR,
+						true,
+						"Searches the given digits in the digit store file passed by the store option" );
+		cmdLineOptions
+				.addOption(
+						STORE_STR,
+						true,
+						"The digit store file searched by the search option" );
+		cmdLineOptions
+				.addOption(
+						DIGITS_STR,
+						true,
+						"Computes the given number of exact digits of Pi into the digit store file passed by the out option" );
+		cmdLineOptions
+				.addOption(
+						MEMORY_STR,
+						true,
+						"The memory budget in bytes of the digits option, larger intermediates are spilled to files, and of a planned calculation. Default value is "
+								+ DEFAULT_MEMORY );
+		cmdLineOptions
+				.addOption(
+						PRECISION_STR,
+						true,
+						"Plans and calculates Pi within the given absolute error, choosing the formula, the engine and the threads" );
+		cmdLineOptions
+				.addOption(
+						TIME_STR,
+						true,
+						"The time budget in milliseconds of a planned calculation. Default value is " + DEFAULT_TIME );
+		cmdLineOptions
+				.addOption(
+						EXPLAIN_STR,
+						false,
+						"Prints the plan and the predicted runtime of the precision option, or of the type and n options, without calculating" );
+		cmdLineOptions
+				.addOption(
+						TUNE_STR,
+						false,
+						"Calibrates the threads and the ranges per task of each formula and saves the profile to "
+								+ PICalculatorProfile.defaultPath() );
 	}
 	
 	/**
@@ -102,8 +363,10 @@ public class PICalculatorMain {
 		
 		System.out.println( "\nPI = " + piData.getPi() + " with n->"
 				+ piData.getN() );
+		if ( piData.hasBounds() ) {
+			System.out.println( "PI is in [" + piData.getLowerBound() + ", " + piData.getUpperBound() + "]" );
+		}
 		System.out.println( "Time took: " + timeTaken / 1e9 + " seconds" );
-		
 	}
 	
 	/**
@@ -148,9 +411,308 @@ public class PICalculatorMain {
 
 		}
 
+		if ( cmdLine.hasOption( PORT_STR ) ) {
+			try {
+				port = Integer.parseInt( cmdLine.getOptionValue( PORT_STR ) );
+				isParamsValid = ( isParamsValid && port >= 0 && port <= 65535 );
+			} catch ( NumberFormatException e ) {
+				isParamsValid = false;
+			}
+		}
+
+		if ( cmdLine.hasOption( WORKER_STR ) ) {
+			String address = cmdLine.getOptionValue( WORKER_STR );
+			int index = address.lastIndexOf( ':' );
+			try {
+				coordinatorHost = address.substring( 0, index );
+				port = Integer.parseInt( address.substring( index + 1 ) );
+				isParamsValid = ( isParamsValid && index > 0 && port > 0 && port <= 65535 );
+			} catch ( RuntimeException e ) {
+				isParamsValid = false;
+			}
+		}
+
+		if ( cmdLine.hasOption( OUT_STR ) ) {
+			outPath = Paths.get( cmdLine.getOptionValue( OUT_STR ) );
+
+			// a double result has no exact digits to store
+			if ( !cmdLine.hasOption( DIGITS_STR ) && !cmdLine.hasOption( PRECISION_STR ) ) {
+				System.out.println( "The out option requires the digits or the precision option\n" );
+				isParamsValid = false;
+			}
+		}
+
+		if ( cmdLine.hasOption( SEARCH_STR ) ) {
+			isParamsValid = ( isParamsValid && cmdLine.hasOption( STORE_STR )
+					&& cmdLine.getOptionValue( SEARCH_STR ).matches( "[0-9]+" ) );
+		}
+
+		if ( cmdLine.hasOption( DIGITS_STR ) ) {
+			try {
+				noOfDigit = Integer.parseInt( cmdLine.getOptionValue( DIGITS_STR ) );
+				isParamsValid = ( isParamsValid && noOfDigit > 0 && cmdLine.hasOption( OUT_STR ) );
+			} catch ( NumberFormatException e ) {
+				isParamsValid = false;
+			}
+		}
+
+		if ( cmdLine.hasOption( MEMORY_STR ) ) {
+			try {
+				memory = Long.parseLong( cmdLine.getOptionValue( MEMORY_STR ) );
+				isParamsValid = ( isParamsValid && memory > 0 );
+			} catch ( NumberFormatException e ) {
+				isParamsValid = false;
+			}
+		}
+
+		if ( cmdLine.hasOption( PRECISION_STR ) ) {
+			try {
+				precision = Double.parseDouble( cmdLine.getOptionValue( PRECISION_STR ) );
+				isParamsValid = ( isParamsValid && precision > 0 );
+			} catch ( NumberFormatException e ) {
+				isParamsValid = false;
+			}
+		}
+
+		if ( cmdLine.hasOption( TIME_STR ) ) {
+			try {
+				time = Long.parseLong( cmdLine.getOptionValue( TIME_STR ) );
+				isParamsValid = ( isParamsValid && time > 0 );
+			} catch ( NumberFormatException e ) {
+				isParamsValid = false;
+			}
+		}
+
+		if ( cmdLine.hasOption( STORE_STR ) ) {
+			storePath = Paths.get( cmdLine.getOptionValue( STORE_STR ) );
+		}
+
+		if ( cmdLine.hasOption( SOCKET_STR ) ) {
+			socketPath = Paths.get( cmdLine.getOptionValue( SOCKET_STR ) );
+		}
+
 		return isParamsValid;
 	}
 	
+	/**
+	 * Calculates the Pi value and outputs the result. The calculation is forwarded to the daemon if one is running,
+	 * otherwise it is calculated in this process. The ENTER key stops the calculation
+	 * 
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during the calculation
+	 * */
+	private void runCalculation() throws Exception {
+		PIDaemonCalculator daemonCal = ( socketPath == null ) ? PIDaemonCalculator.connect()
+				: PIDaemonCalculator.connect( socketPath );
+		
+		if ( daemonCal != null ) {
+			piCal = daemonCal.setFormulaType( this.formulaType );
+		} else {
+			PICalculatorProfile profile = PICalculatorProfile.load( PICalculatorProfile.defaultPath() );
+			piCal = ( profile == null ) ? new PICalculator( this.formulaType ) : profile.newCalculator( this.formulaType );
+		}
+		this.calculateAndOutput();
+	}
+
+	/**
+	 * Calibrates the calculator for this machine and saves the profile
+	 * 
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during the calibration
+	 * */
+	private void runTuner() throws Exception {
+		System.out.println( "Calibrating the calculator, please wait..." );
+		PICalculatorProfile profile = new PICalculatorTuner().calibrate();
+		profile.save( PICalculatorProfile.defaultPath() );
+
+		for ( PIFormulaProvider provider : PIFormulaFactory.getProviders() ) {
+			PIFormulaType type = provider.getFormulaType();
+			String variant = provider.getVariant();
+
+			System.out.println( type + "/" + variant + ": threads = " + profile.getNoOfThread( type, variant )
+					+ ", ranges per task = " + profile.getNoOfRangePerTask( type, variant ) + ", terms per second = "
+					+ profile.getTermsPerSecond( type, variant ) );
+		}
+		for ( PIFormulaType type : PIFormulaType.values() ) {
+			System.out.println( type + ": variant = " + profile.getVariant( type ) );
+		}
+		System.out.println( "The profile is saved to " + PICalculatorProfile.defaultPath() );
+	}
+
+	/**
+	 * Plans the calculation from the precision, or from the formula type and n, within the time and memory budgets.
+	 * The plan is printed if it is only explained, otherwise it is executed: exact digits are stored into the digit
+	 * store file if one is given, a plan which computes a double fails instead
+	 * 
+	 * @param isExplainOnly true if the plan is printed instead of executed
+	 * @throws Exception the <tt>Exception</tt> may be thrown if no plan fits the budgets or the calculation fails
+	 * */
+	private void runPlan( boolean isExplainOnly ) throws Exception {
+		PICalculationPlanner planner = new PICalculationPlanner( PICalculatorProfile.load( PICalculatorProfile.defaultPath() ) );
+		PICalculationPlan plan = ( precision > 0 ) ? planner.plan( precision, time, memory )
+				: planner.plan( formulaType, n, time, memory );
+
+		System.out.print( plan.explain() );
+		if ( isExplainOnly ) {
+			return;
+		}
+
+		if ( plan.getEngine() == PICalculationPlan.Engine.CHUDNOVSKY && outPath != null ) {
+			noOfDigit = ( int ) plan.getN();
+			this.runDigits();
+		} else if ( outPath != null ) {
+			throw new Exception( "The plan computes a double, which has no exact digits to store into " + outPath );
+		} else {
+			piCal = plan.newCalculator();
+			n = plan.getN();
+			this.calculateAndOutput();
+		}
+	}
+
+	/**
+	 * Computes the exact digits of Pi and stores them into the digit store file
+	 * 
+	 * @throws Exception the <tt>Exception</tt> may be thrown if the digits cannot be computed or stored
+	 * */
+	private void runDigits() throws Exception {
+		Path directory = outPath.toAbsolutePath().getParent();
+		PIOutOfCoreArithmetic arithmetic = new PIOutOfCoreArithmetic( memory, directory );
+
+		System.out.println( "Computing " + noOfDigit + " digits of Pi, please wait..." );
+		startTime = System.nanoTime();
+
+		try ( PIDigitStoreWriter writer = new PIDigitStoreWriter( outPath ) ) {
+			new PIChudnovskyEngine( arithmetic ).writeDigits( noOfDigit, writer );
+			System.out.println( writer.getNoOfDigit() + " digits are stored to " + outPath );
+		}
+		System.out.println( "Spilled intermediates: " + arithmetic.getNoOfSpill() + ", peak spilled bytes: "
+				+ arithmetic.getPeakSpilledBytes() );
+		System.out.println( "Time took: " + ( System.nanoTime() - startTime ) / 1e9 + " seconds" );
+	}
+
+	/**
+	 * Searches a string of digits in the digit store file, building its index first if it does not exist
+	 * 
+	 * @param pattern the digits to search
+	 * @throws Exception the <tt>Exception</tt> may be thrown if the store or its index cannot be read
+	 * */
+	private void runSearch( String pattern ) throws Exception {
+		Path indexPath = Paths.get( storePath + INDEX_EXTENSION );
+
+		try ( PIDigitStore store = new PIDigitStore( storePath ) ) {
+			if ( !Files.exists( indexPath ) ) {
+				System.out.println( "Building the index " + indexPath + ", please wait..." );
+				PIDigitIndex.build( store, indexPath, PIDigitIndex.DEFAULT_K, Runtime.getRuntime().availableProcessors() )
+						.close();
+			}
+
+			try ( PIDigitIndex index = new PIDigitIndex( indexPath, store ) ) {
+				long startTime = System.nanoTime();
+				long[] positions = index.findAll( pattern );
+				long timeTaken = System.nanoTime() - startTime;
+
+				if ( positions.length == 0 ) {
+					System.out.println( pattern + " is not found in " + store.getNoOfDigit() + " digits" );
+				} else {
+					System.out.println( pattern + " is found " + positions.length + " times, first at position "
+							+ positions[ 0 ] );
+					System.out.println( "Positions: " + Arrays.toString( Arrays.copyOf( positions,
+							Math.min( positions.length, MAX_PRINTED_POSITION ) ) ) );
+				}
+				System.out.println( "Time took: " + timeTaken / 1e9 + " seconds" );
+			}
+		}
+	}
+
+	/**
+	 * Distributes the calculation over the workers which connect to the port, and outputs the result. With the
+	 * exact digits, the binary splitting is distributed and the digits are stored into the digit store file.
+	 * The ENTER key stops the calculation
+	 * 
+	 * @param isDigits true if the exact digits are distributed
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during the calculation
+	 * */
+	private void runCoordinator( boolean isDigits ) throws Exception {
+		PICoordinator coordinator = isDigits
+				? new PICoordinator( null, port, PICoordinator.DEFAULT_TERM_RANGE, PICoordinator.DEFAULT_LEASE_TIMEOUT )
+				: new PICoordinator( this.formulaType, port );
+		
+		System.out.println( "Waiting for the workers on port " + coordinator.getPort() );
+		piCal = coordinator;
+		try {
+			if ( isDigits ) {
+				n = noOfDigit;
+			}
+			this.calculateAndOutput();
+
+			if ( isDigits ) {
+				try ( PIDigitStoreWriter writer = new PIDigitStoreWriter( outPath ) ) {
+					new PIDecimalConverter().write( coordinator.getDigits(), writer );
+					System.out.println( writer.getNoOfDigit() + " digits are stored to " + outPath );
+				}
+			}
+		} finally {
+			coordinator.close();
+		}
+	}
+
+	/**
+	 * Calculates the Pi value with {@link #piCal} and outputs the result. The ENTER key stops the calculation
+	 * 
+	 * @throws Exception the <tt>Exception</tt> may be thrown if any error is occurred during the calculation
+	 * */
+	private void calculateAndOutput() throws Exception {
+		Thread cancelThread = new Thread( new CancelRunable() );
+		cancelThread.setDaemon( true );
+		cancelThread.start();
+		
+		System.out
+				.println("Please wait while the calculation is on going...\n"
+						+ "Press ENTER if you want to stop the calculation and get the Pi value");
+		
+		startTime = System.nanoTime();
+		
+		this.outputResult( piCal.calculatePI( n ) );
+	}
+
+	/**
+	 * Starts the HTTP calculation service and keeps it running until the JVM is stopped
+	 * 
+	 * @throws Exception the <tt>Exception</tt> may be thrown if the server cannot be started
+	 * */
+	private void runServer() throws Exception {
+		final PICalculatorServer server = new PICalculatorServer( port );
+
+		Runtime.getRuntime().addShutdownHook( new Thread() {
+			@Override
+			public void run() {
+				server.stop();
+			}
+		});
+		server.start();
+		System.out.println( "PI calculation service is listening on port " + server.getPort() );
+	}
+
+	/**
+	 * Warms up and starts the calculation daemon, and keeps it running until the JVM is stopped
+	 * 
+	 * @throws Exception the <tt>Exception</tt> may be thrown if the daemon cannot be started
+	 * */
+	private void runDaemon() throws Exception {
+		final PICalculatorDaemon daemon = ( socketPath == null ) ? new PICalculatorDaemon()
+				: new PICalculatorDaemon( socketPath );
+
+		System.out.println( "Warming up the calculation daemon..." );
+		daemon.warmUp();
+
+		Runtime.getRuntime().addShutdownHook( new Thread() {
+			@Override
+			public void run() {
+				daemon.stop();
+			}
+		});
+		daemon.start();
+		System.out.println( "PI calculation daemon is listening on " + daemon.getSocketPath() );
+	}
+
 	/**
 	 * Returns an singleton instance of PICalculatorMain class
 	 * 
@@ -177,24 +739,35 @@ public class PICalculatorMain {
 			/* Starts calculating PI only if
 			 * the parameters are populated successfully 
 			 */
-			if ( this.populateParams( line ) ) {
+			if ( !this.populateParams( line ) ) {
+				this.printUsage( "pi calculator" );
 
-				Thread cancelThread = new Thread( new CancelRunable() );
-				cancelThread.setDaemon( true );
-				cancelThread.start();
-				
-				piCal = new PICalculator( this.formulaType );
-				
-				System.out
-						.println("Please wait while the calculation is on going...\n"
-								+ "Press ENTER if you want to stop the calculation and get the Pi value");
-				
-				startTime = System.nanoTime();
-				
-				this.outputResult( piCal.calculatePI( n ) );
+			} else if ( line.hasOption( SERVER_STR ) ) {
+				this.runServer();
+
+			} else if ( line.hasOption( DAEMON_STR ) ) {
+				this.runDaemon();
+
+			} else if ( line.hasOption( TUNE_STR ) ) {
+				this.runTuner();
+
+			} else if ( line.hasOption( EXPLAIN_STR ) || line.hasOption( PRECISION_STR ) ) {
+				this.runPlan( line.hasOption( EXPLAIN_STR ) );
+
+			} else if ( line.hasOption( COORDINATOR_STR ) ) {
+				this.runCoordinator( line.hasOption( DIGITS_STR ) );
+
+			} else if ( line.hasOption( DIGITS_STR ) ) {
+				this.runDigits();
+
+			} else if ( line.hasOption( SEARCH_STR ) ) {
+				this.runSearch( line.getOptionValue( SEARCH_STR ) );
+
+			} else if ( line.hasOption( WORKER_STR ) ) {
+				PIWorker.runWorkers( coordinatorHost, port, Runtime.getRuntime().availableProcessors() );
 
 			} else {
-				this.printUsage( "pi calculator" );
+				this.runCalculation();
 			}
 
 		} catch ( ParseException exp ) {
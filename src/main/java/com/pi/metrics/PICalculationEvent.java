@@ -0,0 +1,44 @@
+package com.pi.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event emitted for each {@link com.pi.calculator.PICalculator#calculatePI(long)}, when the event is enabled in
+ * a JFR recording, whether the metrics are enabled or not. Its duration is the whole calculation
+ * 
+ * @author Truong Nguyen
+ * */
+@Name( "com.pi.Calculation" )
+@Label( "PI Calculation" )
+@Category( "PI Calculator" )
+@Description( "Lifecycle of a PI calculation" )
+public class PICalculationEvent extends Event {
+
+	/**
+	 * Stores the formula of the calculation
+	 * */
+	@Label( "Formula" )
+	public String formula;
+
+	/**
+	 * Stores the requested terminal point
+	 * */
+	@Label( "N" )
+	public long n;
+
+	/**
+	 * Stores the terminal point reached, less than n if the calculation is cancelled
+	 * */
+	@Label( "Computed N" )
+	public long computedN;
+
+	/**
+	 * An boolean value indicates if the calculation is cancelled
+	 * */
+	@Label( "Cancelled" )
+	public boolean cancelled;
+}
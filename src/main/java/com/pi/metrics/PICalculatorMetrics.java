@@ -0,0 +1,208 @@
+package com.pi.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+/**
+ * This class collects the metrics of the calculations and exposes them over JMX as
+ * <tt>com.pi:type=PICalculatorMetrics</tt>.
+ * 
+ * <p>The metrics are collected only if the system property <tt>pi.metrics.enabled</tt> is true at startup.
+ * {@link #ENABLED} is a constant, so when the metrics are disabled the JIT removes the counters from
+ * {@link com.pi.formula.PIFormula#call()} entirely. When they are enabled, the counters are
+ * {@link LongAdder}s, so the formula threads do not contend on them. The {@link PIChunkEvent} and
+ * {@link PICalculationEvent} JFR events do not depend on this property, they are emitted whenever they are enabled
+ * in a recording
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorMetrics implements PICalculatorMetricsMXBean {
+
+	/**
+	 * An boolean value indicates if the metrics are collected, read once from the <tt>pi.metrics.enabled</tt> system property
+	 * */
+	public static final boolean ENABLED = Boolean.getBoolean( "pi.metrics.enabled" );
+
+	/**
+	 * Stores the number of buckets of the latency histogram
+	 * */
+	private static final int NO_OF_BUCKET = 40;
+
+	/**
+	 * The singleton instance of PICalculatorMetrics class
+	 * */
+	private static final PICalculatorMetrics thePICalculatorMetrics = new PICalculatorMetrics();
+
+	static {
+		if ( ENABLED ) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean( thePICalculatorMetrics,
+						new ObjectName( "com.pi:type=PICalculatorMetrics" ) );
+			} catch ( Exception e ) {
+				System.err.println( "Error while registering the metrics MBean; Reason " + e.getMessage() );
+			}
+		}
+	}
+
+	/**
+	 * Counts the submitted chunks
+	 * */
+	private final LongAdder chunksSubmitted = new LongAdder();
+
+	/**
+	 * Counts the completed chunks
+	 * */
+	private final LongAdder chunksCompleted = new LongAdder();
+
+	/**
+	 * Counts the summed terms
+	 * */
+	private final LongAdder termsSummed = new LongAdder();
+
+	/**
+	 * Sums the queue wait time of the completed chunks
+	 * */
+	private final LongAdder queueWaitNanos = new LongAdder();
+
+	/**
+	 * Counts the on-going calculations
+	 * */
+	private final LongAdder activeCalculations = new LongAdder();
+
+	/**
+	 * Stores the latency histogram of the chunks
+	 * */
+	private final LongAdder[] chunkLatencyHistogram = new LongAdder[ NO_OF_BUCKET ];
+
+	/**
+	 * Constructor, The modifier is package-private because this is an singleton class
+	 * */
+	PICalculatorMetrics() {
+		for ( int i = 0; i < NO_OF_BUCKET; i++ ) {
+			chunkLatencyHistogram[ i ] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Returns an singleton instance of PICalculatorMetrics class
+	 * 
+	 * @return PICalculatorMetrics
+	 * */
+	public static PICalculatorMetrics getInstance() {
+		return thePICalculatorMetrics;
+	}
+
+	/**
+	 * Records that a chunk is created to be submitted
+	 * */
+	public void onChunkSubmitted() {
+		chunksSubmitted.increment();
+	}
+
+	/**
+	 * Records that the calculation of a chunk is completed
+	 * 
+	 * @param noOfTerm the number of terms summed by the chunk
+	 * @param queueWait the time in nanoseconds between the submission and the start of the calculation
+	 * @param latency the time in nanoseconds the calculation took
+	 * */
+	public void onChunkCompleted( long noOfTerm, long queueWait, long latency ) {
+		chunksCompleted.increment();
+		termsSummed.add( noOfTerm );
+		queueWaitNanos.add( queueWait );
+
+		long micros = latency / 1000;
+		int bucket = ( micros <= 0 ) ? 0 : Math.min( 64 - Long.numberOfLeadingZeros( micros ), NO_OF_BUCKET - 1 );
+		chunkLatencyHistogram[ bucket ].increment();
+	}
+
+	/**
+	 * Records that a calculation is started
+	 * */
+	public void onCalculationStarted() {
+		activeCalculations.increment();
+	}
+
+	/**
+	 * Records that a calculation is completed, cancelled or failed
+	 * */
+	public void onCalculationEnded() {
+		activeCalculations.decrement();
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return ENABLED;
+	}
+
+	@Override
+	public long getChunksSubmitted() {
+		return chunksSubmitted.sum();
+	}
+
+	@Override
+	public long getChunksCompleted() {
+		return chunksCompleted.sum();
+	}
+
+	@Override
+	public long getTermsSummed() {
+		return termsSummed.sum();
+	}
+
+	@Override
+	public long getTotalQueueWaitNanos() {
+		return queueWaitNanos.sum();
+	}
+
+	@Override
+	public long getActiveCalculations() {
+		return activeCalculations.sum();
+	}
+
+	@Override
+	public long[] getChunkLatencyHistogram() {
+		long[] histogram = new long[ NO_OF_BUCKET ];
+
+		for ( int i = 0; i < NO_OF_BUCKET; i++ ) {
+			histogram[ i ] = chunkLatencyHistogram[ i ].sum();
+		}
+		return histogram;
+	}
+
+	@Override
+	public long getChunkLatencyPercentileMicros( double percentile ) {
+		long[] histogram = this.getChunkLatencyHistogram();
+		long total = 0;
+
+		for ( long count : histogram ) {
+			total += count;
+		}
+		if ( total == 0 ) {
+			return 0;
+		}
+
+		long rank = ( long ) Math.ceil( total * percentile / 100 );
+		long seen = 0;
+		for ( int i = 0; i < NO_OF_BUCKET; i++ ) {
+			seen += histogram[ i ];
+			if ( seen >= rank && histogram[ i ] > 0 ) {
+				return ( i == 0 ) ? 1 : ( 1L << i );
+			}
+		}
+		return 1L << ( NO_OF_BUCKET - 1 );
+	}
+
+	@Override
+	public void reset() {
+		chunksSubmitted.reset();
+		chunksCompleted.reset();
+		termsSummed.reset();
+		queueWaitNanos.reset();
+		for ( LongAdder bucket : chunkLatencyHistogram ) {
+			bucket.reset();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.pi.metrics;
+
+/**
+ * This interface defines the metrics of the calculations which are exposed over JMX
+ * by {@link PICalculatorMetrics}
+ * 
+ * @author Truong Nguyen
+ * */
+public interface PICalculatorMetricsMXBean {
+
+	/**
+	 * Returns true if the metrics are collected, see {@link PICalculatorMetrics#ENABLED}
+	 * 
+	 * @return true if the metrics are enabled; false otherwise
+	 * */
+	public boolean isEnabled();
+
+	/**
+	 * Gets the number of {@link com.pi.formula.PIFormula} chunks created to be submitted
+	 * 
+	 * @return the number of submitted chunks
+	 * */
+	public long getChunksSubmitted();
+
+	/**
+	 * Gets the number of {@link com.pi.formula.PIFormula} chunks whose calculation is completed
+	 * 
+	 * @return the number of completed chunks
+	 * */
+	public long getChunksCompleted();
+
+	/**
+	 * Gets the number of terms summed by the completed chunks
+	 * 
+	 * @return the number of summed terms
+	 * */
+	public long getTermsSummed();
+
+	/**
+	 * Gets the total time the completed chunks waited between their submission and the start of their calculation
+	 * 
+	 * @return the total queue wait time in nanoseconds
+	 * */
+	public long getTotalQueueWaitNanos();
+
+	/**
+	 * Gets the number of calculations which are on-going
+	 * 
+	 * @return the number of active calculations
+	 * */
+	public long getActiveCalculations();
+
+	/**
+	 * Gets the histogram of the chunk latencies. Bucket 0 counts the chunks faster than 1 microsecond,
+	 * bucket i counts the chunks which took from 2^(i-1) to 2^i microseconds
+	 * 
+	 * @return the number of chunks per bucket
+	 * */
+	public long[] getChunkLatencyHistogram();
+
+	/**
+	 * Gets an upper bound of the given percentile of the chunk latencies, from the histogram
+	 * 
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the upper bound of the percentile in microseconds, 0 if no chunk is completed
+	 * */
+	public long getChunkLatencyPercentileMicros( double percentile );
+
+	/**
+	 * Resets all counters except the active calculations
+	 * */
+	public void reset();
+}
@@ -0,0 +1,64 @@
+package com.pi.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event emitted for the calculation of each {@link com.pi.formula.PIFormula} chunk, when the event is enabled in a
+ * JFR recording, whether the metrics are enabled or not. Its duration is the calculation time of the chunk
+ * 
+ * <p>{@link #isTypeEnabled()} tells whether the event is enabled without creating one, so that the chunks do not
+ * allocate an event when no recording wants it
+ * 
+ * @author Truong Nguyen
+ * */
+@Name( "com.pi.Chunk" )
+@Label( "PI Chunk" )
+@Category( "PI Calculator" )
+@Description( "Calculation of a range of a PI formula" )
+public class PIChunkEvent extends Event {
+
+	/**
+	 * Stores the formula of the chunk
+	 * */
+	@Label( "Formula" )
+	public String formula;
+
+	/**
+	 * Stores the start point of the chunk
+	 * */
+	@Label( "Start Point" )
+	public long startPoint;
+
+	/**
+	 * Stores the end point of the chunk
+	 * */
+	@Label( "End Point" )
+	public long endPoint;
+
+	/**
+	 * Stores the time the chunk waited between its submission and the start of its calculation
+	 * */
+	@Label( "Queue Wait" )
+	@Timespan( Timespan.NANOSECONDS )
+	public long queueWait;
+
+	/**
+	 * Stores the type of the event, whose enabled state follows the running JFR recordings
+	 * */
+	private static final EventType EVENT_TYPE = EventType.getEventType( PIChunkEvent.class );
+
+	/**
+	 * Returns true if the event is enabled in a running JFR recording
+	 * 
+	 * @return true if the event is enabled; false otherwise
+	 * */
+	public static boolean isTypeEnabled() {
+		return EVENT_TYPE.isEnabled();
+	}
+}
@@ -3,7 +3,8 @@ package com.pi.model;
 /**
  * PIData is a model class storing PI's calculation result
  * 
- * <p> A PI's calculation result is a pair of PI and n.
+ * <p> A PI's calculation result is a pair of PI and n. Some formulas also give an interval which contains the PI,
+ * e.g. a confidence interval; otherwise the bounds are NaN
  * 
  * @author Truong Nguyen
  * */
@@ -18,6 +19,16 @@ public class PIData {
 	 * An long value to store the n value at which PI is calculated
 	 * */
 	private final long n;
+
+	/**
+	 * An double value to store the lower bound of the interval containing PI, NaN if there is none
+	 * */
+	private final double lowerBound;
+
+	/**
+	 * An double value to store the upper bound of the interval containing PI, NaN if there is none
+	 * */
+	private final double upperBound;
 	
 	/**
 	 * Constructor with two parameters; PI and n values
@@ -26,8 +37,22 @@ public class PIData {
 	 * @param n the n value of PIData
 	 * */
 	public PIData( double pi, long n ) {
+		this( pi, n, Double.NaN, Double.NaN );
+	}
+
+	/**
+	 * Constructor with PI, n and the bounds of the interval containing PI
+	 * 
+	 * @param pi the pi value of PIData
+	 * @param n the n value of PIData
+	 * @param lowerBound the lower bound of the interval
+	 * @param upperBound the upper bound of the interval
+	 * */
+	public PIData( double pi, long n, double lowerBound, double upperBound ) {
 		this.pi = pi;
 		this.n = n;
+		this.lowerBound = lowerBound;
+		this.upperBound = upperBound;
 	}
 
 	/**
@@ -48,4 +73,31 @@ public class PIData {
 		return n;
 	}
 
+	/**
+	 * Returns true if PIData has the bounds of an interval containing PI
+	 * 
+	 * @return true if the bounds are available; false otherwise
+	 * */
+	public boolean hasBounds() {
+		return !Double.isNaN( lowerBound ) && !Double.isNaN( upperBound );
+	}
+
+	/**
+	 * Gets the lower bound of the interval containing PI
+	 * 
+	 * @return the lower bound, NaN if there is none
+	 * */
+	public double getLowerBound() {
+		return lowerBound;
+	}
+
+	/**
+	 * Gets the upper bound of the interval containing PI
+	 * 
+	 * @return the upper bound, NaN if there is none
+	 * */
+	public double getUpperBound() {
+		return upperBound;
+	}
+
 }
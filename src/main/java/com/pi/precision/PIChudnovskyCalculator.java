@@ -0,0 +1,107 @@
+package com.pi.precision;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+
+import com.pi.calculator.PICalculatorInterface;
+import com.pi.calculator.PIMemoryMeasurable;
+import com.pi.model.PIData;
+
+/**
+ * This class adapts {@link PIChudnovskyEngine} to {@link PICalculatorInterface}, so that a planned calculation runs
+ * the same way whatever its engine. The n of {@link #calculatePI(long)} is the number of exact digits, including the
+ * leading 3. The digits are truncated, so PI lies between them and them plus one unit of their last digit; the
+ * returned {@link PIData} has these bounds rounded outwards to doubles.
+ *
+ * <p>The engine cannot be interrupted, so {@link #cancelCalculation()} has no effect. The peak memory is the one of
+ * the engine, see {@link PIChudnovskyEngine#getPeakMemory()}
+ *
+ * @author Truong Nguyen
+ * */
+public class PIChudnovskyCalculator implements PICalculatorInterface, PIMemoryMeasurable {
+
+	/**
+	 * Stores the memory budget in bytes of the intermediates
+	 * */
+	private final long memoryBudget;
+
+	/**
+	 * Stores the directory of the spilled intermediates
+	 * */
+	private final Path directory;
+
+	/**
+	 * Stores the computed PIData
+	 * */
+	private volatile PIData piData = null;
+
+	/**
+	 * Stores the peak memory of the last calculation
+	 * */
+	private volatile long peakMemory = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param memoryBudget the memory budget in bytes of the intermediates, larger ones are spilled
+	 * @param directory the directory of the spilled intermediates
+	 * */
+	public PIChudnovskyCalculator( long memoryBudget, Path directory ) {
+		this.memoryBudget = memoryBudget;
+		this.directory = directory;
+	}
+
+	/**
+	 * Computes the first n digits of PI
+	 *
+	 * @param n the number of digits, including the leading 3
+	 * @return PIData the PI and its bounds
+	 * @throws Exception the <tt>Exception</tt> may be thrown if n is invalid or the spilled intermediates cannot be
+	 *         read or written
+	 * */
+	@Override
+	public PIData calculatePI( long n ) throws Exception {
+		if ( n <= 0 || n > PIChudnovskyEngine.MAX_DIGITS ) {
+			throw new Exception( "Invalid value received, n value should be between 1 and " + PIChudnovskyEngine.MAX_DIGITS );
+		}
+		PIChudnovskyEngine engine = new PIChudnovskyEngine( new PIOutOfCoreArithmetic( memoryBudget, directory ) );
+		BigInteger digits = engine.calculate( ( int ) n );
+		peakMemory = engine.getPeakMemory();
+
+		piData = toPIData( digits, n );
+		return piData;
+	}
+
+	/**
+	 * Returns the PIData of the first digits of PI: the PI and its bounds rounded outwards to doubles
+	 *
+	 * @param digits the digits, 314159... with noOfDigit digits
+	 * @param noOfDigit the number of digits, including the leading 3
+	 * @return PIData the PI and its bounds
+	 * */
+	public static PIData toPIData( BigInteger digits, long noOfDigit ) {
+		int scale = ( int ) noOfDigit - 1;
+		double lowerBound = Math.nextDown( new BigDecimal( digits, scale ).doubleValue() );
+		double upperBound = Math.nextUp( new BigDecimal( digits.add( BigInteger.ONE ), scale ).doubleValue() );
+
+		return new PIData( new BigDecimal( digits, scale ).doubleValue(), noOfDigit, lowerBound, upperBound );
+	}
+
+	/**
+	 * Has no effect, the engine cannot be interrupted
+	 * */
+	@Override
+	public void cancelCalculation() {
+	}
+
+	@Override
+	public PIData getPIData() {
+		return piData;
+	}
+
+	@Override
+	public long getPeakMemory() {
+		return peakMemory;
+	}
+}
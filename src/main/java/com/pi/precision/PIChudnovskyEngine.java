@@ -0,0 +1,600 @@
+package com.pi.precision;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.pi.digits.PIDecimalConverter;
+
+/**
+ * This class computes the decimal digits of PI with the Chudnovsky series, summed by binary splitting.
+ *
+ * <p>The terms [a, b) of the series are reduced to three integers P(a, b), Q(a, b) and T(a, b), and two halves are
+ * merged by P = P1 P2, Q = Q1 Q2 and T = Q2 T1 + P1 T2. The integers grow with the range, so the top of the tree
+ * holds the largest intermediates of the calculation. They are {@link PILimbInteger}s of a
+ * {@link PIOutOfCoreArithmetic}, which spills the ones over its memory budget to memory-mapped files and multiplies
+ * them block by block. The small ranges at the bottom of the tree are computed by <tt>BigInteger</tt> directly.
+ *
+ * <p>PI is then 426880 sqrt(10005) Q(0, N) / T(0, N), which is computed in fixed point with the same arithmetic, so
+ * that no value of the size of PI is ever loaded into the heap. 1 / sqrt(10005) and 1 / T are computed by Newton
+ * iterations, which double their number of correct limbs at each step with the streamed multiplications, from a first
+ * approximation of a few limbs computed by <tt>BigInteger</tt>. The fractional digits of the result are then split
+ * recursively by the powers 10^(2^i) until they fit the resident limit, and each part is converted by a
+ * {@link PIDecimalConverter} and written in order. So {@link #writeDigits(int, WritableByteChannel)} is limited by the
+ * disk only, while {@link #calculate(int)}, which returns the digits as a <tt>BigInteger</tt>, is capped at
+ * {@link #MAX_DIGITS}. {@link #getPeakMemory()} is the highest number of bytes of the magnitudes in the heap, of the
+ * arithmetic or of the conversions to decimal
+ *
+ * @author Truong Nguyen
+ * */
+public class PIChudnovskyEngine {
+
+	/**
+	 * The largest number of digits returned by {@link #calculate(int)}, below the digits at which they would exceed the
+	 * 2^31 - 1 bits of a <tt>BigInteger</tt>
+	 * */
+	public static final int MAX_DIGITS = 640000000;
+
+	/**
+	 * The number of decimal digits each term of the series adds
+	 * */
+	private static final double DIGITS_PER_TERM = 14.181647462725477;
+
+	/**
+	 * The bytes per digit of the peak memory if the intermediates are resident, measured with some margin
+	 * */
+	private static final double RESIDENT_BYTES_PER_DIGIT = 3.5;
+
+	/**
+	 * The bytes per digit of the peak memory if the intermediates are spilled, which are the returned digits, besides
+	 * twice the memory budget of the arithmetic, measured with some margin
+	 * */
+	private static final double SPILLED_BYTES_PER_DIGIT = 0.5;
+
+	/**
+	 * The number of extra digits computed to absorb the truncations of the final step
+	 * */
+	private static final int GUARD_DIGITS = 10;
+
+	/**
+	 * The number of extra limbs of the fixed-point values, which absorb the truncations of the Newton iterations
+	 * */
+	private static final int GUARD_LIMBS = 2;
+
+	/**
+	 * The number of limbs of the first approximations of the Newton iterations, which are computed by <tt>BigInteger</tt>
+	 * */
+	private static final int NEWTON_LIMBS = 4;
+
+	/**
+	 * The number of bits of a decimal digit
+	 * */
+	private static final double BITS_PER_DIGIT = Math.log( 10 ) / Math.log( 2 );
+
+	/**
+	 * The constant 426880 * 10005 of PI, which is multiplied by 1 / sqrt(10005) instead of sqrt(10005)
+	 * */
+	private static final BigInteger PI_CONSTANT = BigInteger.valueOf( 426880L * 10005 );
+
+	/**
+	 * The number of terms of the ranges which are computed by <tt>BigInteger</tt> directly
+	 * */
+	private static final long LEAF_TERMS = 16;
+
+	/**
+	 * The constant 640320^3 / 24 of the series
+	 * */
+	private static final BigInteger C3_OVER_24 = BigInteger.valueOf( 640320 ).pow( 3 ).divide( BigInteger.valueOf( 24 ) );
+
+	/**
+	 * Stores the arithmetic of the intermediates
+	 * */
+	private final PIOutOfCoreArithmetic arithmetic;
+
+	/**
+	 * Stores the highest number of bytes of the magnitudes in the heap during the conversions to decimal
+	 * */
+	private long finalMemory = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param arithmetic the arithmetic of the intermediates, which decides which of them are spilled
+	 * */
+	public PIChudnovskyEngine( PIOutOfCoreArithmetic arithmetic ) {
+		this.arithmetic = arithmetic;
+	}
+
+	/**
+	 * Computes the first digits of PI as an integer, 314159... with noOfDigit digits
+	 *
+	 * @param noOfDigit the number of digits, including the leading 3
+	 * @return the digits
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled intermediates cannot be read or written
+	 * */
+	public BigInteger calculate( int noOfDigit ) throws IOException {
+		checkNoOfDigit( noOfDigit, MAX_DIGITS );
+		PILimbInteger[] pqt = this.split( 0, getNoOfTerm( noOfDigit ), false );
+
+		return this.toDigits( pqt[ 1 ], pqt[ 2 ], noOfDigit );
+	}
+
+	/**
+	 * Computes the first digits of PI as an integer from Q(0, N) and T(0, N) computed elsewhere, for example merged
+	 * from the ranges of several workers. N must be at least {@link #getNoOfTerm(int)} of the number of digits
+	 *
+	 * @param noOfDigit the number of digits, including the leading 3
+	 * @param q the Q(0, N)
+	 * @param t the T(0, N)
+	 * @return the digits
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled intermediates cannot be read or written
+	 * */
+	public BigInteger calculate( int noOfDigit, BigInteger q, BigInteger t ) throws IOException {
+		checkNoOfDigit( noOfDigit, MAX_DIGITS );
+		return this.toDigits( arithmetic.valueOf( q ), arithmetic.valueOf( t ), noOfDigit );
+	}
+
+	/**
+	 * Checks the number of digits is between 1 and a maximum
+	 *
+	 * @param noOfDigit the number of digits
+	 * @param maxDigits the maximum number of digits
+	 * @throws IllegalArgumentException the <tt>IllegalArgumentException</tt> is thrown if the number is out of range
+	 * */
+	private static void checkNoOfDigit( int noOfDigit, int maxDigits ) {
+		if ( noOfDigit <= 0 || noOfDigit > maxDigits ) {
+			throw new IllegalArgumentException( "Invalid value received, noOfDigit should be between 1 and " + maxDigits );
+		}
+	}
+
+	/**
+	 * Returns the number of terms of the series which gives a number of digits
+	 *
+	 * @param noOfDigit the number of digits, including the leading 3
+	 * @return the number of terms N, the series is summed over [0, N)
+	 * */
+	public static long getNoOfTerm( int noOfDigit ) {
+		return ( long ) ( ( ( long ) noOfDigit - 1 + GUARD_DIGITS ) / DIGITS_PER_TERM ) + 2;
+	}
+
+	/**
+	 * Returns the largest number of digits which a number of terms of the series gives, the inverse of
+	 * {@link #getNoOfTerm(int)}
+	 *
+	 * @param noOfTerm the number of terms N, the series is summed over [0, N)
+	 * @return the number of digits, 0 if the terms are not enough for one digit
+	 * */
+	public static long getNoOfDigit( long noOfTerm ) {
+		long noOfDigit = Math.min( Integer.MAX_VALUE, ( long ) Math.ceil( ( noOfTerm - 1 ) * DIGITS_PER_TERM ) - GUARD_DIGITS );
+
+		// steps back over the rounding of the floating-point bound
+		while ( noOfDigit > 0 && getNoOfTerm( ( int ) noOfDigit ) > noOfTerm ) {
+			noOfDigit--;
+		}
+		return Math.max( 0, noOfDigit );
+	}
+
+	/**
+	 * Computes the digits from Q and T. The caller gives up Q and T, they are released once they are consumed
+	 *
+	 * @param pqtQ the Q(0, N)
+	 * @param pqtT the T(0, N)
+	 * @param noOfDigit the number of digits, including the leading 3
+	 * @return the digits
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled intermediates cannot be read or written
+	 * */
+	private BigInteger toDigits( PILimbInteger pqtQ, PILimbInteger pqtT, int noOfDigit ) throws IOException {
+		long noOfLimb = getNoOfLimb( noOfDigit - 1 + GUARD_DIGITS );
+		PILimbInteger pi = this.toFixedPoint( pqtQ, pqtT, noOfLimb );
+		List< PILimbInteger > powers = new ArrayList<>();
+
+		try {
+			PILimbInteger power = this.getPowerOfTen( noOfDigit - 1, powers );
+			PILimbInteger scaled = arithmetic.multiply( pi, power );
+			arithmetic.release( pi );
+			arithmetic.release( power );
+			PILimbInteger digits = arithmetic.shiftLeft( scaled, -32 * noOfLimb );
+			arithmetic.release( scaled );
+
+			BigInteger result = digits.toBigInteger();
+			arithmetic.release( digits );
+			this.onFinalMemory( byteLength( result ) );
+			return result;
+
+		} finally {
+			this.release( powers );
+		}
+	}
+
+	/**
+	 * Computes the first digits of PI and writes them as ASCII digits, 314159..., to a channel. The digits are limited
+	 * by the disk, not by the heap
+	 *
+	 * @param noOfDigit the number of digits, including the leading 3
+	 * @param channel the channel, for example a {@link com.pi.digits.PIDigitStoreWriter}; it is not closed
+	 * @return the number of digits written
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the digits cannot be computed or written
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the conversion is interrupted
+	 * */
+	public long writeDigits( int noOfDigit, WritableByteChannel channel ) throws IOException, InterruptedException {
+		checkNoOfDigit( noOfDigit, Integer.MAX_VALUE );
+		PILimbInteger[] pqt = this.split( 0, getNoOfTerm( noOfDigit ), false );
+		long noOfLimb = getNoOfLimb( noOfDigit - 1 + GUARD_DIGITS );
+		PILimbInteger pi = this.toFixedPoint( pqt[ 1 ], pqt[ 2 ], noOfLimb );
+
+		PILimbInteger fraction = arithmetic.truncate( pi, noOfLimb );
+		PILimbInteger integer = arithmetic.shiftLeft( pi, -32 * noOfLimb );
+		arithmetic.release( pi );
+
+		PIDecimalConverter converter = new PIDecimalConverter();
+		List< PILimbInteger > powers = new ArrayList<>();
+		try {
+			long noOfWritten = converter.write( integer.toBigInteger(), channel );
+			return noOfWritten + this.writeFraction( fraction, noOfLimb, noOfDigit - 1, powers, converter, channel );
+
+		} finally {
+			arithmetic.release( integer );
+			this.release( powers );
+		}
+	}
+
+	/**
+	 * Computes PI in fixed point, PI * 2^(32 noOfLimb), as 426880 * 10005 * (1 / sqrt(10005)) * Q / T. Q and T are
+	 * truncated to the limbs which the precision needs. The caller gives up Q and T, they are released once they are
+	 * consumed
+	 *
+	 * @param pqtQ the Q(0, N)
+	 * @param pqtT the T(0, N)
+	 * @param noOfLimb the number of fractional limbs
+	 * @return PILimbInteger the PI in fixed point
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled intermediates cannot be read or written
+	 * */
+	private PILimbInteger toFixedPoint( PILimbInteger pqtQ, PILimbInteger pqtT, long noOfLimb ) throws IOException {
+		long qShift = Math.max( 0, pqtQ.getLength() - noOfLimb - GUARD_LIMBS );
+		PILimbInteger q = arithmetic.shiftLeft( pqtQ, -32 * qShift );
+		arithmetic.release( pqtQ );
+
+		long tShift = Math.max( 0, pqtT.getLength() - noOfLimb - GUARD_LIMBS );
+		PILimbInteger t = arithmetic.shiftLeft( pqtT, -32 * tShift );
+		arithmetic.release( pqtT );
+		long tLength = t.getLength();
+		PILimbInteger inverseT = this.inverse( t );
+		arithmetic.release( t );
+
+		// PI * 2^(32 noOfLimb) = constant * (2^(32 noOfLimb) / sqrt(10005)) * Q * (2^(64 tLength) / T), shifted back
+		PILimbInteger constant = arithmetic.valueOf( PI_CONSTANT );
+		PILimbInteger inverseSqrt = this.inverseSqrt( 10005, noOfLimb );
+		PILimbInteger product = arithmetic.multiply( inverseSqrt, constant );
+		arithmetic.release( inverseSqrt );
+		arithmetic.release( constant );
+
+		PILimbInteger productQ = arithmetic.multiply( product, q );
+		arithmetic.release( product );
+		arithmetic.release( q );
+		product = arithmetic.multiply( productQ, inverseT );
+		arithmetic.release( productQ );
+		arithmetic.release( inverseT );
+
+		PILimbInteger pi = arithmetic.shiftLeft( product, 32 * ( qShift - tShift ) - 64 * tLength );
+		arithmetic.release( product );
+		return pi;
+	}
+
+	/**
+	 * Computes 2^(32 noOfLimb) / sqrt(value) by the Newton iteration x = x + x (1 - value x^2) / 2, which doubles the
+	 * number of correct limbs at each step
+	 *
+	 * @param value the positive value
+	 * @param noOfLimb the number of fractional limbs
+	 * @return PILimbInteger the inverse square root in fixed point
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled intermediates cannot be read or written
+	 * */
+	private PILimbInteger inverseSqrt( long value, long noOfLimb ) throws IOException {
+		int precision = ( int ) Math.min( noOfLimb, NEWTON_LIMBS );
+		PILimbInteger x = arithmetic.valueOf( BigInteger.ONE.shiftLeft( 64 * precision )
+				.divide( BigInteger.valueOf( value ) ).sqrt() );
+		PILimbInteger bigValue = arithmetic.valueOf( BigInteger.valueOf( value ) );
+		PILimbInteger one = arithmetic.valueOf( BigInteger.ONE );
+
+		for ( long limbs = precision; limbs < noOfLimb; ) {
+			long nextLimbs = Math.min( noOfLimb, 2 * limbs - 1 );
+			PILimbInteger scaled = arithmetic.shiftLeft( x, 32 * ( nextLimbs - limbs ) );
+			arithmetic.release( x );
+
+			PILimbInteger square = arithmetic.multiply( scaled, scaled );
+			PILimbInteger valueSquare = arithmetic.multiply( square, bigValue );
+			arithmetic.release( square );
+			PILimbInteger unit = arithmetic.shiftLeft( one, 64 * nextLimbs );
+			PILimbInteger error = arithmetic.subtract( unit, valueSquare );
+			arithmetic.release( unit );
+			arithmetic.release( valueSquare );
+
+			PILimbInteger product = arithmetic.multiply( scaled, error );
+			arithmetic.release( error );
+			PILimbInteger correction = arithmetic.shiftLeft( product, -64 * nextLimbs - 1 );
+			arithmetic.release( product );
+			x = arithmetic.add( scaled, correction );
+			arithmetic.release( scaled );
+			arithmetic.release( correction );
+			limbs = nextLimbs;
+		}
+		arithmetic.release( bigValue );
+		arithmetic.release( one );
+		return x;
+	}
+
+	/**
+	 * Computes 2^(64 n) / value, where n is the number of limbs of the value, by the Newton iteration
+	 * y = y + y (1 - value y), which doubles the number of correct limbs at each step. Each step uses the top limbs of
+	 * the value which its precision needs
+	 *
+	 * @param value the positive value
+	 * @return PILimbInteger the inverse in fixed point
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled intermediates cannot be read or written
+	 * */
+	private PILimbInteger inverse( PILimbInteger value ) throws IOException {
+		long length = value.getLength();
+		int precision = ( int ) Math.min( length, NEWTON_LIMBS );
+		PILimbInteger top = arithmetic.shiftLeft( value, -32 * ( length - precision ) );
+		PILimbInteger y = arithmetic.valueOf( BigInteger.ONE.shiftLeft( 64 * precision ).divide( top.toBigInteger() ) );
+		arithmetic.release( top );
+		PILimbInteger one = arithmetic.valueOf( BigInteger.ONE );
+
+		for ( long limbs = precision; limbs < length; ) {
+			long nextLimbs = Math.min( length, 2 * limbs - 1 );
+			PILimbInteger scaled = arithmetic.shiftLeft( y, 32 * ( nextLimbs - limbs ) );
+			arithmetic.release( y );
+
+			top = arithmetic.shiftLeft( value, -32 * ( length - nextLimbs ) );
+			PILimbInteger valueY = arithmetic.multiply( top, scaled );
+			arithmetic.release( top );
+			PILimbInteger unit = arithmetic.shiftLeft( one, 64 * nextLimbs );
+			PILimbInteger error = arithmetic.subtract( unit, valueY );
+			arithmetic.release( unit );
+			arithmetic.release( valueY );
+
+			PILimbInteger product = arithmetic.multiply( scaled, error );
+			arithmetic.release( error );
+			PILimbInteger correction = arithmetic.shiftLeft( product, -64 * nextLimbs );
+			arithmetic.release( product );
+			y = arithmetic.add( scaled, correction );
+			arithmetic.release( scaled );
+			arithmetic.release( correction );
+			limbs = nextLimbs;
+		}
+		arithmetic.release( one );
+		return y;
+	}
+
+	/**
+	 * Writes the first digits of a fraction. The digits which fit the resident limit are converted in the heap, the
+	 * others are split into the first 2^i digits, and the digits of the fraction of the fraction * 10^(2^i). The caller
+	 * gives up the fraction, it is released once it is consumed
+	 *
+	 * @param fraction the fraction in fixed point, fraction * 2^(32 noOfLimb)
+	 * @param noOfLimb the number of fractional limbs
+	 * @param noOfDigit the number of digits
+	 * @param powers the powers 10^(2^i) computed so far
+	 * @param converter the converter of the digits which fit the resident limit
+	 * @param channel the channel the digits are written to
+	 * @return the number of digits written
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the digits cannot be computed or written
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the conversion is interrupted
+	 * */
+	private long writeFraction( PILimbInteger fraction, long noOfLimb, long noOfDigit, List< PILimbInteger > powers,
+			PIDecimalConverter converter, WritableByteChannel channel ) throws IOException, InterruptedException {
+		if ( noOfDigit == 0 ) {
+			arithmetic.release( fraction );
+			return 0;
+		}
+
+		// only the limbs which the digits need are kept, the guard limbs absorb the truncation
+		long fractionLimbs = Math.min( noOfLimb, getNoOfLimb( noOfDigit ) );
+		PILimbInteger truncated = arithmetic.shiftLeft( fraction, -32 * ( noOfLimb - fractionLimbs ) );
+		arithmetic.release( fraction );
+
+		if ( noOfDigit <= 1 || 2 * fractionLimbs <= arithmetic.getResidentLimit() ) {
+			BigInteger value = truncated.toBigInteger();
+			arithmetic.release( truncated );
+			BigInteger digits = value.multiply( BigInteger.TEN.pow( ( int ) noOfDigit ) )
+					.shiftRight( ( int ) ( 32 * fractionLimbs ) );
+			this.onFinalMemory( byteLength( value ) + 2 * byteLength( digits ) );
+
+			return converter.write( digits, noOfDigit, channel );
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros( noOfDigit - 1 );
+		PILimbInteger shifted = arithmetic.multiply( truncated, this.getPower( exponent, powers ) );
+		PILimbInteger rest = arithmetic.truncate( shifted, fractionLimbs );
+		arithmetic.release( shifted );
+
+		long noOfWritten = this.writeFraction( truncated, fractionLimbs, 1L << exponent, powers, converter, channel );
+		return noOfWritten + this.writeFraction( rest, fractionLimbs, noOfDigit - ( 1L << exponent ), powers, converter,
+				channel );
+	}
+
+	/**
+	 * Gets the power 10^(2^exponent), squaring the missing powers
+	 *
+	 * @param exponent the exponent
+	 * @param powers the powers 10^(2^i) computed so far
+	 * @return PILimbInteger the power, which is released with the other powers
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled powers cannot be read or written
+	 * */
+	private PILimbInteger getPower( int exponent, List< PILimbInteger > powers ) throws IOException {
+		if ( powers.isEmpty() ) {
+			powers.add( arithmetic.valueOf( BigInteger.TEN ) );
+		}
+		while ( powers.size() <= exponent ) {
+			PILimbInteger power = powers.get( powers.size() - 1 );
+			powers.add( arithmetic.multiply( power, power ) );
+		}
+		return powers.get( exponent );
+	}
+
+	/**
+	 * Computes the power 10^exponent from the powers 10^(2^i) of the bits of the exponent
+	 *
+	 * @param exponent the exponent
+	 * @param powers the powers 10^(2^i) computed so far
+	 * @return PILimbInteger the power, which the caller releases
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled powers cannot be read or written
+	 * */
+	private PILimbInteger getPowerOfTen( long exponent, List< PILimbInteger > powers ) throws IOException {
+		PILimbInteger power = arithmetic.valueOf( BigInteger.ONE );
+
+		for ( int i = 0; exponent >> i != 0; i++ ) {
+			if ( ( exponent >> i & 1 ) != 0 ) {
+				PILimbInteger product = arithmetic.multiply( power, this.getPower( i, powers ) );
+				arithmetic.release( power );
+				power = product;
+			}
+		}
+		return power;
+	}
+
+	/**
+	 * Releases the powers of ten
+	 *
+	 * @param powers the powers
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be deleted
+	 * */
+	private void release( List< PILimbInteger > powers ) throws IOException {
+		for ( PILimbInteger power : powers ) {
+			arithmetic.release( power );
+		}
+		powers.clear();
+	}
+
+	/**
+	 * Returns the number of limbs of a fixed-point value of a number of digits, with the guard limbs
+	 *
+	 * @param noOfDigit the number of fractional digits
+	 * @return the number of limbs
+	 * */
+	private static long getNoOfLimb( long noOfDigit ) {
+		return ( long ) Math.ceil( noOfDigit * BITS_PER_DIGIT / 32 ) + GUARD_LIMBS;
+	}
+
+	/**
+	 * Estimates the {@link #getPeakMemory()} of {@link #calculate(int)}. If the intermediates are resident, the binary
+	 * splitting takes the most. If they are spilled, the resident values, each of them within the resident limit, take
+	 * up to twice the memory budget, and the returned digits are added
+	 *
+	 * @param noOfDigit the number of digits
+	 * @param memoryBudget the memory budget of the arithmetic
+	 * @return the estimated number of bytes
+	 * */
+	public static long estimatePeakMemory( long noOfDigit, long memoryBudget ) {
+		return ( long ) Math.min( RESIDENT_BYTES_PER_DIGIT * noOfDigit,
+				SPILLED_BYTES_PER_DIGIT * noOfDigit + 2.0 * memoryBudget );
+	}
+
+	/**
+	 * Gets the highest number of bytes of the magnitudes in the heap during the calculations of this engine
+	 *
+	 * @return the number of bytes
+	 * */
+	public long getPeakMemory() {
+		return Math.max( arithmetic.getPeakMemory(), finalMemory );
+	}
+
+	/**
+	 * Counts the bytes of the magnitudes in the heap during a conversion to decimal
+	 *
+	 * @param memory the number of bytes
+	 * */
+	private void onFinalMemory( long memory ) {
+		finalMemory = Math.max( finalMemory, arithmetic.getResidentBytes() + memory );
+	}
+
+	/**
+	 * Returns the number of bytes of the magnitude of a value
+	 *
+	 * @param value the value
+	 * @return the number of bytes
+	 * */
+	private static long byteLength( BigInteger value ) {
+		return value.bitLength() / 8 + 1;
+	}
+
+	/**
+	 * Computes P, Q and T of the terms [a, b), merging the halves with the out-of-core arithmetic
+	 *
+	 * @param a the first term
+	 * @param b the term after the last one
+	 * @param isPNeeded false if P is not needed, which is the case for the rightmost ranges of the tree
+	 * @return the P, Q and T; P is null if it is not needed
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the spilled intermediates cannot be read or written
+	 * */
+	private PILimbInteger[] split( long a, long b, boolean isPNeeded ) throws IOException {
+		if ( b - a <= LEAF_TERMS ) {
+			BigInteger[] pqt = splitResident( a, b );
+			return new PILimbInteger[] { isPNeeded ? arithmetic.valueOf( pqt[ 0 ] ) : null,
+					arithmetic.valueOf( pqt[ 1 ] ), arithmetic.valueOf( pqt[ 2 ] ) };
+		}
+		long m = ( a + b ) / 2;
+		PILimbInteger[] left = this.split( a, m, true );
+		PILimbInteger[] right = this.split( m, b, isPNeeded );
+
+		PILimbInteger q2t1 = arithmetic.multiply( right[ 1 ], left[ 2 ] );
+		arithmetic.release( left[ 2 ] );
+		PILimbInteger p1t2 = arithmetic.multiply( left[ 0 ], right[ 2 ] );
+		arithmetic.release( right[ 2 ] );
+		PILimbInteger t = arithmetic.add( q2t1, p1t2 );
+		arithmetic.release( q2t1 );
+		arithmetic.release( p1t2 );
+
+		PILimbInteger q = arithmetic.multiply( left[ 1 ], right[ 1 ] );
+		arithmetic.release( left[ 1 ] );
+		arithmetic.release( right[ 1 ] );
+
+		PILimbInteger p = null;
+		if ( isPNeeded ) {
+			p = arithmetic.multiply( left[ 0 ], right[ 0 ] );
+			arithmetic.release( right[ 0 ] );
+		}
+		arithmetic.release( left[ 0 ] );
+
+		return new PILimbInteger[] { p, q, t };
+	}
+
+	/**
+	 * Merges the P, Q and T of two adjacent ranges [a, m) and [m, b) into those of [a, b)
+	 *
+	 * @param left the P, Q and T of [a, m)
+	 * @param right the P, Q and T of [m, b)
+	 * @return the P, Q and T of [a, b)
+	 * */
+	public static BigInteger[] merge( BigInteger[] left, BigInteger[] right ) {
+		return new BigInteger[] { left[ 0 ].multiply( right[ 0 ] ), left[ 1 ].multiply( right[ 1 ] ),
+				right[ 1 ].multiply( left[ 2 ] ).add( left[ 0 ].multiply( right[ 2 ] ) ) };
+	}
+
+	/**
+	 * Computes P, Q and T of the terms [a, b) in the heap. The ranges of a series may be computed separately, for
+	 * example by several workers, and then merged in their order with {@link #merge(BigInteger[], BigInteger[])}
+	 *
+	 * @param a the first term
+	 * @param b the term after the last one, larger than a
+	 * @return the P, Q and T
+	 * */
+	public static BigInteger[] splitResident( long a, long b ) {
+		if ( b - a == 1 ) {
+			if ( a == 0 ) {
+				return new BigInteger[] { BigInteger.ONE, BigInteger.ONE, BigInteger.valueOf( 13591409 ) };
+			}
+			BigInteger bigA = BigInteger.valueOf( a );
+			BigInteger p = BigInteger.valueOf( 6 * a - 5 ).multiply( BigInteger.valueOf( 2 * a - 1 ) )
+					.multiply( BigInteger.valueOf( 6 * a - 1 ) );
+			BigInteger q = bigA.multiply( bigA ).multiply( bigA ).multiply( C3_OVER_24 );
+			BigInteger t = p.multiply( BigInteger.valueOf( 13591409 ).add( BigInteger.valueOf( 545140134 ).multiply( bigA ) ) );
+
+			return new BigInteger[] { p, q, ( a % 2 == 0 ) ? t : t.negate() };
+		}
+		long m = ( a + b ) / 2;
+		return merge( splitResident( a, m ), splitResident( m, b ) );
+	}
+}
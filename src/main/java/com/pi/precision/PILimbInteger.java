@@ -0,0 +1,196 @@
+package com.pi.precision;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * This class is a signed integer of any size created by {@link PIOutOfCoreArithmetic}. Its magnitude is either
+ * resident, as a <tt>BigInteger</tt>, or spilled to a file of 32-bit limbs, as {@link PIMappedLimbs}, depending on
+ * its size and the memory budget of the arithmetic.
+ * 
+ * <p>An instance is immutable. A spilled instance owns its file, which is deleted by {@link #close()}
+ * 
+ * @author Truong Nguyen
+ * */
+public final class PILimbInteger implements AutoCloseable {
+
+	/**
+	 * The mask of the unsigned value of a limb
+	 * */
+	static final long LIMB_MASK = 0xffffffffL;
+
+	/**
+	 * Stores the sign, -1, 0 or 1
+	 * */
+	private final int signum;
+
+	/**
+	 * Stores the magnitude if it is resident, null if it is spilled
+	 * */
+	private final BigInteger residentMagnitude;
+
+	/**
+	 * Stores the limbs of the magnitude if it is spilled, null if it is resident
+	 * */
+	private final PIMappedLimbs spilledLimbs;
+
+	/**
+	 * Stores the number of limbs of the magnitude, without the leading zero limbs
+	 * */
+	private final long length;
+
+	/**
+	 * Stores the limbs of the resident magnitude, converted the first time they are read one by one
+	 * */
+	private int[] residentLimbs = null;
+
+	/**
+	 * Constructor of a resident integer
+	 * 
+	 * @param value the value
+	 * */
+	PILimbInteger( BigInteger value ) {
+		this.signum = value.signum();
+		this.residentMagnitude = value.abs();
+		this.spilledLimbs = null;
+		this.length = ( residentMagnitude.bitLength() + 31 ) / 32;
+	}
+
+	/**
+	 * Constructor of a spilled integer
+	 * 
+	 * @param signum the sign, -1, 0 or 1
+	 * @param spilledLimbs the limbs of the magnitude
+	 * @param length the number of limbs of the magnitude, without the leading zero limbs
+	 * */
+	PILimbInteger( int signum, PIMappedLimbs spilledLimbs, long length ) {
+		this.signum = signum;
+		this.residentMagnitude = null;
+		this.spilledLimbs = spilledLimbs;
+		this.length = length;
+	}
+
+	/**
+	 * Gets the sign
+	 * 
+	 * @return -1, 0 or 1
+	 * */
+	public int signum() {
+		return signum;
+	}
+
+	/**
+	 * Gets the number of 32-bit limbs of the magnitude
+	 * 
+	 * @return the number of limbs
+	 * */
+	public long getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns true if the magnitude is resident in the heap, false if it is spilled to a file
+	 * 
+	 * @return true if the magnitude is resident
+	 * */
+	public boolean isResident() {
+		return spilledLimbs == null;
+	}
+
+	/**
+	 * Returns the value as a <tt>BigInteger</tt>. A spilled value is loaded into the heap
+	 * 
+	 * @return the value
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read
+	 * */
+	public BigInteger toBigInteger() throws IOException {
+		BigInteger magnitude = this.isResident() ? residentMagnitude : this.getMagnitude( 0, length );
+		return ( signum < 0 ) ? magnitude.negate() : magnitude;
+	}
+
+	/**
+	 * Deletes the file of a spilled integer
+	 * 
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be deleted
+	 * */
+	@Override
+	public void close() throws IOException {
+		if ( spilledLimbs != null ) {
+			spilledLimbs.close();
+		}
+	}
+
+	/**
+	 * Gets the number of limbs of the file of a spilled integer, which may be greater than its length
+	 * 
+	 * @return the number of limbs of the file, 0 if the integer is resident
+	 * */
+	long getCapacity() {
+		return ( spilledLimbs == null ) ? 0 : spilledLimbs.getCapacity();
+	}
+
+	/**
+	 * Gets a limb of the magnitude
+	 * 
+	 * @param index the index, from 0 for the least significant limb
+	 * @return the limb, 0 above the length
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read
+	 * */
+	int getLimb( long index ) throws IOException {
+		if ( index >= length ) {
+			return 0;
+		}
+		if ( spilledLimbs != null ) {
+			return spilledLimbs.get( index );
+		}
+		if ( residentLimbs == null ) {
+			residentLimbs = toLimbs( residentMagnitude );
+		}
+		return residentLimbs[ ( int ) index ];
+	}
+
+	/**
+	 * Gets the limbs [from, from + count) of the magnitude as a non-negative <tt>BigInteger</tt>
+	 * 
+	 * @param from the index of the first limb
+	 * @param count the number of limbs
+	 * @return the block of the magnitude
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read
+	 * */
+	BigInteger getMagnitude( long from, long count ) throws IOException {
+		if ( this.isResident() && from == 0 && count >= length ) {
+			return residentMagnitude;
+		}
+		int noOfLimb = ( int ) Math.max( 0, Math.min( count, length - from ) );
+		byte[] bytes = new byte[ noOfLimb * 4 ];
+
+		for ( int i = 0; i < noOfLimb; i++ ) {
+			int limb = this.getLimb( from + i );
+			int offset = bytes.length - 4 * ( i + 1 );
+			bytes[ offset ] = ( byte ) ( limb >>> 24 );
+			bytes[ offset + 1 ] = ( byte ) ( limb >>> 16 );
+			bytes[ offset + 2 ] = ( byte ) ( limb >>> 8 );
+			bytes[ offset + 3 ] = ( byte ) limb;
+		}
+		return new BigInteger( 1, bytes );
+	}
+
+	/**
+	 * Converts a non-negative <tt>BigInteger</tt> to its limbs
+	 * 
+	 * @param magnitude the non-negative value
+	 * @return the limbs, from the least significant one
+	 * */
+	static int[] toLimbs( BigInteger magnitude ) {
+		byte[] bytes = magnitude.toByteArray();
+		int[] limbs = new int[ ( magnitude.bitLength() + 31 ) / 32 ];
+
+		for ( int i = 0; i < bytes.length; i++ ) {
+			int position = bytes.length - 1 - i;
+			if ( i / 4 < limbs.length ) {
+				limbs[ i / 4 ] |= ( bytes[ position ] & 0xff ) << ( 8 * ( i % 4 ) );
+			}
+		}
+		return limbs;
+	}
+}
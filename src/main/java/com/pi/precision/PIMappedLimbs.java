@@ -0,0 +1,120 @@
+package com.pi.precision;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is an array of 32-bit limbs stored in a temporary file, which is memory-mapped lazily in segments so that
+ * the operating system keeps in memory only the pages which are in use. The file is deleted when the array is closed.
+ * This class is not thread-safe
+ * 
+ * @author Truong Nguyen
+ * */
+class PIMappedLimbs implements AutoCloseable {
+
+	/**
+	 * The number of limbs of a mapped segment
+	 * */
+	private static final int SEGMENT_LENGTH = 1 << 22;
+
+	/**
+	 * Stores the path of the temporary file
+	 * */
+	private final Path path;
+
+	/**
+	 * Stores the channel of the temporary file
+	 * */
+	private final FileChannel fileChannel;
+
+	/**
+	 * Stores the number of limbs
+	 * */
+	private final long capacity;
+
+	/**
+	 * Stores the mapped segments, null for the segments which are not mapped yet
+	 * */
+	private final MappedByteBuffer[] segments;
+
+	/**
+	 * Constructor, creates a temporary file of zero limbs
+	 * 
+	 * @param directory the directory of the temporary file
+	 * @param capacity the number of limbs
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be created
+	 * */
+	PIMappedLimbs( Path directory, long capacity ) throws IOException {
+		this.path = Files.createTempFile( directory, "pi-limbs", ".tmp" );
+		this.fileChannel = FileChannel.open( path, StandardOpenOption.READ, StandardOpenOption.WRITE );
+		this.capacity = capacity;
+		this.segments = new MappedByteBuffer[ ( int ) ( ( capacity + SEGMENT_LENGTH - 1 ) / SEGMENT_LENGTH ) ];
+	}
+
+	/**
+	 * Gets the number of limbs
+	 * 
+	 * @return the number of limbs
+	 * */
+	long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the limb at the given index
+	 * 
+	 * @param index the index, from 0 for the least significant limb
+	 * @return the limb
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	int get( long index ) throws IOException {
+		return this.getSegment( index ).getInt( ( int ) ( index % SEGMENT_LENGTH ) * 4 );
+	}
+
+	/**
+	 * Sets the limb at the given index
+	 * 
+	 * @param index the index, from 0 for the least significant limb
+	 * @param limb the limb
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	void set( long index, int limb ) throws IOException {
+		this.getSegment( index ).putInt( ( int ) ( index % SEGMENT_LENGTH ) * 4, limb );
+	}
+
+	/**
+	 * Closes and deletes the file. The mapped segments are released by the garbage collector
+	 * 
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be deleted
+	 * */
+	@Override
+	public void close() throws IOException {
+		fileChannel.close();
+		Files.deleteIfExists( path );
+	}
+
+	/**
+	 * Returns the segment holding the given index, mapping it if needed
+	 * 
+	 * @param index the index
+	 * @return MappedByteBuffer the segment
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be mapped
+	 * */
+	private MappedByteBuffer getSegment( long index ) throws IOException {
+		if ( index < 0 || index >= capacity ) {
+			throw new IndexOutOfBoundsException( "Invalid index " + index + ", the array has " + capacity + " limbs" );
+		}
+		int segmentIndex = ( int ) ( index / SEGMENT_LENGTH );
+
+		if ( segments[ segmentIndex ] == null ) {
+			long start = ( long ) segmentIndex * SEGMENT_LENGTH;
+			long size = Math.min( SEGMENT_LENGTH, capacity - start ) * 4;
+			segments[ segmentIndex ] = fileChannel.map( FileChannel.MapMode.READ_WRITE, start * 4, size );
+		}
+		return segments[ segmentIndex ];
+	}
+}
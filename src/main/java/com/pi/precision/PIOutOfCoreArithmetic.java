@@ -0,0 +1,476 @@
+package com.pi.precision;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is the arithmetic of {@link PILimbInteger}s under a memory budget.
+ *
+ * <p>A value of at most a quarter of the budget, and of at most {@link #MAX_RESIDENT_LIMIT} limbs, stays resident as
+ * a <tt>BigInteger</tt>; a larger value is spilled to a memory-mapped temporary file of 32-bit limbs. Resident values
+ * are added and multiplied by <tt>BigInteger</tt>. A product which would not be resident is computed block by block:
+ * the operands are streamed from their files in blocks of half the resident limit, each pair of blocks is multiplied
+ * in memory, and the block product is added into the spilled result at its offset. Additions and subtractions of
+ * spilled values stream their limbs with the carry, and shifts and truncations copy them to the spilled result.
+ * So the heap holds a few blocks at a time, and the size of the values is limited by the disk.
+ *
+ * <p>The budget counts the magnitudes only, not the temporaries of <tt>BigInteger</tt>; it may be set artificially
+ * low to exercise the spilled paths on small values. The bytes of the resident values which are not released, and of
+ * the blocks of the streamed multiplications, are counted the same way, and their highest value is the peak memory of
+ * the arithmetic. This class is not thread-safe
+ *
+ * @author Truong Nguyen
+ * */
+public class PIOutOfCoreArithmetic {
+
+	/**
+	 * The number of bytes of a limb
+	 * */
+	private static final int LIMB_SIZE = 4;
+
+	/**
+	 * The largest number of limbs of a resident value, half of the 2^26 limbs of the largest <tt>BigInteger</tt>, so
+	 * that the product of two resident blocks is still a <tt>BigInteger</tt> whatever the budget
+	 * */
+	private static final long MAX_RESIDENT_LIMIT = 1 << 25;
+
+	/**
+	 * Stores the directory of the temporary files
+	 * */
+	private final Path directory;
+
+	/**
+	 * Stores the maximum number of limbs of a resident value
+	 * */
+	private final long residentLimit;
+
+	/**
+	 * Stores the number of limbs of a block of a streamed multiplication
+	 * */
+	private final long blockLength;
+
+	/**
+	 * Stores the number of values spilled so far
+	 * */
+	private final AtomicLong noOfSpill = new AtomicLong();
+
+	/**
+	 * Stores the number of bytes of the files of the spilled values which are not closed
+	 * */
+	private final AtomicLong spilledBytes = new AtomicLong();
+
+	/**
+	 * Stores the highest value of {@link #spilledBytes}
+	 * */
+	private final AtomicLong peakSpilledBytes = new AtomicLong();
+
+	/**
+	 * Stores the number of bytes of the resident values which are not released
+	 * */
+	private final AtomicLong residentBytes = new AtomicLong();
+
+	/**
+	 * Stores the highest number of bytes of the resident values and of the blocks in memory at the same time
+	 * */
+	private final AtomicLong peakMemory = new AtomicLong();
+
+	/**
+	 * Constructor
+	 *
+	 * @param memoryBudget the memory budget in bytes of the values in the heap
+	 * @param directory the directory of the temporary files
+	 * */
+	public PIOutOfCoreArithmetic( long memoryBudget, Path directory ) {
+		if ( memoryBudget < 8 * LIMB_SIZE ) {
+			throw new IllegalArgumentException( "Invalid memory budget " + memoryBudget + ", it should be at least "
+					+ 8 * LIMB_SIZE + " bytes" );
+		}
+		this.directory = directory;
+		this.residentLimit = Math.min( memoryBudget / 4 / LIMB_SIZE, MAX_RESIDENT_LIMIT );
+		this.blockLength = this.residentLimit / 2;
+	}
+
+	/**
+	 * Returns a value, spilled if it is larger than the resident limit
+	 *
+	 * @param value the value
+	 * @return PILimbInteger the value
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the value cannot be spilled
+	 * */
+	public PILimbInteger valueOf( BigInteger value ) throws IOException {
+		PILimbInteger resident = new PILimbInteger( value );
+
+		if ( resident.getLength() <= residentLimit ) {
+			return this.onResident( resident );
+		}
+		PIMappedLimbs limbs = this.newLimbs( resident.getLength() );
+		for ( long i = 0; i < resident.getLength(); i++ ) {
+			limbs.set( i, resident.getLimb( i ) );
+		}
+		return new PILimbInteger( value.signum(), limbs, resident.getLength() );
+	}
+
+	/**
+	 * Multiplies two values
+	 *
+	 * @param left the left value
+	 * @param right the right value
+	 * @return PILimbInteger the product
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be read or written
+	 * */
+	public PILimbInteger multiply( PILimbInteger left, PILimbInteger right ) throws IOException {
+		int signum = left.signum() * right.signum();
+		long length = left.getLength() + right.getLength();
+
+		if ( signum == 0 ) {
+			return new PILimbInteger( BigInteger.ZERO );
+		}
+		if ( length <= residentLimit ) {
+			return this.onResident( new PILimbInteger( left.toBigInteger().multiply( right.toBigInteger() ) ) );
+		}
+
+		PIMappedLimbs product = this.newLimbs( length );
+		for ( long i = 0; i < left.getLength(); i += blockLength ) {
+			BigInteger leftBlock = left.getMagnitude( i, blockLength );
+
+			for ( long j = 0; j < right.getLength(); j += blockLength ) {
+				BigInteger blockProduct = leftBlock.multiply( right.getMagnitude( j, blockLength ) );
+				this.onBlock( 2 * ( leftBlock.bitLength() / 8 + 1 ) + 2 * ( blockProduct.bitLength() / 8 + 1 ) );
+				this.addInto( product, i + j, PILimbInteger.toLimbs( blockProduct ) );
+			}
+		}
+		return this.normalize( signum, product );
+	}
+
+	/**
+	 * Adds two values
+	 *
+	 * @param left the left value
+	 * @param right the right value
+	 * @return PILimbInteger the sum
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be read or written
+	 * */
+	public PILimbInteger add( PILimbInteger left, PILimbInteger right ) throws IOException {
+		return this.add( left, right, right.signum() );
+	}
+
+	/**
+	 * Subtracts a value from another
+	 *
+	 * @param left the left value
+	 * @param right the value to subtract
+	 * @return PILimbInteger the difference
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be read or written
+	 * */
+	public PILimbInteger subtract( PILimbInteger left, PILimbInteger right ) throws IOException {
+		return this.add( left, right, -right.signum() );
+	}
+
+	/**
+	 * Multiplies a value by 2^bits, like <tt>BigInteger.shiftLeft()</tt>. A negative number of bits shifts the value to
+	 * the right, which truncates its magnitude, so that the sign of the value is kept
+	 *
+	 * @param value the value
+	 * @param bits the number of bits, negative for a right shift
+	 * @return PILimbInteger the shifted value
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be read or written
+	 * */
+	public PILimbInteger shiftLeft( PILimbInteger value, long bits ) throws IOException {
+		long limbShift = Math.floorDiv( bits, 32 );
+		int bitShift = ( int ) Math.floorMod( bits, 32 );
+		long length = value.getLength() + limbShift + 1;
+
+		if ( value.signum() == 0 || length <= 0 ) {
+			return new PILimbInteger( BigInteger.ZERO );
+		}
+		if ( length <= residentLimit ) {
+			// only the limbs which are kept are loaded, the remaining shift is less than a limb to the right
+			long from = Math.max( 0, -limbShift - 1 );
+			BigInteger magnitude = value.getMagnitude( from, value.getLength() - from ).shiftLeft( ( int ) ( bits + 32 * from ) );
+			return this.onResident( new PILimbInteger( ( value.signum() < 0 ) ? magnitude.negate() : magnitude ) );
+		}
+
+		PIMappedLimbs shifted = this.newLimbs( length );
+		for ( long i = 0; i < length; i++ ) {
+			long index = i - limbShift;
+			int limb = ( index >= 0 ) ? value.getLimb( index ) : 0;
+			if ( bitShift != 0 ) {
+				int lowerLimb = ( index > 0 ) ? value.getLimb( index - 1 ) : 0;
+				limb = ( limb << bitShift ) | ( lowerLimb >>> ( 32 - bitShift ) );
+			}
+			shifted.set( i, limb );
+		}
+		return this.normalize( value.signum(), shifted );
+	}
+
+	/**
+	 * Returns the lowest limbs of a value, which are its magnitude modulo 2^(32 noOfLimb) with its sign. The fractional
+	 * part of a fixed-point value is taken this way
+	 *
+	 * @param value the value
+	 * @param noOfLimb the number of limbs
+	 * @return PILimbInteger the lowest limbs
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be read or written
+	 * */
+	public PILimbInteger truncate( PILimbInteger value, long noOfLimb ) throws IOException {
+		long length = Math.min( value.getLength(), noOfLimb );
+
+		if ( value.signum() == 0 || length <= 0 ) {
+			return new PILimbInteger( BigInteger.ZERO );
+		}
+		if ( length <= residentLimit ) {
+			BigInteger magnitude = value.getMagnitude( 0, length );
+			return this.onResident( new PILimbInteger( ( value.signum() < 0 ) ? magnitude.negate() : magnitude ) );
+		}
+
+		PIMappedLimbs truncated = this.newLimbs( length );
+		for ( long i = 0; i < length; i++ ) {
+			truncated.set( i, value.getLimb( i ) );
+		}
+		return this.normalize( value.signum(), truncated );
+	}
+
+	/**
+	 * Adds two values, the right one with the given sign
+	 *
+	 * @param left the left value
+	 * @param right the right value
+	 * @param rightSignum the sign of the right value in the sum, its own sign or the opposite one
+	 * @return PILimbInteger the sum
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be read or written
+	 * */
+	private PILimbInteger add( PILimbInteger left, PILimbInteger right, int rightSignum ) throws IOException {
+		long length = Math.max( left.getLength(), right.getLength() ) + 1;
+
+		if ( length <= residentLimit ) {
+			BigInteger rightValue = ( rightSignum == right.signum() ) ? right.toBigInteger() : right.toBigInteger().negate();
+			return this.onResident( new PILimbInteger( left.toBigInteger().add( rightValue ) ) );
+		}
+		if ( left.signum() == 0 || right.signum() == 0 ) {
+			return ( left.signum() == 0 ) ? this.copy( right, rightSignum ) : this.copy( left, left.signum() );
+		}
+
+		PIMappedLimbs sum = this.newLimbs( length );
+		if ( left.signum() == rightSignum ) {
+			long carry = 0;
+			for ( long i = 0; i < length; i++ ) {
+				long limbSum = ( left.getLimb( i ) & PILimbInteger.LIMB_MASK ) + ( right.getLimb( i ) & PILimbInteger.LIMB_MASK ) + carry;
+				sum.set( i, ( int ) limbSum );
+				carry = limbSum >>> 32;
+			}
+			return this.normalize( left.signum(), sum );
+		}
+
+		// the signs differ, the smaller magnitude is subtracted from the larger one which gives the sign
+		int comparison = compareMagnitude( left, right );
+		if ( comparison == 0 ) {
+			sum.close();
+			this.onClosed( length );
+			return new PILimbInteger( BigInteger.ZERO );
+		}
+		PILimbInteger larger = ( comparison > 0 ) ? left : right;
+		PILimbInteger smaller = ( comparison > 0 ) ? right : left;
+		long borrow = 0;
+		for ( long i = 0; i < length; i++ ) {
+			long difference = ( larger.getLimb( i ) & PILimbInteger.LIMB_MASK ) - ( smaller.getLimb( i ) & PILimbInteger.LIMB_MASK ) - borrow;
+			sum.set( i, ( int ) difference );
+			borrow = ( difference < 0 ) ? 1 : 0;
+		}
+		return this.normalize( ( comparison > 0 ) ? left.signum() : rightSignum, sum );
+	}
+
+	/**
+	 * Deletes the file of a spilled value, and counts it as released
+	 *
+	 * @param value the value
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be deleted
+	 * */
+	public void release( PILimbInteger value ) throws IOException {
+		if ( !value.isResident() ) {
+			this.onClosed( value.getCapacity() );
+		} else if ( value.signum() != 0 ) {
+			residentBytes.addAndGet( -value.getLength() * LIMB_SIZE );
+		}
+		value.close();
+	}
+
+	/**
+	 * Gets the maximum number of limbs of a resident value
+	 *
+	 * @return the number of limbs
+	 * */
+	public long getResidentLimit() {
+		return residentLimit;
+	}
+
+	/**
+	 * Gets the number of values spilled so far
+	 *
+	 * @return the number of spilled values
+	 * */
+	public long getNoOfSpill() {
+		return noOfSpill.get();
+	}
+
+	/**
+	 * Gets the highest number of bytes of the files of the spilled values at the same time
+	 *
+	 * @return the number of bytes
+	 * */
+	public long getPeakSpilledBytes() {
+		return peakSpilledBytes.get();
+	}
+
+	/**
+	 * Gets the highest number of bytes of the resident values and of the blocks of the streamed multiplications in
+	 * memory at the same time
+	 *
+	 * @return the number of bytes
+	 * */
+	public long getPeakMemory() {
+		return peakMemory.get();
+	}
+
+	/**
+	 * Gets the number of bytes of the resident values which are not released
+	 *
+	 * @return the number of bytes
+	 * */
+	long getResidentBytes() {
+		return residentBytes.get();
+	}
+
+	/**
+	 * Counts a new resident value
+	 *
+	 * @param value the resident value
+	 * @return PILimbInteger the value
+	 * */
+	private PILimbInteger onResident( PILimbInteger value ) {
+		if ( value.signum() != 0 ) {
+			long bytes = residentBytes.addAndGet( value.getLength() * LIMB_SIZE );
+			peakMemory.accumulateAndGet( bytes, Math::max );
+		}
+		return value;
+	}
+
+	/**
+	 * Counts the blocks of a streamed multiplication, which are in memory besides the resident values
+	 *
+	 * @param bytes the number of bytes of the blocks
+	 * */
+	private void onBlock( long bytes ) {
+		peakMemory.accumulateAndGet( residentBytes.get() + bytes, Math::max );
+	}
+
+	/**
+	 * Adds limbs into a spilled value at an offset, propagating the carry
+	 *
+	 * @param target the spilled value, large enough to hold the sum
+	 * @param offset the index of the limb at which the first limb is added
+	 * @param limbs the limbs to add
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read or written
+	 * */
+	private void addInto( PIMappedLimbs target, long offset, int[] limbs ) throws IOException {
+		long carry = 0;
+		long i = 0;
+
+		for ( ; i < limbs.length || carry != 0; i++ ) {
+			long limb = ( i < limbs.length ) ? ( limbs[ ( int ) i ] & PILimbInteger.LIMB_MASK ) : 0;
+			long limbSum = ( target.get( offset + i ) & PILimbInteger.LIMB_MASK ) + limb + carry;
+			target.set( offset + i, ( int ) limbSum );
+			carry = limbSum >>> 32;
+		}
+	}
+
+	/**
+	 * Copies a value with a sign, so that the copy is released independently
+	 *
+	 * @param value the value
+	 * @param signum the sign of the copy, the sign of the value or the opposite one
+	 * @return PILimbInteger the copy
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be read or written
+	 * */
+	private PILimbInteger copy( PILimbInteger value, int signum ) throws IOException {
+		if ( value.isResident() ) {
+			BigInteger magnitude = value.getMagnitude( 0, value.getLength() );
+			return this.onResident( new PILimbInteger( ( signum < 0 ) ? magnitude.negate() : magnitude ) );
+		}
+		PIMappedLimbs limbs = this.newLimbs( value.getLength() );
+		for ( long i = 0; i < value.getLength(); i++ ) {
+			limbs.set( i, value.getLimb( i ) );
+		}
+		return new PILimbInteger( signum, limbs, value.getLength() );
+	}
+
+	/**
+	 * Returns a spilled result without its leading zero limbs, loaded into the heap if it is small enough
+	 *
+	 * @param signum the sign of the result
+	 * @param limbs the limbs of the result
+	 * @return PILimbInteger the result
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be read
+	 * */
+	private PILimbInteger normalize( int signum, PIMappedLimbs limbs ) throws IOException {
+		long length = limbs.getCapacity();
+
+		while ( length > 0 && limbs.get( length - 1 ) == 0 ) {
+			length--;
+		}
+		PILimbInteger result = new PILimbInteger( ( length == 0 ) ? 0 : signum, limbs, length );
+
+		if ( length <= residentLimit ) {
+			PILimbInteger resident = new PILimbInteger( result.toBigInteger() );
+			this.release( result );
+			return this.onResident( resident );
+		}
+		return result;
+	}
+
+	/**
+	 * Creates the file of a spilled value
+	 *
+	 * @param length the number of limbs
+	 * @return PIMappedLimbs the limbs
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the file cannot be created
+	 * */
+	private PIMappedLimbs newLimbs( long length ) throws IOException {
+		noOfSpill.incrementAndGet();
+		long bytes = spilledBytes.addAndGet( length * LIMB_SIZE );
+		peakSpilledBytes.accumulateAndGet( bytes, Math::max );
+
+		return new PIMappedLimbs( directory, length );
+	}
+
+	/**
+	 * Counts the file of a spilled value as released
+	 *
+	 * @param length the number of limbs of the file
+	 * */
+	private void onClosed( long length ) {
+		spilledBytes.addAndGet( -length * LIMB_SIZE );
+	}
+
+	/**
+	 * Compares the magnitudes of two values
+	 *
+	 * @param left the left value
+	 * @param right the right value
+	 * @return a negative number, 0 or a positive number if the left magnitude is lower, equal or greater
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the files cannot be read
+	 * */
+	private static int compareMagnitude( PILimbInteger left, PILimbInteger right ) throws IOException {
+		if ( left.getLength() != right.getLength() ) {
+			return Long.compare( left.getLength(), right.getLength() );
+		}
+		for ( long i = left.getLength() - 1; i >= 0; i-- ) {
+			int comparison = Integer.compareUnsigned( left.getLimb( i ), right.getLimb( i ) );
+			if ( comparison != 0 ) {
+				return comparison;
+			}
+		}
+		return 0;
+	}
+}
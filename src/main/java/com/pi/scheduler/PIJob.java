@@ -0,0 +1,254 @@
+package com.pi.scheduler;
+
+import java.math.RoundingMode;
+import java.util.concurrent.CountDownLatch;
+
+import com.pi.calculator.PIChunkSum;
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIIntervalFormula;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * A PIJob represents one calculation submitted to {@link PIJobScheduler}.
+ * 
+ * <p>The range [0, n] of the job is split into chunks which are handed out one by one to the workers
+ * of the scheduler. The {@link #priority} and the {@link #weight} decide how the chunks of this job are
+ * interleaved with the chunks of other jobs. A job may be cancelled on its own by {@link #cancel()};
+ * then the PI computed from the chunks which are already handed out is returned, the same as
+ * {@link com.pi.calculator.PICalculator#cancelCalculation()}
+ * 
+ * <p>All mutable state except {@link #isCancel} is guarded by the lock of the owning scheduler
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIJob {
+
+	/**
+	 * Stores the formula used to calculate the PI
+	 * */
+	private final PIFormulaType formulaType;
+
+	/**
+	 * Stores the terminal point of the calculation
+	 * */
+	private final long n;
+
+	/**
+	 * Stores the priority. Chunks of a job with higher priority are always handed out first
+	 * */
+	private final int priority;
+
+	/**
+	 * Stores the weight. Jobs with the same priority share the workers in proportion to their weights
+	 * */
+	private final double weight;
+
+	/**
+	 * Stores the time in nanoseconds at which the job is submitted
+	 * */
+	private final long submitTime;
+
+	/**
+	 * Stores the time in nanoseconds at which the first chunk is handed out, -1 if not yet
+	 * */
+	private volatile long firstDispatchTime = -1;
+
+	/**
+	 * Stores the virtual finish time of the last chunk handed out, used for weighted fair queuing
+	 * */
+	double virtualTime;
+
+	/**
+	 * Stores the start point of the next chunk
+	 * */
+	long nextStartPoint = 0;
+
+	/**
+	 * Stores the end point of the last chunk handed out, -1 if none
+	 * */
+	long lastEndPoint = -1;
+
+	/**
+	 * Stores the number of chunks handed out but not yet completed
+	 * */
+	int noOfRunningChunk = 0;
+
+	/**
+	 * Stores the sum of the completed chunks, in the order of the chunks
+	 * */
+	final PIChunkSum chunkSum = new PIChunkSum();
+
+	/**
+	 * Stores the sum of the lower bounds of the completed {@link PIIntervalFormula} chunks
+	 * */
+	final PIChunkSum lowerSum = new PIChunkSum( RoundingMode.FLOOR );
+
+	/**
+	 * Stores the sum of the upper bounds of the completed {@link PIIntervalFormula} chunks
+	 * */
+	final PIChunkSum upperSum = new PIChunkSum( RoundingMode.CEILING );
+
+	/**
+	 * Stores the error occurred while calculating a chunk, null if none
+	 * */
+	Exception error = null;
+
+	/**
+	 * An boolean value indicates if the job is canceled
+	 * */
+	private volatile boolean isCancel = false;
+
+	/**
+	 * Stores the computed PIData, null until the job is done
+	 * */
+	private volatile PIData piData = null;
+
+	/**
+	 * A latch released when the job is done
+	 * */
+	private final CountDownLatch doneLatch = new CountDownLatch( 1 );
+
+	/**
+	 * Constructor
+	 * 
+	 * @param formulaType the formula used to calculate the PI
+	 * @param n the terminal point of the calculation
+	 * @param priority the priority of the job
+	 * @param weight the weight of the job
+	 * */
+	PIJob( PIFormulaType formulaType, long n, int priority, double weight ) {
+		this.formulaType = formulaType;
+		this.n = n;
+		this.priority = priority;
+		this.weight = weight;
+		this.submitTime = System.nanoTime();
+	}
+
+	/**
+	 * Returns true if no more chunk shall be handed out for this job
+	 * 
+	 * @return true if the job is exhausted; false otherwise
+	 * */
+	boolean isExhausted() {
+		return isCancel || error != null || lastEndPoint >= n;
+	}
+
+	/**
+	 * Records the time at which a chunk is handed out
+	 * */
+	void markDispatched() {
+		if ( firstDispatchTime < 0 ) {
+			firstDispatchTime = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Completes the job, releasing all threads waiting in {@link #get()}. The PIData of a job whose chunks are
+	 * {@link PIIntervalFormula}s carries the bounds of the sum, the same as {@link com.pi.calculator.PICalculator}
+	 * */
+	void complete() {
+		if ( lowerSum.getNoOfChunk() > 0 && lowerSum.getNoOfChunk() == chunkSum.getNoOfChunk() ) {
+			piData = new PIFormulaFactory().newPIData( formulaType, chunkSum.getSum(), lowerSum.getSum(),
+					upperSum.getSum(), lastEndPoint );
+		} else {
+			piData = new PIFormulaFactory().newPIData( formulaType, chunkSum.getSum(), lastEndPoint );
+		}
+		doneLatch.countDown();
+	}
+
+	/**
+	 * Waits until the job is done and returns its result
+	 * 
+	 * @return PIData The PI calculation result
+	 * @throws Exception the <tt>exception</tt> may be thrown if any chunk failed or the waiting thread is interrupted
+	 * */
+	public PIData get() throws Exception {
+		doneLatch.await();
+		if ( error != null ) {
+			throw error;
+		}
+		return piData;
+	}
+
+	/**
+	 * Cancels the remaining chunks of this job. Other jobs are not affected
+	 * */
+	public void cancel() {
+		this.isCancel = true;
+	}
+
+	/**
+	 * Returns true if the job is completed or cancelled
+	 * 
+	 * @return true if the job is done; false otherwise
+	 * */
+	public boolean isDone() {
+		return doneLatch.getCount() == 0;
+	}
+
+	/**
+	 * Returns true if the job is cancelled
+	 * 
+	 * @return true if the job is cancelled; false otherwise
+	 * */
+	public boolean isCancelled() {
+		return isCancel;
+	}
+
+	/**
+	 * Gets the time the job waited in the queue before its first chunk is handed out.
+	 * If no chunk is handed out yet, the time waited so far is returned
+	 * 
+	 * @return the queue wait time in nanoseconds
+	 * */
+	public long getQueueWaitTime() {
+		long dispatchTime = firstDispatchTime;
+		return ( dispatchTime < 0 ? System.nanoTime() : dispatchTime ) - submitTime;
+	}
+
+	/**
+	 * Gets the PI data of the job
+	 * 
+	 * @return the PIData were computed. Null will be returned if the job is not done yet
+	 * */
+	public PIData getPIData() {
+		return piData;
+	}
+
+	/**
+	 * Gets the formula type of the job
+	 * 
+	 * @return the formula type
+	 * */
+	public PIFormulaType getFormulaType() {
+		return formulaType;
+	}
+
+	/**
+	 * Gets the terminal point of the job
+	 * 
+	 * @return the n value
+	 * */
+	public long getN() {
+		return n;
+	}
+
+	/**
+	 * Gets the priority of the job
+	 * 
+	 * @return the priority
+	 * */
+	public int getPriority() {
+		return priority;
+	}
+
+	/**
+	 * Gets the weight of the job
+	 * 
+	 * @return the weight
+	 * */
+	public double getWeight() {
+		return weight;
+	}
+}
@@ -0,0 +1,359 @@
+package com.pi.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.pi.calculator.PICalculatorInterface;
+import com.pi.formula.PIFormula;
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaType;
+import com.pi.formula.PIIntervalFormula;
+import com.pi.model.PIData;
+
+/**
+ * This class schedules the chunks of many concurrent calculations over one shared set of worker threads.
+ * 
+ * <p>Each calculation is a {@link PIJob} with a priority and a weight. Whenever a worker is free, it takes the next
+ * chunk of the job which has the highest priority; among the jobs with the same priority, the job with the smallest
+ * virtual time is chosen (weighted fair queuing). The virtual time of a job advances by <tt>chunk size / weight</tt>
+ * each time one of its chunks is handed out, so a short job submitted after a huge one gets its chunks interleaved
+ * right away instead of queueing behind the whole huge job, while the huge job still makes progress
+ * 
+ * <p>A new job starts at the smallest virtual time of the active jobs with the same priority, so a job which was idle
+ * does not gain credit it can use to starve the others
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIJobScheduler {
+
+	/**
+	 * Stores the default range of a chunk
+	 * */
+	private static final int DEFAULT_RANGE = 100000;
+
+	/**
+	 * Stores the default priority of a job
+	 * */
+	public static final int DEFAULT_PRIORITY = 0;
+
+	/**
+	 * Stores the default weight of a job
+	 * */
+	public static final double DEFAULT_WEIGHT = 1.0;
+
+	/**
+	 * Stores the jobs which still have chunks to hand out or chunks running
+	 * */
+	private final List< PIJob > activeJobs = new ArrayList<>();
+
+	/**
+	 * Stores the worker threads
+	 * */
+	private final Thread[] workers;
+
+	/**
+	 * Stores the range of a chunk
+	 * */
+	private final int range;
+
+	/**
+	 * A factory used to create the formula of a chunk
+	 * */
+	private final PIFormulaFactory formulaFactory = new PIFormulaFactory();
+
+	/**
+	 * An boolean value indicates if the scheduler is shut down. Guarded by the lock of {@link #activeJobs}
+	 * */
+	private boolean isShutdown = false;
+
+	/**
+	 * Constructor, creates as many workers as the available processors
+	 * */
+	public PIJobScheduler() {
+		this( Runtime.getRuntime().availableProcessors(), DEFAULT_RANGE );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param noOfWorker the number of worker threads
+	 * @param range the range of a chunk
+	 * */
+	public PIJobScheduler( int noOfWorker, int range ) {
+		if ( noOfWorker <= 0 || range <= 0 ) {
+			throw new IllegalArgumentException( "Invalid value received, noOfWorker and range should be larger than 0" );
+		}
+		this.range = range;
+		this.workers = new Thread[ noOfWorker ];
+
+		for ( int i = 0; i < noOfWorker; i++ ) {
+			workers[ i ] = new Thread( new WorkerRunnable(), "pi-scheduler-" + ( i + 1 ) );
+			workers[ i ].setDaemon( true );
+			workers[ i ].start();
+		}
+	}
+
+	/**
+	 * Submits a new job with the default priority and weight
+	 * 
+	 * @param formulaType the formula used to calculate the PI
+	 * @param n the terminal point of the calculation
+	 * @return PIJob the submitted job
+	 * @throws Exception the <tt>Exception</tt> may be thrown if n is negative or the scheduler is shut down
+	 * */
+	public PIJob submit( PIFormulaType formulaType, long n ) throws Exception {
+		return this.submit( formulaType, n, DEFAULT_PRIORITY, DEFAULT_WEIGHT );
+	}
+
+	/**
+	 * Submits a new job
+	 * 
+	 * @param formulaType the formula used to calculate the PI
+	 * @param n the terminal point of the calculation
+	 * @param priority the priority of the job, chunks of higher priority jobs are always handed out first
+	 * @param weight the weight of the job among the jobs with the same priority, should be larger than 0
+	 * @return PIJob the submitted job
+	 * @throws Exception the <tt>Exception</tt> may be thrown if n is negative or the scheduler is shut down
+	 * */
+	public PIJob submit( PIFormulaType formulaType, long n, int priority, double weight ) throws Exception {
+		if ( n < 0 ) {
+			throw new Exception( "Invalid value received, n value should be equal or larger than 0" );
+		}
+		if ( !( weight > 0 ) ) {
+			throw new Exception( "Invalid value received, weight should be larger than 0" );
+		}
+
+		PIJob job = new PIJob( formulaType, n, priority, weight );
+
+		synchronized ( activeJobs ) {
+			if ( isShutdown ) {
+				throw new Exception( "The scheduler is shut down" );
+			}
+			job.virtualTime = this.getMinVirtualTime( priority );
+			activeJobs.add( job );
+			activeJobs.notifyAll();
+		}
+		return job;
+	}
+
+	/**
+	 * Returns a {@link PICalculatorInterface} which runs each {@link PICalculatorInterface#calculatePI(long)}
+	 * call as a job of this scheduler
+	 * 
+	 * @param formulaType the formula used to calculate the PI
+	 * @param priority the priority of the jobs
+	 * @param weight the weight of the jobs
+	 * @return PICalculatorInterface the calculator
+	 * */
+	public PICalculatorInterface newCalculator( PIFormulaType formulaType, int priority, double weight ) {
+		return new PIScheduledCalculator( formulaType, priority, weight );
+	}
+
+	/**
+	 * Stops the workers once the chunks they are calculating are done. The jobs which are still active
+	 * are cancelled
+	 * */
+	public void shutdown() {
+		synchronized ( activeJobs ) {
+			isShutdown = true;
+			for ( PIJob job : activeJobs ) {
+				job.cancel();
+			}
+			activeJobs.notifyAll();
+		}
+	}
+
+	/**
+	 * Gets the number of jobs which are not done yet
+	 * 
+	 * @return the number of active jobs
+	 * */
+	public int getActiveJobCount() {
+		synchronized ( activeJobs ) {
+			return activeJobs.size();
+		}
+	}
+
+	/**
+	 * Returns the smallest virtual time of the active jobs with the given priority, 0 if there is none.
+	 * The caller must hold the lock of {@link #activeJobs}
+	 * 
+	 * @param priority the priority of the jobs
+	 * @return the smallest virtual time
+	 * */
+	private double getMinVirtualTime( int priority ) {
+		double minVirtualTime = Double.MAX_VALUE;
+
+		for ( PIJob job : activeJobs ) {
+			if ( job.getPriority() == priority && !job.isExhausted() && job.virtualTime < minVirtualTime ) {
+				minVirtualTime = job.virtualTime;
+			}
+		}
+		return ( minVirtualTime == Double.MAX_VALUE ) ? 0 : minVirtualTime;
+	}
+
+	/**
+	 * Returns the job whose next chunk shall be handed out, null if no job has chunks left.
+	 * The caller must hold the lock of {@link #activeJobs}
+	 * 
+	 * @return PIJob the next job
+	 * */
+	private PIJob selectJob() {
+		PIJob selectedJob = null;
+
+		for ( PIJob job : activeJobs ) {
+			if ( job.isExhausted() ) {
+				continue;
+			}
+			if ( selectedJob == null
+					|| job.getPriority() > selectedJob.getPriority()
+					|| ( job.getPriority() == selectedJob.getPriority() && job.virtualTime < selectedJob.virtualTime ) ) {
+				selectedJob = job;
+			}
+		}
+		return selectedJob;
+	}
+
+	/**
+	 * Completes the job if it is exhausted and has no running chunks.
+	 * The caller must hold the lock of {@link #activeJobs}
+	 * 
+	 * @param job the job to check
+	 * */
+	private void completeIfDone( PIJob job ) {
+		if ( job.isExhausted() && job.noOfRunningChunk == 0 ) {
+			activeJobs.remove( job );
+			job.complete();
+		}
+	}
+
+	/**
+	 * This inner class is the worker loop. It takes the next chunk, calculates it and adds its result to the job
+	 * */
+	private class WorkerRunnable implements Runnable {
+
+		/**
+		 * Invoked when the thread is starting
+		 * */
+		@Override
+		public void run() {
+			PIJob job;
+			PIFormula piFormula;
+			long startPoint, endPoint;
+
+			for ( ; ; ) {
+				synchronized ( activeJobs ) {
+					// releases the cancelled jobs which have no running chunks
+					for ( PIJob activeJob : new ArrayList<>( activeJobs ) ) {
+						completeIfDone( activeJob );
+					}
+
+					job = selectJob();
+					while ( job == null ) {
+						if ( isShutdown ) {
+							return;
+						}
+						try {
+							activeJobs.wait();
+						} catch ( InterruptedException e ) {
+							return;
+						}
+						for ( PIJob activeJob : new ArrayList<>( activeJobs ) ) {
+							completeIfDone( activeJob );
+						}
+						job = selectJob();
+					}
+
+					startPoint = job.nextStartPoint;
+					endPoint = Math.min( startPoint + range, job.getN() );
+					job.nextStartPoint = endPoint + 1;
+					job.lastEndPoint = endPoint;
+					job.virtualTime += ( endPoint - startPoint + 1 ) / job.getWeight();
+					job.noOfRunningChunk++;
+					job.markDispatched();
+
+					piFormula = formulaFactory.getPIFormula( job.getFormulaType(), startPoint, endPoint );
+				}
+
+				long chunkIndex = startPoint / ( range + 1 );
+				double result = 0.0;
+				Exception error = null;
+				try {
+					result = piFormula.call();
+				} catch ( Exception e ) {
+					error = e;
+				}
+
+				synchronized ( activeJobs ) {
+					job.noOfRunningChunk--;
+					if ( error != null ) {
+						job.error = error;
+					} else {
+						job.chunkSum.add( chunkIndex, result );
+						if ( piFormula instanceof PIIntervalFormula ) {
+							job.lowerSum.add( chunkIndex, ( ( PIIntervalFormula ) piFormula ).getLowerBound() );
+							job.upperSum.add( chunkIndex, ( ( PIIntervalFormula ) piFormula ).getUpperBound() );
+						}
+					}
+					completeIfDone( job );
+					activeJobs.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * This inner class adapts the scheduler to {@link PICalculatorInterface}. Each calculation is a job
+	 * */
+	private class PIScheduledCalculator implements PICalculatorInterface {
+
+		/**
+		 * Stores the formula used to calculate the PI
+		 * */
+		private final PIFormulaType formulaType;
+
+		/**
+		 * Stores the priority of the jobs
+		 * */
+		private final int priority;
+
+		/**
+		 * Stores the weight of the jobs
+		 * */
+		private final double weight;
+
+		/**
+		 * Stores the job of the on-going or the last calculation
+		 * */
+		private volatile PIJob job = null;
+
+		/**
+		 * Constructor
+		 * */
+		private PIScheduledCalculator( PIFormulaType formulaType, int priority, double weight ) {
+			this.formulaType = formulaType;
+			this.priority = priority;
+			this.weight = weight;
+		}
+
+		@Override
+		public PIData calculatePI( long n ) throws Exception {
+			job = submit( formulaType, n, priority, weight );
+			return job.get();
+		}
+
+		@Override
+		public void cancelCalculation() {
+			PIJob currentJob = job;
+			if ( currentJob != null ) {
+				currentJob.cancel();
+			}
+		}
+
+		@Override
+		public PIData getPIData() {
+			PIJob currentJob = job;
+			return ( currentJob == null ) ? null : currentJob.getPIData();
+		}
+	}
+}
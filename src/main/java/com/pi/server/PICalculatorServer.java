@@ -0,0 +1,820 @@
+package com.pi.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.pi.calculator.PICalculator;
+import com.pi.calculator.PIExecutors;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class exposes the PI calculation as an HTTP service, using the HTTP server of the JDK.
+ * 
+ * <p>Following are the endpoints, every parameter is passed in the query string
+ * <p>1. <tt>/compute?type=leibniz&amp;n=1000[&amp;async=true]</tt> starts a calculation. The response is sent once the
+ * result is ready unless <tt>async</tt> is true, in which case the id of the request is returned right away
+ * <p>2. <tt>/status?id=1</tt> returns the state of a request and its result once it is done
+ * <p>3. <tt>/progress?id=1</tt> returns how far the calculation of a request is
+ * <p>4. <tt>/cancel?id=1</tt> cancels a request
+ * 
+ * <p>Each endpoint answers in JSON, or in plain text if <tt>format=text</tt> is passed. An unexpected error is
+ * answered with <tt>500 Internal Server Error</tt>.
+ * 
+ * <p>A compute request which is identical (same formula and n) to a calculation which is still on-going is coalesced
+ * into that calculation instead of starting a new one. Every compute request gets its own id, so that cancelling
+ * one request does not truncate the result of the others: the shared calculation is cancelled only when all its
+ * requests are cancelled, and a cancel after the calculation is done has no effect. The number of on-going
+ * calculations is bounded; when the bound is reached, new calculations are rejected with
+ * <tt>429 Too Many Requests</tt>
+ * 
+ * <p>The HTTP requests are served by their own thread pool, which is sized separately from the shared compute pool
+ * on which the {@link com.pi.formula.PIFormula} tasks run. A synchronous compute request does not hold an HTTP thread
+ * while it waits: its response is sent by an HTTP thread once the calculation is done, so long calculations do not
+ * starve the status, progress and cancel endpoints
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorServer {
+
+	/**
+	 * Stores the default number of calculations which may be on-going at the same time
+	 * */
+	public static final int DEFAULT_MAX_CALCULATIONS = 64;
+
+	/**
+	 * Stores the default number of threads serving the HTTP requests
+	 * */
+	public static final int DEFAULT_HTTP_THREADS = 16;
+
+	/**
+	 * Stores the maximum number of completed requests kept for the status endpoint
+	 * */
+	private static final int MAX_COMPLETED_REQUESTS = 1000;
+
+	/**
+	 * The possible states of a calculation
+	 * */
+	public enum State {
+		RUNNING, DONE, CANCELLED, FAILED
+	}
+
+	/**
+	 * Stores the underlying HTTP server
+	 * */
+	private final HttpServer httpServer;
+
+	/**
+	 * Stores the thread pool serving the HTTP requests
+	 * */
+	private final ExecutorService httpExecutor;
+
+	/**
+	 * Stores the pool on which the orchestration of each calculation runs
+	 * */
+	private final ExecutorService orchestrationPool;
+
+	/**
+	 * Stores the pool on which the formula tasks of all calculations run
+	 * */
+	private final ExecutorService computePool;
+
+	/**
+	 * Bounds the number of on-going calculations
+	 * */
+	private final Semaphore admission;
+
+	/**
+	 * Generates the ids of requests
+	 * */
+	private final AtomicLong idGenerator = new AtomicLong();
+
+	/**
+	 * Generates the ids of calculations, which may be shared by several requests
+	 * */
+	private final AtomicLong calculationIdGenerator = new AtomicLong();
+
+	/**
+	 * Stores the on-going calculations by their formula and n, used to coalesce identical requests
+	 * */
+	private final ConcurrentHashMap< String, ServerCalculation > inFlightCalculations = new ConcurrentHashMap<>();
+
+	/**
+	 * Stores the requests by their ids. The oldest completed requests are evicted
+	 * */
+	private final Map< Long, ServerRequest > requests = new LinkedHashMap<>();
+
+	/**
+	 * Constructor with the default bounds
+	 * 
+	 * @param port the port on which the server listens, 0 to pick a free port
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the port cannot be bound
+	 * */
+	public PICalculatorServer( int port ) throws IOException {
+		this( port, DEFAULT_HTTP_THREADS, DEFAULT_MAX_CALCULATIONS );
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param port the port on which the server listens, 0 to pick a free port
+	 * @param httpThreads the number of threads serving the HTTP requests
+	 * @param maxCalculations the number of calculations which may be on-going at the same time
+	 * @throws IOException the <tt>IOException</tt> may be thrown if the port cannot be bound
+	 * */
+	public PICalculatorServer( int port, int httpThreads, int maxCalculations ) throws IOException {
+		this.httpServer = HttpServer.create( new InetSocketAddress( port ), 0 );
+		this.httpExecutor = Executors.newFixedThreadPool( httpThreads );
+		this.orchestrationPool = PIExecutors.orchestrationPool();
+		this.computePool = PIExecutors.sharedComputePool();
+		this.admission = new Semaphore( maxCalculations );
+
+		httpServer.setExecutor( httpExecutor );
+		httpServer.createContext( "/compute", new ComputeHandler() );
+		httpServer.createContext( "/status", new StatusHandler() );
+		httpServer.createContext( "/progress", new ProgressHandler() );
+		httpServer.createContext( "/cancel", new CancelHandler() );
+	}
+
+	/**
+	 * Starts serving the HTTP requests
+	 * */
+	public void start() {
+		httpServer.start();
+	}
+
+	/**
+	 * Stops the server, the on-going calculations are cancelled
+	 * */
+	public void stop() {
+		for ( ServerCalculation calculation : inFlightCalculations.values() ) {
+			calculation.cancel();
+		}
+		httpServer.stop( 0 );
+		httpExecutor.shutdown();
+	}
+
+	/**
+	 * Gets the port on which the server listens
+	 * 
+	 * @return the port
+	 * */
+	public int getPort() {
+		return httpServer.getAddress().getPort();
+	}
+
+	/**
+	 * Joins the on-going calculation which is identical to the request, or starts a new one, and registers a new
+	 * request of it. Null will be returned if a new calculation is needed but the admission bound is reached
+	 * 
+	 * @param formulaType the formula used to calculate the PI
+	 * @param n the terminal point used in a PI formula
+	 * @return ServerRequest the request
+	 * */
+	private ServerRequest startOrCoalesce( PIFormulaType formulaType, long n ) {
+		String key = formulaType + ":" + n;
+		ServerCalculation calculation;
+
+		for ( ; ; ) {
+			calculation = inFlightCalculations.get( key );
+			if ( calculation != null ) {
+				if ( calculation.join() ) {
+					break;
+				}
+				// the calculation is cancelled by its last request in the meantime
+				inFlightCalculations.remove( key, calculation );
+				continue;
+			}
+			if ( !admission.tryAcquire() ) {
+				return null;
+			}
+
+			calculation = new ServerCalculation( calculationIdGenerator.incrementAndGet(), key, formulaType, n );
+			calculation.join();
+			if ( inFlightCalculations.putIfAbsent( key, calculation ) != null ) {
+				// another request started the same calculation in the meantime
+				admission.release();
+				continue;
+			}
+			calculation.start();
+			break;
+		}
+
+		ServerRequest request = new ServerRequest( idGenerator.incrementAndGet(), calculation );
+		synchronized ( requests ) {
+			requests.put( request.id, request );
+			this.evictCompletedRequests();
+		}
+		return request;
+	}
+
+	/**
+	 * Evicts the oldest completed requests when there are too many.
+	 * The caller must hold the lock of {@link #requests}
+	 * */
+	private void evictCompletedRequests() {
+		int noOfExcess = requests.size() - MAX_COMPLETED_REQUESTS;
+		Iterator< ServerRequest > iterator = requests.values().iterator();
+
+		while ( noOfExcess > 0 && iterator.hasNext() ) {
+			if ( iterator.next().getState() != State.RUNNING ) {
+				iterator.remove();
+				noOfExcess--;
+			}
+		}
+	}
+
+	/**
+	 * Returns the request whose id is passed in the query, null if it is unknown
+	 * 
+	 * @param params the query parameters
+	 * @return ServerRequest the request
+	 * */
+	private ServerRequest findRequest( Map< String, String > params ) {
+		try {
+			Long id = Long.valueOf( params.get( "id" ) );
+			synchronized ( requests ) {
+				return requests.get( id );
+			}
+		} catch ( NumberFormatException e ) {
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the query string of the request
+	 * 
+	 * @param exchange the HTTP exchange
+	 * @return the query parameters
+	 * */
+	private static Map< String, String > parseQuery( HttpExchange exchange ) throws UnsupportedEncodingException {
+		Map< String, String > params = new HashMap<>();
+		String query = exchange.getRequestURI().getRawQuery();
+
+		if ( query != null ) {
+			for ( String pair : query.split( "&" ) ) {
+				int index = pair.indexOf( '=' );
+				if ( index > 0 ) {
+					params.put( URLDecoder.decode( pair.substring( 0, index ), "UTF-8" ),
+							URLDecoder.decode( pair.substring( index + 1 ), "UTF-8" ) );
+				} else if ( !pair.isEmpty() ) {
+					params.put( URLDecoder.decode( pair, "UTF-8" ), "" );
+				}
+			}
+		}
+		return params;
+	}
+
+	/**
+	 * Sends the response in JSON or plain text depending on the <tt>format</tt> parameter
+	 * 
+	 * @param exchange the HTTP exchange
+	 * @param params the query parameters
+	 * @param statusCode the HTTP status code
+	 * @param fields the fields of the response, in order
+	 * */
+	private static void sendResponse( HttpExchange exchange, Map< String, String > params, int statusCode,
+			Map< String, Object > fields ) throws IOException {
+		StringBuilder body = new StringBuilder();
+		boolean isText = "text".equalsIgnoreCase( params.get( "format" ) );
+
+		if ( isText ) {
+			for ( Map.Entry< String, Object > field : fields.entrySet() ) {
+				body.append( field.getKey() ).append( '=' ).append( field.getValue() ).append( '\n' );
+			}
+			exchange.getResponseHeaders().set( "Content-Type", "text/plain; charset=utf-8" );
+		} else {
+			body.append( '{' );
+			for ( Map.Entry< String, Object > field : fields.entrySet() ) {
+				if ( body.length() > 1 ) {
+					body.append( ',' );
+				}
+				body.append( '"' ).append( field.getKey() ).append( "\":" );
+				Object value = field.getValue();
+				if ( value instanceof Number || value instanceof Boolean ) {
+					body.append( value );
+				} else {
+					body.append( '"' ).append( String.valueOf( value ).replace( "\\", "\\\\" ).replace( "\"", "\\\"" ) ).append( '"' );
+				}
+			}
+			body.append( "}\n" );
+			exchange.getResponseHeaders().set( "Content-Type", "application/json; charset=utf-8" );
+		}
+
+		byte[] bytes = body.toString().getBytes( "UTF-8" );
+		exchange.sendResponseHeaders( statusCode, bytes.length );
+		OutputStream out = exchange.getResponseBody();
+		out.write( bytes );
+		out.close();
+	}
+
+	/**
+	 * Sends an error response
+	 * 
+	 * @param exchange the HTTP exchange
+	 * @param params the query parameters
+	 * @param statusCode the HTTP status code
+	 * @param message the error message
+	 * */
+	private static void sendError( HttpExchange exchange, Map< String, String > params, int statusCode,
+			String message ) throws IOException {
+		Map< String, Object > fields = new LinkedHashMap<>();
+		fields.put( "error", message );
+		sendResponse( exchange, params, statusCode, fields );
+	}
+
+	/**
+	 * This class is a calculation started by the server. It is shared by the identical requests which are coalesced
+	 * into it, and counts those which are not cancelled
+	 * */
+	private class ServerCalculation {
+
+		/**
+		 * Stores the id of the calculation
+		 * */
+		private final long id;
+
+		/**
+		 * Stores the key used to coalesce identical requests
+		 * */
+		private final String key;
+
+		/**
+		 * Stores the formula used to calculate the PI
+		 * */
+		private final PIFormulaType formulaType;
+
+		/**
+		 * Stores the terminal point of the calculation
+		 * */
+		private final long n;
+
+		/**
+		 * Stores the calculator which runs the calculation
+		 * */
+		private final PICalculator piCal;
+
+		/**
+		 * Stores the orchestration task. It is run on the orchestration pool by {@link #start()}
+		 * */
+		private final CalculationTask future;
+
+		/**
+		 * Stores the number of requests of the calculation which are not cancelled. It is guarded by the lock of
+		 * this calculation
+		 * */
+		private int noOfRequest = 0;
+
+		/**
+		 * An boolean value indicates if the calculation is cancelled because all its requests are cancelled
+		 * */
+		private volatile boolean isCancel = false;
+
+		/**
+		 * Constructor
+		 * */
+		private ServerCalculation( long id, String key, PIFormulaType formulaType, long n ) {
+			this.id = id;
+			this.key = key;
+			this.formulaType = formulaType;
+			this.n = n;
+			this.piCal = new PICalculator( formulaType, computePool, Runtime.getRuntime().availableProcessors() );
+
+			// the admission permit is released once the calculation is done
+			this.future = new CalculationTask( new Callable< PIData >() {
+				@Override
+				public PIData call() throws Exception {
+					try {
+						return piCal.calculatePI( ServerCalculation.this.n );
+					} finally {
+						inFlightCalculations.remove( ServerCalculation.this.key, ServerCalculation.this );
+						admission.release();
+					}
+				}
+			});
+		}
+
+		/**
+		 * Starts the calculation on the orchestration pool
+		 * */
+		private void start() {
+			orchestrationPool.execute( future );
+		}
+
+		/**
+		 * Adds a request to the calculation
+		 * 
+		 * @return true if the request is added; false if the calculation is already cancelled
+		 * */
+		private synchronized boolean join() {
+			if ( isCancel ) {
+				return false;
+			}
+			noOfRequest++;
+			return true;
+		}
+
+		/**
+		 * Removes a cancelled request from the calculation, and cancels the calculation if it was the last one
+		 * and the calculation is not done yet
+		 * */
+		private synchronized void leave() {
+			noOfRequest--;
+			if ( noOfRequest == 0 ) {
+				this.cancel();
+			}
+		}
+
+		/**
+		 * Cancels the calculation whatever its requests, unless it is done
+		 * */
+		private synchronized void cancel() {
+			if ( !future.isDone() ) {
+				isCancel = true;
+				inFlightCalculations.remove( key, this );
+				piCal.cancelCalculation();
+			}
+		}
+
+		/**
+		 * Gets the state of the calculation. A calculation which reached n before its cancellation took effect is
+		 * DONE
+		 * 
+		 * @return the state
+		 * */
+		private State getState() {
+			if ( !future.isDone() ) {
+				return State.RUNNING;
+			}
+			try {
+				future.get();
+			} catch ( Exception e ) {
+				return State.FAILED;
+			}
+			return ( isCancel && piCal.getPIData().getN() < n ) ? State.CANCELLED : State.DONE;
+		}
+	}
+
+	/**
+	 * This class is a compute request, the handle through which a client follows or cancels its calculation
+	 * */
+	private class ServerRequest {
+
+		/**
+		 * Stores the id of the request
+		 * */
+		private final long id;
+
+		/**
+		 * Stores the calculation serving the request, possibly shared with other requests
+		 * */
+		private final ServerCalculation calculation;
+
+		/**
+		 * An boolean value indicates if the request is cancelled. It is changed under the lock of the calculation
+		 * */
+		private volatile boolean isCancel = false;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param id the id of the request
+		 * @param calculation the calculation serving the request, which the request has joined
+		 * */
+		private ServerRequest( long id, ServerCalculation calculation ) {
+			this.id = id;
+			this.calculation = calculation;
+		}
+
+		/**
+		 * Cancels the request. The calculation is cancelled only if no other request of it remains
+		 * 
+		 * @return true if the request is cancelled; false if it is already cancelled or its calculation is done
+		 * */
+		private boolean cancel() {
+			synchronized ( calculation ) {
+				if ( isCancel || calculation.future.isDone() ) {
+					return false;
+				}
+				isCancel = true;
+				calculation.leave();
+				return true;
+			}
+		}
+
+		/**
+		 * Gets the state of the request, CANCELLED if it is cancelled, otherwise the state of its calculation
+		 * 
+		 * @return the state
+		 * */
+		private State getState() {
+			return isCancel ? State.CANCELLED : calculation.getState();
+		}
+
+		/**
+		 * Returns the fields describing the request
+		 * 
+		 * @return the fields of the request, in order
+		 * */
+		private Map< String, Object > toFields() {
+			Map< String, Object > fields = new LinkedHashMap<>();
+			State state = this.getState();
+			State calculationState = calculation.getState();
+
+			fields.put( "id", id );
+			fields.put( "calculationId", calculation.id );
+			fields.put( "type", calculation.formulaType );
+			fields.put( "n", calculation.n );
+			fields.put( "state", state );
+
+			if ( calculationState == State.DONE || calculationState == State.CANCELLED ) {
+				PIData piData = calculation.piCal.getPIData();
+				fields.put( "pi", piData.getPi() );
+				fields.put( "computedN", piData.getN() );
+				if ( piData.hasBounds() ) {
+					fields.put( "lowerBound", piData.getLowerBound() );
+					fields.put( "upperBound", piData.getUpperBound() );
+				}
+			}
+			return fields;
+		}
+
+		/**
+		 * Sends the result of the request, or 500 if its calculation failed
+		 * 
+		 * @param exchange the HTTP exchange
+		 * @param params the query parameters
+		 * */
+		private void sendResult( HttpExchange exchange, Map< String, String > params ) throws IOException {
+			if ( calculation.getState() == State.FAILED ) {
+				String reason;
+				try {
+					calculation.future.get();
+					reason = "unknown";
+				} catch ( ExecutionException e ) {
+					reason = e.getCause().getMessage();
+				} catch ( Exception e ) {
+					reason = e.getMessage();
+				}
+				sendError( exchange, params, 500, "Error while calculating Pi. Reason: " + reason );
+			} else {
+				sendResponse( exchange, params, 200, this.toFields() );
+			}
+		}
+	}
+
+	/**
+	 * The orchestration task of a calculation, which runs its listeners once it is done
+	 * */
+	private static class CalculationTask extends FutureTask< PIData > {
+
+		/**
+		 * Stores the listeners which are not run yet
+		 * */
+		private final List< Runnable > listeners = new ArrayList<>();
+
+		/**
+		 * An boolean value indicates if the task is done and its listeners are run. It is guarded by the lock of
+		 * {@link #listeners}
+		 * */
+		private boolean isNotified = false;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param callable the calculation
+		 * */
+		private CalculationTask( Callable< PIData > callable ) {
+			super( callable );
+		}
+
+		/**
+		 * Runs a listener once the task is done, right away if it is already done
+		 * 
+		 * @param listener the listener, which must not block
+		 * */
+		private void whenDone( Runnable listener ) {
+			synchronized ( listeners ) {
+				if ( !isNotified ) {
+					listeners.add( listener );
+					return;
+				}
+			}
+			listener.run();
+		}
+
+		@Override
+		protected void done() {
+			List< Runnable > notifiedListeners;
+
+			synchronized ( listeners ) {
+				isNotified = true;
+				notifiedListeners = new ArrayList<>( listeners );
+				listeners.clear();
+			}
+			for ( Runnable listener : notifiedListeners ) {
+				listener.run();
+			}
+		}
+	}
+
+	/**
+	 * The base class of the handlers. It parses the query and answers <tt>500</tt> to an unexpected error instead of
+	 * dropping the exchange
+	 * */
+	private abstract static class ServerHandler implements HttpHandler {
+
+		@Override
+		public final void handle( HttpExchange exchange ) throws IOException {
+			Map< String, String > params = new HashMap<>();
+
+			try {
+				params = parseQuery( exchange );
+				this.serve( exchange, params );
+			} catch ( RuntimeException e ) {
+				sendInternalError( exchange, params, e );
+			}
+		}
+
+		/**
+		 * Serves a request
+		 * 
+		 * @param exchange the HTTP exchange
+		 * @param params the query parameters
+		 * */
+		protected abstract void serve( HttpExchange exchange, Map< String, String > params ) throws IOException;
+	}
+
+	/**
+	 * Answers <tt>500</tt> to an unexpected error. If the response is already started, the exchange is closed
+	 * 
+	 * @param exchange the HTTP exchange
+	 * @param params the query parameters
+	 * @param error the error
+	 * */
+	private static void sendInternalError( HttpExchange exchange, Map< String, String > params, Exception error ) {
+		try {
+			sendError( exchange, params, 500, "Internal error. Reason: " + error );
+		} catch ( IOException | RuntimeException e ) {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * This inner class handles the compute endpoint
+	 * */
+	private class ComputeHandler extends ServerHandler {
+
+		@Override
+		protected void serve( final HttpExchange exchange, final Map< String, String > params ) throws IOException {
+			PIFormulaType formulaType = PIFormulaType.LEIBNIZ;
+			long n;
+
+			if ( params.containsKey( "type" ) ) {
+				formulaType = PIFormulaType.getPIFormulaType( params.get( "type" ) );
+			}
+			try {
+				n = Long.parseLong( params.get( "n" ) );
+			} catch ( NumberFormatException e ) {
+				n = -1;
+			}
+			if ( formulaType == null || n < 0 ) {
+				sendError( exchange, params, 400, "type should be a valid formula and n should be equal or larger than 0" );
+				return;
+			}
+
+			final ServerRequest request = startOrCoalesce( formulaType, n );
+			if ( request == null ) {
+				exchange.getResponseHeaders().set( "Retry-After", "1" );
+				sendError( exchange, params, 429, "Too many calculations are on-going" );
+				return;
+			}
+
+			if ( Boolean.parseBoolean( params.get( "async" ) ) ) {
+				sendResponse( exchange, params, 200, request.toFields() );
+				return;
+			}
+
+			// the HTTP thread is released, the response is sent by another HTTP thread once the calculation is done
+			request.calculation.future.whenDone( new Runnable() {
+				@Override
+				public void run() {
+					sendResultLater( exchange, params, request );
+				}
+			});
+		}
+	}
+
+	/**
+	 * Sends the result of a request on the HTTP thread pool. The exchange is closed if the pool is shut down
+	 * 
+	 * @param exchange the HTTP exchange
+	 * @param params the query parameters
+	 * @param request the request whose calculation is done
+	 * */
+	private void sendResultLater( final HttpExchange exchange, final Map< String, String > params,
+			final ServerRequest request ) {
+		try {
+			httpExecutor.execute( new Runnable() {
+				@Override
+				public void run() {
+					try {
+						request.sendResult( exchange, params );
+					} catch ( IOException e ) {
+						exchange.close();
+					} catch ( RuntimeException e ) {
+						sendInternalError( exchange, params, e );
+					}
+				}
+			});
+		} catch ( RejectedExecutionException e ) {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * This inner class handles the status endpoint
+	 * */
+	private class StatusHandler extends ServerHandler {
+
+		@Override
+		protected void serve( HttpExchange exchange, Map< String, String > params ) throws IOException {
+			ServerRequest request = findRequest( params );
+
+			if ( request == null ) {
+				sendError( exchange, params, 404, "Unknown calculation" );
+			} else {
+				sendResponse( exchange, params, 200, request.toFields() );
+			}
+		}
+	}
+
+	/**
+	 * This inner class handles the progress endpoint
+	 * */
+	private class ProgressHandler extends ServerHandler {
+
+		@Override
+		protected void serve( HttpExchange exchange, Map< String, String > params ) throws IOException {
+			ServerRequest request = findRequest( params );
+
+			if ( request == null ) {
+				sendError( exchange, params, 404, "Unknown calculation" );
+				return;
+			}
+
+			ServerCalculation calculation = request.calculation;
+			Map< String, Object > fields = new LinkedHashMap<>();
+			long currentN = Math.max( calculation.piCal.getCurrentN(), 0 );
+			fields.put( "id", request.id );
+			fields.put( "state", request.getState() );
+			fields.put( "currentN", currentN );
+			fields.put( "progress", ( calculation.n == 0 ) ? 1.0 : ( double ) currentN / calculation.n );
+			sendResponse( exchange, params, 200, fields );
+		}
+	}
+
+	/**
+	 * This inner class handles the cancel endpoint
+	 * */
+	private class CancelHandler extends ServerHandler {
+
+		@Override
+		protected void serve( HttpExchange exchange, Map< String, String > params ) throws IOException {
+			ServerRequest request = findRequest( params );
+
+			if ( request == null ) {
+				sendError( exchange, params, 404, "Unknown calculation" );
+				return;
+			}
+
+			// a request whose calculation is done, or which is already cancelled, is left as it is
+			boolean isCancelled = request.cancel();
+			Map< String, Object > fields = new LinkedHashMap<>();
+			fields.put( "id", request.id );
+			fields.put( "cancelled", isCancelled );
+			sendResponse( exchange, params, 200, fields );
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.pi.calculator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaProvider;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This test class is responsible for testing the plans chosen by {@link PICalculationPlanner}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculationPlannerTest {
+
+	/**
+	 * The number of terms of the calibrations of the tests
+	 * */
+	private static final long CALIBRATION_TERMS = 200000;
+
+	/**
+	 * Objective:
+	 *    The test case verifies the plan of a formula and n uses a variant of the formula, and can be executed
+	 * 
+	 * Precondition:
+	 *    formula = leibniz, n = 1000000, time budget = 1 minute, memory budget = 1 GB, no profile
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the plan is a LEIBNIZ calculator with a predicted runtime, every variant is a candidate, and the calculator
+	 *    of the plan calculates PI with n = 1000000
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Plan_IfFormulaAndNArePassed() {
+		try {
+			PICalculationPlan plan = new PICalculationPlanner( null, CALIBRATION_TERMS )
+					.plan( PIFormulaType.LEIBNIZ, 1000000, 60000, 1L << 30 );
+
+			assertEquals( PICalculationPlan.Engine.CALCULATOR, plan.getEngine() );
+			assertEquals( PIFormulaType.LEIBNIZ, plan.getFormulaType() );
+			assertEquals( 1000000, plan.getN() );
+			assertTrue( plan.getPredictedSeconds() > 0 );
+			assertTrue( plan.isWithinTimeBudget() );
+
+			for ( PIFormulaProvider provider : PIFormulaFactory.getProviders() ) {
+				boolean isCandidate = false;
+				for ( PICalculationPlan candidate : plan.getCandidates() ) {
+					isCandidate = isCandidate || ( provider.getFormulaType() == candidate.getFormulaType()
+							&& provider.getVariant().equals( candidate.getVariant() ) );
+				}
+				assertEquals( provider.getFormulaType() == PIFormulaType.LEIBNIZ, isCandidate );
+			}
+
+			PIData piData = plan.newCalculator().calculatePI( plan.getN() );
+			assertEquals( 1000000, piData.getN() );
+			assertEquals( Math.PI, piData.getPi(), 1e-5 );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the plan of a precision reaches the precision
+	 * 
+	 * Precondition:
+	 *    errors = 1e-4 and 1e-30, time budget = 1 minute, memory budget = 1 GB, no profile
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the predicted error is at most the asked error, the PI of the plan is within the error, and the error 1e-30,
+	 *    which no double precision formula reaches, is planned with the Chudnovsky engine
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Plan_IfPrecisionIsPassed() {
+		try {
+			PICalculationPlanner planner = new PICalculationPlanner( null, CALIBRATION_TERMS );
+			PICalculationPlan plan = planner.plan( 1e-4, 60000, 1L << 30 );
+
+			assertTrue( plan.getPredictedError() <= 1e-4 );
+			assertEquals( Math.PI, plan.newCalculator().calculatePI( plan.getN() ).getPi(), 1e-4 );
+
+			plan = planner.plan( 1e-30, 60000, 1L << 30 );
+			assertEquals( PICalculationPlan.Engine.CHUDNOVSKY, plan.getEngine() );
+			assertEquals( 31, plan.getN() );
+
+			PIData piData = plan.newCalculator().calculatePI( plan.getN() );
+			assertTrue( piData.getLowerBound() <= Math.PI && Math.PI <= piData.getUpperBound() );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the budgets restrict the plan
+	 * 
+	 * Precondition:
+	 *    formula = monte_carlo, n = 100000000, a memory budget of one thread, then of no thread
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the plan has 1 thread and is explained with its candidates, and the plan without memory is rejected
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Plan_IfBudgetsAreSmall() {
+		PICalculationPlanner planner = new PICalculationPlanner( null, CALIBRATION_TERMS );
+
+		try {
+			PICalculationPlan plan = planner.plan( PIFormulaType.MONTE_CARLO, 100000000, 1,
+					PICalculator.estimatePeakMemory( PIFormulaType.MONTE_CARLO, 100000000, 1, PICalculator.DEFAULT_RANGE, 1 ) );
+
+			assertEquals( 1, plan.getNoOfThread() );
+			assertTrue( plan.explain().startsWith( "Plan: MONTE_CARLO/default with 1 thread" ) );
+			assertTrue( plan.explain().contains( "Candidates:" ) );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+
+		try {
+			planner.plan( PIFormulaType.MONTE_CARLO, 100000000, 1, 1 );
+			fail( "Exception should be throw when the memory budget is too small" );
+		} catch ( Exception e ) {
+			assertTrue( e.getMessage().contains( "memory budget" ) );
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package com.pi.calculator;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pi.calculator.PICalculatorService.PICalculation;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This test class is responsible for testing how many calculations are run concurrently
+ * on the shared pools of {@link PICalculatorService}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorServiceTest {
+
+	/**
+	 * Stores reference of an instance of PICalculatorService class 
+	 * */
+	private PICalculatorService service = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		service = new PICalculatorService();
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies many concurrent calculations produce the same Pi as a dedicated calculator<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 300000,
+	 *   noOfCalculation = 200,
+	 *   delta = 1e-12
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   Every calculation returns the Pi of a dedicated calculator with n = 300000
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Submit_IfManyCalculationsAreConcurrent() {
+		long n = 300000;
+		int noOfCalculation = 200;
+		double delta = 1e-12;
+		List< PICalculation > calculations = new ArrayList<>();
+
+		try {
+			PIData expectedPI = new PICalculator( PIFormulaType.LEIBNIZ ).calculatePI( n );
+
+			for ( int i = 0; i < noOfCalculation; i++ ) {
+				calculations.add( service.submit( PIFormulaType.LEIBNIZ, n ) );
+			}
+
+			for ( PICalculation calculation : calculations ) {
+				PIData actualPI = calculation.get();
+				assertEquals( n, actualPI.getN() );
+				assertEquals( expectedPI.getPi(), actualPI.getPi(), delta );
+			}
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a calculation on the shared pools is cancelled successfully<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 1000000000000,
+	 *   waitTime = 200 milliseconds
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The calculation stops before n and the shared pool still accepts new calculations
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Cancel_IfCalculationIsOnGoing() {
+		long n = 1000000000000L;
+		int waitTime = 200;
+
+		try {
+			PICalculation calculation = service.submit( PIFormulaType.LEIBNIZ, n );
+			Thread.sleep( waitTime );
+			calculation.cancel();
+
+			PIData cancelledPI = calculation.get();
+			assertTrue( cancelledPI.getN() < n );
+			assertTrue( calculation.isDone() );
+
+			assertEquals( 4.0, service.submit( PIFormulaType.LEIBNIZ, 0 ).get().getPi(), 0 );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a calculation which is cancelled before its orchestration starts is not run<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 50000000,
+	 *   the only orchestration thread is blocked until the calculation is cancelled
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The calculation stops before n
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Cancel_IfCalculationIsNotStarted() {
+		long n = 50000000;
+		ExecutorService orchestrationPool = Executors.newSingleThreadExecutor();
+		final CountDownLatch latch = new CountDownLatch( 1 );
+
+		try {
+			orchestrationPool.submit( new Callable< Void >() {
+				@Override
+				public Void call() throws Exception {
+					latch.await();
+					return null;
+				}
+			});
+			PICalculation calculation = new PICalculatorService( orchestrationPool, PIExecutors.sharedComputePool(), 2 )
+					.submit( PIFormulaType.LEIBNIZ, n );
+			calculation.cancel();
+			latch.countDown();
+
+			assertTrue( calculation.get().getN() < n );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		} finally {
+			orchestrationPool.shutdown();
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a calculator on a shared pool rejects an invalid number of threads<p> 
+	 * 
+	 * <p>Precondition:
+	 *   noOfThread = 0
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   An IllegalArgumentException is thrown, like the constructors of a dedicated pool
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test( expected = IllegalArgumentException.class )
+	public void test_Constructor_IfNoOfThreadIsZero() {
+		new PICalculator( PIFormulaType.LEIBNIZ, PIExecutors.sharedComputePool(), 0 );
+	}
+}
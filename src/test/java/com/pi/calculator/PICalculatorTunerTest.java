@@ -0,0 +1,164 @@
+package com.pi.calculator;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com.pi.formula.PIFormulaFactory;
+import com.pi.formula.PIFormulaProvider;
+import com.pi.formula.PIFormulaType;
+import com.pi.formula.PILeibnizPairedFormulaProvider;
+
+/**
+ * This test class is responsible for testing how {@link PICalculatorTuner} calibrates the calculator
+ * and how the {@link PICalculatorProfile} is persisted
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorTunerTest {
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies every variant of every formula is calibrated with one of the candidate settings<p> 
+	 * 
+	 * <p>Precondition:
+	 *   trialN = 100000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   Every variant has a candidate thread count, a positive number of ranges per task and a positive throughput,
+	 *     and the chosen variant of each formula has the best throughput
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Calibrate_IfTrialIsShort() {
+		try {
+			PICalculatorProfile profile = new PICalculatorTuner( 100000 ).calibrate();
+
+			for ( PIFormulaProvider provider : PIFormulaFactory.getProviders() ) {
+				PIFormulaType type = provider.getFormulaType();
+				String variant = provider.getVariant();
+
+				assertTrue( profile.contains( type, variant ) );
+				assertTrue( PICalculatorTuner.candidateThreadCounts().contains( profile.getNoOfThread( type, variant ) ) );
+				assertTrue( profile.getNoOfRangePerTask( type, variant ) > 0 );
+				assertTrue( profile.getTermsPerSecond( type, variant ) > 0 );
+			}
+			for ( PIFormulaType type : PIFormulaType.values() ) {
+				assertTrue( profile.contains( type ) );
+				for ( PIFormulaProvider provider : PIFormulaFactory.getProviders() ) {
+					if ( provider.getFormulaType() == type ) {
+						assertTrue( profile.getTermsPerSecond( type, profile.getVariant( type ) )
+								>= profile.getTermsPerSecond( type, provider.getVariant() ) );
+					}
+				}
+			}
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a saved profile is loaded with the same settings<p> 
+	 * 
+	 * <p>Precondition:
+	 *   LEIBNIZ: threads = 3, ranges per task = 4,
+	 *   LEIBNIZ/paired: threads = 2, ranges per task = 16,
+	 *   n = 1000000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The loaded profile has the saved settings, its calculator gives the bit-identical PI of an untuned one
+	 *     of the chosen variant, which is the default one until the paired one is chosen, and a missing file gives null
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Load_IfProfileIsSaved() {
+		try {
+			Path path = Files.createTempDirectory( "pi-profile" ).resolve( "profile.properties" );
+			assertNull( PICalculatorProfile.load( path ) );
+
+			PICalculatorProfile profile = new PICalculatorProfile();
+			profile.put( PIFormulaType.LEIBNIZ, 3, 4, 1e9 );
+			profile.put( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT, 2, 16, 2e9 );
+			profile.save( path );
+
+			PICalculatorProfile loadedProfile = PICalculatorProfile.load( path );
+			assertNotNull( loadedProfile );
+			assertEquals( 3, loadedProfile.getNoOfThread( PIFormulaType.LEIBNIZ ) );
+			assertEquals( 4, loadedProfile.getNoOfRangePerTask( PIFormulaType.LEIBNIZ ) );
+			assertEquals( 2, loadedProfile.getNoOfThread( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT ) );
+			assertEquals( 16, loadedProfile.getNoOfRangePerTask( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT ) );
+			assertEquals( new PICalculator( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT, 1,
+					PICalculator.DEFAULT_RANGE ).calculatePI( 1000000 ).getPi(), loadedProfile.newCalculator(
+					PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT ).calculatePI( 1000000 ).getPi(), 0 );
+			assertEquals( 4.0, loadedProfile.newCalculator( PIFormulaType.LEIBNIZ ).calculatePI( 0 ).getPi(), 0 );
+			assertEquals( new PICalculator( PIFormulaType.LEIBNIZ ).calculatePI( 1000000 ).getPi(),
+					loadedProfile.newCalculator( PIFormulaType.LEIBNIZ ).calculatePI( 1000000 ).getPi(), 0 );
+
+			loadedProfile.putVariant( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT );
+			loadedProfile.save( path );
+			loadedProfile = PICalculatorProfile.load( path );
+			assertEquals( PILeibnizPairedFormulaProvider.VARIANT, loadedProfile.getVariant( PIFormulaType.LEIBNIZ ) );
+			assertEquals( new PICalculator( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT, 1,
+					PICalculator.DEFAULT_RANGE ).calculatePI( 1000000 ).getPi(),
+					loadedProfile.newCalculator( PIFormulaType.LEIBNIZ ).calculatePI( 1000000 ).getPi(), 0 );
+
+			Files.delete( path );
+			Files.delete( path.getParent() );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a corrupt profile is ignored like a missing one<p> 
+	 * 
+	 * <p>Precondition:
+	 *   LEIBNIZ.threads = abc, then LEIBNIZ.variant = unknown
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The profile is not loaded
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Load_IfProfileIsCorrupt() {
+		try {
+			Path path = Files.createTempDirectory( "pi-profile" ).resolve( "profile.properties" );
+			Files.write( path, ( "processors=" + Runtime.getRuntime().availableProcessors()
+					+ "\nLEIBNIZ.threads=abc\nLEIBNIZ.rangesPerTask=4\n" ).getBytes( "ISO-8859-1" ) );
+
+			assertNull( PICalculatorProfile.load( path ) );
+
+			Files.write( path, ( "processors=" + Runtime.getRuntime().availableProcessors()
+					+ "\nLEIBNIZ.variant=unknown\n" ).getBytes( "ISO-8859-1" ) );
+			assertNull( PICalculatorProfile.load( path ) );
+
+			Files.delete( path );
+			Files.delete( path.getParent() );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.pi.calculator;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.pi.formula.PIFormulaType;
+
+/**
+ * This test class is responsible for testing how the chunk results are summed independently of their completion order
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIChunkSumTest {
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the sum does not depend on the order in which the results are added<p> 
+	 * 
+	 * <p>Precondition:
+	 *   1000 results of mixed magnitudes, added in order and in 5 shuffled orders
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   All the sums are bit-identical and all the chunks are counted
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_GetSum_IfResultsAreAddedOutOfOrder() {
+		Random random = new Random( 3 );
+		double[] results = new double[ 1000 ];
+
+		for ( int i = 0; i < results.length; i++ ) {
+			results[ i ] = ( random.nextDouble() - 0.5 ) * Math.pow( 10, random.nextInt( 12 ) - 6 );
+		}
+
+		PIChunkSum orderedSum = new PIChunkSum();
+		for ( int i = 0; i < results.length; i++ ) {
+			orderedSum.add( i, results[ i ] );
+		}
+
+		List< Integer > indexes = new ArrayList<>();
+		for ( int i = 0; i < results.length; i++ ) {
+			indexes.add( i );
+		}
+		for ( int trial = 0; trial < 5; trial++ ) {
+			Collections.shuffle( indexes, random );
+			PIChunkSum shuffledSum = new PIChunkSum();
+			for ( int index : indexes ) {
+				shuffledSum.add( index, results[ index ] );
+			}
+			assertEquals( results.length, shuffledSum.getNoOfChunk() );
+			assertEquals( Double.doubleToLongBits( orderedSum.getSum() ), Double.doubleToLongBits( shuffledSum.getSum() ) );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the held results after a missing chunk are not summed<p> 
+	 * 
+	 * <p>Precondition:
+	 *   results 1.0, 2.0 and 8.0 of the chunks 0, 1 and 3
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The sum is 3.0 of 2 chunks until the chunk 2 is added, then 15.0 of 4 chunks
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_GetSum_IfChunkIsMissing() {
+		PIChunkSum chunkSum = new PIChunkSum();
+
+		chunkSum.add( 3, 8.0 );
+		chunkSum.add( 0, 1.0 );
+		chunkSum.add( 1, 2.0 );
+		assertEquals( 2, chunkSum.getNoOfChunk() );
+		assertEquals( 3.0, chunkSum.getSum(), 0.0 );
+
+		chunkSum.add( 2, 4.0 );
+		assertEquals( 4, chunkSum.getNoOfChunk() );
+		assertEquals( 15.0, chunkSum.getSum(), 0.0 );
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the calculator returns a bit-identical PI whatever the number of threads<p> 
+	 * 
+	 * <p>Precondition:
+	 *   formula = leibniz, n = 2,000,000, range = 10,000, noOfThread = 1, 2, 3 and 8
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   All the PI values are bit-identical
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfNoOfThreadChanges() {
+		try {
+			double expectedPi = new PICalculator( PIFormulaType.LEIBNIZ, 1, 10000 ).calculatePI( 2000000 ).getPi();
+
+			for ( int noOfThread : new int[] { 2, 3, 8 } ) {
+				double pi = new PICalculator( PIFormulaType.LEIBNIZ, noOfThread, 10000 ).calculatePI( 2000000 ).getPi();
+				assertEquals( Double.doubleToLongBits( expectedPi ), Double.doubleToLongBits( pi ) );
+			}
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.pi.calculator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.pi.formula.PIFormulaType;
+import com.pi.formula.PILeibnizPairedFormulaProvider;
+import com.pi.model.PIData;
+
+/**
+ * This test class is responsible for testing the table computed by {@link PIFormulaSweep}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIFormulaSweepTest {
+
+	/**
+	 * Objective:
+	 *    The test case verifies the sweep gives the PIData of separate calculations when the terminal points end
+	 *    their ranges
+	 * 
+	 * Precondition:
+	 *    3 threads, range = 999, terminal points 49999, 9999 and 99999
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  each series at each terminal point is bit-identical to a PICalculator run of the same formula, variant,
+	 *    range and n, including the bounds of the interval
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Sweep_IfAlignedTargetsMatchSeparateRuns() {
+		try {
+			PISweepTable table = new PIFormulaSweep( 3, 999 ).sweep( 49999, 9999, 99999 );
+
+			assertArrayEquals( new long[] { 9999, 49999, 99999 }, table.getTargets() );
+			assertEquals( 3, table.getSeries().size() );
+			for ( long n : table.getTargets() ) {
+				PIData leibniz = new PICalculator( PIFormulaType.LEIBNIZ, 2, 999 ).calculatePI( n );
+				PIData paired = new PICalculator( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT, 2, 999 )
+						.calculatePI( n );
+				PIData interval = new PICalculator( PIFormulaType.LEIBNIZ_INTERVAL, 2, 999 ).calculatePI( n );
+
+				assertEquals( leibniz.getPi(), table.getPIData( PIFormulaType.LEIBNIZ, null, n ).getPi(), 0.0 );
+				assertEquals( paired.getPi(), table.getPIData( PIFormulaType.LEIBNIZ,
+						PILeibnizPairedFormulaProvider.VARIANT, n ).getPi(), 0.0 );
+
+				PIData sweptInterval = table.getPIData( PIFormulaType.LEIBNIZ_INTERVAL, null, n );
+				assertEquals( interval.getPi(), sweptInterval.getPi(), 0.0 );
+				assertEquals( interval.getLowerBound(), sweptInterval.getLowerBound(), 0.0 );
+				assertEquals( interval.getUpperBound(), sweptInterval.getUpperBound(), 0.0 );
+				assertEquals( n, sweptInterval.getN() );
+			}
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the sweep splits the ranges at terminal points which do not end them
+	 * 
+	 * Precondition:
+	 *    2 threads, range = 999, terminal points 0, 12345, 12345 and 100000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the duplicated terminal point is swept once, each series is the PI of a separate calculation within 1e-12
+	 *    and the interval contains PI at the last terminal point
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Sweep_IfUnalignedTargetsAreSplit() {
+		try {
+			PISweepTable table = new PIFormulaSweep( 2, 999 ).sweep( 100000, 12345, 0, 12345 );
+
+			assertArrayEquals( new long[] { 0, 12345, 100000 }, table.getTargets() );
+			assertEquals( 4.0, table.getPIData( PIFormulaType.LEIBNIZ, null, 0 ).getPi(), 0.0 );
+			for ( long n : table.getTargets() ) {
+				double expected = new PICalculator( PIFormulaType.LEIBNIZ, 2, 999 ).calculatePI( n ).getPi();
+
+				assertEquals( expected, table.getPIData( PIFormulaType.LEIBNIZ, null, n ).getPi(), 1e-12 );
+				assertEquals( expected, table.getPIData( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT, n )
+						.getPi(), 1e-12 );
+			}
+
+			PIData interval = table.getPIData( PIFormulaType.LEIBNIZ_INTERVAL, null, 100000 );
+			assertTrue( interval.getLowerBound() <= Math.PI && Math.PI <= interval.getUpperBound() );
+			assertNull( table.getPIData( PIFormulaType.MONTE_CARLO, null, 100000 ) );
+			assertNull( table.getPIData( PIFormulaType.LEIBNIZ, null, 5 ) );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the sweep rejects invalid terminal points
+	 * 
+	 * Precondition:
+	 *    no terminal point, and the terminal points 10 and -1
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  an exception is thrown for each sweep
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Sweep_IfTargetsAreInvalid() {
+		try {
+			new PIFormulaSweep( 1, 999 ).sweep();
+			fail( "Exception should be throw when no terminal point is given" );
+		} catch ( Exception e ) {
+			assertTrue( e.getMessage().startsWith( "Invalid value received" ) );
+		}
+		try {
+			new PIFormulaSweep( 1, 999 ).sweep( 10, -1 );
+			fail( "Exception should be throw when a terminal point is less than 0" );
+		} catch ( Exception e ) {
+			assertTrue( e.getMessage().startsWith( "Invalid value received" ) );
+		}
+	}
+}
@@ -0,0 +1,294 @@
+package com.pi.calculator;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+import com.pi.precision.PIChudnovskyEngine;
+
+/**
+ * This test class is responsible for testing the admission control of {@link PIMemoryGovernor}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIMemoryGovernorTest {
+
+	/**
+	 * Stores the number of digits of the digits calculations
+	 * */
+	private static final int NO_OF_DIGIT = 5000;
+
+	/**
+	 * Stores the directory of the temporary files
+	 * */
+	private Path directory = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		directory = Files.createTempDirectory( "pi-governor" );
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		for ( File file : directory.toFile().listFiles() ) {
+			file.delete();
+		}
+		Files.deleteIfExists( directory );
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the calculations are admitted and reported with their estimated and peak memory
+	 * 
+	 * Precondition:
+	 *    a budget of 64 MB, a leibniz calculation with 2 threads and n = 1000000, a digits calculation of 5000 digits
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  both calculations return PI, the memory is given back, the digits report has a peak which is at most its
+	 *    estimate and at least the half of it, and the leibniz report has no peak and an accuracy of N/A
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfCalculationsFit() {
+		try {
+			PIMemoryGovernor governor = new PIMemoryGovernor( 64L << 20, 0, 0, false );
+
+			PIData piData = governor.newCalculator( PIFormulaType.LEIBNIZ, 2, 10000 ).calculatePI( 1000000 );
+			assertEquals( Math.PI, piData.getPi(), 1e-5 );
+
+			piData = governor.newDigitsCalculator( directory ).calculatePI( NO_OF_DIGIT );
+			assertTrue( piData.getLowerBound() <= Math.PI && Math.PI <= piData.getUpperBound() );
+			assertEquals( governor.getBudget(), governor.getAvailable() );
+
+			List< PIMemoryGovernor.PIJobReport > reports = governor.getReports();
+			assertEquals( 2, reports.size() );
+			assertEquals( PICalculator.estimatePeakMemory( PIFormulaType.LEIBNIZ, 1000000, 2, 10000, 1 ),
+					reports.get( 0 ).getEstimate() );
+			assertEquals( PIChudnovskyEngine.estimatePeakMemory( NO_OF_DIGIT, Long.MAX_VALUE ), reports.get( 1 ).getEstimate() );
+			for ( PIMemoryGovernor.PIJobReport report : reports ) {
+				assertFalse( report.isRejected() || report.isDowngraded() );
+			}
+			assertEquals( -1, reports.get( 0 ).getPeakMemory() );
+			assertTrue( reports.get( 0 ).toString(), reports.get( 0 ).toString().contains( "accuracy = N/A" ) );
+			assertTrue( reports.get( 1 ).toString(),
+					reports.get( 1 ).getAccuracy() <= 1 && reports.get( 1 ).getAccuracy() >= 0.5 );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the estimate of a double precision calculation depends on its formula and its n
+	 * 
+	 * Precondition:
+	 *    8 threads, a range of 10000, 1 or 4 ranges per task
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  n = 0 starts a single thread, a large n starts all the threads, an interval formula takes more memory than
+	 *    the leibniz formula, and more ranges per task take more memory
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_EstimatePeakMemory_IfFormulaOrNDiffers() {
+		long small = PICalculator.estimatePeakMemory( PIFormulaType.LEIBNIZ, 0, 8, 10000, 1 );
+		long large = PICalculator.estimatePeakMemory( PIFormulaType.LEIBNIZ, 1000000, 8, 10000, 1 );
+
+		assertEquals( PICalculator.THREAD_MEMORY + PICalculator.RANGE_MEMORY + PICalculator.HELD_RESULT_MEMORY, small );
+		assertEquals( 8 * ( PICalculator.THREAD_MEMORY + PICalculator.RANGE_MEMORY + PICalculator.HELD_RESULT_MEMORY ),
+				large );
+		assertTrue( PICalculator.estimatePeakMemory( PIFormulaType.LEIBNIZ_INTERVAL, 1000000, 8, 10000, 1 ) > large );
+		assertTrue( PICalculator.estimatePeakMemory( PIFormulaType.LEIBNIZ, 1000000, 8, 10000, 4 ) > large );
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies a calculation which does not fit is downgraded, or rejected if it may not be downgraded
+	 * 
+	 * Precondition:
+	 *    a digits calculation of 5000 digits, a budget between the estimates of the lean and of the resident engines
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  with downgrades, the calculation returns PI on the leaner engine within the budget; without them, it is
+	 *    rejected and reported
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfCalculationDoesNotFit() {
+		try {
+			long budget = PIChudnovskyEngine.estimatePeakMemory( NO_OF_DIGIT, Long.MAX_VALUE ) - 1;
+
+			PIMemoryGovernor governor = new PIMemoryGovernor( budget, 0, 0, true );
+			PIData piData = governor.newDigitsCalculator( directory ).calculatePI( NO_OF_DIGIT );
+			PIMemoryGovernor.PIJobReport report = governor.getReports().get( 0 );
+
+			assertTrue( piData.getLowerBound() <= Math.PI && Math.PI <= piData.getUpperBound() );
+			assertTrue( report.isDowngraded() );
+			assertTrue( report.getEstimate() <= budget );
+			assertTrue( report.toString(), report.getPeakMemory() <= report.getEstimate() );
+
+			governor = new PIMemoryGovernor( budget, 0, 0, false );
+			try {
+				governor.newDigitsCalculator( directory ).calculatePI( NO_OF_DIGIT );
+				fail( "Exception should be throw when the calculation is over the budget" );
+			} catch ( RejectedExecutionException e ) {
+				assertTrue( governor.getReports().get( 0 ).isRejected() );
+			}
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies a calculation waits in the queue while the budget is reserved, or is rejected if the
+	 *    queue is full
+	 * 
+	 * Precondition:
+	 *    a budget of a calculation with one thread, a long leibniz calculation with 1 thread holding it, then a second calculation
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  without a queue, the second calculation is rejected at once; with a queue, it waits until the first one
+	 *    is cancelled and then returns PI
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfBudgetIsReserved() {
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			for ( int maxQueueLength : new int[] { 0, 1 } ) {
+				final PIMemoryGovernor governor = new PIMemoryGovernor( PICalculator.estimatePeakMemory( PIFormulaType.LEIBNIZ,
+						Long.MAX_VALUE - 1, 1, 100000, 1 ), maxQueueLength, 60000, false );
+				final PICalculatorInterface first = governor.newCalculator( PIFormulaType.LEIBNIZ, 1, 100000 );
+				final PICalculatorInterface second = governor.newCalculator( PIFormulaType.LEIBNIZ, 1, 100000 );
+
+				Future< PIData > firstResult = executor.submit( new Callable< PIData >() {
+					@Override
+					public PIData call() throws Exception {
+						return first.calculatePI( Long.MAX_VALUE - 1 );
+					}
+				});
+				while ( governor.getAvailable() > 0 ) {
+					Thread.sleep( 1 );
+				}
+
+				if ( maxQueueLength == 0 ) {
+					try {
+						second.calculatePI( 1000 );
+						fail( "Exception should be throw when the calculation is over the budget" );
+					} catch ( RejectedExecutionException e ) {
+						first.cancelCalculation();
+					}
+				} else {
+					Future< PIData > secondResult = executor.submit( new Callable< PIData >() {
+						@Override
+						public PIData call() throws Exception {
+							return second.calculatePI( 1000 );
+						}
+					});
+					while ( governor.getNoOfQueued() == 0 ) {
+						Thread.sleep( 1 );
+					}
+					first.cancelCalculation();
+					assertEquals( 1000, secondResult.get().getN() );
+				}
+				firstResult.get();
+				assertEquals( governor.getBudget(), governor.getAvailable() );
+				assertEquals( 2, governor.getReports().size() );
+			}
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies a calculation which is cancelled after it is admitted but before it starts is not run
+	 * 
+	 * Precondition:
+	 *    a budget of 64 MB, a leibniz calculation with n close to the maximum and a digits calculation of 5000
+	 *    digits, whose engine cannot be interrupted, both cancelled before they are calculated
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  both calculations throw a CancellationException at once, the memory is given back and they are reported
+	 *    as not admitted
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfCancelledBeforeStart() {
+		try {
+			PIMemoryGovernor governor = new PIMemoryGovernor( 64L << 20, 0, 0, false );
+			PICalculatorInterface[] calculators = { governor.newCalculator( PIFormulaType.LEIBNIZ, 2, 100000 ),
+					governor.newDigitsCalculator( directory ) };
+			long[] nValues = { Long.MAX_VALUE - 1, NO_OF_DIGIT };
+
+			for ( int i = 0; i < calculators.length; i++ ) {
+				calculators[ i ].cancelCalculation();
+				try {
+					calculators[ i ].calculatePI( nValues[ i ] );
+					fail( "Exception should be throw when the calculation is cancelled before it starts" );
+				} catch ( CancellationException e ) {
+					assertEquals( governor.getBudget(), governor.getAvailable() );
+					assertTrue( governor.getReports().get( i ).isRejected() );
+					assertNull( calculators[ i ].getPIData() );
+				}
+			}
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
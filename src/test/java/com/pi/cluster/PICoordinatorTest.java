@@ -0,0 +1,262 @@
+package com.pi.cluster;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pi.calculator.PICalculator;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+import com.pi.precision.PIChudnovskyEngine;
+import com.pi.precision.PIOutOfCoreArithmetic;
+
+/**
+ * This test class is responsible for testing how {@link PICoordinator} distributes the ranges over workers
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICoordinatorTest {
+
+	/**
+	 * Stores reference of an instance of PICoordinator class 
+	 * */
+	private PICoordinator coordinator = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		coordinator = new PICoordinator( PIFormulaType.LEIBNIZ, 0, 100000, 500 );
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		coordinator.close();
+		coordinator = null;
+	}
+
+	/**
+	 * Starts a worker on its own thread
+	 * 
+	 * @return PIWorker the started worker
+	 * */
+	private PIWorker startWorker() {
+		PIWorker worker = new PIWorker( "localhost", coordinator.getPort() );
+		new Thread( worker ).start();
+		return worker;
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the Pi calculated by several workers equals the Pi calculated in-process<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 2000000,
+	 *   noOfWorker = 3,
+	 *   delta = 0, the range is the default range of PICalculator
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The coordinator returns the bit-identical Pi and the same n as the in-process calculator
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfWorkersAreConnected() {
+		long n = 2000000;
+		int noOfWorker = 3;
+		double delta = 0.0;
+
+		try {
+			for ( int i = 0; i < noOfWorker; i++ ) {
+				this.startWorker();
+			}
+
+			PIData distributedPI = coordinator.calculatePI( n );
+			PIData localPI = new PICalculator( PIFormulaType.LEIBNIZ ).calculatePI( n );
+
+			assertEquals( n, distributedPI.getN() );
+			assertEquals( localPI.getPi(), distributedPI.getPi(), delta );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the ranges of a stalled worker and of a dead worker are leased again<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 1000000,
+	 *   leaseTimeout = 500 milliseconds,
+	 *   delta = 0, the range is the default range of PICalculator
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The calculation completes with the correct Pi although two workers never answered their leases
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfWorkerStallsOrDies() {
+		final long n = 1000000;
+		double delta = 0.0;
+
+		try {
+			Socket stalledWorker = new Socket( "localhost", coordinator.getPort() );
+			Socket deadWorker = new Socket( "localhost", coordinator.getPort() );
+
+			final PIData[] distributedPI = new PIData[ 1 ];
+			Thread calculationThread = new Thread( new Runnable() {
+				@Override
+				public void run() {
+					try {
+						distributedPI[ 0 ] = coordinator.calculatePI( n );
+					} catch ( Exception e ) {
+						fail( "Exception was occurred, Reason " + e.getMessage() );
+					}
+				}
+			});
+			calculationThread.start();
+
+			// both workers take a lease and never answer it
+			for ( Socket socket : new Socket[] { stalledWorker, deadWorker } ) {
+				String lease = "WAIT";
+				BufferedReader in = new BufferedReader( new InputStreamReader( socket.getInputStream(),
+						StandardCharsets.UTF_8 ) );
+				Writer out = new OutputStreamWriter( socket.getOutputStream(), StandardCharsets.UTF_8 );
+				while ( lease.startsWith( "WAIT" ) ) {
+					out.write( "READY\n" );
+					out.flush();
+					lease = in.readLine();
+				}
+				assertTrue( lease.startsWith( "LEASE" ) );
+			}
+			deadWorker.close();
+
+			this.startWorker();
+			calculationThread.join();
+			stalledWorker.close();
+
+			PIData localPI = new PICalculator( PIFormulaType.LEIBNIZ ).calculatePI( n );
+			assertEquals( n, distributedPI[ 0 ].getN() );
+			assertEquals( localPI.getPi(), distributedPI[ 0 ].getPi(), delta );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the bounds of an interval formula are combined by the coordinator<p> 
+	 * 
+	 * <p>Precondition:
+	 *   formulaType = LEIBNIZ_INTERVAL,
+	 *   n = 1000000,
+	 *   noOfWorker = 2
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The distributed PI has bounds which contain it and equal the bounds of the in-process calculator
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfFormulaHasBounds() {
+		long n = 1000000;
+		int noOfWorker = 2;
+
+		try {
+			coordinator.close();
+			coordinator = new PICoordinator( PIFormulaType.LEIBNIZ_INTERVAL, 0, 100000, 500 );
+			for ( int i = 0; i < noOfWorker; i++ ) {
+				this.startWorker();
+			}
+
+			PIData distributedPI = coordinator.calculatePI( n );
+			PIData localPI = new PICalculator( PIFormulaType.LEIBNIZ_INTERVAL ).calculatePI( n );
+
+			assertTrue( distributedPI.hasBounds() );
+			assertTrue( distributedPI.getLowerBound() <= distributedPI.getPi() );
+			assertTrue( distributedPI.getPi() <= distributedPI.getUpperBound() );
+			assertEquals( localPI.getLowerBound(), distributedPI.getLowerBound(), 0.0 );
+			assertEquals( localPI.getUpperBound(), distributedPI.getUpperBound(), 0.0 );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the P/Q/T of the binary splitting calculated by several workers give the same
+	 *    digits as {@link PIChudnovskyEngine}<p> 
+	 * 
+	 * <p>Precondition:
+	 *   formulaType = null,
+	 *   range = 20 terms,
+	 *   noOfDigit = 2000,
+	 *   noOfWorker = 3
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The coordinator returns the same digits as the in-process engine
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfBinarySplitting() {
+		int noOfDigit = 2000;
+		int noOfWorker = 3;
+
+		try {
+			coordinator.close();
+			coordinator = new PICoordinator( null, 0, 20, 500 );
+			for ( int i = 0; i < noOfWorker; i++ ) {
+				this.startWorker();
+			}
+
+			PIData distributedPI = coordinator.calculatePI( noOfDigit );
+			BigInteger localDigits = new PIChudnovskyEngine( new PIOutOfCoreArithmetic( Long.MAX_VALUE,
+					Paths.get( System.getProperty( "java.io.tmpdir" ) ) ) ).calculate( noOfDigit );
+
+			assertEquals( noOfDigit, distributedPI.getN() );
+			assertEquals( Math.PI, distributedPI.getPi(), 0.0 );
+			assertEquals( localDigits, coordinator.getDigits() );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.pi.daemon;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pi.calculator.PICalculator;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This test class is responsible for testing how the calculations are forwarded to {@link PICalculatorDaemon}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorDaemonTest {
+
+	/**
+	 * Stores the temporary directory holding the socket
+	 * */
+	private Path tempDir = null;
+
+	/**
+	 * Stores reference of an instance of PICalculatorDaemon class 
+	 * */
+	private PICalculatorDaemon daemon = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		tempDir = Files.createTempDirectory( "pi-daemon" );
+		daemon = new PICalculatorDaemon( tempDir.resolve( "pi.sock" ) );
+		daemon.start();
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		daemon.stop();
+		Files.deleteIfExists( tempDir );
+		daemon = null;
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the Pi calculated by the daemon equals the Pi calculated in-process<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 1000000,
+	 *   delta = 1e-12
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The daemon returns the same Pi and n as the in-process calculator
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfDaemonIsRunning() {
+		long n = 1000000;
+		double delta = 1e-12;
+
+		try {
+			PIDaemonCalculator piCal = PIDaemonCalculator.connect( daemon.getSocketPath() );
+			assertNotNull( piCal );
+
+			PIData daemonPI = piCal.setFormulaType( PIFormulaType.LEIBNIZ ).calculatePI( n );
+			PIData localPI = new PICalculator( PIFormulaType.LEIBNIZ ).calculatePI( n );
+
+			assertEquals( localPI.getN(), daemonPI.getN() );
+			assertEquals( localPI.getPi(), daemonPI.getPi(), delta );
+			assertSame( daemonPI, piCal.getPIData() );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a calculation in the daemon is cancelled by the client<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 1000000000000,
+	 *   waitTime = 200 milliseconds
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The Pi computed before the cancellation is returned
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CancelCalculation_IfDaemonIsRunning() {
+		long n = 1000000000000L;
+		final int waitTime = 200;
+
+		try {
+			final PIDaemonCalculator piCal = PIDaemonCalculator.connect( daemon.getSocketPath() );
+
+			Thread cancelThread = new Thread( new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Thread.sleep( waitTime );
+						piCal.cancelCalculation();
+					} catch ( Exception e ) {
+						fail( "Exception was occurred, Reason " + e.getMessage() );
+					}
+				}
+			});
+			cancelThread.start();
+
+			PIData cancelledPI = piCal.calculatePI( n );
+			assertTrue( cancelledPI.getN() < n );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies null is returned when no daemon is running, so the caller can fall back<p> 
+	 * 
+	 * <p>Precondition:
+	 *   The daemon is stopped
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   null returned
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Connect_IfDaemonIsStopped() {
+		daemon.stop();
+
+		assertNull( PIDaemonCalculator.connect( daemon.getSocketPath() ) );
+	}
+}
@@ -0,0 +1,87 @@
+package com.pi.digits;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * This test class is responsible for testing how a <tt>BigInteger</tt> is converted to decimal text
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIDecimalConverterTest {
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the converted text is the text of <tt>BigInteger.toString()</tt><p> 
+	 * 
+	 * <p>Precondition:
+	 *   values of 0, 1, 9 digits, 10^k with k around the block boundaries and 20000 random bits,
+	 *   noOfThread = 3, blockDigits = 7
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The text and the returned number of digits match <tt>BigInteger.toString()</tt>
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Write_IfValueSpansManyBlocks() {
+		PIDecimalConverter converter = new PIDecimalConverter( 3, 7 );
+		Random random = new Random( 5 );
+		BigInteger[] values = { BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf( 123456789 ),
+				BigInteger.TEN.pow( 7 ), BigInteger.TEN.pow( 14 ), BigInteger.TEN.pow( 28 ).subtract( BigInteger.ONE ),
+				BigInteger.TEN.pow( 100 ).add( BigInteger.ONE ), new BigInteger( 20000, random ) };
+
+		try {
+			for ( BigInteger value : values ) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				long noOfDigit = converter.write( value, Channels.newChannel( out ) );
+
+				assertEquals( value.toString(), new String( out.toByteArray(), StandardCharsets.US_ASCII ) );
+				assertEquals( value.toString().length(), noOfDigit );
+			}
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the fractional digits of a fixed-point value keep their leading zeros<p> 
+	 * 
+	 * <p>Precondition:
+	 *   value = 1415 written with minDigits = 20, blockDigits = 4
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   "00000000000000001415" is written
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Write_IfMinDigitsIsGreaterThanValue() {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long noOfDigit = new PIDecimalConverter( 2, 4 ).write( BigInteger.valueOf( 1415 ), 20,
+					Channels.newChannel( out ) );
+
+			assertEquals( "00000000000000001415", new String( out.toByteArray(), StandardCharsets.US_ASCII ) );
+			assertEquals( 20, noOfDigit );
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
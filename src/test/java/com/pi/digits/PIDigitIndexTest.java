@@ -0,0 +1,168 @@
+package com.pi.digits;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class is responsible for testing how the digits of a digit store are searched through its index
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIDigitIndexTest {
+
+	/**
+	 * Stores the path of the digit store file
+	 * */
+	private Path storePath = null;
+
+	/**
+	 * Stores the path of the index file
+	 * */
+	private Path indexPath = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		storePath = Files.createTempFile( "pi-digits", ".pidg" );
+		indexPath = Files.createTempFile( "pi-digits", ".idx" );
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		Files.deleteIfExists( storePath );
+		Files.deleteIfExists( indexPath );
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the positions found through the index are the positions found by a scan<p> 
+	 * 
+	 * <p>Precondition:
+	 *   noOfDigit = 200003 random digits, k = 4, noOfThread = 3, patterns of 1 to 9 digits taken from the
+	 *   digits, including the last ones, and a pattern which does not occur
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   findAll returns the sorted positions of the scan and findFirst the first of them, or -1
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_FindAll_IfPatternIsShorterOrLongerThanGram() {
+		int noOfDigit = 200003;
+		StringBuilder digits = new StringBuilder();
+		Random random = new Random( 11 );
+
+		for ( int i = 0; i < noOfDigit; i++ ) {
+			digits.append( ( char ) ( '0' + random.nextInt( 10 ) ) );
+		}
+
+		try {
+			try ( PIDigitStoreWriter writer = new PIDigitStoreWriter( storePath ) ) {
+				writer.write( digits );
+			}
+
+			try ( PIDigitStore store = new PIDigitStore( storePath, 4096 );
+					PIDigitIndex index = PIDigitIndex.build( store, indexPath, 4, 3 ) ) {
+				assertEquals( 4, index.getK() );
+
+				List< String > patterns = new ArrayList<>();
+				for ( int length = 1; length <= 9; length++ ) {
+					int start = random.nextInt( noOfDigit - length );
+					patterns.add( digits.substring( start, start + length ) );
+					patterns.add( digits.substring( noOfDigit - length ) );
+				}
+				patterns.add( "0123456789012" );
+
+				for ( String pattern : patterns ) {
+					long[] expected = scan( digits, pattern );
+					assertArrayEquals( pattern, expected, index.findAll( pattern ) );
+					assertEquals( pattern, expected.length == 0 ? -1 : expected[ 0 ], index.findFirst( pattern ) );
+				}
+			}
+
+			// the index is reopened from the file
+			try ( PIDigitStore store = new PIDigitStore( storePath );
+					PIDigitIndex index = new PIDigitIndex( indexPath, store ) ) {
+				String pattern = digits.substring( 12345, 12352 );
+				assertArrayEquals( scan( digits, pattern ), index.findAll( pattern ) );
+			}
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a store shorter than a gram can still be searched<p> 
+	 * 
+	 * <p>Precondition:
+	 *   digits = "314", k = 6
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   "14" is found at 1 and "15" is not found
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_FindFirst_IfStoreIsShorterThanGram() {
+		try {
+			try ( PIDigitStoreWriter writer = new PIDigitStoreWriter( storePath ) ) {
+				writer.write( "314" );
+			}
+
+			try ( PIDigitStore store = new PIDigitStore( storePath );
+					PIDigitIndex index = PIDigitIndex.build( store, indexPath, 6, 2 ) ) {
+				assertEquals( 1, index.findFirst( "14" ) );
+				assertEquals( -1, index.findFirst( "15" ) );
+				assertEquals( 0, index.findAll( "3141" ).length );
+			}
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Finds the positions of a pattern by scanning the digits
+	 * 
+	 * @param digits the digits
+	 * @param pattern the pattern
+	 * @return the sorted positions
+	 * */
+	private static long[] scan( CharSequence digits, String pattern ) {
+		List< Long > found = new ArrayList<>();
+		String text = digits.toString();
+
+		for ( int i = text.indexOf( pattern ); i >= 0; i = text.indexOf( pattern, i + 1 ) ) {
+			found.add( ( long ) i );
+		}
+		long[] positions = new long[ found.size() ];
+		for ( int i = 0; i < positions.length; i++ ) {
+			positions[ i ] = found.get( i );
+		}
+		return positions;
+	}
+}
@@ -0,0 +1,118 @@
+package com.pi.digits;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class is responsible for testing how the digits are written into and read from a digit store
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIDigitStoreTest {
+
+	/**
+	 * Stores the path of the digit store file
+	 * */
+	private Path path = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		path = Files.createTempFile( "pi-digits", ".pidg" );
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		Files.deleteIfExists( path );
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies any window of digits is read back as written<p> 
+	 * 
+	 * <p>Precondition:
+	 *   noOfDigit = 100001 random digits, segmentSize = 1000 bytes
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   Windows at odd and even indexes, across segments and at the end match the written digits
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_GetDigits_IfWindowCrossesSegments() {
+		int noOfDigit = 100001;
+		StringBuilder digits = new StringBuilder();
+		Random random = new Random( 7 );
+
+		for ( int i = 0; i < noOfDigit; i++ ) {
+			digits.append( ( char ) ( '0' + random.nextInt( 10 ) ) );
+		}
+
+		try {
+			try ( PIDigitStoreWriter writer = new PIDigitStoreWriter( path ) ) {
+				writer.write( digits.subSequence( 0, 777 ) );
+				writer.write( digits.subSequence( 777, noOfDigit ) );
+				assertEquals( noOfDigit, writer.getNoOfDigit() );
+			}
+
+			try ( PIDigitStore store = new PIDigitStore( path, 1000 ) ) {
+				assertEquals( noOfDigit, store.getNoOfDigit() );
+				assertEquals( digits.charAt( 0 ) - '0', store.getDigit( 0 ) );
+				assertEquals( digits.charAt( noOfDigit - 1 ) - '0', store.getDigit( noOfDigit - 1 ) );
+
+				for ( long index : new long[] { 0, 1, 1995, 1999, 2000, 50001, noOfDigit - 10 } ) {
+					assertEquals( digits.substring( ( int ) index, ( int ) index + 10 ), store.getDigitString( index, 10 ) );
+				}
+				assertEquals( digits.toString(), store.getDigitString( 0, noOfDigit ) );
+				assertEquals( "", store.getDigitString( 5, 0 ) );
+			}
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the scenario when a window is outside the store<p> 
+	 * 
+	 * <p>Precondition:
+	 *   digits = "31415", window [3, 6)
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   IndexOutOfBoundsException shall be thrown
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test( expected = IndexOutOfBoundsException.class )
+	public void test_GetDigits_IfWindowIsOutside() throws Exception {
+		try ( PIDigitStoreWriter writer = new PIDigitStoreWriter( path ) ) {
+			writer.write( "31415" );
+		}
+		try ( PIDigitStore store = new PIDigitStore( path ) ) {
+			store.getDigits( 3, 3 );
+		}
+	}
+}
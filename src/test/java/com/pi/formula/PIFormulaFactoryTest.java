@@ -36,6 +36,30 @@ public class PIFormulaFactoryTest {
 		assertTrue( piCal instanceof PILeibnizFormula );
 	}
 
+	/**
+	 * Objective:
+	 *    The test case verifies an instance of PIMonteCarloFormula created
+	 * 
+	 * Precondition:
+	 *    Monte Carlo PIFormulaType enum is passed as an argument.
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  an instance of PIMonteCarloFormula created
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_GetPIFormula_IfMonteCarloIsPassed() {
+
+		PIFormula piCal = new PIFormulaFactory()
+				.getPIFormula( PIFormulaType.MONTE_CARLO, 1, 1 );
+		assertTrue( piCal instanceof PIMonteCarloFormula );
+	}
+
 	/**
 	 * Objective:
 	 *    The test case verifies the null returned while testing getPIFormula method
@@ -60,4 +84,63 @@ public class PIFormulaFactoryTest {
 		assertNull( piCal );
 	}
 
+	/**
+	 * Objective:
+	 *    The test case verifies the kernel variants are discovered and created by their names
+	 * 
+	 * Precondition:
+	 *    the providers registered in META-INF/services, Leibniz PIFormulaType enum with the paired and an unknown variant
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  every formula type has a provider, the paired variant creates a PILeibnizPairedFormula, the default variant
+	 *    a PILeibnizFormula, and null is returned for the unknown variant
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_GetPIFormula_IfVariantIsPassed() {
+		for ( PIFormulaType formulaType : PIFormulaType.values() ) {
+			assertNotNull( PIFormulaFactory.getProvider( formulaType, null ) );
+		}
+
+		PIFormulaFactory factory = new PIFormulaFactory();
+		assertTrue( factory.getPIFormula( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT, 1, 1 )
+				instanceof PILeibnizPairedFormula );
+		assertTrue( factory.getPIFormula( PIFormulaType.LEIBNIZ, PIFormulaProvider.DEFAULT_VARIANT, 1, 1 )
+				instanceof PILeibnizFormula );
+		assertNull( factory.getPIFormula( PIFormulaType.LEIBNIZ, "unknown", 1, 1 ) );
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the error model of each provider is consistent
+	 * 
+	 * Precondition:
+	 *    every discovered provider, errors 1e-2, 1e-4 and 1e-6
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the error of the returned n is at most the asked error, and the error of n - 1 is above it
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_GetN_IfErrorIsPassed() {
+		for ( PIFormulaProvider provider : PIFormulaFactory.getProviders() ) {
+			for ( double error : new double[] { 1e-2, 1e-4, 1e-6 } ) {
+				long n = provider.getN( error );
+
+				assertTrue( provider.getError( n ) <= error );
+				assertTrue( n == 0 || provider.getError( n - 1 ) > error );
+			}
+		}
+	}
+
 }
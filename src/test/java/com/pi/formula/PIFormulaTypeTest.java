@@ -35,6 +35,29 @@ public class PIFormulaTypeTest {
 		assertEquals( PIFormulaType.LEIBNIZ, PIFormulaType.getPIFormulaType( formulaStr ) );
 	}
 
+	/**
+	 * Objective:
+	 *    The test case verifies PIFormulaType.MONTE_CARLO shall be returned if monte_carlo is passed 
+	 * 
+	 * Precondition:
+	 *    formulaStr = "monte_carlo"
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  PIFormulaType.MONTE_CARLO returned
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_GetPICalType_IfMonteCarloIsPassed() {
+		String formulaStr = "monte_carlo";
+		
+		assertEquals( PIFormulaType.MONTE_CARLO, PIFormulaType.getPIFormulaType( formulaStr ) );
+	}
+
 	/**
 	 * Objective:
 	 *    The test case verifies null shall be returned if invalid formula string is passed 
@@ -0,0 +1,93 @@
+package com.pi.formula;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import org.junit.Test;
+
+import com.pi.calculator.PICalculator;
+import com.pi.model.PIData;
+
+/**
+ * This test class is responsible for testing the interval computed by {@link PILeibnizIntervalFormula}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PILeibnizIntervalFormulaTest {
+
+	/**
+	 * Stores the digits of PI used to check the intervals
+	 * */
+	private static final BigDecimal PI = new BigDecimal( "3.14159265358979323846264338327950288419716939937510" );
+
+	/**
+	 * Objective:
+	 *    The test case verifies the interval of a range contains the exact sum of its terms
+	 * 
+	 * Precondition:
+	 *    ranges [0, 0], [0, 999], [1001, 50000] and [123456789, 123556789], exact sums with 60 digits
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  lower bound <= exact sum <= upper bound, and the result is the sum of PILeibnizFormula
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Calculate_IfRangeIsSummed() {
+		long[][] ranges = { { 0, 0 }, { 0, 999 }, { 1001, 50000 }, { 123456789, 123556789 } };
+		MathContext mathContext = new MathContext( 60 );
+
+		for ( long[] range : ranges ) {
+			PILeibnizIntervalFormula formula = new PILeibnizIntervalFormula( range[ 0 ], range[ 1 ] );
+			double pi = formula.calculate();
+			BigDecimal exactSum = BigDecimal.ZERO;
+
+			for ( long n = range[ 0 ]; n <= range[ 1 ]; n++ ) {
+				BigDecimal term = BigDecimal.valueOf( 4 ).divide( BigDecimal.valueOf( 2 * n + 1 ), mathContext );
+				exactSum = ( n % 2 == 0 ) ? exactSum.add( term ) : exactSum.subtract( term );
+			}
+
+			assertEquals( new PILeibnizFormula( range[ 0 ], range[ 1 ] ).calculate(), pi, 0 );
+			assertTrue( new BigDecimal( formula.getLowerBound() ).compareTo( exactSum ) <= 0 );
+			assertTrue( new BigDecimal( formula.getUpperBound() ).compareTo( exactSum ) >= 0 );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the interval returned by the calculator contains PI
+	 * 
+	 * Precondition:
+	 *    formula = leibniz_interval, n = 0, 1, 1000 and 3000001, 3 threads, range = 10000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  lower bound <= PI <= upper bound, and the interval is no wider than twice the truncation error
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfIntervalIsReturned() {
+		try {
+			for ( long n : new long[] { 0, 1, 1000, 3000001 } ) {
+				PIData piData = new PICalculator( PIFormulaType.LEIBNIZ_INTERVAL, 3, 10000 ).calculatePI( n );
+
+				assertTrue( piData.hasBounds() );
+				assertTrue( new BigDecimal( piData.getLowerBound() ).compareTo( PI ) <= 0 );
+				assertTrue( new BigDecimal( piData.getUpperBound() ).compareTo( PI ) >= 0 );
+				assertTrue( piData.getUpperBound() - piData.getLowerBound() < 2 * 4.0 / ( 2 * n + 3 ) );
+			}
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
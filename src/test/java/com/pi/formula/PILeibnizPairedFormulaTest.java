@@ -0,0 +1,74 @@
+package com.pi.formula;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.pi.calculator.PICalculator;
+import com.pi.model.PIData;
+
+/**
+ * This test class is responsible for testing the sum computed by {@link PILeibnizPairedFormula}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PILeibnizPairedFormulaTest {
+
+	/**
+	 * Objective:
+	 *    The test case verifies the paired sum of a range is the sum of its terms, whatever the parity of its points
+	 * 
+	 * Precondition:
+	 *    ranges [0, 0], [1, 1], [0, 1], [1, 2], [2, 999], [1001, 50000] and [123456789, 123556788]
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the result is the result of PILeibnizFormula within 1e-12
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Calculate_IfRangeIsSummed() {
+		long[][] ranges = { { 0, 0 }, { 1, 1 }, { 0, 1 }, { 1, 2 }, { 2, 999 }, { 1001, 50000 }, { 123456789, 123556788 } };
+
+		for ( long[] range : ranges ) {
+			double expected = new PILeibnizFormula( range[ 0 ], range[ 1 ] ).calculate();
+
+			assertEquals( expected, new PILeibnizPairedFormula( range[ 0 ], range[ 1 ] ).calculate(), 1e-12 );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the calculator runs the paired variant
+	 * 
+	 * Precondition:
+	 *    formula = leibniz, variant = paired, n = 1000000, 3 threads, range = 9999
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the PI is the PI of the default variant within 1e-12
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfPairedVariantIsUsed() {
+		try {
+			PIData paired = new PICalculator( PIFormulaType.LEIBNIZ, PILeibnizPairedFormulaProvider.VARIANT, 3, 9999 )
+					.calculatePI( 1000000 );
+			PIData scalar = new PICalculator( PIFormulaType.LEIBNIZ, 3, 9999 ).calculatePI( 1000000 );
+
+			assertEquals( 1000000, paired.getN() );
+			assertEquals( scalar.getPi(), paired.getPi(), 1e-12 );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
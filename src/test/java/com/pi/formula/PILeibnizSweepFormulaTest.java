@@ -0,0 +1,50 @@
+package com.pi.formula;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * This test class is responsible for testing the fused loop of {@link PILeibnizSweepFormula}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PILeibnizSweepFormulaTest {
+
+	/**
+	 * Objective:
+	 *    The test case verifies the fused loop gives the results of the separate formulas, whatever the parity of
+	 *    the points of the range
+	 * 
+	 * Precondition:
+	 *    ranges [0, 0], [1, 1], [0, 1], [1, 2], [2, 999], [1001, 50000], [123456789, 123556788] and the empty [5, 4]
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the Leibniz sum, the paired sum and the bounds are bit-identical to those of PILeibnizFormula,
+	 *    PILeibnizPairedFormula and PILeibnizIntervalFormula
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Calculate_IfSeriesAreFused() {
+		long[][] ranges = { { 0, 0 }, { 1, 1 }, { 0, 1 }, { 1, 2 }, { 2, 999 }, { 1001, 50000 },
+				{ 123456789, 123556788 }, { 5, 4 } };
+
+		for ( long[] range : ranges ) {
+			PILeibnizSweepFormula sweep = new PILeibnizSweepFormula( range[ 0 ], range[ 1 ] );
+			PILeibnizIntervalFormula interval = new PILeibnizIntervalFormula( range[ 0 ], range[ 1 ] );
+			double pi = sweep.calculate();
+			interval.calculate();
+
+			assertEquals( new PILeibnizFormula( range[ 0 ], range[ 1 ] ).calculate(), pi, 0.0 );
+			assertEquals( pi, sweep.getSum(), 0.0 );
+			assertEquals( new PILeibnizPairedFormula( range[ 0 ], range[ 1 ] ).calculate(), sweep.getPairedSum(), 0.0 );
+			assertEquals( interval.getLowerBound(), sweep.getLowerBound(), 0.0 );
+			assertEquals( interval.getUpperBound(), sweep.getUpperBound(), 0.0 );
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.pi.formula;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.pi.calculator.PICalculator;
+import com.pi.model.PIData;
+
+/**
+ * This test class is responsible for testing how PI is estimated by {@link PIMonteCarloFormula}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIMonteCarloFormulaTest {
+
+	/**
+	 * Objective:
+	 *    The test case verifies the hits of a range do not depend on how the range is split
+	 * 
+	 * Precondition:
+	 *    range [0, 99999] split at 12345 and at 50000, seed = 42
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  the hits of the parts sum to the hits of the whole range
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Calculate_IfRangeIsSplit() {
+		long seed = 42;
+		double whole = new PIMonteCarloFormula( 0, 99999, seed ).calculate();
+
+		assertEquals( whole, new PIMonteCarloFormula( 0, 12344, seed ).calculate()
+				+ new PIMonteCarloFormula( 12345, 99999, seed ).calculate(), 0 );
+		assertEquals( whole, new PIMonteCarloFormula( 0, 50000, seed ).calculate()
+				+ new PIMonteCarloFormula( 50001, 99999, seed ).calculate(), 0 );
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the estimate is reproducible whatever the threads and the ranges
+	 * 
+	 * Precondition:
+	 *    n = 2000000, calculators with 1 thread and range 10000, and with 4 threads and range 100000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  both calculators return bit-identical estimates, and the confidence interval contains Math.PI
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfThreadsAndRangesDiffer() {
+		long n = 2000000;
+
+		try {
+			PIData singlePI = new PICalculator( PIFormulaType.MONTE_CARLO, 1, 10000 ).calculatePI( n );
+			PIData parallelPI = new PICalculator( PIFormulaType.MONTE_CARLO, 4, 100000 ).calculatePI( n );
+
+			assertEquals( singlePI.getPi(), parallelPI.getPi(), 0 );
+			assertTrue( parallelPI.hasBounds() );
+			assertTrue( parallelPI.getLowerBound() < Math.PI && Math.PI < parallelPI.getUpperBound() );
+			assertTrue( parallelPI.getUpperBound() - parallelPI.getLowerBound() < 0.01 );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * Objective:
+	 *    The test case verifies the confidence interval of few points, where the normal approximation collapses
+	 * 
+	 * Precondition:
+	 *    0 hit among 1 point, 10 hits among 10 points
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * Success:
+	 * 	  both intervals have a positive width, stay within [0, 4] and contain the estimate
+	 * 
+	 * Failure:
+	 *    other scenarios
+	 * */
+	@Test
+	public void test_NewPIData_IfPointsAreFew() {
+		PIMonteCarloFormulaProvider provider = new PIMonteCarloFormulaProvider();
+		double delta = 1e-12;
+
+		for ( PIData piData : new PIData[] { provider.newPIData( 0, 0 ), provider.newPIData( 10, 9 ) } ) {
+			assertTrue( piData.getUpperBound() - piData.getLowerBound() > 1.0 );
+			assertTrue( piData.getLowerBound() >= -delta && piData.getUpperBound() <= 4.0 + delta );
+			assertTrue( piData.getLowerBound() <= piData.getPi() + delta );
+			assertTrue( piData.getPi() <= piData.getUpperBound() + delta );
+		}
+	}
+}
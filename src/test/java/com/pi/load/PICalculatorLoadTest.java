@@ -0,0 +1,124 @@
+package com.pi.load;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.pi.calculator.PICalculator;
+import com.pi.calculator.PICalculatorInterface;
+import com.pi.formula.PIFormulaType;
+
+/**
+ * This test class puts {@link PICalculator} under open-loop load with {@link PILoadGenerator} and checks it
+ * neither fails nor leaks threads.
+ * 
+ * <p>The runs are short by default. For a soak test, pass the duration in seconds, for example
+ * <tt>mvn test -Dtest=PICalculatorLoadTest -Dpi.load.seconds=3600</tt>
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorLoadTest {
+
+	/**
+	 * The duration in milliseconds of a load run
+	 * */
+	private static final long DURATION = Long.getLong( "pi.load.seconds", 2 ) * 1000;
+
+	/**
+	 * The time in milliseconds the threads of the finished calculations are given to terminate
+	 * */
+	private static final long GRACE_PERIOD = 5000;
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a mix of calculations and cancellations runs without errors or leaked threads<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 10,000, 100,000 and 1,000,000, all formulas, 20% of the requests cancelled within 2 ms,
+	 *   4 concurrent requests, 50 requests per second, calculators with 2 threads
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   Every scheduled request is completed or cancelled without error, every cancellation which came before
+	 *     the last range was handed out took effect, the percentiles are ordered,
+	 *     the corrected latencies are not lower than the service times, and no thread is leaked
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Run_IfRequestsAreMixed() {
+		try {
+			PIThreadLeakDetector leakDetector = new PIThreadLeakDetector();
+			PILoadGenerator generator = new PILoadGenerator( new PILoadGenerator.PICalculatorFactory() {
+				@Override
+				public PICalculatorInterface newCalculator( PIFormulaType formulaType ) {
+					return new PICalculator( formulaType, 2, 10000 );
+				}
+			}, new long[] { 10000, 100000, 1000000 }, PIFormulaType.values(), 0.2, 2000, 4, 50, 1 );
+
+			PILoadReport report = generator.run( DURATION );
+			// the report is printed for the soak tests only, the short runs keep the build output clean
+			if ( System.getProperty( "pi.load.seconds" ) != null ) {
+				System.out.println( report );
+			}
+
+			PILatencyHistogram latencies = report.getLatencyHistogram();
+			assertEquals( 0, report.getNoOfError() );
+			assertEquals( 0, report.getNoOfLostCancel() );
+			assertEquals( report.getNoOfRequest(), latencies.getCount() + report.getCancelledLatencyHistogram().getCount() );
+			assertTrue( latencies.getValueAtPercentile( 50 ) <= latencies.getValueAtPercentile( 99 ) );
+			assertTrue( latencies.getValueAtPercentile( 99 ) <= latencies.getValueAtPercentile( 99.9 ) );
+			assertTrue( latencies.getValueAtPercentile( 99.9 ) <= latencies.getMax() );
+			assertTrue( latencies.getValueAtPercentile( 99 ) >= report.getServiceTimeHistogram().getValueAtPercentile( 99 ) );
+
+			List< Thread > leakedThreads = leakDetector.getLeakedThreads( GRACE_PERIOD );
+			assertTrue( "Leaked threads: " + leakedThreads, leakedThreads.isEmpty() );
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the thread pool of a calculation which fails is shut down<p> 
+	 * 
+	 * <p>Precondition:
+	 *   requests whose thread is interrupted, so that every calculation throws once its first chunks are submitted,
+	 *   2 concurrent requests, 20 requests per second during 1 second
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   Every request fails and no thread is leaked
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Run_IfCalculationsFail() {
+		try {
+			PIThreadLeakDetector leakDetector = new PIThreadLeakDetector();
+			PILoadGenerator generator = new PILoadGenerator( new PILoadGenerator.PICalculatorFactory() {
+				@Override
+				public PICalculatorInterface newCalculator( PIFormulaType formulaType ) {
+					Thread.currentThread().interrupt();
+					return new PICalculator( formulaType, 2, 10000 );
+				}
+			}, new long[] { 1000000 }, new PIFormulaType[] { PIFormulaType.LEIBNIZ }, 0, 0, 2, 20, 1 );
+
+			PILoadReport report = generator.run( 1000 );
+
+			assertEquals( report.getNoOfRequest(), report.getNoOfError() );
+			List< Thread > leakedThreads = leakDetector.getLeakedThreads( GRACE_PERIOD );
+			assertTrue( "Leaked threads: " + leakedThreads, leakedThreads.isEmpty() );
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
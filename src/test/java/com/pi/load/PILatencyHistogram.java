@@ -0,0 +1,124 @@
+package com.pi.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a latency histogram in the style of HdrHistogram: the values below 2^{@link #SUB_BUCKET_BITS} are
+ * counted exactly, and the larger values in 2^({@link #SUB_BUCKET_BITS} - 1) linear sub-buckets per power of two, so
+ * every recorded value is kept with a relative error below 1%, from nanoseconds to hours, in a fixed array.
+ * 
+ * <p>Values may be recorded by many threads at the same time
+ * 
+ * @author Truong Nguyen
+ * */
+public class PILatencyHistogram {
+
+	/**
+	 * The number of bits of the exact range, the sub-buckets of a power of two are half of it
+	 * */
+	private static final int SUB_BUCKET_BITS = 8;
+
+	/**
+	 * The number of values counted exactly
+	 * */
+	private static final int EXACT_COUNT = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * The number of sub-buckets of a power of two above the exact range
+	 * */
+	private static final int SUB_BUCKET_COUNT = EXACT_COUNT / 2;
+
+	/**
+	 * Stores the count of every bucket
+	 * */
+	private final AtomicLongArray counts = new AtomicLongArray( EXACT_COUNT + ( Long.SIZE - SUB_BUCKET_BITS ) * SUB_BUCKET_COUNT );
+
+	/**
+	 * Records a value
+	 * 
+	 * @param value the value, negative values are recorded as 0
+	 * */
+	public void record( long value ) {
+		counts.incrementAndGet( getIndex( Math.max( 0, value ) ) );
+	}
+
+	/**
+	 * Gets the number of recorded values
+	 * 
+	 * @return the number of values
+	 * */
+	public long getCount() {
+		long count = 0;
+
+		for ( int i = 0; i < counts.length(); i++ ) {
+			count += counts.get( i );
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the value at a percentile, the highest value equivalent to the recorded value at that rank
+	 * 
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the value, 0 if no value is recorded
+	 * */
+	public long getValueAtPercentile( double percentile ) {
+		long count = this.getCount();
+		long rank = Math.max( 1, ( long ) Math.ceil( percentile / 100.0 * count ) );
+		long cumulativeCount = 0;
+
+		for ( int i = 0; i < counts.length(); i++ ) {
+			cumulativeCount += counts.get( i );
+			if ( cumulativeCount >= rank ) {
+				return getHighestValue( i );
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the highest recorded value, within the precision of the histogram
+	 * 
+	 * @return the highest value, 0 if no value is recorded
+	 * */
+	public long getMax() {
+		for ( int i = counts.length() - 1; i >= 0; i-- ) {
+			if ( counts.get( i ) > 0 ) {
+				return getHighestValue( i );
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the index of the bucket of a value
+	 * 
+	 * @param value the non-negative value
+	 * @return the index
+	 * */
+	static int getIndex( long value ) {
+		if ( value < EXACT_COUNT ) {
+			return ( int ) value;
+		}
+		int shift = ( Long.SIZE - Long.numberOfLeadingZeros( value ) ) - SUB_BUCKET_BITS;
+		int subBucket = ( int ) ( value >>> shift ) - SUB_BUCKET_COUNT;
+
+		return EXACT_COUNT + ( shift - 1 ) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * Gets the highest value of a bucket
+	 * 
+	 * @param index the index of the bucket
+	 * @return the highest value
+	 * */
+	static long getHighestValue( int index ) {
+		if ( index < EXACT_COUNT ) {
+			return index;
+		}
+		int shift = ( index - EXACT_COUNT ) / SUB_BUCKET_COUNT + 1;
+		long top = ( index - EXACT_COUNT ) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+		return ( ( top + 1 ) << shift ) - 1;
+	}
+}
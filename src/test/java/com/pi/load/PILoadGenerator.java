@@ -0,0 +1,195 @@
+package com.pi.load;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import com.pi.calculator.PICalculator;
+import com.pi.calculator.PICalculatorInterface;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This class generates load against any {@link PICalculatorInterface} implementation, entirely in this process.
+ * 
+ * <p>The load is open-loop: the requests are scheduled at a fixed rate whatever the response times, and their
+ * latency is measured from their scheduled start. A closed-loop generator would wait for slow responses before
+ * sending more requests and so hide the latency the waiting requests would have seen (coordinated omission).
+ * 
+ * <p>Each request draws its n, its formula type and whether it is cancelled from a seeded random mix, so a run is
+ * reproducible. The requests run on {@link #concurrency} threads; a request scheduled while all of them are busy
+ * waits, and that waiting counts in its latency. A cancelled request has {@link PICalculatorInterface#cancelCalculation()}
+ * invoked after a random delay up to {@link #maxCancelDelay}. A cancellation of a {@link PICalculator} is in time if
+ * {@link PICalculator#getCurrentN()} is still below n once it is invoked, which includes a cancellation before the
+ * calculation starts; it then has to take effect. A later one, or one of another calculator, may be missed. The
+ * report records whether each cancellation was in time and whether it took effect
+ * 
+ * @author Truong Nguyen
+ * */
+public class PILoadGenerator {
+
+	/**
+	 * This interface creates the calculator of a request
+	 * */
+	public interface PICalculatorFactory {
+
+		/**
+		 * Creates the calculator of a request
+		 * 
+		 * @param formulaType the formula of the request
+		 * @return PICalculatorInterface the calculator
+		 * @throws Exception the <tt>Exception</tt> may be thrown if the calculator cannot be created
+		 * */
+		PICalculatorInterface newCalculator( PIFormulaType formulaType ) throws Exception;
+	}
+
+	/**
+	 * The time in milliseconds the requests still running at the end of the run are given to complete
+	 * */
+	private static final long DRAIN_TIMEOUT = 60000;
+
+	/**
+	 * Stores the factory of the calculators
+	 * */
+	private final PICalculatorFactory calculatorFactory;
+
+	/**
+	 * Stores the n values of the mix
+	 * */
+	private final long[] nValues;
+
+	/**
+	 * Stores the formula types of the mix
+	 * */
+	private final PIFormulaType[] formulaTypes;
+
+	/**
+	 * Stores the ratio of the requests which are cancelled, from 0 to 1
+	 * */
+	private final double cancelRatio;
+
+	/**
+	 * Stores the maximum delay in microseconds before a request is cancelled
+	 * */
+	private final long maxCancelDelay;
+
+	/**
+	 * Stores the number of requests which may run at the same time
+	 * */
+	private final int concurrency;
+
+	/**
+	 * Stores the number of requests scheduled per second
+	 * */
+	private final double requestsPerSecond;
+
+	/**
+	 * Stores the seed of the random mix
+	 * */
+	private final long seed;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param calculatorFactory the factory of the calculators
+	 * @param nValues the n values of the mix, drawn uniformly
+	 * @param formulaTypes the formula types of the mix, drawn uniformly
+	 * @param cancelRatio the ratio of the requests which are cancelled, from 0 to 1
+	 * @param maxCancelDelay the maximum delay in microseconds before a request is cancelled
+	 * @param concurrency the number of requests which may run at the same time
+	 * @param requestsPerSecond the number of requests scheduled per second
+	 * @param seed the seed of the random mix
+	 * */
+	public PILoadGenerator( PICalculatorFactory calculatorFactory, long[] nValues, PIFormulaType[] formulaTypes,
+			double cancelRatio, long maxCancelDelay, int concurrency, double requestsPerSecond, long seed ) {
+		if ( nValues.length == 0 || formulaTypes.length == 0 || concurrency <= 0 || requestsPerSecond <= 0 ) {
+			throw new IllegalArgumentException( "Invalid value received, the mix should not be empty and "
+					+ "the concurrency and the rate should be larger than 0" );
+		}
+		this.calculatorFactory = calculatorFactory;
+		this.nValues = nValues;
+		this.formulaTypes = formulaTypes;
+		this.cancelRatio = cancelRatio;
+		this.maxCancelDelay = maxCancelDelay;
+		this.concurrency = concurrency;
+		this.requestsPerSecond = requestsPerSecond;
+		this.seed = seed;
+	}
+
+	/**
+	 * Schedules the requests for the given duration, then waits until they are completed
+	 * 
+	 * @param duration the duration in milliseconds during which the requests are scheduled
+	 * @return PILoadReport the report of the run
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the run is interrupted
+	 * */
+	public PILoadReport run( long duration ) throws InterruptedException {
+		final PILoadReport report = new PILoadReport( ( int ) ( ( duration + DRAIN_TIMEOUT ) / 1000 ) + 1 );
+		final ExecutorService requestExecutor = Executors.newFixedThreadPool( concurrency );
+		final ScheduledExecutorService cancelExecutor = Executors.newSingleThreadScheduledExecutor();
+		final Random random = new Random( seed );
+		final long startTime = System.nanoTime();
+		long interval = ( long ) ( 1e9 / requestsPerSecond );
+		long noOfRequest = 0;
+
+		try {
+			for ( long scheduledTime = startTime; scheduledTime - startTime < duration * 1000000L; scheduledTime += interval ) {
+				// waits for the scheduled time without drifting, the next request is scheduled from this one
+				for ( long delay = scheduledTime - System.nanoTime(); delay > 0; delay = scheduledTime - System.nanoTime() ) {
+					LockSupport.parkNanos( delay );
+				}
+
+				final long requestTime = scheduledTime;
+				final long n = nValues[ random.nextInt( nValues.length ) ];
+				final PIFormulaType formulaType = formulaTypes[ random.nextInt( formulaTypes.length ) ];
+				final long cancelDelay = ( random.nextDouble() < cancelRatio )
+						? ( long ) ( random.nextDouble() * maxCancelDelay ) : -1;
+
+				requestExecutor.execute( new Runnable() {
+					@Override
+					public void run() {
+						long beginTime = System.nanoTime();
+						try {
+							final PICalculatorInterface calculator = calculatorFactory.newCalculator( formulaType );
+							final AtomicBoolean isCancelInTime = new AtomicBoolean( false );
+							if ( cancelDelay >= 0 ) {
+								cancelExecutor.schedule( new Runnable() {
+									@Override
+									public void run() {
+										calculator.cancelCalculation();
+
+										// the last range is not handed out yet, so the cancellation has to take effect
+										if ( calculator instanceof PICalculator
+												&& ( ( PICalculator ) calculator ).getCurrentN() < n ) {
+											isCancelInTime.set( true );
+										}
+									}
+								}, cancelDelay, TimeUnit.MICROSECONDS );
+							}
+							PIData piData = calculator.calculatePI( n );
+
+							// the cancellation took effect only if the calculation stopped before n
+							long endTime = System.nanoTime();
+							report.recordRequest( endTime - requestTime, endTime - beginTime, cancelDelay >= 0,
+									isCancelInTime.get(), cancelDelay >= 0 && piData != null && piData.getN() < n,
+									( endTime - startTime ) / 1000000000L );
+						} catch ( Exception e ) {
+							report.recordError();
+						}
+					}
+				} );
+				noOfRequest++;
+			}
+		} finally {
+			report.setNoOfRequest( noOfRequest );
+			requestExecutor.shutdown();
+			requestExecutor.awaitTermination( DRAIN_TIMEOUT, TimeUnit.MILLISECONDS );
+			cancelExecutor.shutdownNow();
+		}
+		return report;
+	}
+}
@@ -0,0 +1,234 @@
+package com.pi.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class holds the result of a run of {@link PILoadGenerator}: the latencies of the completed and the cancelled
+ * requests, the number of requests of each outcome and the throughput of every second of the run.
+ * 
+ * <p>The latency of a request is measured from the time it was scheduled to start, not from the time it actually
+ * started, so the waiting caused by a saturated system is counted (coordinated omission correction). The service
+ * time, from the actual start, is kept apart to show how much of the latency is queueing
+ * 
+ * <p>A request counts as cancelled only if the cancellation took effect, that is the calculation returned before n.
+ * A cancellation which came after the last range was handed out is too late to take effect, it is counted as missed
+ * and the request as completed. A cancellation which came in time but did not take effect is a bug of the
+ * calculator, it is counted as lost
+ * 
+ * @author Truong Nguyen
+ * */
+public class PILoadReport {
+
+	/**
+	 * Stores the latencies in nanoseconds of the completed requests, from their scheduled start
+	 * */
+	private final PILatencyHistogram latencyHistogram = new PILatencyHistogram();
+
+	/**
+	 * Stores the service times in nanoseconds of the completed requests, from their actual start
+	 * */
+	private final PILatencyHistogram serviceTimeHistogram = new PILatencyHistogram();
+
+	/**
+	 * Stores the latencies in nanoseconds of the cancelled requests, from their scheduled start
+	 * */
+	private final PILatencyHistogram cancelledLatencyHistogram = new PILatencyHistogram();
+
+	/**
+	 * Stores the number of cancellations which came too late to take effect
+	 * */
+	private final AtomicLong noOfMissedCancel = new AtomicLong();
+
+	/**
+	 * Stores the number of cancellations which came in time but did not take effect
+	 * */
+	private final AtomicLong noOfLostCancel = new AtomicLong();
+
+	/**
+	 * Stores the number of requests which failed
+	 * */
+	private final AtomicLong noOfError = new AtomicLong();
+
+	/**
+	 * Stores the number of requests completed or cancelled in every second of the run
+	 * */
+	private final AtomicLongArray throughput;
+
+	/**
+	 * Stores the number of requests scheduled
+	 * */
+	private long noOfRequest = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param noOfSecond the number of seconds whose throughput is recorded, the later requests count in the last one
+	 * */
+	PILoadReport( int noOfSecond ) {
+		this.throughput = new AtomicLongArray( Math.max( 1, noOfSecond ) );
+	}
+
+	/**
+	 * Records a completed or cancelled request
+	 * 
+	 * @param latency the latency in nanoseconds from the scheduled start
+	 * @param serviceTime the service time in nanoseconds from the actual start
+	 * @param isCancelScheduled true if a cancellation of the request was scheduled
+	 * @param isCancelInTime true if the cancellation came before the last range was handed out
+	 * @param isCancelled true if the cancellation took effect
+	 * @param second the second of the run in which the request ended
+	 * */
+	void recordRequest( long latency, long serviceTime, boolean isCancelScheduled, boolean isCancelInTime,
+			boolean isCancelled, long second ) {
+		if ( isCancelInTime && !isCancelled ) {
+			noOfLostCancel.incrementAndGet();
+		} else if ( isCancelScheduled && !isCancelled ) {
+			noOfMissedCancel.incrementAndGet();
+		}
+		if ( isCancelled ) {
+			cancelledLatencyHistogram.record( latency );
+		} else {
+			latencyHistogram.record( latency );
+			serviceTimeHistogram.record( serviceTime );
+		}
+		throughput.incrementAndGet( ( int ) Math.min( second, throughput.length() - 1 ) );
+	}
+
+	/**
+	 * Records a failed request
+	 * */
+	void recordError() {
+		noOfError.incrementAndGet();
+	}
+
+	/**
+	 * Sets the number of requests scheduled
+	 * 
+	 * @param noOfRequest the number of requests
+	 * */
+	void setNoOfRequest( long noOfRequest ) {
+		this.noOfRequest = noOfRequest;
+	}
+
+	/**
+	 * Gets the latencies of the completed requests, corrected for coordinated omission
+	 * 
+	 * @return the histogram in nanoseconds
+	 * */
+	public PILatencyHistogram getLatencyHistogram() {
+		return latencyHistogram;
+	}
+
+	/**
+	 * Gets the service times of the completed requests, which are not corrected for coordinated omission
+	 * 
+	 * @return the histogram in nanoseconds
+	 * */
+	public PILatencyHistogram getServiceTimeHistogram() {
+		return serviceTimeHistogram;
+	}
+
+	/**
+	 * Gets the latencies of the cancelled requests
+	 * 
+	 * @return the histogram in nanoseconds
+	 * */
+	public PILatencyHistogram getCancelledLatencyHistogram() {
+		return cancelledLatencyHistogram;
+	}
+
+	/**
+	 * Gets the number of requests scheduled
+	 * 
+	 * @return the number of requests
+	 * */
+	public long getNoOfRequest() {
+		return noOfRequest;
+	}
+
+	/**
+	 * Gets the number of cancellations which came too late to take effect, the requests are counted as completed
+	 * 
+	 * @return the number of missed cancellations
+	 * */
+	public long getNoOfMissedCancel() {
+		return noOfMissedCancel.get();
+	}
+
+	/**
+	 * Gets the number of cancellations which came in time but did not take effect, the requests are counted as
+	 * completed
+	 * 
+	 * @return the number of lost cancellations
+	 * */
+	public long getNoOfLostCancel() {
+		return noOfLostCancel.get();
+	}
+
+	/**
+	 * Gets the number of requests which failed
+	 * 
+	 * @return the number of failed requests
+	 * */
+	public long getNoOfError() {
+		return noOfError.get();
+	}
+
+	/**
+	 * Gets the number of requests completed or cancelled in every second of the run
+	 * 
+	 * @return the throughput of every second
+	 * */
+	public long[] getThroughput() {
+		long[] values = new long[ throughput.length() ];
+
+		for ( int i = 0; i < values.length; i++ ) {
+			values[ i ] = throughput.get( i );
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the summary of the report, with the latencies in milliseconds
+	 * 
+	 * @return the summary
+	 * */
+	@Override
+	public String toString() {
+		StringBuilder summary = new StringBuilder();
+
+		summary.append( "requests = " ).append( noOfRequest ).append( ", completed = " )
+				.append( latencyHistogram.getCount() ).append( ", cancelled = " )
+				.append( cancelledLatencyHistogram.getCount() ).append( ", missed cancels = " )
+				.append( noOfMissedCancel.get() ).append( ", lost cancels = " ).append( noOfLostCancel.get() )
+				.append( ", errors = " ).append( noOfError.get() );
+		appendPercentiles( summary, "\nlatency (ms)", latencyHistogram );
+		appendPercentiles( summary, "\nservice time (ms)", serviceTimeHistogram );
+		appendPercentiles( summary, "\ncancelled latency (ms)", cancelledLatencyHistogram );
+		// the seconds after the last request are not printed
+		long[] throughput = this.getThroughput();
+		int noOfSecond = throughput.length;
+		while ( noOfSecond > 1 && throughput[ noOfSecond - 1 ] == 0 ) {
+			noOfSecond--;
+		}
+		summary.append( "\nthroughput per second = " ).append( Arrays.toString( Arrays.copyOf( throughput, noOfSecond ) ) );
+
+		return summary.toString();
+	}
+
+	/**
+	 * Appends the p50, p99, p999 and max of a histogram to the summary
+	 * 
+	 * @param summary the summary
+	 * @param title the title of the histogram
+	 * @param histogram the histogram
+	 * */
+	private static void appendPercentiles( StringBuilder summary, String title, PILatencyHistogram histogram ) {
+		summary.append( title ).append( ": p50 = " ).append( histogram.getValueAtPercentile( 50 ) / 1e6 )
+				.append( ", p99 = " ).append( histogram.getValueAtPercentile( 99 ) / 1e6 )
+				.append( ", p999 = " ).append( histogram.getValueAtPercentile( 99.9 ) / 1e6 )
+				.append( ", max = " ).append( histogram.getMax() / 1e6 );
+	}
+}
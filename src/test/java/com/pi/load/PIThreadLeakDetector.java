@@ -0,0 +1,67 @@
+package com.pi.load;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class detects the threads leaked by a piece of code, for example a thread pool which is never shut down.
+ * It takes a snapshot of the live threads when it is created; {@link #getLeakedThreads(long)} returns the threads
+ * started since then which are still alive after a grace period, which lets the pools which are shut down drain
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIThreadLeakDetector {
+
+	/**
+	 * The time in milliseconds between two checks of the live threads
+	 * */
+	private static final long CHECK_INTERVAL = 20;
+
+	/**
+	 * Stores the threads alive when the detector is created
+	 * */
+	private final Set< Thread > initialThreads;
+
+	/**
+	 * Constructor, takes the snapshot of the live threads
+	 * */
+	public PIThreadLeakDetector() {
+		this.initialThreads = new HashSet<>( Thread.getAllStackTraces().keySet() );
+	}
+
+	/**
+	 * Gets the threads started since the snapshot which are still alive after the grace period
+	 * 
+	 * @param gracePeriod the time in milliseconds the new threads are given to terminate
+	 * @return the leaked threads, empty if none
+	 * @throws InterruptedException the <tt>InterruptedException</tt> may be thrown if the waiting thread is interrupted
+	 * */
+	public List< Thread > getLeakedThreads( long gracePeriod ) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + gracePeriod;
+		List< Thread > leakedThreads = this.getNewThreads();
+
+		while ( !leakedThreads.isEmpty() && System.currentTimeMillis() < deadline ) {
+			Thread.sleep( CHECK_INTERVAL );
+			leakedThreads = this.getNewThreads();
+		}
+		return leakedThreads;
+	}
+
+	/**
+	 * Gets the live threads which are not in the snapshot
+	 * 
+	 * @return the new threads
+	 * */
+	private List< Thread > getNewThreads() {
+		List< Thread > newThreads = new ArrayList<>();
+
+		for ( Thread thread : Thread.getAllStackTraces().keySet() ) {
+			if ( thread.isAlive() && !initialThreads.contains( thread ) ) {
+				newThreads.add( thread );
+			}
+		}
+		return newThreads;
+	}
+}
@@ -0,0 +1,86 @@
+package com.pi.metrics;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pi.calculator.PICalculator;
+import com.pi.formula.PIFormulaType;
+
+/**
+ * This test class is responsible for testing the metrics a {@link PICalculator} records when they are enabled.
+ * It runs in its own JVM with the <tt>pi.metrics.enabled</tt> system property set, see the pom
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorMetricsEnabledTest {
+
+	/**
+	 * Stores reference of the proxy of the registered metrics MBean
+	 * */
+	private PICalculatorMetricsMXBean metrics = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		// loading the class registers the MBean
+		PICalculatorMetrics.getInstance();
+		metrics = JMX.newMXBeanProxy( ManagementFactory.getPlatformMBeanServer(),
+				new ObjectName( "com.pi:type=PICalculatorMetrics" ), PICalculatorMetricsMXBean.class );
+		metrics.reset();
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the MBean counts the chunks and the terms of a calculation<p> 
+	 * 
+	 * <p>Precondition:
+	 *   pi.metrics.enabled = true,
+	 *   n = 1000000,
+	 *   noOfThread = 2,
+	 *   range = 100000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The 10 chunks are submitted and completed, n + 1 terms are summed, the histogram holds the 10 chunks and
+	 *     no calculation is active once it returns
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CalculatePI_IfMetricsAreEnabled() {
+		long n = 1000000;
+		long noOfChunk = 10;
+
+		try {
+			new PICalculator( PIFormulaType.LEIBNIZ, 2, 100000 ).calculatePI( n );
+
+			long noOfHistogramChunk = 0;
+			for ( long count : metrics.getChunkLatencyHistogram() ) {
+				noOfHistogramChunk += count;
+			}
+
+			assertTrue( metrics.isEnabled() );
+			assertEquals( noOfChunk, metrics.getChunksSubmitted() );
+			assertEquals( noOfChunk, metrics.getChunksCompleted() );
+			assertEquals( n + 1, metrics.getTermsSummed() );
+			assertEquals( noOfChunk, noOfHistogramChunk );
+			assertEquals( 0, metrics.getActiveCalculations() );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.pi.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class is responsible for testing how {@link PICalculatorMetrics} records the chunks and the calculations
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorMetricsTest {
+
+	/**
+	 * Stores reference of an instance of PICalculatorMetrics class 
+	 * */
+	private PICalculatorMetrics metrics = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		metrics = new PICalculatorMetrics();
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the counters and the latency histogram of the completed chunks<p> 
+	 * 
+	 * <p>Precondition:
+	 *   99 chunks of 100000 terms taking 3 microseconds, 1 chunk taking 5 milliseconds
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The counters sum the chunks, p50 is 4 microseconds and p100 is 8192 microseconds
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_OnChunkCompleted_IfLatenciesDiffer() {
+		for ( int i = 0; i < 99; i++ ) {
+			metrics.onChunkSubmitted();
+			metrics.onChunkCompleted( 100000, 10, 3000 );
+		}
+		metrics.onChunkSubmitted();
+		metrics.onChunkCompleted( 100000, 10, 5000000 );
+
+		assertEquals( 100, metrics.getChunksSubmitted() );
+		assertEquals( 100, metrics.getChunksCompleted() );
+		assertEquals( 10000000, metrics.getTermsSummed() );
+		assertEquals( 1000, metrics.getTotalQueueWaitNanos() );
+		assertEquals( 99, metrics.getChunkLatencyHistogram()[ 2 ] );
+		assertEquals( 4, metrics.getChunkLatencyPercentileMicros( 50 ) );
+		assertEquals( 8192, metrics.getChunkLatencyPercentileMicros( 100 ) );
+
+		metrics.reset();
+		assertEquals( 0, metrics.getChunksCompleted() );
+		assertEquals( 0, metrics.getChunkLatencyPercentileMicros( 99 ) );
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the number of active calculations<p> 
+	 * 
+	 * <p>Precondition:
+	 *   2 calculations started, 1 ended
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   1 active calculation, which is kept by reset
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_GetActiveCalculations_IfOneCalculationEnded() {
+		metrics.onCalculationStarted();
+		metrics.onCalculationStarted();
+		metrics.onCalculationEnded();
+		metrics.reset();
+
+		assertEquals( 1, metrics.getActiveCalculations() );
+	}
+}
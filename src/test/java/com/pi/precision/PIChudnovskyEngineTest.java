@@ -0,0 +1,178 @@
+package com.pi.precision;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class is responsible for testing the digits of PI computed by {@link PIChudnovskyEngine}, with its
+ * intermediates resident or spilled to files
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIChudnovskyEngineTest {
+
+	/**
+	 * The first 100 digits of PI
+	 * */
+	private static final String PI_DIGITS = "31415926535897932384626433832795028841971693993751"
+			+ "05820974944592307816406286208998628034825342117067";
+
+	/**
+	 * Stores the directory of the temporary files
+	 * */
+	private Path directory = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		directory = Files.createTempDirectory( "pi-limbs" );
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		for ( File file : directory.toFile().listFiles() ) {
+			file.delete();
+		}
+		Files.deleteIfExists( directory );
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the digits are correct when every intermediate stays in the heap<p> 
+	 * 
+	 * <p>Precondition:
+	 *   noOfDigit = 1 and 100, memoryBudget = 64 MB
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The digits are 3 and the first 100 digits of PI, and nothing is spilled
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Calculate_IfIntermediatesAreResident() {
+		try {
+			PIOutOfCoreArithmetic arithmetic = new PIOutOfCoreArithmetic( 64 << 20, directory );
+			PIChudnovskyEngine engine = new PIChudnovskyEngine( arithmetic );
+
+			assertEquals( "3", engine.calculate( 1 ).toString() );
+			assertEquals( PI_DIGITS, engine.calculate( 100 ).toString() );
+			assertEquals( 0, arithmetic.getNoOfSpill() );
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the digits do not change when the intermediates are spilled to files<p> 
+	 * 
+	 * <p>Precondition:
+	 *   noOfDigit = 5000, memoryBudget = 512 bytes, so that the values above 32 limbs are spilled and the
+	 *   products are streamed in blocks of 16 limbs
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The digits are the digits computed in the heap, values are spilled, and no file is left
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Calculate_IfBudgetIsLow() {
+		try {
+			BigInteger expected = new PIChudnovskyEngine( new PIOutOfCoreArithmetic( 64 << 20, directory ) ).calculate( 5000 );
+			PIOutOfCoreArithmetic arithmetic = new PIOutOfCoreArithmetic( 512, directory );
+
+			assertEquals( expected, new PIChudnovskyEngine( arithmetic ).calculate( 5000 ) );
+			assertTrue( expected.toString().startsWith( PI_DIGITS ) );
+			assertTrue( arithmetic.getNoOfSpill() > 0 );
+			assertTrue( arithmetic.getPeakSpilledBytes() > 512 );
+			assertEquals( 0, directory.toFile().listFiles().length );
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the written digits do not change when the final step and the conversion to decimal
+	 *    run on spilled values<p> 
+	 * 
+	 * <p>Precondition:
+	 *   noOfDigit = 1, 100 and 5000, memoryBudget = 512 bytes, so that PI and its fraction are spilled and split
+	 *   into parts of at most 16 limbs before they are converted
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The written digits are the digits computed in the heap, and no file is left
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_WriteDigits_IfBudgetIsLow() {
+		try {
+			PIChudnovskyEngine residentEngine = new PIChudnovskyEngine( new PIOutOfCoreArithmetic( 64 << 20, directory ) );
+
+			for ( int noOfDigit : new int[] { 1, 100, 5000 } ) {
+				PIOutOfCoreArithmetic arithmetic = new PIOutOfCoreArithmetic( 512, directory );
+				ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+				long noOfWritten = new PIChudnovskyEngine( arithmetic ).writeDigits( noOfDigit, Channels.newChannel( output ) );
+
+				assertEquals( noOfDigit, noOfWritten );
+				assertEquals( residentEngine.calculate( noOfDigit ).toString(), output.toString( "US-ASCII" ) );
+				assertEquals( 0, directory.toFile().listFiles().length );
+			}
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a number of digits above the limit of a <tt>BigInteger</tt> is refused up front<p> 
+	 * 
+	 * <p>Precondition:
+	 *   noOfDigit = MAX_DIGITS + 1
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   IllegalArgumentException is thrown before any term is computed
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test( expected = IllegalArgumentException.class )
+	public void test_Calculate_IfDigitsAreAboveLimit() throws Exception {
+		new PIChudnovskyEngine( new PIOutOfCoreArithmetic( 64 << 20, directory ) )
+				.calculate( PIChudnovskyEngine.MAX_DIGITS + 1 );
+	}
+}
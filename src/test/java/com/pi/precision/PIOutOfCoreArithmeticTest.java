@@ -0,0 +1,155 @@
+package com.pi.precision;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class is responsible for testing how spilled values are added, subtracted, multiplied, shifted and truncated by
+ * {@link PIOutOfCoreArithmetic}
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIOutOfCoreArithmeticTest {
+
+	/**
+	 * Stores the directory of the temporary files
+	 * */
+	private Path directory = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		directory = Files.createTempDirectory( "pi-limbs" );
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		for ( File file : directory.toFile().listFiles() ) {
+			file.delete();
+		}
+		Files.deleteIfExists( directory );
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the sums and the products of spilled values are the ones of <tt>BigInteger</tt><p> 
+	 * 
+	 * <p>Precondition:
+	 *   memoryBudget = 256 bytes, 200 pairs of random signed values from 0 to 3000 bits, including equal
+	 *   magnitudes of opposite signs
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   Every sum and product matches, and every file is deleted once the values are released
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_AddAndMultiply_IfValuesAreSpilled() {
+		Random random = new Random( 9 );
+		PIOutOfCoreArithmetic arithmetic = new PIOutOfCoreArithmetic( 256, directory );
+
+		try {
+			for ( int i = 0; i < 200; i++ ) {
+				BigInteger left = new BigInteger( random.nextInt( 3000 ), random );
+				BigInteger right = ( i % 10 == 0 ) ? left : new BigInteger( random.nextInt( 3000 ), random );
+				left = random.nextBoolean() ? left : left.negate();
+				right = random.nextBoolean() ? right : right.negate();
+
+				PILimbInteger leftValue = arithmetic.valueOf( left );
+				PILimbInteger rightValue = arithmetic.valueOf( right );
+				PILimbInteger sum = arithmetic.add( leftValue, rightValue );
+				PILimbInteger product = arithmetic.multiply( leftValue, rightValue );
+
+				assertEquals( left.add( right ), sum.toBigInteger() );
+				assertEquals( left.multiply( right ), product.toBigInteger() );
+
+				arithmetic.release( leftValue );
+				arithmetic.release( rightValue );
+				arithmetic.release( sum );
+				arithmetic.release( product );
+			}
+			assertTrue( arithmetic.getNoOfSpill() > 0 );
+			assertEquals( 0, directory.toFile().listFiles().length );
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the differences, shifts and truncations of spilled values are the ones of
+	 *    <tt>BigInteger</tt> on their magnitudes<p> 
+	 * 
+	 * <p>Precondition:
+	 *   memoryBudget = 256 bytes, 200 pairs of random signed values from 0 to 3000 bits, including equal values,
+	 *   random shifts from -3100 to 3100 bits and random truncations to 0 to 100 limbs
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   Every result matches, the sign of a shifted or truncated value is kept, and every file is deleted once
+	 *     the values are released
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_SubtractShiftAndTruncate_IfValuesAreSpilled() {
+		Random random = new Random( 11 );
+		PIOutOfCoreArithmetic arithmetic = new PIOutOfCoreArithmetic( 256, directory );
+
+		try {
+			for ( int i = 0; i < 200; i++ ) {
+				BigInteger left = new BigInteger( random.nextInt( 3000 ), random );
+				BigInteger right = ( i % 10 == 0 ) ? left : new BigInteger( random.nextInt( 3000 ), random );
+				left = random.nextBoolean() ? left : left.negate();
+				right = random.nextBoolean() ? right : right.negate();
+				int bits = random.nextInt( 6201 ) - 3100;
+				int noOfLimb = random.nextInt( 101 );
+
+				PILimbInteger leftValue = arithmetic.valueOf( left );
+				PILimbInteger rightValue = arithmetic.valueOf( right );
+				PILimbInteger difference = arithmetic.subtract( leftValue, rightValue );
+				PILimbInteger shifted = arithmetic.shiftLeft( leftValue, bits );
+				PILimbInteger truncated = arithmetic.truncate( leftValue, noOfLimb );
+
+				BigInteger shiftedMagnitude = left.abs().shiftLeft( bits );
+				BigInteger truncatedMagnitude = left.abs().mod( BigInteger.ONE.shiftLeft( 32 * noOfLimb ) );
+				assertEquals( left.subtract( right ), difference.toBigInteger() );
+				assertEquals( ( left.signum() < 0 ) ? shiftedMagnitude.negate() : shiftedMagnitude, shifted.toBigInteger() );
+				assertEquals( ( left.signum() < 0 ) ? truncatedMagnitude.negate() : truncatedMagnitude, truncated.toBigInteger() );
+
+				arithmetic.release( leftValue );
+				arithmetic.release( rightValue );
+				arithmetic.release( difference );
+				arithmetic.release( shifted );
+				arithmetic.release( truncated );
+			}
+			assertTrue( arithmetic.getNoOfSpill() > 0 );
+			assertEquals( 0, directory.toFile().listFiles().length );
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}
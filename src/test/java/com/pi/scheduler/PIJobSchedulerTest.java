@@ -0,0 +1,203 @@
+package com.pi.scheduler;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pi.calculator.PICalculator;
+import com.pi.calculator.PICalculatorInterface;
+import com.pi.formula.PIFormulaType;
+import com.pi.model.PIData;
+
+/**
+ * This test class is responsible for testing how the jobs of {@link PIJobScheduler} share the workers
+ * 
+ * @author Truong Nguyen
+ * */
+public class PIJobSchedulerTest {
+
+	/**
+	 * Stores reference of an instance of PIJobScheduler class 
+	 * */
+	private PIJobScheduler scheduler = null;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		scheduler = new PIJobScheduler( 2, 100000 );
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		scheduler.shutdown();
+		scheduler = null;
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a small job is not queued behind a huge job<p> 
+	 * 
+	 * <p>Precondition:
+	 *   hugeN = 1000000000000,
+	 *   smallN = 2000000,
+	 *   delta = 1e-12
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The small job is done while the huge job is still on-going, and its Pi is correct
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Submit_IfSmallJobIsSubmittedAfterHugeJob() {
+		long hugeN = 1000000000000L;
+		long smallN = 2000000;
+		double delta = 1e-12;
+
+		try {
+			PIJob hugeJob = scheduler.submit( PIFormulaType.LEIBNIZ, hugeN );
+			PIJob smallJob = scheduler.submit( PIFormulaType.LEIBNIZ, smallN );
+
+			PIData smallPI = smallJob.get();
+			assertFalse( hugeJob.isDone() );
+			assertEquals( smallN, smallPI.getN() );
+			assertEquals( new PICalculator( PIFormulaType.LEIBNIZ ).calculatePI( smallN ).getPi(),
+					smallPI.getPi(), delta );
+			assertTrue( smallJob.getQueueWaitTime() >= 0 );
+
+			hugeJob.cancel();
+			PIData hugePI = hugeJob.get();
+			assertTrue( hugeJob.isCancelled() );
+			assertTrue( hugePI.getN() < hugeN );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies an interval job returns the bounds of the Pi, like a dedicated calculator<p> 
+	 * 
+	 * <p>Precondition:
+	 *   formula = LEIBNIZ_INTERVAL,
+	 *   n = 1000000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The PIData has bounds which contain PI and equal those of a dedicated calculator with the same range
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Submit_IfFormulaHasBounds() {
+		long n = 1000000;
+
+		try {
+			PIData piData = scheduler.submit( PIFormulaType.LEIBNIZ_INTERVAL, n ).get();
+			PIData expectedPI = new PICalculator( PIFormulaType.LEIBNIZ_INTERVAL, 2, 100000 ).calculatePI( n );
+
+			assertTrue( piData.hasBounds() );
+			assertTrue( piData.getLowerBound() <= Math.PI && Math.PI <= piData.getUpperBound() );
+			assertEquals( expectedPI.getPi(), piData.getPi(), 0 );
+			assertEquals( expectedPI.getLowerBound(), piData.getLowerBound(), 0 );
+			assertEquals( expectedPI.getUpperBound(), piData.getUpperBound(), 0 );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a cancelled job returns the Pi computed before the cancellation<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 1000000000000,
+	 *   waitTime = 200 milliseconds,
+	 *   delta = 1e-12
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The Pi of the cancelled calculation equals the Pi computed normally up to the returned n
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_CancelCalculation_IfCalculatorIsScheduled() {
+		long n = 1000000000000L;
+		final int waitTime = 200;
+		double delta = 1e-12;
+		final PICalculatorInterface piCal = scheduler.newCalculator( PIFormulaType.LEIBNIZ,
+				PIJobScheduler.DEFAULT_PRIORITY, PIJobScheduler.DEFAULT_WEIGHT );
+
+		try {
+			Thread cancelThread = new Thread( new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Thread.sleep( waitTime );
+						piCal.cancelCalculation();
+					} catch ( Exception e ) {
+						fail( "Exception was occurred, Reason " + e.getMessage() );
+					}
+				}
+			});
+			cancelThread.start();
+
+			PIData cancelledPI = piCal.calculatePI( n );
+			PIData normalPI = new PICalculator( PIFormulaType.LEIBNIZ ).calculatePI( cancelledPI.getN() );
+
+			assertEquals( normalPI.getPi(), cancelledPI.getPi(), delta );
+			assertEquals( 0, scheduler.getActiveJobCount() );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the scenario when the weight is not positive<p> 
+	 * 
+	 * <p>Precondition:
+	 *   weight = 0
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The exception shall be thrown
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Submit_IfWeightIsZero() {
+		try {
+			scheduler.submit( PIFormulaType.LEIBNIZ, 10, PIJobScheduler.DEFAULT_PRIORITY, 0 );
+			fail( "Exception should be throw when weight is 0" );
+		} catch ( Exception e ) {
+			// expected exception
+			assertTrue( true );
+		}
+	}
+}
@@ -0,0 +1,289 @@
+package com.pi.server;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This test class is responsible for testing the endpoints of the HTTP calculation service
+ * 
+ * @author Truong Nguyen
+ * */
+public class PICalculatorServerTest {
+
+	/**
+	 * Stores reference of an instance of PICalculatorServer class 
+	 * */
+	private PICalculatorServer server = null;
+
+	/**
+	 * The time in milliseconds after which a request which is not answered fails
+	 * */
+	private static final int READ_TIMEOUT = 30000;
+
+	/**
+	 * Uses to setup common preconditions for every test case
+	 * This method is invoked before a test case is about to be executed 
+	 * */
+	@Before
+	public void setUp() throws Exception {
+		server = new PICalculatorServer( 0, 4, 1 );
+		server.start();
+	}
+
+	/**
+	 * Uses to release resources
+	 * This method is invoked after a test case is completed 
+	 * */
+	@After
+	public void tearDown() throws Exception {
+		server.stop();
+		server = null;
+	}
+
+	/**
+	 * Sends a GET request to the server and returns the status code followed by the body
+	 * 
+	 * @param path the path and the query of the request
+	 * @return String the status code, a new line and the body
+	 * */
+	private String get( String path ) throws Exception {
+		HttpURLConnection connection = ( HttpURLConnection ) new URL( "http://localhost:"
+				+ server.getPort() + path ).openConnection();
+		connection.setReadTimeout( READ_TIMEOUT );
+		int statusCode = connection.getResponseCode();
+		InputStream in = ( statusCode < 400 ) ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[ 1024 ];
+		int length;
+
+		while ( ( length = in.read( buffer ) ) > 0 ) {
+			body.write( buffer, 0, length );
+		}
+		in.close();
+		return statusCode + "\n" + body.toString( "UTF-8" );
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the Pi is computed by the compute endpoint in JSON and plain text<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 0
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The returned Pi is 4.0 in both formats
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Compute_IfNIsZero() {
+		try {
+			String response = this.get( "/compute?type=leibniz&n=0" );
+			assertTrue( response.startsWith( "200\n" ) );
+			assertTrue( response.contains( "\"state\":\"DONE\"" ) );
+			assertTrue( response.contains( "\"pi\":4.0" ) );
+
+			response = this.get( "/compute?type=leibniz&n=0&format=text" );
+			assertTrue( response.startsWith( "200\n" ) );
+			assertTrue( response.contains( "pi=4.0\n" ) );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the admission bound, the coalescing and the cancel endpoint<p> 
+	 * 
+	 * <p>Precondition:
+	 *   maxCalculations = 1,
+	 *   n = 1000000000000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   An identical request joins the on-going calculation with its own id, a different one is rejected with 429.
+	 *     Cancelling one request leaves the calculation running for the other, cancelling both cancels it
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Compute_IfAdmissionBoundIsReached() {
+		try {
+			String response = this.get( "/compute?n=1000000000000&async=true" );
+			assertTrue( response.startsWith( "200\n" ) );
+			assertTrue( response.contains( "\"id\":1," ) );
+
+			response = this.get( "/compute?n=1000000000000&async=true" );
+			assertTrue( response.contains( "\"id\":2," ) );
+			assertTrue( response.contains( "\"calculationId\":1," ) );
+
+			response = this.get( "/compute?n=10" );
+			assertTrue( response.startsWith( "429\n" ) );
+
+			response = this.get( "/progress?id=1" );
+			assertTrue( response.contains( "\"state\":\"RUNNING\"" ) );
+
+			response = this.get( "/cancel?id=1" );
+			assertTrue( response.contains( "\"cancelled\":true" ) );
+			assertTrue( this.get( "/status?id=1" ).contains( "\"state\":\"CANCELLED\"" ) );
+
+			Thread.sleep( 100 );
+			assertTrue( this.get( "/status?id=2" ).contains( "\"state\":\"RUNNING\"" ) );
+
+			response = this.get( "/cancel?id=2" );
+			assertTrue( response.contains( "\"cancelled\":true" ) );
+
+			for ( int i = 0; i < 100 && !response.contains( "computedN" ); i++ ) {
+				Thread.sleep( 50 );
+				response = this.get( "/status?id=2" );
+			}
+			assertTrue( response.contains( "\"state\":\"CANCELLED\"" ) );
+			assertTrue( response.contains( "\"computedN\":" ) );
+
+			response = this.get( "/compute?n=10" );
+			assertTrue( response.startsWith( "200\n" ) );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies the invalid requests are rejected<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = -1, type = arctangent, id = 999
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   400 is returned for invalid parameters and 404 for an unknown calculation
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Compute_IfParamsAreInvalid() {
+		try {
+			assertTrue( this.get( "/compute?n=-1" ).startsWith( "400\n" ) );
+			assertTrue( this.get( "/compute?type=arctangent&n=1" ).startsWith( "400\n" ) );
+			assertTrue( this.get( "/status?id=999" ).startsWith( "404\n" ) );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies a cancel after the calculation is done has no effect<p> 
+	 * 
+	 * <p>Precondition:
+	 *   n = 10
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The cancel endpoint answers that nothing is cancelled and the request stays DONE
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Cancel_IfCalculationIsDone() {
+		try {
+			String response = this.get( "/compute?n=10" );
+			assertTrue( response.contains( "\"state\":\"DONE\"" ) );
+
+			response = this.get( "/cancel?id=1" );
+			assertTrue( response.startsWith( "200\n" ) );
+			assertTrue( response.contains( "\"cancelled\":false" ) );
+			assertTrue( this.get( "/status?id=1" ).contains( "\"state\":\"DONE\"" ) );
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+
+	/**
+	 * <p>Objective:
+	 *    The test case verifies waiting synchronous compute requests do not hold the HTTP threads<p> 
+	 * 
+	 * <p>Precondition:
+	 *   4 HTTP threads,
+	 *   6 synchronous compute requests with n = 1000000000000
+	 * 
+	 * Success/Failure criteria
+	 * 
+	 * <p>Success:
+	 * 	   The status and cancel endpoints still answer while the 6 requests wait, and every waiting request
+	 *     is answered with the CANCELLED state once it is cancelled
+	 * 
+	 * <p>Failure:
+	 *    other scenarios
+	 * 
+	 * */
+	@Test
+	public void test_Compute_IfSynchronousRequestsWait() {
+		final int noOfRequest = 6;
+		final String[] responses = new String[ noOfRequest ];
+		Thread[] clients = new Thread[ noOfRequest ];
+
+		try {
+			for ( int i = 0; i < noOfRequest; i++ ) {
+				final int index = i;
+				clients[ i ] = new Thread( new Runnable() {
+					@Override
+					public void run() {
+						try {
+							responses[ index ] = PICalculatorServerTest.this.get( "/compute?n=1000000000000" );
+						} catch ( Exception e ) {
+							responses[ index ] = e.toString();
+						}
+					}
+				});
+				clients[ i ].start();
+			}
+
+			for ( int id = 1; id <= noOfRequest; id++ ) {
+				String response = this.get( "/status?id=" + id );
+				for ( int i = 0; i < 100 && response.startsWith( "404\n" ); i++ ) {
+					Thread.sleep( 50 );
+					response = this.get( "/status?id=" + id );
+				}
+				assertTrue( response.contains( "\"state\":\"RUNNING\"" ) );
+			}
+
+			for ( int id = 1; id <= noOfRequest; id++ ) {
+				assertTrue( this.get( "/cancel?id=" + id ).contains( "\"cancelled\":true" ) );
+			}
+			for ( int i = 0; i < noOfRequest; i++ ) {
+				clients[ i ].join( READ_TIMEOUT );
+				assertTrue( responses[ i ], responses[ i ].startsWith( "200\n" ) );
+				assertTrue( responses[ i ].contains( "\"state\":\"CANCELLED\"" ) );
+			}
+
+		} catch ( Exception e ) {
+			fail( "Exception was occurred, Reason " + e.getMessage() );
+		}
+	}
+}